@@ -0,0 +1,22 @@
+package org.translator.codegen;
+
+/**
+ * Line-oriented buffer for emitted Java source.
+ */
+final class JavaSource {
+
+    private final StringBuilder out = new StringBuilder();
+
+    void line() {
+        out.append('\n');
+    }
+
+    void line(String text) {
+        out.append(text).append('\n');
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
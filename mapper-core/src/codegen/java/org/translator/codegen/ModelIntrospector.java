@@ -0,0 +1,205 @@
+package org.translator.codegen;
+
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlEnumValue;
+import jakarta.xml.bind.annotation.XmlSchema;
+import jakarta.xml.bind.annotation.XmlTransient;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the JAXB binding metadata of an XJC-generated package for the code generators.
+ * This is the only place reflection is used; the emitted code calls accessors directly.
+ */
+final class ModelIntrospector {
+
+    static final String DEFAULT_NAME = "##default";
+
+    private ModelIntrospector() {
+    }
+
+    /**
+     * Name of the generated class for a model package, e.g. {@code pacs_008} and
+     * {@code StaxReader} give {@code Pacs008StaxReader}.
+     */
+    static String generatedClassName(String modelPackage, String suffix) {
+        String last = modelPackage.substring(modelPackage.lastIndexOf('.') + 1);
+        StringBuilder name = new StringBuilder();
+        boolean upper = true;
+        for (char c : last.toCharArray()) {
+            if (c == '_') {
+                continue;
+            }
+            name.append(upper ? Character.toUpperCase(c) : c);
+            upper = false;
+        }
+        return name + suffix;
+    }
+
+    /**
+     * Collect every complexType and enumeration reachable from the package {@code ObjectFactory}.
+     */
+    static void collectTypes(Class<?> objectFactory, Set<Class<?>> complexTypes, Set<Class<?>> enumTypes) {
+        // Reflection order is unspecified; sort so the emitted source is stable between builds
+        Method[] factoryMethods = objectFactory.getDeclaredMethods();
+        Arrays.sort(factoryMethods, Comparator.comparing(Method::getName));
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        for (Method method : factoryMethods) {
+            if (Modifier.isPublic(method.getModifiers()) && method.getName().startsWith("create")
+                    && method.getParameterCount() == 0) {
+                pending.add(method.getReturnType());
+            }
+        }
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (!isModelType(type, objectFactory)) {
+                continue;
+            }
+            if (type.isEnum()) {
+                enumTypes.add(type);
+                continue;
+            }
+            if (!complexTypes.add(type)) {
+                continue;
+            }
+            for (Field field : boundFields(type)) {
+                pending.add(valueType(field));
+            }
+        }
+    }
+
+    static boolean isModelType(Class<?> type, Class<?> objectFactory) {
+        return type.getPackage() != null && type.getPackage().equals(objectFactory.getPackage())
+            && type != objectFactory;
+    }
+
+    /**
+     * Fields bound by JAXB, in declaration order (which XJC emits in schema sequence order).
+     */
+    static List<Field> boundFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                    || field.isAnnotationPresent(XmlTransient.class)) {
+                continue;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    /**
+     * The bound value type of a field: its type, or the element type of a list.
+     */
+    static Class<?> valueType(Field field) {
+        if (List.class.isAssignableFrom(field.getType())) {
+            Type generic = field.getGenericType();
+            if (generic instanceof ParameterizedType) {
+                Type argument = ((ParameterizedType) generic).getActualTypeArguments()[0];
+                if (argument instanceof Class) {
+                    return (Class<?>) argument;
+                }
+            }
+            throw new IllegalStateException("Unsupported list field " + field.getDeclaringClass().getName()
+                + "." + field.getName());
+        }
+        return field.getType();
+    }
+
+    static boolean isList(Field field) {
+        return List.class.isAssignableFrom(field.getType());
+    }
+
+    static String elementName(Field field) {
+        XmlElement element = field.getAnnotation(XmlElement.class);
+        return element == null || DEFAULT_NAME.equals(element.name()) ? field.getName() : element.name();
+    }
+
+    static String attributeName(Field field) {
+        XmlAttribute attribute = field.getAnnotation(XmlAttribute.class);
+        return attribute == null || DEFAULT_NAME.equals(attribute.name()) ? field.getName() : attribute.name();
+    }
+
+    /**
+     * Lexical value of an enum constant, honouring {@link XmlEnumValue}.
+     */
+    static String enumLexical(Field constant) {
+        XmlEnumValue value = constant.getAnnotation(XmlEnumValue.class);
+        return value != null ? value.value() : constant.getName();
+    }
+
+    static List<Field> enumConstants(Class<?> type) {
+        List<Field> constants = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isEnumConstant()) {
+                constants.add(field);
+            }
+        }
+        return constants;
+    }
+
+    /**
+     * XJC derives accessor names from the XML name while the field name is camel-cased
+     * ({@code fiToFICstmrCdtTrf} vs {@code setFIToFICstmrCdtTrf}), so accessors are
+     * matched ignoring case.
+     */
+    static String setterName(Class<?> type, Field field) {
+        return accessorName(type, "set" + stripUnderscore(field.getName()), 1);
+    }
+
+    static String getterName(Class<?> type, Field field) {
+        String property = stripUnderscore(field.getName());
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() == 0 && (method.getName().equalsIgnoreCase("get" + property)
+                    || method.getName().equalsIgnoreCase("is" + property))) {
+                return method.getName();
+            }
+        }
+        throw new IllegalStateException("No getter for " + property + " on " + type.getName());
+    }
+
+    static String listGetterName(Class<?> type, Field field) {
+        return accessorName(type, "get" + stripUnderscore(field.getName()), 0);
+    }
+
+    static String namespaceOf(Class<?> objectFactory) {
+        XmlSchema schema = objectFactory.getPackage().getAnnotation(XmlSchema.class);
+        if (schema == null || schema.namespace().isEmpty()) {
+            throw new IllegalStateException("No @XmlSchema namespace on " + objectFactory.getPackage().getName());
+        }
+        return schema.namespace();
+    }
+
+    /**
+     * Escape a value for use inside a Java string literal.
+     */
+    static String javaLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String accessorName(Class<?> type, String expected, int parameterCount) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equalsIgnoreCase(expected) && method.getParameterCount() == parameterCount) {
+                return method.getName();
+            }
+        }
+        throw new IllegalStateException("No accessor " + expected + " on " + type.getName());
+    }
+
+    private static String stripUnderscore(String name) {
+        return name.startsWith("_") ? name.substring(1) : name;
+    }
+}
@@ -0,0 +1,297 @@
+package org.translator.codegen;
+
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlEnum;
+import jakarta.xml.bind.annotation.XmlValue;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.translator.codegen.ModelIntrospector.DEFAULT_NAME;
+import static org.translator.codegen.ModelIntrospector.attributeName;
+import static org.translator.codegen.ModelIntrospector.boundFields;
+import static org.translator.codegen.ModelIntrospector.collectTypes;
+import static org.translator.codegen.ModelIntrospector.elementName;
+import static org.translator.codegen.ModelIntrospector.enumConstants;
+import static org.translator.codegen.ModelIntrospector.enumLexical;
+import static org.translator.codegen.ModelIntrospector.generatedClassName;
+import static org.translator.codegen.ModelIntrospector.isList;
+import static org.translator.codegen.ModelIntrospector.javaLiteral;
+import static org.translator.codegen.ModelIntrospector.listGetterName;
+import static org.translator.codegen.ModelIntrospector.namespaceOf;
+import static org.translator.codegen.ModelIntrospector.setterName;
+import static org.translator.codegen.ModelIntrospector.valueType;
+
+/**
+ * Build-time generator for reflection-free StAX readers over the XJC-generated model packages.
+ *
+ * For each package it walks every type reachable from the package {@code ObjectFactory} and
+ * emits one reader class holding a {@code read<Type>} method per complexType and a
+ * {@code parse<Type>} method per enumeration. The emitted readers switch directly on element
+ * local names and call the generated setters, so JAXB annotations are only read here, once,
+ * at build time.
+ *
+ * Usage: {@code StaxReaderGenerator <outputDir> <targetPackage> <modelPackage>...}
+ */
+public final class StaxReaderGenerator {
+
+    private static final String SUPPORT = "StaxReaderSupport";
+    private static final String SUPPORT_IMPORT = "org.translator.mapper.StaxReaderSupport";
+
+    private final Path outputDirectory;
+    private final String targetPackage;
+
+    public StaxReaderGenerator(Path outputDirectory, String targetPackage) {
+        this.outputDirectory = outputDirectory;
+        this.targetPackage = targetPackage;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StaxReaderGenerator <outputDir> <targetPackage> <modelPackage>...");
+            System.exit(1);
+        }
+        StaxReaderGenerator generator = new StaxReaderGenerator(Paths.get(args[0]), args[1]);
+        for (int i = 2; i < args.length; i++) {
+            Path written = generator.generate(args[i]);
+            System.out.println("Generated " + written);
+        }
+    }
+
+    /**
+     * Generate the reader class for one model package.
+     *
+     * @param modelPackage The XJC package, e.g. {@code org.translator.xsd.generated.pacs_008}
+     * @return The path of the written source file
+     */
+    public Path generate(String modelPackage) throws ClassNotFoundException, IOException {
+        Class<?> objectFactory = Class.forName(modelPackage + ".ObjectFactory");
+        String namespace = namespaceOf(objectFactory);
+        String className = generatedClassName(modelPackage, "StaxReader");
+
+        Set<Class<?>> complexTypes = new LinkedHashSet<>();
+        Set<Class<?>> enumTypes = new LinkedHashSet<>();
+        collectTypes(objectFactory, complexTypes, enumTypes);
+
+        JavaSource src = new JavaSource();
+        src.line("package " + targetPackage + ";");
+        src.line();
+        src.line("import " + SUPPORT_IMPORT + ";");
+        src.line();
+        src.line("import javax.xml.stream.XMLStreamException;");
+        src.line("import javax.xml.stream.XMLStreamReader;");
+        src.line("import java.io.InputStream;");
+        src.line();
+        src.line("/**");
+        src.line(" * Reflection-free StAX reader for {@code " + modelPackage + "}.");
+        src.line(" * Generated by " + StaxReaderGenerator.class.getName() + "; do not edit.");
+        src.line(" */");
+        src.line("public final class " + className + " {");
+        src.line();
+        src.line("    public static final String NAMESPACE = \"" + namespace + "\";");
+        src.line();
+        src.line("    private " + className + "() {");
+        src.line("    }");
+
+        Class<?> documentType = Class.forName(modelPackage + ".Document");
+        src.line();
+        src.line("    /**");
+        src.line("     * Read a complete document. The root element name is not checked, matching a");
+        src.line("     * declared-type JAXB unmarshal.");
+        src.line("     */");
+        src.line("    public static " + documentType.getName() + " read(InputStream in) throws XMLStreamException {");
+        src.line("        XMLStreamReader reader = " + SUPPORT + ".createReader(in);");
+        src.line("        try {");
+        src.line("            return read(reader);");
+        src.line("        } finally {");
+        src.line("            reader.close();");
+        src.line("        }");
+        src.line("    }");
+        src.line();
+        src.line("    /**");
+        src.line("     * Read a complete document from a reader positioned before or on its root element.");
+        src.line("     */");
+        src.line("    public static " + documentType.getName() + " read(XMLStreamReader reader) throws XMLStreamException {");
+        src.line("        " + SUPPORT + ".moveToRootElement(reader);");
+        src.line("        return read" + documentType.getSimpleName() + "(reader);");
+        src.line("    }");
+
+        for (Class<?> type : complexTypes) {
+            writeComplexTypeReader(src, type, namespace);
+        }
+        for (Class<?> type : enumTypes) {
+            writeEnumParser(src, type);
+        }
+        src.line("}");
+
+        Path directory = outputDirectory.resolve(targetPackage.replace('.', '/'));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(className + ".java");
+        Files.write(file, src.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void writeComplexTypeReader(JavaSource src, Class<?> type, String namespace) {
+        String typeName = type.getName();
+        src.line();
+        src.line("    public static " + typeName + " read" + type.getSimpleName()
+            + "(XMLStreamReader reader) throws XMLStreamException {");
+        src.line("        " + typeName + " target = new " + typeName + "();");
+
+        Field valueField = null;
+        Field anyField = null;
+        List<Field> elementFields = new ArrayList<>();
+        for (Field field : boundFields(type)) {
+            if (field.isAnnotationPresent(XmlAttribute.class)) {
+                String name = attributeName(field);
+                src.line("        target." + setterName(type, field) + "("
+                    + convert(field, valueType(field), "reader.getAttributeValue(null, \"" + name + "\")") + ");");
+            } else if (field.isAnnotationPresent(XmlValue.class)) {
+                valueField = field;
+            } else if (field.isAnnotationPresent(XmlAnyElement.class)) {
+                anyField = field;
+            } else {
+                elementFields.add(field);
+            }
+        }
+
+        if (valueField != null) {
+            src.line("        target." + setterName(type, valueField) + "("
+                + convert(valueField, valueType(valueField), "reader.getElementText()") + ");");
+            src.line("        return target;");
+            src.line("    }");
+            return;
+        }
+
+        if (elementFields.isEmpty() && anyField == null) {
+            src.line("        " + SUPPORT + ".skipElement(reader);");
+            src.line("        return target;");
+            src.line("    }");
+            return;
+        }
+
+        String indent;
+        if (anyField != null) {
+            // Wildcard content is accepted from any namespace, so children are not filtered up front
+            src.line("        while (" + SUPPORT + ".nextChild(reader)) {");
+            if (elementFields.isEmpty()) {
+                src.line("            target." + setterName(type, anyField) + "(" + SUPPORT + ".readDomElement(reader));");
+                src.line("        }");
+                src.line("        return target;");
+                src.line("    }");
+                return;
+            }
+            src.line("            if (!NAMESPACE.equals(reader.getNamespaceURI())) {");
+            src.line("                target." + setterName(type, anyField) + "(" + SUPPORT + ".readDomElement(reader));");
+            src.line("                continue;");
+            src.line("            }");
+            indent = "            ";
+        } else {
+            src.line("        while (" + SUPPORT + ".nextChild(reader, NAMESPACE)) {");
+            indent = "            ";
+        }
+        src.line(indent + "switch (reader.getLocalName()) {");
+        for (Field field : elementFields) {
+            XmlElement element = field.getAnnotation(XmlElement.class);
+            String name = elementName(field);
+            if (element != null && !DEFAULT_NAME.equals(element.namespace()) && !namespace.equals(element.namespace())) {
+                throw new IllegalStateException("Unsupported foreign element namespace on "
+                    + type.getName() + "." + field.getName());
+            }
+            src.line(indent + "    case \"" + name + "\":");
+            String value = convert(field, valueType(field), "reader.getElementText()");
+            if (isList(field)) {
+                src.line(indent + "        target." + listGetterName(type, field) + "().add(" + value + ");");
+            } else {
+                src.line(indent + "        target." + setterName(type, field) + "(" + value + ");");
+            }
+            src.line(indent + "        break;");
+        }
+        src.line(indent + "    default:");
+        if (anyField != null) {
+            src.line(indent + "        target." + setterName(type, anyField) + "(" + SUPPORT + ".readDomElement(reader));");
+        } else {
+            src.line(indent + "        " + SUPPORT + ".skipElement(reader);");
+        }
+        src.line(indent + "        break;");
+        src.line(indent + "}");
+        src.line("        }");
+        src.line("        return target;");
+        src.line("    }");
+    }
+
+    private void writeEnumParser(JavaSource src, Class<?> type) {
+        if (!type.isAnnotationPresent(XmlEnum.class)) {
+            throw new IllegalStateException("Enumeration without @XmlEnum: " + type.getName());
+        }
+        String typeName = type.getName();
+        src.line();
+        src.line("    public static " + typeName + " parse" + type.getSimpleName() + "(String text) {");
+        src.line("        if (text == null) {");
+        src.line("            return null;");
+        src.line("        }");
+        src.line("        switch (text) {");
+        for (Field constant : enumConstants(type)) {
+            src.line("            case " + javaLiteral(enumLexical(constant)) + ":");
+            src.line("                return " + typeName + "." + constant.getName() + ";");
+        }
+        src.line("            default:");
+        src.line("                return null;");
+        src.line("        }");
+        src.line("    }");
+    }
+
+    /**
+     * Build the expression converting lexical text into the field's Java type.
+     */
+    private String convert(Field field, Class<?> type, String text) {
+        if (type == String.class) {
+            return text;
+        }
+        if (type == BigDecimal.class) {
+            return SUPPORT + ".parseDecimal(" + text + ")";
+        }
+        if (type == BigInteger.class) {
+            return SUPPORT + ".parseInteger(" + text + ")";
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return SUPPORT + ".parseBoolean(" + text + ")";
+        }
+        if (type == Integer.class || type == int.class) {
+            return SUPPORT + ".parseInt(" + text + ")";
+        }
+        if (type == Long.class || type == long.class) {
+            return SUPPORT + ".parseLong(" + text + ")";
+        }
+        if (type == byte[].class) {
+            return SUPPORT + ".parseBase64(" + text + ")";
+        }
+        if (type.getName().equals("javax.xml.datatype.XMLGregorianCalendar")) {
+            return SUPPORT + ".parseCalendar(" + text + ")";
+        }
+        if (type.isEnum()) {
+            return "parse" + type.getSimpleName() + "(" + text + ")";
+        }
+        if (type.getPackage() != null && type.getPackage().equals(field.getDeclaringClass().getPackage())) {
+            if (!text.equals("reader.getElementText()")) {
+                throw new IllegalStateException("Complex type in attribute or value position: "
+                    + field.getDeclaringClass().getName() + "." + field.getName());
+            }
+            return "read" + type.getSimpleName() + "(reader)";
+        }
+        throw new IllegalStateException("Unsupported field type " + type.getName() + " on "
+            + field.getDeclaringClass().getName() + "." + field.getName());
+    }
+}
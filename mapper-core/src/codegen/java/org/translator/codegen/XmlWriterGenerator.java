@@ -0,0 +1,322 @@
+package org.translator.codegen;
+
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlValue;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.translator.codegen.ModelIntrospector.DEFAULT_NAME;
+import static org.translator.codegen.ModelIntrospector.attributeName;
+import static org.translator.codegen.ModelIntrospector.boundFields;
+import static org.translator.codegen.ModelIntrospector.collectTypes;
+import static org.translator.codegen.ModelIntrospector.elementName;
+import static org.translator.codegen.ModelIntrospector.enumConstants;
+import static org.translator.codegen.ModelIntrospector.enumLexical;
+import static org.translator.codegen.ModelIntrospector.generatedClassName;
+import static org.translator.codegen.ModelIntrospector.getterName;
+import static org.translator.codegen.ModelIntrospector.isList;
+import static org.translator.codegen.ModelIntrospector.javaLiteral;
+import static org.translator.codegen.ModelIntrospector.namespaceOf;
+import static org.translator.codegen.ModelIntrospector.valueType;
+
+/**
+ * Build-time generator for UTF-8 serialisers over the XJC-generated model packages.
+ *
+ * For each package it emits one writer class holding a {@code write<Type>} method per
+ * complexType. Start and end tags, attribute prefixes, the root namespace declaration
+ * and enumeration values are emitted as pre-encoded byte array constants, and each
+ * field is written with the formatter for its type, so no per-call metadata lookup or
+ * intermediate String is involved.
+ *
+ * Usage: {@code XmlWriterGenerator <outputDir> <targetPackage> <modelPackage>...}
+ */
+public final class XmlWriterGenerator {
+
+    private static final String WRITER = "XmlByteWriter";
+    private static final String WRITER_IMPORT = "org.translator.mapper.XmlByteWriter";
+    private static final String MODE_IMPORT = "org.translator.mapper.XmlOutputMode";
+
+    private final Path outputDirectory;
+    private final String targetPackage;
+
+    public XmlWriterGenerator(Path outputDirectory, String targetPackage) {
+        this.outputDirectory = outputDirectory;
+        this.targetPackage = targetPackage;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: XmlWriterGenerator <outputDir> <targetPackage> <modelPackage>...");
+            System.exit(1);
+        }
+        XmlWriterGenerator generator = new XmlWriterGenerator(Paths.get(args[0]), args[1]);
+        for (int i = 2; i < args.length; i++) {
+            Path written = generator.generate(args[i]);
+            System.out.println("Generated " + written);
+        }
+    }
+
+    /**
+     * Generate the writer class for one model package.
+     *
+     * @param modelPackage The XJC package, e.g. {@code org.translator.xsd.generated.pacs_008}
+     * @return The path of the written source file
+     */
+    public Path generate(String modelPackage) throws ClassNotFoundException, IOException {
+        Class<?> objectFactory = Class.forName(modelPackage + ".ObjectFactory");
+        String namespace = namespaceOf(objectFactory);
+        String className = generatedClassName(modelPackage, "XmlWriter");
+        Class<?> documentType = Class.forName(modelPackage + ".Document");
+        String documentName = documentType.getName();
+
+        Set<Class<?>> complexTypes = new LinkedHashSet<>();
+        Set<Class<?>> enumTypes = new LinkedHashSet<>();
+        collectTypes(objectFactory, complexTypes, enumTypes);
+
+        Set<String> elementNames = new TreeSet<>();
+        Set<String> attributeNames = new TreeSet<>();
+        for (Class<?> type : complexTypes) {
+            for (Field field : boundFields(type)) {
+                if (field.isAnnotationPresent(XmlAttribute.class)) {
+                    attributeNames.add(attributeName(field));
+                } else if (!field.isAnnotationPresent(XmlValue.class) && !field.isAnnotationPresent(XmlAnyElement.class)) {
+                    elementNames.add(elementName(field));
+                }
+            }
+        }
+
+        JavaSource src = new JavaSource();
+        src.line("package " + targetPackage + ";");
+        src.line();
+        src.line("import " + WRITER_IMPORT + ";");
+        src.line("import " + MODE_IMPORT + ";");
+        src.line();
+        src.line("import java.io.IOException;");
+        src.line("import java.io.OutputStream;");
+        src.line("import java.nio.ByteBuffer;");
+        src.line();
+        src.line("/**");
+        src.line(" * UTF-8 serialiser for {@code " + modelPackage + "} with pre-encoded tags.");
+        src.line(" * Generated by " + XmlWriterGenerator.class.getName() + "; do not edit.");
+        src.line(" */");
+        src.line("public final class " + className + " {");
+        src.line();
+        src.line("    public static final String NAMESPACE = " + javaLiteral(namespace) + ";");
+        src.line();
+        src.line("    private static final byte[] ROOT_START = " + WRITER + ".bytes("
+            + javaLiteral("<Document xmlns=\"" + escapeAttribute(namespace) + "\"") + ");");
+        src.line("    private static final byte[] ROOT_END = " + WRITER + ".bytes(\"</Document>\");");
+        for (String name : elementNames) {
+            src.line("    private static final byte[] S_" + name + " = " + WRITER + ".bytes(" + javaLiteral("<" + name) + ");");
+            src.line("    private static final byte[] E_" + name + " = " + WRITER + ".bytes(" + javaLiteral("</" + name + ">") + ");");
+        }
+        for (String name : attributeNames) {
+            src.line("    private static final byte[] A_" + name + " = " + WRITER + ".bytes(" + javaLiteral(" " + name + "=\"") + ");");
+        }
+        for (Class<?> type : enumTypes) {
+            List<String> values = new ArrayList<>();
+            for (Field constant : enumConstants(type)) {
+                values.add(WRITER + ".bytes(" + javaLiteral(escapeAttribute(enumLexical(constant))) + ")");
+            }
+            src.line("    private static final byte[][] L_" + type.getSimpleName() + " = {");
+            src.line("        " + String.join(",\n        ", values));
+            src.line("    };");
+        }
+        src.line();
+        src.line("    private " + className + "() {");
+        src.line("    }");
+        src.line();
+        src.line("    /**");
+        src.line("     * Write a complete document, including the XML declaration, to a stream.");
+        src.line("     */");
+        src.line("    public static void write(" + documentName + " document, OutputStream out, XmlOutputMode mode)"
+            + " throws IOException {");
+        src.line("        write(document, new " + WRITER + "(out, mode));");
+        src.line("    }");
+        src.line();
+        src.line("    /**");
+        src.line("     * Write a complete document, including the XML declaration, into a buffer.");
+        src.line("     */");
+        src.line("    public static void write(" + documentName + " document, ByteBuffer buffer, XmlOutputMode mode)"
+            + " throws IOException {");
+        src.line("        write(document, new " + WRITER + "(buffer, mode));");
+        src.line("    }");
+        src.line();
+        src.line("    public static void write(" + documentName + " document, " + WRITER + " out) throws IOException {");
+        src.line("        out.startDocument();");
+        src.line("        out.startElement(ROOT_START);");
+        src.line("        write" + documentType.getSimpleName() + "(out, document);");
+        src.line("        out.endElement(ROOT_END);");
+        src.line("        out.endDocument();");
+        src.line("    }");
+
+        for (Class<?> type : complexTypes) {
+            writeComplexTypeWriter(src, type, namespace);
+        }
+        src.line("}");
+
+        Path directory = outputDirectory.resolve(targetPackage.replace('.', '/'));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(className + ".java");
+        Files.write(file, src.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Emit the method writing the attributes and content of one complexType; the caller
+     * has already opened the element's start tag.
+     */
+    private void writeComplexTypeWriter(JavaSource src, Class<?> type, String namespace) {
+        src.line();
+        src.line("    public static void write" + type.getSimpleName() + "(" + WRITER + " out, "
+            + type.getName() + " value) throws IOException {");
+
+        List<Field> fields = boundFields(type);
+        int local = 0;
+        // Attributes must be written while the start tag is still open
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(XmlAttribute.class)) {
+                String variable = "v" + local++;
+                src.line("        " + declaration(field, type, variable));
+                src.line("        if (" + variable + " != null) {");
+                Class<?> valueType = valueType(field);
+                if (valueType == String.class) {
+                    src.line("            out.attribute(A_" + attributeName(field) + ", " + variable + ");");
+                } else if (valueType.isEnum()) {
+                    src.line("            out.attribute(A_" + attributeName(field) + ", L_" + valueType.getSimpleName()
+                        + "[" + variable + ".ordinal()]);");
+                } else {
+                    throw new IllegalStateException("Unsupported attribute type " + valueType.getName() + " on "
+                        + type.getName() + "." + field.getName());
+                }
+                src.line("        }");
+            }
+        }
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(XmlAttribute.class)) {
+                continue;
+            }
+            String variable = "v" + local++;
+            if (field.isAnnotationPresent(XmlValue.class)) {
+                src.line("        " + declaration(field, type, variable));
+                src.line("        if (" + variable + " != null) {");
+                src.line("            " + content(field, valueType(field), variable) + ";");
+                src.line("        }");
+            } else if (field.isAnnotationPresent(XmlAnyElement.class)) {
+                src.line("        " + declaration(field, type, variable));
+                src.line("        if (" + variable + " instanceof org.w3c.dom.Element) {");
+                src.line("            out.domElement((org.w3c.dom.Element) " + variable + ");");
+                src.line("        } else if (" + variable + " != null) {");
+                src.line("            throw new IllegalArgumentException(\"Unsupported wildcard content: \" + "
+                    + variable + ".getClass().getName());");
+                src.line("        }");
+            } else {
+                XmlElement element = field.getAnnotation(XmlElement.class);
+                if (element != null && !DEFAULT_NAME.equals(element.namespace()) && !namespace.equals(element.namespace())) {
+                    throw new IllegalStateException("Unsupported foreign element namespace on "
+                        + type.getName() + "." + field.getName());
+                }
+                String name = elementName(field);
+                Class<?> valueType = valueType(field);
+                if (isList(field)) {
+                    src.line("        for (" + valueType.getName() + " " + variable + " : value."
+                        + getterName(type, field) + "()) {");
+                } else {
+                    src.line("        " + declaration(field, type, variable));
+                    src.line("        if (" + variable + " != null) {");
+                }
+                src.line("            out.startElement(S_" + name + ");");
+                src.line("            " + content(field, valueType, variable) + ";");
+                src.line("            out.endElement(E_" + name + ");");
+                src.line("        }");
+            }
+        }
+        src.line("    }");
+    }
+
+    private static String declaration(Field field, Class<?> type, String variable) {
+        String javaType = field.getType().isPrimitive() ? boxed(field.getType()).getName() : field.getType().getCanonicalName();
+        return javaType + " " + variable + " = value." + getterName(type, field) + "();";
+    }
+
+    /**
+     * The statement writing a value as element or simple content, chosen by its Java and schema type.
+     */
+    private static String content(Field field, Class<?> type, String variable) {
+        if (type == String.class) {
+            return "out.text(" + variable + ")";
+        }
+        if (type == BigDecimal.class) {
+            return "out.decimal(" + variable + ")";
+        }
+        if (type == BigInteger.class || type == Integer.class || type == int.class
+                || type == Long.class || type == long.class) {
+            return "out.integer(" + variable + ")";
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return "out.bool(" + variable + ")";
+        }
+        if (type == byte[].class) {
+            return "out.base64(" + variable + ")";
+        }
+        if (type.getName().equals("javax.xml.datatype.XMLGregorianCalendar")) {
+            XmlSchemaType schemaType = field.getAnnotation(XmlSchemaType.class);
+            switch (schemaType != null ? schemaType.name() : "") {
+                case "dateTime":
+                    return "out.dateTime(" + variable + ")";
+                case "date":
+                    return "out.date(" + variable + ")";
+                case "time":
+                    return "out.time(" + variable + ")";
+                case "gYear":
+                    return "out.gYear(" + variable + ")";
+                default:
+                    return "out.calendar(" + variable + ")";
+            }
+        }
+        if (type.isEnum()) {
+            return "out.encoded(L_" + type.getSimpleName() + "[" + variable + ".ordinal()])";
+        }
+        if (type.getPackage() != null && type.getPackage().equals(field.getDeclaringClass().getPackage())) {
+            return "write" + type.getSimpleName() + "(out, " + variable + ")";
+        }
+        throw new IllegalStateException("Unsupported field type " + type.getName() + " on "
+            + field.getDeclaringClass().getName() + "." + field.getName());
+    }
+
+    private static Class<?> boxed(Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return Boolean.class;
+        }
+        if (primitive == int.class) {
+            return Integer.class;
+        }
+        if (primitive == long.class) {
+            return Long.class;
+        }
+        throw new IllegalStateException("Unsupported primitive field type " + primitive);
+    }
+
+    /**
+     * Escape a constant the way the runtime escapes attribute values; the result is safe
+     * in both text and attribute positions.
+     */
+    private static String escapeAttribute(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
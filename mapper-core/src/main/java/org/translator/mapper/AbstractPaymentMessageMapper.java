@@ -29,37 +29,71 @@ public abstract class AbstractPaymentMessageMapper<SOURCE, TARGET> implements Pa
     protected abstract TARGET doTransform(SOURCE source) throws PaymentMappingException;
 
     /**
-     * Validate the source message before transformation.
-     * Default implementation checks for null. Subclasses can override for specific validation.
+     * Check the source message before transformation.
+     * Default implementation checks for null, then runs {@link #validateSource(Object)}.
+     * Subclasses can override for specific checks.
+     *
+     * @param source The source message to check
+     * @return The failure describing the first problem found, or null if the source is valid
+     */
+    protected TransformResult.Failure<TARGET> checkSource(SOURCE source) {
+        if (source == null) {
+            return failure("Source message cannot be null", "MAPPING_ERROR", null);
+        }
+        return check(() -> validateSource(source));
+    }
+
+    /**
+     * Check the target message after transformation.
+     * Default implementation checks for null, then runs {@link #validateTarget(Object)}.
+     * Subclasses can override for specific checks.
+     *
+     * @param target The target message to check
+     * @return The failure describing the first problem found, or null if the target is valid
+     */
+    protected TransformResult.Failure<TARGET> checkTarget(TARGET target) {
+        if (target == null) {
+            return failure("Target message transformation resulted in null", "MAPPING_ERROR", null);
+        }
+        return check(() -> validateTarget(target));
+    }
+
+    /**
+     * Validate the source message before transformation. Called by the default
+     * {@link #checkSource(Object)} once the source is known to be present; does
+     * nothing by default.
      *
      * @param source The source message to validate
      * @throws PaymentMappingException if validation fails
+     * @deprecated Override {@link #checkSource(Object)}, which rejects a message without building an exception
      */
+    @Deprecated
     protected void validateSource(SOURCE source) throws PaymentMappingException {
-        if (source == null) {
-            throw new PaymentMappingException(
-                "Source message cannot be null",
-                getSourceMessageType(),
-                getTargetMessageType()
-            );
-        }
     }
 
     /**
-     * Validate the target message after transformation.
-     * Default implementation checks for null. Subclasses can override for specific validation.
+     * Validate the target message after transformation. Called by the default
+     * {@link #checkTarget(Object)} once the target is known to be present; does
+     * nothing by default.
      *
      * @param target The target message to validate
      * @throws PaymentMappingException if validation fails
+     * @deprecated Override {@link #checkTarget(Object)}, which rejects a message without building an exception
      */
+    @Deprecated
     protected void validateTarget(TARGET target) throws PaymentMappingException {
-        if (target == null) {
-            throw new PaymentMappingException(
-                "Target message transformation resulted in null",
-                getSourceMessageType(),
-                getTargetMessageType()
-            );
-        }
+    }
+
+    /**
+     * Describe a failure of this mapper.
+     *
+     * @param message What went wrong
+     * @param errorCode The error code
+     * @param fieldPath The element of the message concerned, or null
+     * @return The failure
+     */
+    protected final TransformResult.Failure<TARGET> failure(String message, String errorCode, String fieldPath) {
+        return TransformResult.failure(message, errorCode, fieldPath, getSourceMessageType(), getTargetMessageType());
     }
 
     /**
@@ -80,43 +114,76 @@ public abstract class AbstractPaymentMessageMapper<SOURCE, TARGET> implements Pa
 
     @Override
     public final TARGET transform(SOURCE source) throws PaymentMappingException {
-        logger.debug("Starting transformation from {} to {}", getSourceMessageType(), getTargetMessageType());
-
-        try {
-            // Pre-transformation validation
-            validateSource(source);
+        return tryTransform(source).getOrThrow();
+    }
 
-            // Perform transformation
-            TARGET target = doTransform(source);
+    @Override
+    public final TARGET transformValidated(SOURCE source) throws PaymentMappingException {
+        return tryTransformValidated(source).getOrThrow();
+    }
 
-            // Post-transformation validation
-            validateTarget(target);
+    @Override
+    public void validate(SOURCE source) throws PaymentMappingException {
+        TransformResult.Failure<TARGET> invalid = checkSource(source);
+        if (invalid != null) {
+            throw invalid.toException();
+        }
+    }
 
-            logger.debug("Successfully completed transformation from {} to {}",
-                        getSourceMessageType(), getTargetMessageType());
+    @Override
+    public final TransformResult<TARGET> tryTransform(SOURCE source) {
+        // Pre-transformation validation
+        TransformResult.Failure<TARGET> invalid = checkSource(source);
+        if (invalid != null) {
+            logger.debug("Rejected source for {} -> {}: {}", getSourceMessageType(), getTargetMessageType(), invalid.message());
+            return invalid;
+        }
+        return tryTransformValidated(source);
+    }
 
-            return target;
+    @Override
+    public final TransformResult<TARGET> tryTransformValidated(SOURCE source) {
+        logger.debug("Starting transformation from {} to {}", getSourceMessageType(), getTargetMessageType());
 
+        TARGET target;
+        try {
+            // Perform transformation
+            target = doTransform(source);
         } catch (PaymentMappingException e) {
             logger.error("Transformation failed from {} to {}: {}",
                         getSourceMessageType(), getTargetMessageType(), e.getMessage());
-            throw e;
+            return TransformResult.failure(e);
         } catch (Exception e) {
             logger.error("Unexpected error during transformation from {} to {}: {}",
                         getSourceMessageType(), getTargetMessageType(), e.getMessage(), e);
-            throw new PaymentMappingException(
+            return new TransformResult.Failure<>(
                 "Unexpected error during transformation: " + e.getMessage(),
+                "UNEXPECTED_ERROR",
+                null,
                 getSourceMessageType(),
                 getTargetMessageType(),
-                "UNEXPECTED_ERROR",
                 e
             );
         }
+
+        // Post-transformation validation
+        TransformResult.Failure<TARGET> invalid = checkTarget(target);
+        if (invalid != null) {
+            logger.debug("Rejected target for {} -> {}: {}", getSourceMessageType(), getTargetMessageType(), invalid.message());
+            return invalid;
+        }
+
+        logger.debug("Successfully completed transformation from {} to {}",
+                    getSourceMessageType(), getTargetMessageType());
+        return TransformResult.success(target);
     }
 
+    /**
+     * Cheap check that the source is present; structural checks belong in
+     * {@link #checkSource(Object)}, which runs once per transformation.
+     */
     @Override
     public boolean supports(SOURCE source) {
-        // Default implementation - subclasses can override for more specific logic
         return source != null;
     }
 
@@ -124,4 +191,18 @@ public abstract class AbstractPaymentMessageMapper<SOURCE, TARGET> implements Pa
     public TransformationMetadata getTransformationMetadata() {
         return new TransformationMetadata(getSourceMessageType(), getTargetMessageType());
     }
+
+    private TransformResult.Failure<TARGET> check(Validation validation) {
+        try {
+            validation.run();
+            return null;
+        } catch (PaymentMappingException e) {
+            return TransformResult.failure(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Validation {
+        void run() throws PaymentMappingException;
+    }
 }
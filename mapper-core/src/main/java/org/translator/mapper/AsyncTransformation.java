@@ -0,0 +1,132 @@
+package org.translator.mapper;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs a transformation on an executor and exposes it as a {@link CompletableFuture}.
+ *
+ * The future fails with the {@link PaymentMappingException} the transformation threw.
+ * When the caller cancels the future, or the timeout fails it first, the worker thread
+ * is interrupted and the transformation stops at its next hop; work still queued on
+ * the executor does not start at all.
+ *
+ * @param <TARGET> The target message type
+ */
+final class AsyncTransformation<TARGET> {
+
+    /**
+     * The default executor: one virtual thread per transformation, so in-flight
+     * transformations do not tie up platform threads.
+     */
+    static final ExecutorService VIRTUAL_THREAD_EXECUTOR =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("payment-transform-", 0).factory());
+
+    private static final ScheduledThreadPoolExecutor TIMEOUTS = createTimeoutScheduler();
+
+    /**
+     * A transformation that can check whether its result is still wanted.
+     */
+    @FunctionalInterface
+    interface Work<TARGET> {
+        TARGET run(BooleanSupplier cancelled) throws PaymentMappingException;
+    }
+
+    private final CompletableFuture<TARGET> future = new CompletableFuture<>();
+    private final Work<TARGET> work;
+    private Thread runner;
+
+    private AsyncTransformation(Work<TARGET> work) {
+        this.work = work;
+    }
+
+    /**
+     * Start a transformation.
+     *
+     * @param executor The executor to run it on
+     * @param sourceType The source message type, for errors
+     * @param targetType The target message type, for errors
+     * @param timeout How long the transformation may take, or null for no limit
+     * @param work The transformation
+     * @return A future for the transformed message
+     */
+    static <TARGET> CompletableFuture<TARGET> submit(Executor executor, String sourceType, String targetType,
+                                                      Duration timeout, Work<TARGET> work) {
+        AsyncTransformation<TARGET> transformation = new AsyncTransformation<>(work);
+        CompletableFuture<TARGET> future = transformation.future;
+        if (timeout != null) {
+            ScheduledFuture<?> expiry = TIMEOUTS.schedule(() -> future.completeExceptionally(new PaymentMappingException(
+                "Transformation from " + sourceType + " to " + targetType + " timed out after " + timeout,
+                sourceType,
+                targetType,
+                "TRANSFORMATION_TIMEOUT",
+                null
+            )), Math.max(0, timeout.toNanos()), TimeUnit.NANOSECONDS);
+            // Drop the timer with the transformation, so it does not keep the result reachable
+            future.whenComplete((result, failure) -> expiry.cancel(false));
+        }
+        future.whenComplete((result, failure) -> {
+            if (failure != null) {
+                transformation.interrupt();
+            }
+        });
+
+        try {
+            executor.execute(transformation::run);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new PaymentMappingException(
+                "Transformation from " + sourceType + " to " + targetType + " was rejected by the executor",
+                sourceType,
+                targetType,
+                "TRANSFORMATION_REJECTED",
+                e
+            ));
+        }
+        return future;
+    }
+
+    private void run() {
+        if (future.isDone()) {
+            // Cancelled or timed out while queued
+            return;
+        }
+        synchronized (this) {
+            runner = Thread.currentThread();
+        }
+        try {
+            future.complete(work.run(future::isDone));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                runner = null;
+            }
+            // Clear an interrupt that raced with completion, before the thread is reused
+            Thread.interrupted();
+        }
+    }
+
+    private synchronized void interrupt() {
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createTimeoutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "payment-transform-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,83 @@
+package org.translator.mapper;
+
+/**
+ * Outcome of one document in a batch transformation: the transformed message, or
+ * the failure that document ended in.
+ *
+ * @param <TARGET> The target message type
+ */
+public final class BatchResult<TARGET> {
+
+    private final int index;
+    private final TransformResult<TARGET> result;
+    private volatile PaymentMappingException failure;
+
+    BatchResult(int index, TransformResult<TARGET> result) {
+        this.index = index;
+        this.result = result;
+    }
+
+    /**
+     * Get the position of the source document in the batch.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isSuccess() {
+        return result.isSuccess();
+    }
+
+    /**
+     * Get the outcome of the document's transformation.
+     */
+    public TransformResult<TARGET> getResult() {
+        return result;
+    }
+
+    /**
+     * Get the transformed message, or null if the document failed.
+     */
+    public TARGET getTarget() {
+        return result instanceof TransformResult.Success<TARGET> success ? success.value() : null;
+    }
+
+    /**
+     * Get the exception the document failed with, or null if it succeeded.
+     * A failure detected without an exception gets one on first use, which later
+     * calls return.
+     */
+    public PaymentMappingException getFailure() {
+        if (!(result instanceof TransformResult.Failure<TARGET> failed)) {
+            return null;
+        }
+        PaymentMappingException exception = failure;
+        if (exception == null) {
+            // Racing callers may each create one; either is an equal description of the failure
+            exception = failed.toException();
+            failure = exception;
+        }
+        return exception;
+    }
+
+    /**
+     * Get the transformed message, rethrowing the document's failure.
+     *
+     * @return The transformed message
+     * @throws PaymentMappingException if the document failed
+     */
+    public TARGET get() throws PaymentMappingException {
+        PaymentMappingException exception = getFailure();
+        if (exception != null) {
+            throw exception;
+        }
+        return getTarget();
+    }
+
+    @Override
+    public String toString() {
+        return result instanceof TransformResult.Failure<TARGET> failed
+            ? "BatchResult{index=" + index + ", failure=" + failed.errorCode() + ": " + failed.message() + "}"
+            : "BatchResult{index=" + index + ", success}";
+    }
+}
@@ -0,0 +1,205 @@
+package org.translator.mapper;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs many independent documents through one {@link TransformationPipeline} on a
+ * {@link ForkJoinPool}.
+ *
+ * A batch is split by estimated document size (the number of transactions) rather
+ * than by document count, so slices carry similar amounts of work and a large
+ * document ends up in a slice of its own that other workers can run around.
+ * Every document gets a {@link BatchResult} at its own position, and a failing
+ * document does not stop the others.
+ *
+ * @param <SOURCE> The source message type
+ * @param <TARGET> The target message type
+ */
+final class BatchTransformer<SOURCE, TARGET> {
+
+    /**
+     * Slices per worker; enough for work stealing to even out estimation errors.
+     */
+    private static final int SLICES_PER_WORKER = 8;
+
+    /**
+     * Documents in flight per worker when streaming.
+     */
+    private static final int WINDOW_PER_WORKER = 4;
+
+    private final TransformationPipeline<SOURCE, TARGET> pipeline;
+    private final ForkJoinPool pool;
+
+    BatchTransformer(TransformationPipeline<SOURCE, TARGET> pipeline, ForkJoinPool pool) {
+        this.pipeline = pipeline;
+        this.pool = pool;
+    }
+
+    /**
+     * Transform every document of the batch.
+     *
+     * @param sources The source documents
+     * @return One result per document, in the order of the sources
+     */
+    List<BatchResult<TARGET>> transformAll(List<? extends SOURCE> sources) {
+        int count = sources.size();
+        if (count == 0) {
+            return List.of();
+        }
+        @SuppressWarnings("unchecked")
+        BatchResult<TARGET>[] results = new BatchResult[count];
+        if (count == 1) {
+            results[0] = transformOne(0, sources.get(0));
+            return Arrays.asList(results);
+        }
+
+        // Prefix sums of the document weights, so any slice's weight is one subtraction
+        long[] offsets = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[i + 1] = offsets[i] + estimateWeight(sources.get(i));
+        }
+        long sliceWeight = Math.max(1, offsets[count] / ((long) pool.getParallelism() * SLICES_PER_WORKER));
+
+        pool.invoke(new Slice(sources, results, offsets, sliceWeight, 0, count));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Transform a stream of documents, handing each result to the sink in source order.
+     * A bounded number of documents is in flight, so the sources are read as the
+     * results are consumed.
+     *
+     * @param sources The source documents
+     * @param sink Receives one result per document, in source order, on the calling thread
+     * @return The number of documents transformed
+     */
+    long transformEach(Iterator<? extends SOURCE> sources, Consumer<? super BatchResult<TARGET>> sink) {
+        int window = Math.max(2, pool.getParallelism() * WINDOW_PER_WORKER);
+        Deque<ForkJoinTask<BatchResult<TARGET>>> inFlight = new ArrayDeque<>(window);
+        int index = 0;
+        try {
+            while (sources.hasNext()) {
+                if (inFlight.size() == window) {
+                    sink.accept(inFlight.removeFirst().join());
+                }
+                int position = index++;
+                SOURCE source = sources.next();
+                inFlight.addLast(pool.submit(() -> transformOne(position, source)));
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(inFlight.removeFirst().join());
+            }
+        } finally {
+            // Only non-empty if the sources or the sink failed
+            for (ForkJoinTask<BatchResult<TARGET>> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        return index;
+    }
+
+    private BatchResult<TARGET> transformOne(int index, SOURCE source) {
+        try {
+            return new BatchResult<>(index, pipeline.tryTransform(source));
+        } catch (RuntimeException e) {
+            return new BatchResult<>(index, new TransformResult.Failure<>(
+                "Failed to transform " + pipeline.getSourceType() + " to " + pipeline.getTargetType() + ": " + e.getMessage(),
+                "TRANSFORMATION_ERROR",
+                null,
+                pipeline.getSourceType(),
+                pipeline.getTargetType(),
+                e
+            ));
+        }
+    }
+
+    /**
+     * Estimate the work of transforming a document, as its number of transactions.
+     *
+     * @param document The source document
+     * @return The estimated weight, at least 1
+     */
+    static long estimateWeight(Object document) {
+        long transactions = 0;
+        if (document instanceof org.translator.xsd.generated.pain_001.Document pain001) {
+            if (pain001.getCstmrCdtTrfInitn() != null) {
+                for (org.translator.xsd.generated.pain_001.PaymentInstruction44 instruction :
+                        pain001.getCstmrCdtTrfInitn().getPmtInf()) {
+                    transactions += instruction.getCdtTrfTxInf().size();
+                }
+            }
+        } else if (document instanceof org.translator.xsd.generated.pacs_008.Document pacs008) {
+            if (pacs008.getFIToFICstmrCdtTrf() != null) {
+                transactions = pacs008.getFIToFICstmrCdtTrf().getCdtTrfTxInf().size();
+            }
+        } else if (document instanceof org.translator.xsd.generated.pacs_009.Document pacs009) {
+            if (pacs009.getFICdtTrf() != null) {
+                transactions = pacs009.getFICdtTrf().getCdtTrfTxInf().size();
+            }
+        }
+        return Math.max(1, transactions);
+    }
+
+    /**
+     * A contiguous range of the batch, split at its weighted midpoint until it is
+     * light enough or holds a single document.
+     */
+    private final class Slice extends RecursiveAction {
+
+        private final List<? extends SOURCE> sources;
+        private final BatchResult<TARGET>[] results;
+        private final long[] offsets;
+        private final long sliceWeight;
+        private final int from;
+        private final int to;
+
+        Slice(List<? extends SOURCE> sources, BatchResult<TARGET>[] results, long[] offsets,
+              long sliceWeight, int from, int to) {
+            this.sources = sources;
+            this.results = results;
+            this.offsets = offsets;
+            this.sliceWeight = sliceWeight;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1 || offsets[to] - offsets[from] <= sliceWeight) {
+                for (int i = from; i < to; i++) {
+                    results[i] = transformOne(i, sources.get(i));
+                }
+                return;
+            }
+            int mid = split();
+            invokeAll(new Slice(sources, results, offsets, sliceWeight, from, mid),
+                      new Slice(sources, results, offsets, sliceWeight, mid, to));
+        }
+
+        /**
+         * Find the first document past half of the range's weight, keeping both halves non-empty.
+         */
+        private int split() {
+            long half = offsets[from] + (offsets[to] - offsets[from]) / 2;
+            int low = from + 1;
+            int high = to - 1;
+            while (low < high) {
+                int probe = (low + high) >>> 1;
+                if (offsets[probe] < half) {
+                    low = probe + 1;
+                } else {
+                    high = probe;
+                }
+            }
+            return low;
+        }
+    }
+}
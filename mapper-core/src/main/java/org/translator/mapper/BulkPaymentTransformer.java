@@ -0,0 +1,184 @@
+package org.translator.mapper;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Transformations for large pain.001 and pacs.008 files that parse and map on
+ * several cores.
+ *
+ * The file is memory-mapped and indexed by {@link MappedTransactionFile}. The group
+ * header is bound once from the file prefix, then runs of transactions are parsed and
+ * mapped as independent chunks on a {@link ForkJoinPool}, each chunk carrying the
+ * root element's namespace declarations. Mapped chunks are written in document order
+ * through the usual {@link TransactionStreamWriter}, and only a bounded window of
+ * chunks is in flight, so heap use depends on the chunk size and pool parallelism
+ * rather than on the size of the file.
+ *
+ * Chunks are not standalone documents of the source schema, so this path does not
+ * schema-validate its input. Files whose transactions cannot be parsed on their own
+ * (namespaces declared below the root) are transformed sequentially instead.
+ */
+public class BulkPaymentTransformer {
+
+    public static final long DEFAULT_CHUNK_BYTES = 512 * 1024;
+
+    private final Pain001ToPacs008Mapper pain001Mapper;
+    private final Pacs008ToPacs009Mapper pacs008Mapper;
+    private final Path spillDirectory;
+    private final ForkJoinPool pool;
+    private final long chunkBytes;
+
+    public BulkPaymentTransformer() {
+        this(Pain001ToPacs008Mapper.INSTANCE, Pacs008ToPacs009Mapper.INSTANCE, null,
+             ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * @param pain001Mapper The pain.001 to pacs.008 mapper
+     * @param pacs008Mapper The pacs.008 to pacs.009 mapper
+     * @param spillDirectory Where the writers spill transactions before the header is written, or null for the default
+     * @param pool The pool that parses and maps chunks
+     * @param chunkBytes The preferred size of a chunk of transactions, in bytes
+     */
+    public BulkPaymentTransformer(Pain001ToPacs008Mapper pain001Mapper,
+                                  Pacs008ToPacs009Mapper pacs008Mapper,
+                                  Path spillDirectory,
+                                  ForkJoinPool pool,
+                                  long chunkBytes) {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        this.pain001Mapper = pain001Mapper;
+        this.pacs008Mapper = pacs008Mapper;
+        this.spillDirectory = spillDirectory;
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Transform a pain.001 file into a PACS.008 message.
+     *
+     * @param file The pain.001 file
+     * @param out The PACS.008 XML output
+     * @return The number of transactions transformed
+     * @throws PaymentMappingException if reading, mapping or writing fails
+     */
+    public long transformPain001ToPacs008(Path file, OutputStream out) throws PaymentMappingException {
+        try (MappedTransactionFile mapped = MappedTransactionFile.open(file);
+             Pacs008TransactionStreamWriter writer = new Pacs008TransactionStreamWriter(out, spillDirectory)) {
+            org.translator.xsd.generated.pain_001.GroupHeader114 groupHeader = transform(mapped, writer,
+                (InputStream in) -> new Pain001TransactionStreamReader(in),
+                pain001Mapper::mapCreditTransferTransaction);
+            writer.finish(groupHeader != null ? pain001Mapper.mapGroupHeader(groupHeader) : null);
+            return writer.getTransactionCount();
+        } catch (Exception e) {
+            throw new PaymentMappingException(
+                "Failed to bulk transform Pain.001 to PACS.008: " + e.getMessage(),
+                JaxbContextRegistry.PAIN001_V12,
+                JaxbContextRegistry.PACS008_V13,
+                "BULK_ERROR",
+                e
+            );
+        }
+    }
+
+    /**
+     * Transform a PACS.008 file into a PACS.009 message.
+     *
+     * @param file The PACS.008 file
+     * @param out The PACS.009 XML output
+     * @return The number of transactions transformed
+     * @throws PaymentMappingException if reading, mapping or writing fails
+     */
+    public long transformPacs008ToPacs009(Path file, OutputStream out) throws PaymentMappingException {
+        try (MappedTransactionFile mapped = MappedTransactionFile.open(file);
+             Pacs009TransactionStreamWriter writer = new Pacs009TransactionStreamWriter(out, spillDirectory)) {
+            org.translator.xsd.generated.pacs_008.GroupHeader131 groupHeader = transform(mapped, writer,
+                (InputStream in) -> new Pacs008TransactionStreamReader(in),
+                pacs008Mapper::mapCreditTransferTransaction);
+            writer.finish(groupHeader != null ? pacs008Mapper.mapGroupHeader(groupHeader) : null);
+            return writer.getTransactionCount();
+        } catch (Exception e) {
+            throw new PaymentMappingException(
+                "Failed to bulk transform PACS.008 to PACS.009: " + e.getMessage(),
+                JaxbContextRegistry.PACS008_V13,
+                JaxbContextRegistry.PACS009_V12,
+                "BULK_ERROR",
+                e
+            );
+        }
+    }
+
+    /**
+     * Parse and map every transaction of the file into the writer, in document order.
+     *
+     * @return The source group header, or null if the file has none
+     */
+    private <HEADER, TX, OUT> HEADER transform(MappedTransactionFile file,
+                                               TransactionStreamWriter<?, OUT> writer,
+                                               Function<InputStream, TransactionStreamReader<HEADER, ?, TX>> readers,
+                                               Function<TX, OUT> mapper) throws Exception {
+        if (!file.isSplittable()) {
+            try (TransactionStreamReader<HEADER, ?, TX> reader = readers.apply(file.openDocument())) {
+                while (reader.hasNext()) {
+                    writer.writeTransaction(mapper.apply(reader.next().getTransaction()));
+                }
+                return reader.getGroupHeader();
+            }
+        }
+
+        HEADER groupHeader = null;
+        InputStream headerInput = file.openGroupHeader();
+        if (headerInput != null) {
+            try (TransactionStreamReader<HEADER, ?, TX> reader = readers.apply(headerInput)) {
+                groupHeader = reader.getGroupHeader();
+            }
+        }
+
+        // Keep every worker busy while the writer drains completed chunks in order
+        int window = Math.max(2, pool.getParallelism() * 2);
+        Iterator<MappedTransactionFile.Chunk> chunks = file.split(chunkBytes).iterator();
+        Deque<ForkJoinTask<List<OUT>>> inFlight = new ArrayDeque<>(window);
+        try {
+            while (chunks.hasNext() || !inFlight.isEmpty()) {
+                while (chunks.hasNext() && inFlight.size() < window) {
+                    MappedTransactionFile.Chunk chunk = chunks.next();
+                    inFlight.add(pool.submit(() -> parseChunk(file, chunk, readers, mapper)));
+                }
+                for (OUT transaction : inFlight.poll().join()) {
+                    writer.writeTransaction(transaction);
+                }
+            }
+        } finally {
+            inFlight.forEach(task -> task.cancel(false));
+        }
+        return groupHeader;
+    }
+
+    private static <TX, OUT> List<OUT> parseChunk(MappedTransactionFile file,
+                                                  MappedTransactionFile.Chunk chunk,
+                                                  Function<InputStream, ? extends TransactionStreamReader<?, ?, TX>> readers,
+                                                  Function<TX, OUT> mapper) {
+        List<OUT> mapped = new ArrayList<>(chunk.getTransactionCount());
+        try (TransactionStreamReader<?, ?, TX> reader = readers.apply(file.openChunk(chunk))) {
+            while (reader.hasNext()) {
+                mapped.add(mapper.apply(reader.next().getTransaction()));
+            }
+        }
+        if (mapped.size() != chunk.getTransactionCount()) {
+            throw new IllegalStateException("Expected " + chunk.getTransactionCount() + " transactions in "
+                + chunk + " but parsed " + mapped.size());
+        }
+        return mapped;
+    }
+}
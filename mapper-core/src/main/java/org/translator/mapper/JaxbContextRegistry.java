@@ -0,0 +1,383 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.PropertyException;
+import jakarta.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of JAXB contexts keyed by message type.
+ *
+ * Each {@link JAXBContext} is built once, on first use, and shared by all
+ * threads. Marshallers and unmarshallers are not thread-safe, so they are
+ * handed out from a small bounded pool per message type and returned after
+ * use instead of being recreated on every call.
+ */
+public final class JaxbContextRegistry {
+
+    public static final String PAIN001_V12 = "pain.001.001.12";
+    public static final String PACS008_V13 = "pacs.008.001.13";
+    public static final String PACS009_V12 = "pacs.009.001.12";
+    public static final String PACS008_V01 = "pacs.008.001.01";
+    public static final String PACS009_V01 = "pacs.009.001.01";
+
+    private static final String INDENT_STRING_PROPERTY = "org.glassfish.jaxb.indentString";
+
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final Map<String, Binding> BINDINGS = new ConcurrentHashMap<>();
+
+    private static final LongAdder contextCreations = new LongAdder();
+    private static final LongAdder contextHits = new LongAdder();
+    private static final LongAdder marshallerCreations = new LongAdder();
+    private static final LongAdder marshallerHits = new LongAdder();
+    private static final LongAdder unmarshallerCreations = new LongAdder();
+    private static final LongAdder unmarshallerHits = new LongAdder();
+
+    static {
+        register(PAIN001_V12, org.translator.xsd.generated.pain_001.Document.class,
+            new QName("urn:iso:std:iso:20022:tech:xsd:pain.001.001.12", "Document"));
+        register(PACS008_V13, org.translator.xsd.generated.pacs_008.Document.class,
+            new QName("urn:iso:std:iso:20022:tech:xsd:pacs.008.001.13", "Document"));
+        register(PACS009_V12, org.translator.xsd.generated.pacs_009.Document.class,
+            new QName("urn:iso:std:iso:20022:tech:xsd:pacs.009.001.12", "Document"));
+        register(PACS008_V01, com.prowidesoftware.swift.model.mx.dic.Pacs00800101.class,
+            new QName("urn:iso:std:iso:20022:tech:xsd:pacs.008.001.01", "Document"));
+        register(PACS009_V01, com.prowidesoftware.swift.model.mx.dic.Pacs00900101.class,
+            new QName("urn:iso:std:iso:20022:tech:xsd:pacs.009.001.01", "Document"));
+    }
+
+    private JaxbContextRegistry() {
+    }
+
+    /**
+     * Register a bound document type for a message type. Existing registrations
+     * are kept, so calling this twice for the same message type is harmless.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param documentType The JAXB-bound document class
+     * @param rootName The qualified name of the root element
+     */
+    public static void register(String messageType, Class<?> documentType, QName rootName) {
+        BINDINGS.putIfAbsent(messageType, new Binding(documentType, rootName));
+    }
+
+    /**
+     * Check whether a message type has a registered binding.
+     */
+    public static boolean isRegistered(String messageType) {
+        return messageType != null && BINDINGS.containsKey(messageType);
+    }
+
+    /**
+     * Get all registered message types.
+     */
+    public static Set<String> getRegisteredMessageTypes() {
+        return BINDINGS.keySet();
+    }
+
+    /**
+     * Get the document class bound to a message type.
+     */
+    public static Class<?> getDocumentType(String messageType) {
+        return binding(messageType).documentType;
+    }
+
+    /**
+     * Get the root element name used when marshalling a message type.
+     */
+    public static QName getRootName(String messageType) {
+        return binding(messageType).rootName;
+    }
+
+    /**
+     * Get the shared context for a message type, creating it on first use.
+     *
+     * @param messageType The message type identifier
+     * @return The shared JAXB context
+     * @throws JAXBException if the context cannot be created
+     */
+    public static JAXBContext getContext(String messageType) throws JAXBException {
+        return binding(messageType).context();
+    }
+
+    /**
+     * Borrow a marshaller for a message type. Callers must hand it back with
+     * {@link #releaseMarshaller(String, Marshaller)} once done.
+     */
+    public static Marshaller acquireMarshaller(String messageType) throws JAXBException {
+        Binding binding = binding(messageType);
+        Marshaller marshaller = binding.marshallers.poll();
+        if (marshaller != null) {
+            marshallerHits.increment();
+            return marshaller;
+        }
+        marshallerCreations.increment();
+        marshaller = binding.context().createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        return marshaller;
+    }
+
+    /**
+     * Return a marshaller obtained from {@link #acquireMarshaller(String)}.
+     */
+    public static void releaseMarshaller(String messageType, Marshaller marshaller) {
+        if (marshaller != null) {
+            binding(messageType).marshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Borrow an unmarshaller for a message type. Callers must hand it back with
+     * {@link #releaseUnmarshaller(String, Unmarshaller)} once done.
+     */
+    public static Unmarshaller acquireUnmarshaller(String messageType) throws JAXBException {
+        Binding binding = binding(messageType);
+        Unmarshaller unmarshaller = binding.unmarshallers.poll();
+        if (unmarshaller != null) {
+            unmarshallerHits.increment();
+            return unmarshaller;
+        }
+        unmarshallerCreations.increment();
+        return binding.context().createUnmarshaller();
+    }
+
+    /**
+     * Return an unmarshaller obtained from {@link #acquireUnmarshaller(String)}.
+     */
+    public static void releaseUnmarshaller(String messageType, Unmarshaller unmarshaller) {
+        if (unmarshaller != null) {
+            binding(messageType).unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    /**
+     * Unmarshal a document of the given message type.
+     *
+     * @param messageType The message type identifier
+     * @param source The XML source
+     * @param <T> The bound document type
+     * @return The unmarshalled document
+     * @throws JAXBException if the XML cannot be unmarshalled
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unmarshal(String messageType, Source source) throws JAXBException {
+        Binding binding = binding(messageType);
+        Unmarshaller unmarshaller = acquireUnmarshaller(messageType);
+        try {
+            JAXBElement<?> element = unmarshaller.unmarshal(source, binding.documentType);
+            return (T) element.getValue();
+        } finally {
+            releaseUnmarshaller(messageType, unmarshaller);
+        }
+    }
+
+    /**
+     * Unmarshal the document element a stream reader is positioned on, or before,
+     * using a pooled unmarshaller.
+     *
+     * @param messageType The message type identifier
+     * @param reader The stream reader
+     * @param <T> The bound document type
+     * @return The unmarshalled document
+     * @throws JAXBException if the XML cannot be unmarshalled
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unmarshal(String messageType, XMLStreamReader reader) throws JAXBException {
+        Binding binding = binding(messageType);
+        Unmarshaller unmarshaller = acquireUnmarshaller(messageType);
+        try {
+            JAXBElement<?> element = unmarshaller.unmarshal(reader, binding.documentType);
+            return (T) element.getValue();
+        } finally {
+            releaseUnmarshaller(messageType, unmarshaller);
+        }
+    }
+
+    /**
+     * Marshal a document of the given message type to a character stream.
+     */
+    public static void marshal(String messageType, Object document, Writer writer, boolean formatted)
+            throws JAXBException {
+        marshal(messageType, document, writer, formatted ? XmlOutputMode.INDENTED : XmlOutputMode.COMPACT);
+    }
+
+    /**
+     * Marshal a document of the given message type to a character stream using the given layout.
+     */
+    public static void marshal(String messageType, Object document, Writer writer, XmlOutputMode mode)
+            throws JAXBException {
+        Marshaller marshaller = acquireMarshaller(messageType);
+        try {
+            applyOutputMode(marshaller, mode);
+            marshaller.marshal(wrap(messageType, document), writer);
+        } finally {
+            releaseMarshaller(messageType, marshaller);
+        }
+    }
+
+    /**
+     * Marshal a document of the given message type to a UTF-8 byte stream.
+     */
+    public static void marshal(String messageType, Object document, OutputStream out, boolean formatted)
+            throws JAXBException {
+        marshal(messageType, document, out, formatted ? XmlOutputMode.INDENTED : XmlOutputMode.COMPACT);
+    }
+
+    /**
+     * Marshal a document of the given message type to a UTF-8 byte stream using the given layout.
+     */
+    public static void marshal(String messageType, Object document, OutputStream out, XmlOutputMode mode)
+            throws JAXBException {
+        Marshaller marshaller = acquireMarshaller(messageType);
+        try {
+            applyOutputMode(marshaller, mode);
+            marshaller.marshal(wrap(messageType, document), out);
+        } finally {
+            releaseMarshaller(messageType, marshaller);
+        }
+    }
+
+    /**
+     * Configure a marshaller for the given layout. The indent string is set through the
+     * JAXB RI vendor property; runtimes that do not support it keep their default indent.
+     */
+    public static void applyOutputMode(Marshaller marshaller, XmlOutputMode mode) throws JAXBException {
+        XmlOutputMode effective = mode != null ? mode : XmlOutputMode.INDENTED;
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, effective.isIndented());
+        if (effective.isIndented()) {
+            try {
+                marshaller.setProperty(INDENT_STRING_PROPERTY, effective.getIndentString());
+            } catch (PropertyException e) {
+                // not the JAXB RI; formatted output falls back to the runtime default indent
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of the registry counters.
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(
+            contextCreations.sum(),
+            contextHits.sum(),
+            marshallerCreations.sum(),
+            marshallerHits.sum(),
+            unmarshallerCreations.sum(),
+            unmarshallerHits.sum()
+        );
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static JAXBElement<?> wrap(String messageType, Object document) {
+        Binding binding = binding(messageType);
+        return new JAXBElement(binding.rootName, binding.documentType, document);
+    }
+
+    private static Binding binding(String messageType) {
+        Binding binding = messageType != null ? BINDINGS.get(messageType) : null;
+        if (binding == null) {
+            throw new IllegalArgumentException("No JAXB binding registered for message type: " + messageType);
+        }
+        return binding;
+    }
+
+    private static final class Binding {
+        private final Class<?> documentType;
+        private final QName rootName;
+        private final BlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+        private volatile JAXBContext context;
+
+        private Binding(Class<?> documentType, QName rootName) {
+            this.documentType = documentType;
+            this.rootName = rootName;
+        }
+
+        private JAXBContext context() throws JAXBException {
+            JAXBContext ctx = context;
+            if (ctx != null) {
+                contextHits.increment();
+                return ctx;
+            }
+            synchronized (this) {
+                if (context == null) {
+                    context = JAXBContext.newInstance(documentType);
+                    contextCreations.increment();
+                } else {
+                    contextHits.increment();
+                }
+                return context;
+            }
+        }
+    }
+
+    /**
+     * Snapshot of context and (un)marshaller creation and reuse counts.
+     */
+    public static final class Statistics {
+
+        private final long contextCreations;
+        private final long contextHits;
+        private final long marshallerCreations;
+        private final long marshallerHits;
+        private final long unmarshallerCreations;
+        private final long unmarshallerHits;
+
+        private Statistics(long contextCreations, long contextHits,
+                           long marshallerCreations, long marshallerHits,
+                           long unmarshallerCreations, long unmarshallerHits) {
+            this.contextCreations = contextCreations;
+            this.contextHits = contextHits;
+            this.marshallerCreations = marshallerCreations;
+            this.marshallerHits = marshallerHits;
+            this.unmarshallerCreations = unmarshallerCreations;
+            this.unmarshallerHits = unmarshallerHits;
+        }
+
+        public long getContextCreations() {
+            return contextCreations;
+        }
+
+        public long getContextHits() {
+            return contextHits;
+        }
+
+        public long getMarshallerCreations() {
+            return marshallerCreations;
+        }
+
+        public long getMarshallerHits() {
+            return marshallerHits;
+        }
+
+        public long getUnmarshallerCreations() {
+            return unmarshallerCreations;
+        }
+
+        public long getUnmarshallerHits() {
+            return unmarshallerHits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("JaxbContextRegistry.Statistics{contexts=%d/%d, marshallers=%d/%d, unmarshallers=%d/%d}",
+                               contextCreations, contextHits, marshallerCreations, marshallerHits,
+                               unmarshallerCreations, unmarshallerHits);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.translator.mapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Runs transformations through a {@link PaymentMessageOrchestrator} so that messages
+ * with the same key complete in the order they were submitted, while messages with
+ * different keys run in parallel.
+ *
+ * The key is taken from each message by a pluggable extractor, typically a debtor
+ * account or message id from {@link PaymentKeys}. Each key with work outstanding has a
+ * FIFO queue of its own and at most one transformation running; when it finishes,
+ * the next message of that key is handed to the executor. The queues are kept in a
+ * {@link ConcurrentHashMap} and only changed inside {@code compute} for their key, so
+ * submitters contend only when their keys share a bin, and a queue is removed as soon
+ * as it drains. Messages whose key is null are not ordered against anything.
+ *
+ * A message's future completes before the next message of its key is started, so
+ * callbacks on the futures of one key also run in submission order.
+ *
+ * @param <SOURCE> The source message type
+ * @param <TARGET> The target message type
+ */
+public final class KeyedTransformationExecutor<SOURCE, TARGET> {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyedTransformationExecutor.class);
+
+    private final PaymentMessageOrchestrator orchestrator;
+    private final String sourceType;
+    private final String targetType;
+    private final Function<? super SOURCE, ?> keyExtractor;
+    private final Executor executor;
+    private final ConcurrentHashMap<Object, KeyQueue<SOURCE, TARGET>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Create an executor that runs each transformation on a virtual thread.
+     *
+     * @see #KeyedTransformationExecutor(PaymentMessageOrchestrator, String, String, Function, Executor)
+     */
+    public KeyedTransformationExecutor(PaymentMessageOrchestrator orchestrator,
+                                       String sourceType,
+                                       String targetType,
+                                       Function<? super SOURCE, ?> keyExtractor) {
+        this(orchestrator, sourceType, targetType, keyExtractor, AsyncTransformation.VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * @param orchestrator The orchestrator that transforms the messages
+     * @param sourceType The source message type identifier
+     * @param targetType The target message type identifier
+     * @param keyExtractor Extracts the ordering key of a message; null keys are not ordered
+     * @param executor The executor that runs the transformations
+     */
+    public KeyedTransformationExecutor(PaymentMessageOrchestrator orchestrator,
+                                       String sourceType,
+                                       String targetType,
+                                       Function<? super SOURCE, ?> keyExtractor,
+                                       Executor executor) {
+        this.orchestrator = Objects.requireNonNull(orchestrator, "orchestrator");
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Submit a message for transformation after the earlier messages with the same key.
+     *
+     * @param source The source message
+     * @return A future for the transformed message, failing with {@link PaymentMappingException}
+     */
+    public CompletableFuture<TARGET> submit(SOURCE source) {
+        Task<SOURCE, TARGET> task = new Task<>(source);
+        Object key;
+        try {
+            key = source == null ? null : keyExtractor.apply(source);
+        } catch (RuntimeException e) {
+            task.future.completeExceptionally(new PaymentMappingException(
+                "Failed to extract the ordering key: " + e.getMessage(),
+                sourceType,
+                targetType,
+                "KEY_EXTRACTION_ERROR",
+                e
+            ));
+            return task.future;
+        }
+
+        if (key == null) {
+            dispatch(null, task);
+            return task.future;
+        }
+
+        // The first task of an idle key runs at once; later ones wait in the key's queue
+        boolean[] idle = new boolean[1];
+        queues.compute(key, (k, queue) -> {
+            if (queue == null) {
+                idle[0] = true;
+                return new KeyQueue<>();
+            }
+            queue.waiting.addLast(task);
+            queue.depth = queue.waiting.size() + 1;
+            return queue;
+        });
+        if (idle[0]) {
+            dispatch(key, task);
+        }
+        return task.future;
+    }
+
+    /**
+     * Get the number of messages with the given key that are running or waiting.
+     *
+     * @param key The ordering key
+     * @return The queue depth, 0 when the key has no work outstanding
+     */
+    public int getQueueDepth(Object key) {
+        KeyQueue<SOURCE, TARGET> queue = queues.get(key);
+        return queue == null ? 0 : queue.depth;
+    }
+
+    /**
+     * Get the number of keys with messages running or waiting.
+     */
+    public int getActiveKeyCount() {
+        return queues.size();
+    }
+
+    private void dispatch(Object key, Task<SOURCE, TARGET> task) {
+        try {
+            executor.execute(() -> run(key, task));
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(new PaymentMappingException(
+                "Transformation from " + sourceType + " to " + targetType + " was rejected by the executor",
+                sourceType,
+                targetType,
+                "TRANSFORMATION_REJECTED",
+                e
+            ));
+            next(key);
+        }
+    }
+
+    private void run(Object key, Task<SOURCE, TARGET> task) {
+        try {
+            // Skip messages whose caller gave up while they were queued
+            if (!task.future.isDone()) {
+                task.future.complete(orchestrator.transform(task.source, sourceType, targetType));
+            }
+        } catch (Throwable e) {
+            task.future.completeExceptionally(e);
+        } finally {
+            next(key);
+        }
+    }
+
+    /**
+     * Hand the next waiting task of a key to the executor, or drop the key's queue if none is left.
+     */
+    private void next(Object key) {
+        if (key == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Task<SOURCE, TARGET>[] next = new Task[1];
+        queues.computeIfPresent(key, (k, queue) -> {
+            next[0] = queue.waiting.pollFirst();
+            if (next[0] == null) {
+                return null;
+            }
+            queue.depth = queue.waiting.size() + 1;
+            return queue;
+        });
+        if (next[0] != null) {
+            logger.trace("Dispatching next transformation for key {}", key);
+            dispatch(key, next[0]);
+        }
+    }
+
+    /**
+     * The tasks of one key behind the one that is running. Only changed inside
+     * {@code compute} for the key, which serialises access.
+     */
+    private static final class KeyQueue<SOURCE, TARGET> {
+
+        final ArrayDeque<Task<SOURCE, TARGET>> waiting = new ArrayDeque<>();
+        volatile int depth = 1;
+    }
+
+    private static final class Task<SOURCE, TARGET> {
+
+        final SOURCE source;
+        final CompletableFuture<TARGET> future = new CompletableFuture<>();
+
+        Task(SOURCE source) {
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package org.translator.mapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only memory mapping of a pain.001 or pacs.008 file, with an index of the byte
+ * range of every {@code CdtTrfTxInf} element.
+ *
+ * The file is mapped with {@link FileChannel#map} in segments, so files larger than
+ * 2 GB are supported, and indexed by a single byte scan that only tracks tags,
+ * comments, CDATA sections and processing instructions. Ranges of consecutive
+ * transactions can then be opened as small standalone documents, made of the
+ * original XML declaration and root start tag, so they carry the file's namespace
+ * context, followed by the transaction bytes and the root end tag. Each such chunk
+ * can be parsed independently, on any thread, straight from the mapping.
+ *
+ * The file must use an ASCII-compatible encoding (UTF-8 for ISO 20022) and must not
+ * contain a DOCTYPE.
+ */
+public final class MappedTransactionFile implements AutoCloseable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private static final byte[] TRANSACTION_ELEMENT = "CdtTrfTxInf".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GROUP_HEADER_ELEMENT = "GrpHdr".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] XMLNS = "xmlns".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COMMENT_START = "<!--".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COMMENT_END = "-->".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CDATA_START = "<![CDATA[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CDATA_END = "]]>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PI_END = "?>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAG_END = ">".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path path;
+    private final long size;
+    private final int segmentShift;
+    private final long segmentMask;
+    private MappedByteBuffer[] segments;
+
+    // Segment last read by the scan, so most byte reads skip the segment lookup
+    private MappedByteBuffer current;
+    private long currentStart;
+    private long currentEnd;
+
+    private byte[] declaration = new byte[0];
+    private byte[] rootStartTag;
+    private byte[] rootEndTag;
+    private long groupHeaderStart = -1;
+    private long groupHeaderEnd = -1;
+    private long[] transactionStarts = new long[1024];
+    private long[] transactionEnds = new long[1024];
+    private final BitSet runStarts = new BitSet();
+    private int transactionCount;
+    private boolean splittable = true;
+
+    private MappedTransactionFile(Path path, long size, int segmentSize, MappedByteBuffer[] segments) {
+        this.path = path;
+        this.size = size;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1L;
+        this.segments = segments;
+    }
+
+    /**
+     * Map a file and index its transactions.
+     *
+     * @param file The pain.001 or pacs.008 file
+     * @return The mapped and indexed file
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file's encoding or markup cannot be indexed
+     */
+    public static MappedTransactionFile open(Path file) throws IOException {
+        return open(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    static MappedTransactionFile open(Path file, int segmentSize) throws IOException {
+        if (Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("Segment size must be a power of two: " + segmentSize);
+        }
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + segmentSize - 1) / segmentSize);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long offset = (long) i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, size - offset));
+            }
+            MappedTransactionFile mapped = new MappedTransactionFile(file, size, segmentSize, segments);
+            mapped.index();
+            return mapped;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Get the offset of the first byte of a transaction's start tag.
+     */
+    public long getTransactionStart(int index) {
+        checkIndex(index);
+        return transactionStarts[index];
+    }
+
+    /**
+     * Get the offset just past a transaction's end tag.
+     */
+    public long getTransactionEnd(int index) {
+        checkIndex(index);
+        return transactionEnds[index];
+    }
+
+    /**
+     * Check whether transaction ranges can be parsed on their own. This is false when an
+     * element between the root and the transactions declares namespaces, because a chunk
+     * only carries the root's declarations; such files must be read sequentially.
+     */
+    public boolean isSplittable() {
+        return splittable && rootStartTag != null;
+    }
+
+    /**
+     * Open the whole file as a stream.
+     */
+    public InputStream openDocument() {
+        return openRange(0, size);
+    }
+
+    /**
+     * Open the group header as a standalone document, or null if the file has none.
+     */
+    public InputStream openGroupHeader() {
+        if (groupHeaderStart < 0 || groupHeaderEnd < 0) {
+            return null;
+        }
+        return wrap(openRange(groupHeaderStart, groupHeaderEnd));
+    }
+
+    /**
+     * Split the transactions into chunks of consecutive siblings of roughly the given
+     * size. A chunk never spans markup between transactions, such as a payment
+     * instruction boundary.
+     *
+     * @param targetBytes The preferred chunk size in bytes
+     * @return The chunks in document order
+     */
+    public List<Chunk> split(long targetBytes) {
+        List<Chunk> chunks = new ArrayList<>();
+        int first = 0;
+        for (int i = 1; i <= transactionCount; i++) {
+            boolean boundary = i == transactionCount || runStarts.get(i)
+                || transactionEnds[i - 1] - transactionStarts[first] >= targetBytes;
+            if (boundary) {
+                chunks.add(new Chunk(first, i, transactionStarts[first], transactionEnds[i - 1]));
+                first = i;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Open a chunk as a standalone document holding only its transactions.
+     */
+    public InputStream openChunk(Chunk chunk) {
+        if (!isSplittable()) {
+            throw new IllegalStateException("Transactions in " + path + " cannot be parsed independently");
+        }
+        return wrap(openRange(chunk.start, chunk.end));
+    }
+
+    @Override
+    public void close() {
+        // Mapped buffers cannot be unmapped explicitly; dropping them lets the GC release the mapping
+        segments = new MappedByteBuffer[0];
+    }
+
+    private InputStream wrap(InputStream content) {
+        List<InputStream> parts = Arrays.asList(
+            new ByteArrayInputStream(declaration),
+            new ByteArrayInputStream(rootStartTag),
+            content,
+            new ByteArrayInputStream(rootEndTag));
+        return new SequenceInputStream(Collections.enumeration(parts));
+    }
+
+    private InputStream openRange(long start, long end) {
+        List<InputStream> parts = new ArrayList<>(2);
+        long position = start;
+        while (position < end) {
+            MappedByteBuffer segment = segments[(int) (position >>> segmentShift)];
+            int offset = (int) (position & segmentMask);
+            int length = (int) Math.min(end - position, segment.limit() - offset);
+            parts.add(new ByteBufferInputStream(segment.slice(offset, length)));
+            position += length;
+        }
+        return parts.size() == 1 ? parts.get(0) : new SequenceInputStream(Collections.enumeration(parts));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= transactionCount) {
+            throw new IndexOutOfBoundsException("Transaction " + index + " of " + transactionCount);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Byte scan
+
+    private void index() {
+        long position = checkEncoding();
+        int depth = 0;
+        int transactionDepth = -1;
+        int groupHeaderDepth = -1;
+        boolean markupSinceTransaction = true;
+
+        while ((position = indexOf('<', position)) >= 0) {
+            int next = byteAt(position + 1);
+            if (next == '!') {
+                if (matchesAt(position, COMMENT_START)) {
+                    position = skipPast(position + COMMENT_START.length, COMMENT_END);
+                } else if (matchesAt(position, CDATA_START)) {
+                    position = skipPast(position + CDATA_START.length, CDATA_END);
+                } else {
+                    throw new IllegalArgumentException("DOCTYPE declarations are not supported in " + path);
+                }
+                continue;
+            }
+            if (next == '?') {
+                long end = skipPast(position + 2, PI_END);
+                if (position == 0 || (position == 3 && byteAt(0) == 0xEF)) {
+                    declaration = copy(position, end);
+                }
+                position = end;
+                continue;
+            }
+            if (next == '/') {
+                long nameStart = position + 2;
+                long nameEnd = nameEnd(nameStart);
+                long end = skipPast(nameEnd, TAG_END);
+                depth--;
+                if (transactionDepth == depth) {
+                    appendTransactionEnd(end);
+                    transactionDepth = -1;
+                } else if (transactionDepth < 0) {
+                    markupSinceTransaction = true;
+                    if (groupHeaderDepth == depth) {
+                        groupHeaderEnd = end;
+                        groupHeaderDepth = -1;
+                    }
+                }
+                position = end;
+                continue;
+            }
+
+            // Start tag
+            long nameStart = position + 1;
+            long nameEnd = nameEnd(nameStart);
+            long end = -1;
+            boolean declaresNamespace = false;
+            int quote = 0;
+            for (long p = nameEnd; p < size; p++) {
+                int b = byteAt(p);
+                if (quote != 0) {
+                    if (b == quote) {
+                        quote = 0;
+                    }
+                } else if (b == '"' || b == '\'') {
+                    quote = b;
+                } else if (b == '>') {
+                    end = p + 1;
+                    break;
+                } else if (isWhitespace(b) && matchesAt(p + 1, XMLNS)) {
+                    int after = byteAt(p + 1 + XMLNS.length);
+                    declaresNamespace |= after == '=' || after == ':' || isWhitespace(after);
+                }
+            }
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated start tag at offset " + position + " in " + path);
+            }
+            boolean empty = byteAt(end - 2) == '/';
+
+            if (transactionDepth < 0) {
+                if (depth == 0 && rootStartTag == null) {
+                    rootStartTag = copy(position, end);
+                    if (empty) {
+                        rootStartTag = null;
+                    } else {
+                        byte[] name = copy(nameStart, nameEnd);
+                        rootEndTag = new byte[name.length + 3];
+                        rootEndTag[0] = '<';
+                        rootEndTag[1] = '/';
+                        System.arraycopy(name, 0, rootEndTag, 2, name.length);
+                        rootEndTag[rootEndTag.length - 1] = '>';
+                    }
+                } else if (localNameEquals(nameStart, nameEnd, TRANSACTION_ELEMENT)) {
+                    if (markupSinceTransaction) {
+                        runStarts.set(transactionCount);
+                    }
+                    markupSinceTransaction = false;
+                    appendTransactionStart(position);
+                    if (empty) {
+                        appendTransactionEnd(end);
+                    } else {
+                        transactionDepth = depth;
+                    }
+                    depth += empty ? 0 : 1;
+                    position = end;
+                    continue;
+                } else {
+                    if (declaresNamespace) {
+                        splittable = false;
+                    }
+                    if (groupHeaderStart < 0 && localNameEquals(nameStart, nameEnd, GROUP_HEADER_ELEMENT)) {
+                        groupHeaderStart = position;
+                        if (empty) {
+                            groupHeaderEnd = end;
+                        } else {
+                            groupHeaderDepth = depth;
+                        }
+                    }
+                }
+                markupSinceTransaction = true;
+            }
+            if (!empty) {
+                depth++;
+            }
+            position = end;
+        }
+        if (transactionDepth >= 0) {
+            throw new IllegalArgumentException("Unterminated transaction at end of " + path);
+        }
+    }
+
+    /**
+     * Reject encodings the byte scan cannot read and return the offset of the first markup.
+     */
+    private long checkEncoding() {
+        if (size >= 2 && ((byteAt(0) == 0xFE && byteAt(1) == 0xFF) || (byteAt(0) == 0xFF && byteAt(1) == 0xFE)
+                || byteAt(0) == 0 || byteAt(1) == 0)) {
+            throw new IllegalArgumentException("UTF-16 input is not supported by the byte scan: " + path);
+        }
+        if (size >= 3 && byteAt(0) == 0xEF && byteAt(1) == 0xBB && byteAt(2) == 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private void appendTransactionStart(long start) {
+        if (transactionCount == transactionStarts.length) {
+            transactionStarts = Arrays.copyOf(transactionStarts, transactionCount * 2);
+            transactionEnds = Arrays.copyOf(transactionEnds, transactionCount * 2);
+        }
+        transactionStarts[transactionCount] = start;
+    }
+
+    private void appendTransactionEnd(long end) {
+        transactionEnds[transactionCount++] = end;
+    }
+
+    private long indexOf(int value, long from) {
+        long position = from;
+        while (position < size) {
+            MappedByteBuffer segment = segments[(int) (position >>> segmentShift)];
+            int limit = segment.limit();
+            for (int i = (int) (position & segmentMask); i < limit; i++) {
+                if (segment.get(i) == value) {
+                    return (position & ~segmentMask) + i;
+                }
+            }
+            position = (position & ~segmentMask) + limit;
+        }
+        return -1;
+    }
+
+    private long skipPast(long from, byte[] bytes) {
+        long position = from;
+        while ((position = indexOf(bytes[0], position)) >= 0) {
+            if (matchesAt(position, bytes)) {
+                return position + bytes.length;
+            }
+            position++;
+        }
+        throw new IllegalArgumentException("Missing '" + new String(bytes, StandardCharsets.US_ASCII) + "' after offset " + from + " in " + path);
+    }
+
+    private long nameEnd(long from) {
+        long position = from;
+        while (position < size) {
+            int b = byteAt(position);
+            if (isWhitespace(b) || b == '>' || b == '/') {
+                return position;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private boolean localNameEquals(long nameStart, long nameEnd, byte[] localName) {
+        long localStart = nameEnd - localName.length;
+        if (localStart < nameStart || (localStart > nameStart && byteAt(localStart - 1) != ':')) {
+            return false;
+        }
+        return matchesAt(localStart, localName);
+    }
+
+    private boolean matchesAt(long position, byte[] bytes) {
+        if (position + bytes.length > size) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (byteAt(position + i) != (bytes[i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] copy(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) byteAt(start + i);
+        }
+        return bytes;
+    }
+
+    private int byteAt(long position) {
+        if (position >= currentStart && position < currentEnd) {
+            return current.get((int) (position - currentStart)) & 0xFF;
+        }
+        if (position >= size) {
+            return -1;
+        }
+        current = segments[(int) (position >>> segmentShift)];
+        currentStart = position & ~segmentMask;
+        currentEnd = currentStart + current.limit();
+        return current.get((int) (position - currentStart)) & 0xFF;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * A run of consecutive sibling transactions, identified by transaction index and byte range.
+     */
+    public static final class Chunk {
+
+        private final int firstTransaction;
+        private final int endTransaction;
+        private final long start;
+        private final long end;
+
+        private Chunk(int firstTransaction, int endTransaction, long start, long end) {
+            this.firstTransaction = firstTransaction;
+            this.endTransaction = endTransaction;
+            this.start = start;
+            this.end = end;
+        }
+
+        public int getFirstTransaction() {
+            return firstTransaction;
+        }
+
+        /**
+         * Get the index just past the chunk's last transaction.
+         */
+        public int getEndTransaction() {
+            return endTransaction;
+        }
+
+        public int getTransactionCount() {
+            return endTransaction - firstTransaction;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "Chunk{transactions=" + firstTransaction + ".." + endTransaction + ", bytes=" + start + ".." + end + "}";
+        }
+    }
+
+    /**
+     * Stream over a mapped slice; each reader gets its own slice, so positions are not shared.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package org.translator.mapper;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Narrow functional adapter that wraps a concrete mapping implementation.
  * Implementations should be Spring components so the registry can discover
@@ -19,4 +23,23 @@ public interface MapperAdapter {
      * XML.
      */
     String map(String sourceXml) throws Exception;
+
+    /**
+     * Map the given source XML and marshal the result using the given output
+     * layout. Adapters that do not control their own marshalling ignore the mode.
+     */
+    default String map(String sourceXml, XmlOutputMode outputMode) throws Exception {
+        return map(sourceXml);
+    }
+
+    /**
+     * Map source XML read from a byte stream and write the marshalled target XML
+     * to the given output stream. The default implementation bridges to
+     * {@link #map(String, XmlOutputMode)}; adapters should override it to feed the
+     * parser and marshaller directly from and to the streams.
+     */
+    default void map(InputStream sourceXml, OutputStream targetXml, XmlOutputMode outputMode) throws Exception {
+        String source = new String(sourceXml.readAllBytes(), StandardCharsets.UTF_8);
+        targetXml.write(map(source, outputMode).getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,320 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Rolls out a new version of a mapper next to the one in service, for the same
+ * source and target types.
+ *
+ * A percentage of messages, picked at random, is transformed by the candidate
+ * (canary routing); the rest by the primary. In shadow mode the candidate also
+ * transforms the messages the primary served, on a separate bounded executor, and
+ * the two outputs are compared off the request path: the caller gets the primary's
+ * result as soon as it is ready. When the shadow executor is saturated, shadow runs
+ * are dropped and counted rather than queued without bound.
+ *
+ * A rollout is registered with {@link PaymentMessageOrchestrator#registerCandidate}
+ * and ended with {@link PaymentMessageOrchestrator#promoteCandidate} or
+ * {@link PaymentMessageOrchestrator#rollbackCandidate}; each step publishes a new
+ * registry snapshot, so in-flight transformations finish on the mappers they started with.
+ *
+ * The shadow comparison reads the primary's output after it has been returned, so a
+ * caller that modifies the result may see spurious mismatches.
+ *
+ * @param <SOURCE> The source message type
+ * @param <TARGET> The target message type
+ */
+public final class MapperRollout<SOURCE, TARGET> implements PaymentMessageMapper<SOURCE, TARGET> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapperRollout.class);
+
+    /**
+     * Maximum number of shadow runs waiting on the default shadow executor.
+     */
+    public static final int DEFAULT_SHADOW_QUEUE_CAPACITY = 1024;
+
+    private static final Executor DEFAULT_SHADOW_EXECUTOR = createShadowExecutor();
+
+    private final PaymentMessageMapper<SOURCE, TARGET> primary;
+    private final PaymentMessageMapper<SOURCE, TARGET> candidate;
+    private final int canaryPercent;
+    private final boolean shadow;
+    private final Executor shadowExecutor;
+    private final BiPredicate<? super TARGET, ? super TARGET> sameOutput;
+
+    private final LongAdder primaryCount = new LongAdder();
+    private final LongAdder candidateCount = new LongAdder();
+    private final LongAdder shadowMatches = new LongAdder();
+    private final LongAdder shadowMismatches = new LongAdder();
+    private final LongAdder shadowDropped = new LongAdder();
+
+    /**
+     * Create a rollout that shadows on the default executor and compares outputs by their XML.
+     *
+     * @see #MapperRollout(PaymentMessageMapper, PaymentMessageMapper, int, boolean, Executor, BiPredicate)
+     */
+    public MapperRollout(PaymentMessageMapper<SOURCE, TARGET> primary,
+                         PaymentMessageMapper<SOURCE, TARGET> candidate,
+                         int canaryPercent,
+                         boolean shadow) {
+        this(primary, candidate, canaryPercent, shadow, DEFAULT_SHADOW_EXECUTOR, null);
+    }
+
+    /**
+     * @param primary The mapper in service
+     * @param candidate The new version of the mapper
+     * @param canaryPercent The percentage of messages, 0 to 100, transformed by the candidate
+     * @param shadow Whether the candidate also transforms, for comparison, the messages the primary serves
+     * @param shadowExecutor The executor that runs shadow transformations; it should be bounded
+     *                       and reject work when full
+     * @param sameOutput Decides whether two outputs are equivalent, or null to compare
+     *                   their XML for registered message types and use {@code equals} otherwise
+     */
+    public MapperRollout(PaymentMessageMapper<SOURCE, TARGET> primary,
+                         PaymentMessageMapper<SOURCE, TARGET> candidate,
+                         int canaryPercent,
+                         boolean shadow,
+                         Executor shadowExecutor,
+                         BiPredicate<? super TARGET, ? super TARGET> sameOutput) {
+        this.primary = Objects.requireNonNull(primary, "primary");
+        this.candidate = Objects.requireNonNull(candidate, "candidate");
+        if (!Objects.equals(primary.getSourceMessageType(), candidate.getSourceMessageType())
+                || !Objects.equals(primary.getTargetMessageType(), candidate.getTargetMessageType())) {
+            throw new IllegalArgumentException("Candidate " + candidate.getSourceMessageType() + " -> "
+                + candidate.getTargetMessageType() + " does not match primary " + primary.getSourceMessageType()
+                + " -> " + primary.getTargetMessageType());
+        }
+        if (canaryPercent < 0 || canaryPercent > 100) {
+            throw new IllegalArgumentException("Canary percentage must be between 0 and 100: " + canaryPercent);
+        }
+        this.canaryPercent = canaryPercent;
+        this.shadow = shadow;
+        this.shadowExecutor = Objects.requireNonNull(shadowExecutor, "shadowExecutor");
+        this.sameOutput = sameOutput != null ? sameOutput : this::sameDocument;
+    }
+
+    @Override
+    public TARGET transform(SOURCE source) throws PaymentMappingException {
+        return tryTransform(source).getOrThrow();
+    }
+
+    @Override
+    public TARGET transformValidated(SOURCE source) throws PaymentMappingException {
+        return tryTransformValidated(source).getOrThrow();
+    }
+
+    @Override
+    public TransformResult<TARGET> tryTransform(SOURCE source) {
+        if (routeToCandidate()) {
+            candidateCount.increment();
+            return candidate.tryTransform(source);
+        }
+        primaryCount.increment();
+        TransformResult<TARGET> result = primary.tryTransform(source);
+        if (shadow) {
+            shadow(source, result, false);
+        }
+        return result;
+    }
+
+    @Override
+    public TransformResult<TARGET> tryTransformValidated(SOURCE source) {
+        if (routeToCandidate()) {
+            candidateCount.increment();
+            return candidate.tryTransformValidated(source);
+        }
+        primaryCount.increment();
+        TransformResult<TARGET> result = primary.tryTransformValidated(source);
+        if (shadow) {
+            shadow(source, result, true);
+        }
+        return result;
+    }
+
+    /**
+     * Validation follows the primary, which serves most of the traffic.
+     */
+    @Override
+    public void validate(SOURCE source) throws PaymentMappingException {
+        primary.validate(source);
+    }
+
+    @Override
+    public boolean supports(SOURCE source) {
+        return primary.supports(source);
+    }
+
+    @Override
+    public String getSourceMessageType() {
+        return primary.getSourceMessageType();
+    }
+
+    @Override
+    public String getTargetMessageType() {
+        return primary.getTargetMessageType();
+    }
+
+    @Override
+    public int getRouteCost() {
+        return primary.getRouteCost();
+    }
+
+    @Override
+    public TransformationMetadata getTransformationMetadata() {
+        return primary.getTransformationMetadata();
+    }
+
+    public PaymentMessageMapper<SOURCE, TARGET> getPrimary() {
+        return primary;
+    }
+
+    public PaymentMessageMapper<SOURCE, TARGET> getCandidate() {
+        return candidate;
+    }
+
+    public int getCanaryPercent() {
+        return canaryPercent;
+    }
+
+    public boolean isShadow() {
+        return shadow;
+    }
+
+    /**
+     * Get the number of messages transformed by the primary.
+     */
+    public long getPrimaryCount() {
+        return primaryCount.sum();
+    }
+
+    /**
+     * Get the number of messages transformed by the candidate as canary traffic.
+     */
+    public long getCandidateCount() {
+        return candidateCount.sum();
+    }
+
+    /**
+     * Get the number of shadow runs whose outcome matched the primary's: equivalent
+     * outputs, or failures with the same error code.
+     */
+    public long getShadowMatches() {
+        return shadowMatches.sum();
+    }
+
+    /**
+     * Get the number of shadow runs whose outcome differed from the primary's.
+     */
+    public long getShadowMismatches() {
+        return shadowMismatches.sum();
+    }
+
+    /**
+     * Get the number of shadow runs skipped because the shadow executor was full.
+     */
+    public long getShadowDropped() {
+        return shadowDropped.sum();
+    }
+
+    private boolean routeToCandidate() {
+        return canaryPercent == 100 || canaryPercent > 0 && ThreadLocalRandom.current().nextInt(100) < canaryPercent;
+    }
+
+    private void shadow(SOURCE source, TransformResult<TARGET> primaryResult, boolean validated) {
+        try {
+            shadowExecutor.execute(() -> compare(source, primaryResult, validated));
+        } catch (RejectedExecutionException e) {
+            shadowDropped.increment();
+        }
+    }
+
+    private void compare(SOURCE source, TransformResult<TARGET> primaryResult, boolean validated) {
+        boolean same;
+        try {
+            TransformResult<TARGET> candidateResult = validated
+                ? candidate.tryTransformValidated(source)
+                : candidate.tryTransform(source);
+            same = sameOutcome(primaryResult, candidateResult);
+        } catch (RuntimeException e) {
+            logger.debug("Shadow transformation {} -> {} failed: {}",
+                         getSourceMessageType(), getTargetMessageType(), e.getMessage());
+            same = false;
+        }
+        if (same) {
+            shadowMatches.increment();
+        } else {
+            shadowMismatches.increment();
+            logger.debug("Shadow output of {} -> {} differs from the primary",
+                         getSourceMessageType(), getTargetMessageType());
+        }
+    }
+
+    private boolean sameOutcome(TransformResult<TARGET> primaryResult, TransformResult<TARGET> candidateResult) {
+        if (primaryResult instanceof TransformResult.Success<TARGET> primarySuccess
+                && candidateResult instanceof TransformResult.Success<TARGET> candidateSuccess) {
+            return sameOutput.test(primarySuccess.value(), candidateSuccess.value());
+        }
+        if (primaryResult instanceof TransformResult.Failure<TARGET> primaryFailure
+                && candidateResult instanceof TransformResult.Failure<TARGET> candidateFailure) {
+            return Objects.equals(primaryFailure.errorCode(), candidateFailure.errorCode());
+        }
+        return false;
+    }
+
+    /**
+     * Compare two documents by their compact XML; the generated model has no {@code equals}.
+     */
+    private boolean sameDocument(TARGET first, TARGET second) {
+        String messageType = getTargetMessageType();
+        if (first == null || second == null || !JaxbContextRegistry.isRegistered(messageType)) {
+            return Objects.equals(first, second);
+        }
+        try {
+            ByteArrayOutputStream firstXml = new ByteArrayOutputStream();
+            ByteArrayOutputStream secondXml = new ByteArrayOutputStream();
+            MessageDocumentWriter.write(messageType, first, firstXml, XmlOutputMode.COMPACT);
+            MessageDocumentWriter.write(messageType, second, secondXml, XmlOutputMode.COMPACT);
+            return Arrays.equals(firstXml.toByteArray(), secondXml.toByteArray());
+        } catch (JAXBException e) {
+            logger.debug("Failed to write shadow outputs of {} for comparison: {}", messageType, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A small pool of low-priority daemon threads with a bounded queue, so shadow
+     * work neither competes with requests nor accumulates when it falls behind.
+     */
+    private static Executor createShadowExecutor() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(DEFAULT_SHADOW_QUEUE_CAPACITY),
+            task -> {
+                Thread thread = new Thread(task, "payment-transform-shadow-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
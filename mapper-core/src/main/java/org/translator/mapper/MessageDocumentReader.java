@@ -0,0 +1,184 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import org.translator.xsd.reader.Pacs008StaxReader;
+import org.translator.xsd.reader.Pacs009StaxReader;
+import org.translator.xsd.reader.Pain001StaxReader;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Reads whole documents into the generated model, using the build-time generated
+ * StAX readers where one exists for the message type and JAXB otherwise.
+ *
+ * Both paths report malformed input, and input rejected by schema validation, as a
+ * {@link JAXBException}, so callers handle errors the same way whichever
+ * {@link XmlReaderMode} is active.
+ */
+public final class MessageDocumentReader {
+
+    private static final Map<String, GeneratedReader<?>> GENERATED_READERS = Map.of(
+        JaxbContextRegistry.PACS008_V13, Pacs008StaxReader::read,
+        JaxbContextRegistry.PACS009_V12, Pacs009StaxReader::read,
+        JaxbContextRegistry.PAIN001_V12, Pain001StaxReader::read
+    );
+
+    private MessageDocumentReader() {
+    }
+
+    /**
+     * Check whether a generated reader exists for a message type.
+     */
+    public static boolean hasGeneratedReader(String messageType) {
+        return messageType != null && GENERATED_READERS.containsKey(messageType);
+    }
+
+    /**
+     * Read a document using the process-wide {@link XmlReaderMode}.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param in The XML input
+     * @param <T> The bound document type
+     * @return The bound document
+     * @throws JAXBException if the XML cannot be read
+     */
+    public static <T> T read(String messageType, InputStream in) throws JAXBException {
+        return read(messageType, in, XmlReaderMode.getDefault());
+    }
+
+    /**
+     * Read a document using the given mode. Message types without a generated
+     * reader are always read through JAXB.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param in The XML input
+     * @param mode The reader implementation to use
+     * @param <T> The bound document type
+     * @return The bound document
+     * @throws JAXBException if the XML cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(String messageType, InputStream in, XmlReaderMode mode) throws JAXBException {
+        GeneratedReader<?> reader = GENERATED_READERS.get(messageType);
+        if (mode == XmlReaderMode.JAXB || reader == null) {
+            return JaxbContextRegistry.unmarshal(messageType, new StreamSource(in));
+        }
+        XMLStreamReader stream = null;
+        try {
+            stream = StaxReaderSupport.createReader(in);
+            return (T) reader.read(stream);
+        } catch (XMLStreamException e) {
+            throw new UnmarshalException("Failed to read " + messageType + ": " + e.getMessage(), e);
+        } finally {
+            close(stream);
+        }
+    }
+
+    /**
+     * Read a document on a route using the process-wide {@link XmlReaderMode},
+     * validating it in the same pass when the route's {@link ValidationMode} selects it.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param in The XML input
+     * @param validation The validation state of the route the document arrived on
+     * @param <T> The bound document type
+     * @return The bound document
+     * @throws JAXBException if the XML cannot be read or fails validation
+     */
+    public static <T> T read(String messageType, InputStream in, RouteValidation validation) throws JAXBException {
+        return read(messageType, in, XmlReaderMode.getDefault(), validation);
+    }
+
+    /**
+     * Read a document on a route, validating it against the message type's schema in
+     * the same pass when the route's {@link ValidationMode} selects it.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param in The XML input
+     * @param mode The reader implementation to use
+     * @param validation The validation state of the route the document arrived on
+     * @param <T> The bound document type
+     * @return The bound document
+     * @throws JAXBException if the XML cannot be read or fails validation
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(String messageType, InputStream in, XmlReaderMode mode, RouteValidation validation)
+            throws JAXBException {
+        GeneratedReader<?> generated = GENERATED_READERS.get(messageType);
+        if (mode == XmlReaderMode.JAXB || generated == null) {
+            return readOnRoute(messageType, in, validation, reader -> JaxbContextRegistry.unmarshal(messageType, reader));
+        }
+        return readOnRoute(messageType, in, validation, reader -> (T) generated.read(reader));
+    }
+
+    /**
+     * Read a document on a route through an unmarshaller the caller holds, for
+     * loops that bind many documents with one borrowed unmarshaller. Validation and
+     * error reporting are those of {@link #read(String, InputStream, RouteValidation)}.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.01")
+     * @param type The bound document type
+     * @param unmarshaller An unmarshaller of the message type's context
+     * @param in The XML input
+     * @param validation The validation state of the route the document arrived on
+     * @return The bound document
+     * @throws JAXBException if the XML cannot be read or fails validation
+     */
+    public static <T> T read(String messageType, Class<T> type, Unmarshaller unmarshaller, InputStream in,
+                             RouteValidation validation) throws JAXBException {
+        return readOnRoute(messageType, in, validation, reader -> unmarshaller.unmarshal(reader, type).getValue());
+    }
+
+    private static <T> T readOnRoute(String messageType, InputStream in, RouteValidation validation,
+                                     Binder<T> binder) throws JAXBException {
+        XMLStreamReader reader = null;
+        try {
+            reader = validation.open(in, messageType);
+            T document = binder.bind(reader);
+            // Let the validator see the end of the document
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            return document;
+        } catch (XMLStreamException e) {
+            throw new UnmarshalException("Failed to read " + messageType + ": " + e.getMessage(), e);
+        } catch (UnmarshalException e) {
+            // JAXB rethrows a validation failure from the reader without a message of its own
+            Throwable linked = e.getLinkedException();
+            if (e.getMessage() == null && linked != null) {
+                throw new UnmarshalException("Failed to read " + messageType + ": " + linked.getMessage(), linked);
+            }
+            throw e;
+        } finally {
+            close(reader);
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // best-effort close
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeneratedReader<T> {
+        T read(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        T bind(XMLStreamReader reader) throws XMLStreamException, JAXBException;
+    }
+}
@@ -0,0 +1,117 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.MarshalException;
+import org.translator.xsd.writer.Pacs008XmlWriter;
+import org.translator.xsd.writer.Pacs009XmlWriter;
+import org.translator.xsd.writer.Pain001XmlWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Writes whole documents from the generated model, using the build-time generated
+ * UTF-8 writers where one exists for the message type and JAXB otherwise.
+ *
+ * Both paths report failures as a {@link JAXBException}, so callers handle errors
+ * the same way whichever {@link XmlWriterMode} is active.
+ */
+public final class MessageDocumentWriter {
+
+    private static final Map<String, GeneratedWriter<?>> GENERATED_WRITERS = Map.of(
+        JaxbContextRegistry.PACS008_V13,
+        (GeneratedWriter<org.translator.xsd.generated.pacs_008.Document>) Pacs008XmlWriter::write,
+        JaxbContextRegistry.PACS009_V12,
+        (GeneratedWriter<org.translator.xsd.generated.pacs_009.Document>) Pacs009XmlWriter::write,
+        JaxbContextRegistry.PAIN001_V12,
+        (GeneratedWriter<org.translator.xsd.generated.pain_001.Document>) Pain001XmlWriter::write
+    );
+
+    private MessageDocumentWriter() {
+    }
+
+    /**
+     * Check whether a generated writer exists for a message type.
+     */
+    public static boolean hasGeneratedWriter(String messageType) {
+        return messageType != null && GENERATED_WRITERS.containsKey(messageType);
+    }
+
+    /**
+     * Write a document using the process-wide {@link XmlWriterMode}.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param document The document to write
+     * @param out The destination; it is flushed but not closed
+     * @param outputMode The output layout
+     * @throws JAXBException if the document cannot be written
+     */
+    public static void write(String messageType, Object document, OutputStream out, XmlOutputMode outputMode)
+            throws JAXBException {
+        write(messageType, document, out, outputMode, XmlWriterMode.getDefault());
+    }
+
+    /**
+     * Write a document using the given writer mode. Message types without a
+     * generated writer are always written through JAXB.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param document The document to write
+     * @param out The destination; it is flushed but not closed
+     * @param outputMode The output layout
+     * @param writerMode The writer implementation to use
+     * @throws JAXBException if the document cannot be written
+     */
+    public static void write(String messageType, Object document, OutputStream out, XmlOutputMode outputMode,
+                             XmlWriterMode writerMode) throws JAXBException {
+        GeneratedWriter<?> writer = GENERATED_WRITERS.get(messageType);
+        if (writerMode == XmlWriterMode.JAXB || writer == null) {
+            JaxbContextRegistry.marshal(messageType, document, out, outputMode);
+            return;
+        }
+        try {
+            writer.writeObject(document, new XmlByteWriter(out, outputMode));
+        } catch (IOException | ClassCastException e) {
+            throw new MarshalException("Failed to write " + messageType + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write a document into a buffer using the process-wide {@link XmlWriterMode}.
+     * A buffer without enough space remaining fails with {@link java.nio.BufferOverflowException}.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param document The document to write
+     * @param buffer The destination, written from its current position
+     * @param outputMode The output layout
+     * @throws JAXBException if the document cannot be written
+     */
+    public static void write(String messageType, Object document, ByteBuffer buffer, XmlOutputMode outputMode)
+            throws JAXBException {
+        GeneratedWriter<?> writer = GENERATED_WRITERS.get(messageType);
+        if (XmlWriterMode.getDefault() == XmlWriterMode.JAXB || writer == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JaxbContextRegistry.marshal(messageType, document, out, outputMode);
+            buffer.put(out.toByteArray());
+            return;
+        }
+        try {
+            writer.writeObject(document, new XmlByteWriter(buffer, outputMode));
+        } catch (IOException | ClassCastException e) {
+            throw new MarshalException("Failed to write " + messageType + ": " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeneratedWriter<T> {
+        void write(T document, XmlByteWriter out) throws IOException;
+
+        @SuppressWarnings("unchecked")
+        default void writeObject(Object document, XmlByteWriter out) throws IOException {
+            write((T) document, out);
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package org.translator.mapper;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Generic entry point for message mappings.
  * Implementations should accept a source XML payload and a target message type
@@ -16,4 +23,55 @@ public interface MessageMappingDispatcher {
      * @throws Exception on mapping or marshalling errors
      */
     String mapXml(String sourceXml, String targetMessageType) throws Exception;
+
+    /**
+     * Map source XML to target message type, marshalling the result with the
+     * given output layout.
+     *
+     * @param sourceXml         the source XML payload
+     * @param targetMessageType the requested target message type
+     * @param outputMode        compact or indented output
+     * @return marshalled target XML
+     * @throws Exception on mapping or marshalling errors
+     */
+    default String mapXml(String sourceXml, String targetMessageType, XmlOutputMode outputMode) throws Exception {
+        return mapXml(sourceXml, targetMessageType);
+    }
+
+    /**
+     * Map source XML read from a byte stream and write the marshalled target XML
+     * to the given output stream, without materialising either payload as a String.
+     * The default implementation bridges to the String-based API.
+     *
+     * @param sourceXml         the source XML payload
+     * @param targetXml         the stream receiving the marshalled target XML
+     * @param targetMessageType the requested target message type
+     * @param outputMode        compact or indented output
+     * @throws Exception on mapping or marshalling errors
+     */
+    default void mapXml(InputStream sourceXml, OutputStream targetXml, String targetMessageType,
+                        XmlOutputMode outputMode) throws Exception {
+        String source = new String(sourceXml.readAllBytes(), StandardCharsets.UTF_8);
+        targetXml.write(mapXml(source, targetMessageType, outputMode).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Map one source XML payload to several target message types. The default
+     * implementation maps to each target in turn; implementations should parse the
+     * source once and run the target mappings concurrently.
+     *
+     * @param sourceXml          the source XML payload
+     * @param targetMessageTypes the requested target message types
+     * @param outputMode         compact or indented output
+     * @return marshalled target XML keyed by requested target type, in request order
+     * @throws Exception on mapping or marshalling errors of any target
+     */
+    default Map<String, String> mapXml(String sourceXml, List<String> targetMessageTypes,
+                                       XmlOutputMode outputMode) throws Exception {
+        Map<String, String> results = new LinkedHashMap<>();
+        for (String targetMessageType : targetMessageTypes) {
+            results.put(targetMessageType, mapXml(sourceXml, targetMessageType, outputMode));
+        }
+        return results;
+    }
 }
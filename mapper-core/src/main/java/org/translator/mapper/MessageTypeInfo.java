@@ -0,0 +1,123 @@
+package org.translator.mapper;
+
+/**
+ * Structured ISO 20022 message identifier, for example {@code pacs.008.001.13}:
+ * business area {@code pacs}, message number {@code 008}, variant {@code 001}
+ * and version {@code 13}.
+ */
+public final class MessageTypeInfo {
+
+    private static final String ISO_NAMESPACE_PREFIX = "urn:iso:std:iso:20022:tech:xsd:";
+
+    private final String businessArea;
+    private final String messageNumber;
+    private final String variant;
+    private final String version;
+    private final String namespace;
+    private final boolean wrappedInAppHdr;
+
+    public MessageTypeInfo(String businessArea, String messageNumber, String variant, String version,
+                           String namespace, boolean wrappedInAppHdr) {
+        this.businessArea = businessArea;
+        this.messageNumber = messageNumber;
+        this.variant = variant;
+        this.version = version;
+        this.namespace = namespace;
+        this.wrappedInAppHdr = wrappedInAppHdr;
+    }
+
+    /**
+     * Parse an identifier such as {@code pacs.008.001.13} or an ISO 20022 namespace
+     * such as {@code urn:iso:std:iso:20022:tech:xsd:pacs.008.001.13}.
+     *
+     * @param identifier The identifier or namespace URI
+     * @return The parsed identifier, or null if it is not an ISO 20022 message identifier
+     */
+    public static MessageTypeInfo parse(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        String id = identifier.trim();
+        String namespace = null;
+        if (id.startsWith(ISO_NAMESPACE_PREFIX)) {
+            namespace = id;
+            id = id.substring(ISO_NAMESPACE_PREFIX.length());
+        }
+        String[] parts = id.split("\\.");
+        if (parts.length != 4 || parts[0].length() != 4) {
+            return null;
+        }
+        for (int i = 1; i < parts.length; i++) {
+            if (parts[i].isEmpty() || !parts[i].chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+        }
+        return new MessageTypeInfo(parts[0].toLowerCase(), parts[1], parts[2], parts[3], namespace, false);
+    }
+
+    /**
+     * Return a copy of this identifier marked as found inside a head.001 business message.
+     */
+    public MessageTypeInfo withAppHdr() {
+        return wrappedInAppHdr ? this : new MessageTypeInfo(businessArea, messageNumber, variant, version, namespace, true);
+    }
+
+    public String getBusinessArea() {
+        return businessArea;
+    }
+
+    public String getMessageNumber() {
+        return messageNumber;
+    }
+
+    /**
+     * Get the message variant, or null when only the message name was recognised.
+     */
+    public String getVariant() {
+        return variant;
+    }
+
+    /**
+     * Get the message version, or null when only the message name was recognised.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the namespace URI the identifier was read from, or null if it was not read from a namespace.
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * True when the message was wrapped in a head.001 business application header envelope.
+     */
+    public boolean isWrappedInAppHdr() {
+        return wrappedInAppHdr;
+    }
+
+    /**
+     * Get the short message identifier, e.g. {@code pacs.008}.
+     */
+    public String getMessageId() {
+        return businessArea + "." + messageNumber;
+    }
+
+    /**
+     * Get the full identifier, e.g. {@code pacs.008.001.13}, or the short identifier
+     * when variant and version are unknown.
+     */
+    public String getFullIdentifier() {
+        if (variant == null || version == null) {
+            return getMessageId();
+        }
+        return getMessageId() + "." + variant + "." + version;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MessageTypeInfo{id='%s', appHdr=%s}", getFullIdentifier(), wrappedInAppHdr);
+    }
+}
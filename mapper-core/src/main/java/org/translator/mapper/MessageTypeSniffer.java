@@ -0,0 +1,443 @@
+package org.translator.mapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Detects the ISO 20022 message type of a payload by scanning only the prolog and
+ * the leading start tags. No parser is created and the payload is not copied or
+ * decoded; a head.001 business application header wrapper is skipped over, with
+ * its {@code MsgDefIdr} used as a fallback when the document namespace is not
+ * reached within the scan window.
+ */
+public final class MessageTypeSniffer {
+
+    /**
+     * Maximum number of leading bytes (or chars) scanned.
+     */
+    public static final int DEFAULT_SCAN_LIMIT = 8192;
+
+    private static final int MAX_ELEMENTS_OUTSIDE_HEADER = 8;
+
+    private static final Map<String, String> ROOT_CHILD_HINTS = new HashMap<>();
+
+    static {
+        ROOT_CHILD_HINTS.put("FIToFICstmrCdtTrf", "pacs.008");
+        ROOT_CHILD_HINTS.put("FICdtTrf", "pacs.009");
+        ROOT_CHILD_HINTS.put("FIToFIPmtStsRpt", "pacs.002");
+        ROOT_CHILD_HINTS.put("PmtRtr", "pacs.004");
+        ROOT_CHILD_HINTS.put("CstmrCdtTrfInitn", "pain.001");
+    }
+
+    private MessageTypeSniffer() {
+    }
+
+    /**
+     * Sniff the message type from a byte array holding (the start of) a message.
+     *
+     * @return The detected message type, or null if none was recognised
+     */
+    public static MessageTypeInfo sniff(byte[] data) {
+        return data == null ? null : sniff(data, 0, data.length);
+    }
+
+    /**
+     * Sniff the message type from a range of a byte array.
+     *
+     * @return The detected message type, or null if none was recognised
+     */
+    public static MessageTypeInfo sniff(byte[] data, int offset, int length) {
+        if (data == null || length <= 0) {
+            return null;
+        }
+        // UTF-16 payloads are rare; transcode just the scan window so the scanner can stay byte-oriented
+        if (length >= 2 && ((data[offset] == (byte) 0xFE && data[offset + 1] == (byte) 0xFF)
+                || (data[offset] == (byte) 0xFF && data[offset + 1] == (byte) 0xFE))) {
+            int window = Math.min(length, DEFAULT_SCAN_LIMIT * 2);
+            return sniff(new String(data, offset, window, StandardCharsets.UTF_16));
+        }
+        return new Scanner(new ByteInput(data, offset, Math.min(length, DEFAULT_SCAN_LIMIT))).scan();
+    }
+
+    /**
+     * Sniff the message type from character data without copying it.
+     *
+     * @return The detected message type, or null if none was recognised
+     */
+    public static MessageTypeInfo sniff(CharSequence xml) {
+        if (xml == null || xml.length() == 0) {
+            return null;
+        }
+        return new Scanner(new CharInput(xml, Math.min(xml.length(), DEFAULT_SCAN_LIMIT))).scan();
+    }
+
+    /**
+     * Sniff the message type from the head of a stream. Only the scan window is read,
+     * and the stream is reset to its start afterwards, so it must support mark/reset.
+     *
+     * @return The detected message type, or null if none was recognised
+     */
+    public static MessageTypeInfo sniff(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Stream must support mark/reset for type detection");
+        }
+        in.mark(DEFAULT_SCAN_LIMIT);
+        try {
+            byte[] head = in.readNBytes(DEFAULT_SCAN_LIMIT);
+            return sniff(head, 0, head.length);
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Check whether a stream holds anything other than whitespace within the scan window.
+     * The stream is reset to its start afterwards, so it must support mark/reset.
+     */
+    public static boolean hasContent(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Stream must support mark/reset for type detection");
+        }
+        in.mark(DEFAULT_SCAN_LIMIT);
+        try {
+            for (int i = 0; i < DEFAULT_SCAN_LIMIT; i++) {
+                int b = in.read();
+                if (b < 0) {
+                    return false;
+                }
+                if (!isWhitespace(b) && b != 0xEF && b != 0xBB && b != 0xBF) {
+                    return true;
+                }
+            }
+            return true;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    /**
+     * Random access over the scan window; code units above 0x7F are only ever
+     * compared against ASCII markup characters, so bytes and chars can share a scanner.
+     */
+    private interface Input {
+        int length();
+
+        int at(int index);
+
+        String substring(int start, int end);
+    }
+
+    private static final class ByteInput implements Input {
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+
+        private ByteInput(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int at(int index) {
+            return data[offset + index] & 0xFF;
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            return new String(data, offset + start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class CharInput implements Input {
+        private final CharSequence data;
+        private final int length;
+
+        private CharInput(CharSequence data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int at(int index) {
+            return data.charAt(index);
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            return data.subSequence(start, end).toString();
+        }
+    }
+
+    private static final class Scanner {
+        private final Input in;
+        private final Map<String, String> namespaces = new HashMap<>();
+        private final Deque<ScopedDeclaration> shadowed = new ArrayDeque<>();
+        private int pos;
+        private int depth;
+        private int appHdrDepth = -1;
+        private boolean sawAppHdr;
+        private String msgDefIdr;
+        private int elementsOutsideHeader;
+
+        private Scanner(Input in) {
+            this.in = in;
+        }
+
+        private MessageTypeInfo scan() {
+            skipBom();
+            while (pos < in.length()) {
+                int lt = indexOf('<', pos);
+                if (lt < 0) {
+                    break;
+                }
+                pos = lt;
+                if (startsWith("<?")) {
+                    if (!skipPast("?>")) break;
+                } else if (startsWith("<!--")) {
+                    if (!skipPast("-->")) break;
+                } else if (startsWith("<![CDATA[")) {
+                    if (!skipPast("]]>")) break;
+                } else if (startsWith("<!")) {
+                    if (!skipDeclaration()) break;
+                } else if (startsWith("</")) {
+                    if (!skipPast(">")) break;
+                    depth--;
+                    restoreNamespaces();
+                    if (appHdrDepth >= 0 && depth <= appHdrDepth) {
+                        appHdrDepth = -1;
+                    }
+                } else {
+                    MessageTypeInfo found = startTag();
+                    if (found != null) {
+                        return found;
+                    }
+                    if (pos < 0 || elementsOutsideHeader > MAX_ELEMENTS_OUTSIDE_HEADER) {
+                        break;
+                    }
+                }
+            }
+            MessageTypeInfo fromHeader = MessageTypeInfo.parse(msgDefIdr);
+            return fromHeader != null ? fromHeader.withAppHdr() : null;
+        }
+
+        private MessageTypeInfo startTag() {
+            int nameStart = pos + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < in.length() && !isNameTerminator(in.at(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd >= in.length()) {
+                pos = -1;
+                return null;
+            }
+            String qname = in.substring(nameStart, nameEnd);
+            pos = nameEnd;
+            boolean selfClosing = readAttributes();
+            if (pos < 0) {
+                return null;
+            }
+
+            int colon = qname.indexOf(':');
+            String prefix = colon >= 0 ? qname.substring(0, colon) : "";
+            String localName = colon >= 0 ? qname.substring(colon + 1) : qname;
+            MessageTypeInfo info = MessageTypeInfo.parse(namespaces.get(prefix));
+
+            if (appHdrDepth >= 0) {
+                if ("MsgDefIdr".equals(localName) && !selfClosing) {
+                    msgDefIdr = readText();
+                }
+            } else if (info != null && "head".equals(info.getBusinessArea())) {
+                sawAppHdr = true;
+                appHdrDepth = depth;
+            } else if (info != null) {
+                return sawAppHdr ? info.withAppHdr() : info;
+            } else {
+                elementsOutsideHeader++;
+                String hint = ROOT_CHILD_HINTS.get(localName);
+                if (hint != null) {
+                    MessageTypeInfo hinted = MessageTypeInfo.parse(msgDefIdr);
+                    if (hinted == null || !hinted.getMessageId().equals(hint)) {
+                        int dot = hint.indexOf('.');
+                        hinted = new MessageTypeInfo(hint.substring(0, dot), hint.substring(dot + 1),
+                                                     null, null, null, false);
+                    }
+                    return sawAppHdr ? hinted.withAppHdr() : hinted;
+                }
+            }
+            if (selfClosing) {
+                restoreNamespaces();
+            } else {
+                depth++;
+            }
+            return null;
+        }
+
+        private void declareNamespace(String prefix, String uri) {
+            shadowed.push(new ScopedDeclaration(depth, prefix, namespaces.put(prefix, uri)));
+        }
+
+        /**
+         * Drop the namespace declarations made by the element that just ended.
+         */
+        private void restoreNamespaces() {
+            while (!shadowed.isEmpty() && shadowed.peek().depth >= depth) {
+                ScopedDeclaration declaration = shadowed.pop();
+                if (declaration.previous == null) {
+                    namespaces.remove(declaration.prefix);
+                } else {
+                    namespaces.put(declaration.prefix, declaration.previous);
+                }
+            }
+        }
+
+        /**
+         * Read attributes up to the end of the current start tag, recording namespace
+         * declarations. Returns true for a self-closing tag.
+         */
+        private boolean readAttributes() {
+            while (pos < in.length()) {
+                int c = in.at(pos);
+                if (c == '>') {
+                    pos++;
+                    return false;
+                }
+                if (c == '/' && pos + 1 < in.length() && in.at(pos + 1) == '>') {
+                    pos += 2;
+                    return true;
+                }
+                if (isWhitespace(c)) {
+                    pos++;
+                    continue;
+                }
+                int nameStart = pos;
+                while (pos < in.length() && in.at(pos) != '=' && !isWhitespace(in.at(pos)) && in.at(pos) != '>') {
+                    pos++;
+                }
+                String name = in.substring(nameStart, pos);
+                while (pos < in.length() && (isWhitespace(in.at(pos)) || in.at(pos) == '=')) {
+                    pos++;
+                }
+                if (pos >= in.length()) {
+                    break;
+                }
+                int quote = in.at(pos);
+                if (quote != '"' && quote != '\'') {
+                    continue;
+                }
+                int valueEnd = indexOf(quote, pos + 1);
+                if (valueEnd < 0) {
+                    break;
+                }
+                if (name.equals("xmlns")) {
+                    declareNamespace("", in.substring(pos + 1, valueEnd));
+                } else if (name.startsWith("xmlns:")) {
+                    declareNamespace(name.substring("xmlns:".length()), in.substring(pos + 1, valueEnd));
+                }
+                pos = valueEnd + 1;
+            }
+            pos = -1;
+            return false;
+        }
+
+        private String readText() {
+            int end = indexOf('<', pos);
+            if (end < 0) {
+                return null;
+            }
+            return in.substring(pos, end).trim();
+        }
+
+        private boolean skipDeclaration() {
+            // DOCTYPE may carry an internal subset in square brackets
+            int bracketDepth = 0;
+            for (int i = pos + 2; i < in.length(); i++) {
+                int c = in.at(i);
+                if (c == '[') {
+                    bracketDepth++;
+                } else if (c == ']') {
+                    bracketDepth--;
+                } else if (c == '>' && bracketDepth <= 0) {
+                    pos = i + 1;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void skipBom() {
+            if (in.length() >= 3 && in.at(0) == 0xEF && in.at(1) == 0xBB && in.at(2) == 0xBF) {
+                pos = 3;
+            } else if (in.length() >= 1 && in.at(0) == 0xFEFF) {
+                pos = 1;
+            }
+        }
+
+        private boolean skipPast(String marker) {
+            for (int i = pos; i <= in.length() - marker.length(); i++) {
+                if (matches(i, marker)) {
+                    pos = i + marker.length();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean startsWith(String marker) {
+            return pos + marker.length() <= in.length() && matches(pos, marker);
+        }
+
+        private boolean matches(int at, String marker) {
+            for (int j = 0; j < marker.length(); j++) {
+                if (in.at(at + j) != marker.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(int c, int from) {
+            for (int i = from; i < in.length(); i++) {
+                if (in.at(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isNameTerminator(int c) {
+            return isWhitespace(c) || c == '>' || c == '/';
+        }
+    }
+
+    private static final class ScopedDeclaration {
+        private final int depth;
+        private final String prefix;
+        private final String previous;
+
+        private ScopedDeclaration(int depth, String prefix, String previous) {
+            this.depth = depth;
+            this.prefix = prefix;
+            this.previous = previous;
+        }
+    }
+}
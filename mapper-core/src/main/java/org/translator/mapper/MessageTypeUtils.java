@@ -1,7 +1,7 @@
 package org.translator.mapper;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.Document;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Utilities to normalize message type identifiers and detect source types from
@@ -33,44 +33,41 @@ public final class MessageTypeUtils {
         return t;
     }
 
+    /**
+     * Detect the short message identifier (e.g. {@code pacs.008}) of an XML payload.
+     * Only the prolog and leading start tags are scanned; see {@link MessageTypeSniffer}.
+     *
+     * @return The message identifier, or null if it could not be detected
+     */
     public static String detectSourceTypeFromXml(String xml) {
-        if (xml == null)
-            return null;
-        try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(true);
-            Document doc = dbf.newDocumentBuilder()
-                    .parse(new java.io.ByteArrayInputStream(xml.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
-            String ns = doc.getDocumentElement().getNamespaceURI();
-            String local = doc.getDocumentElement().getLocalName();
-            if (ns != null) {
-                String lowerNs = ns.toLowerCase();
-                if (lowerNs.contains("pacs.008") || lowerNs.contains("pacs.008.001"))
-                    return "pacs.008";
-                if (lowerNs.contains("pacs.009") || lowerNs.contains("pacs.009.001"))
-                    return "pacs.009";
-                if (lowerNs.contains("pacs.002") || lowerNs.contains("pacs.002.001"))
-                    return "pacs.002";
-            }
-            if (local != null) {
-                String lowerLocal = local.toLowerCase();
-                if (lowerLocal.contains("document")) {
-                    // inspect children name hints
-                    if (doc.getDocumentElement().getTextContent().toLowerCase().contains("pacs.008"))
-                        return "pacs.008";
-                }
-            }
-        } catch (Exception e) {
-            // swallow - best-effort detection
-        }
-        // fallback to simple substring heuristics
-        String lower = xml.toLowerCase();
-        if (lower.contains("pacs.008") || lower.contains("pacs008") || lower.contains("fitoficstmrcdttrf"))
-            return "pacs.008";
-        if (lower.contains("pacs.009") || lower.contains("pacs009"))
-            return "pacs.009";
-        if (lower.contains("pacs.002") || lower.contains("pacs002"))
-            return "pacs.002";
-        return null;
+        MessageTypeInfo info = MessageTypeSniffer.sniff(xml);
+        return info != null ? info.getMessageId() : null;
+    }
+
+    /**
+     * Detect the full message type of an XML payload, including variant and version
+     * when the namespace or AppHdr carries them.
+     *
+     * @return The detected message type, or null if it could not be detected
+     */
+    public static MessageTypeInfo detectMessageType(String xml) {
+        return MessageTypeSniffer.sniff(xml);
+    }
+
+    /**
+     * Detect the message type of a streamed payload from its leading bytes only.
+     * The stream is left positioned at its start.
+     */
+    public static String detectSourceTypeFromStream(InputStream in) throws IOException {
+        MessageTypeInfo info = MessageTypeSniffer.sniff(in);
+        return info != null ? info.getMessageId() : null;
+    }
+
+    /**
+     * Detect the full message type of a streamed payload from its leading bytes only.
+     * The stream is left positioned at its start.
+     */
+    public static MessageTypeInfo detectMessageType(InputStream in) throws IOException {
+        return MessageTypeSniffer.sniff(in);
     }
 }
@@ -2,12 +2,15 @@ package org.translator.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 import org.mapstruct.ReportingPolicy;
 
 import org.translator.xsd.generated.pacs_008.*;
 import org.translator.xsd.generated.pacs_009.*;
 
+import java.util.List;
+
 @Mapper(
     unmappedTargetPolicy = ReportingPolicy.IGNORE
 )
@@ -86,9 +89,19 @@ public interface Pacs008ToPacs009Mapper {
 
     // FI to FI Customer Credit Transfer to Financial Institution Credit Transfer
     @Mapping(source = "grpHdr", target = "grpHdr")
-    @Mapping(source = "cdtTrfTxInf", target = "cdtTrfTxInf")
+    @Mapping(source = "cdtTrfTxInf", target = "cdtTrfTxInf", qualifiedByName = "mapCreditTransferTransactions")
     FinancialInstitutionCreditTransferV12 mapCreditTransfer(FIToFICustomerCreditTransferV13 source);
 
+    // Transaction list mapping; large messages are mapped in parallel, see ParallelTransactionMapping
+    @Named("mapCreditTransferTransactions")
+    default List<org.translator.xsd.generated.pacs_009.CreditTransferTransaction67> mapCreditTransferTransactions(
+        List<org.translator.xsd.generated.pacs_008.CreditTransferTransaction70> source) {
+        if (source == null) {
+            return null;
+        }
+        return ParallelTransactionMapping.mapAll(source, this::mapCreditTransferTransaction);
+    }
+
     // Group header mapping - only map fields that exist in both schemas
     @Mapping(source = "msgId", target = "msgId")
     @Mapping(source = "creDtTm", target = "creDtTm")
@@ -45,77 +45,63 @@ public class Pacs008ToPacs009PaymentMapper extends AbstractPaymentMessageMapper<
     }
 
     @Override
-    protected void validateSource(org.translator.xsd.generated.pacs_008.Document source) throws PaymentMappingException {
-        super.validateSource(source);
+    protected TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> checkSource(org.translator.xsd.generated.pacs_008.Document source) {
+        TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> invalid = super.checkSource(source);
+        if (invalid != null) {
+            return invalid;
+        }
 
         if (source.getFIToFICstmrCdtTrf() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.008 document must contain FIToFICustomerCreditTransfer",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "INVALID_PACS008_STRUCTURE",
-                null
+                "FIToFICstmrCdtTrf"
             );
         }
 
         if (source.getFIToFICstmrCdtTrf().getGrpHdr() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.008 FIToFICustomerCreditTransfer must contain GroupHeader",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "MISSING_GROUP_HEADER",
-                null
+                "FIToFICstmrCdtTrf.GrpHdr"
             );
         }
 
         if (source.getFIToFICstmrCdtTrf().getCdtTrfTxInf() == null ||
             source.getFIToFICstmrCdtTrf().getCdtTrfTxInf().isEmpty()) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.008 FIToFICustomerCreditTransfer must contain at least one CreditTransferTransaction",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "MISSING_CREDIT_TRANSFER_TRANSACTIONS",
-                null
+                "FIToFICstmrCdtTrf.CdtTrfTxInf"
             );
         }
+
+        return null;
     }
 
     @Override
-    protected void validateTarget(org.translator.xsd.generated.pacs_009.Document target) throws PaymentMappingException {
-        super.validateTarget(target);
+    protected TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> checkTarget(org.translator.xsd.generated.pacs_009.Document target) {
+        TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> invalid = super.checkTarget(target);
+        if (invalid != null) {
+            return invalid;
+        }
 
         if (target.getFICdtTrf() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.009 document must contain FinancialInstitutionCreditTransfer",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "INVALID_PACS009_STRUCTURE",
-                null
+                "FICdtTrf"
             );
         }
 
         if (target.getFICdtTrf().getGrpHdr() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.009 FinancialInstitutionCreditTransfer must contain GroupHeader",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "MISSING_TARGET_GROUP_HEADER",
-                null
+                "FICdtTrf.GrpHdr"
             );
         }
-    }
-
-    @Override
-    public boolean supports(org.translator.xsd.generated.pacs_008.Document source) {
-        if (!super.supports(source)) {
-            return false;
-        }
 
-        try {
-            validateSource(source);
-            return true;
-        } catch (PaymentMappingException e) {
-            return false;
-        }
+        return null;
     }
 }
@@ -0,0 +1,46 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import org.translator.xsd.generated.pacs_008.CreditTransferTransaction70;
+import org.translator.xsd.generated.pacs_008.GroupHeader131;
+import org.translator.xsd.reader.Pacs008StaxReader;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Streaming reader for PACS.008 (FI to FI Customer Credit Transfer) messages.
+ * Binds the {@link GroupHeader131} once and yields each {@link CreditTransferTransaction70}
+ * in document order.
+ */
+public class Pacs008TransactionStreamReader
+        extends TransactionStreamReader<GroupHeader131, Void, CreditTransferTransaction70> {
+
+    public Pacs008TransactionStreamReader(InputStream in) {
+        this(createStreamReader(in));
+    }
+
+    public Pacs008TransactionStreamReader(XMLStreamReader reader) {
+        super(reader, JaxbContextRegistry.PACS008_V13, GroupHeader131.class, CreditTransferTransaction70.class);
+    }
+
+    @Override
+    protected GroupHeader131 readGroupHeader(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        if (getReaderMode() == XmlReaderMode.GENERATED) {
+            return Pacs008StaxReader.readGroupHeader131(reader);
+        }
+        return super.readGroupHeader(reader, unmarshaller);
+    }
+
+    @Override
+    protected CreditTransferTransaction70 readTransaction(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        if (getReaderMode() == XmlReaderMode.GENERATED) {
+            return Pacs008StaxReader.readCreditTransferTransaction70(reader);
+        }
+        return super.readTransaction(reader, unmarshaller);
+    }
+}
@@ -0,0 +1,50 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import org.translator.xsd.generated.pacs_008.ActiveCurrencyAndAmount;
+import org.translator.xsd.generated.pacs_008.CreditTransferTransaction70;
+import org.translator.xsd.generated.pacs_008.GroupHeader131;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+/**
+ * Streaming writer for PACS.008 (FI to FI Customer Credit Transfer) messages.
+ */
+public class Pacs008TransactionStreamWriter extends TransactionStreamWriter<GroupHeader131, CreditTransferTransaction70> {
+
+    public Pacs008TransactionStreamWriter(OutputStream out) throws IOException, JAXBException {
+        this(out, null);
+    }
+
+    public Pacs008TransactionStreamWriter(OutputStream out, Path spillDirectory) throws IOException, JAXBException {
+        super(out, spillDirectory, JaxbContextRegistry.PACS008_V13, "FIToFICstmrCdtTrf",
+              GroupHeader131.class, CreditTransferTransaction70.class);
+    }
+
+    @Override
+    protected BigDecimal getAmount(CreditTransferTransaction70 transaction) {
+        return transaction.getIntrBkSttlmAmt() != null ? transaction.getIntrBkSttlmAmt().getValue() : null;
+    }
+
+    @Override
+    protected String getCurrency(CreditTransferTransaction70 transaction) {
+        return transaction.getIntrBkSttlmAmt() != null ? transaction.getIntrBkSttlmAmt().getCcy() : null;
+    }
+
+    @Override
+    protected void applyTotals(GroupHeader131 header, long transactionCount, BigDecimal controlSum, String currency) {
+        header.setNbOfTxs(String.valueOf(transactionCount));
+        header.setCtrlSum(controlSum);
+        if (currency != null) {
+            ActiveCurrencyAndAmount total = new ActiveCurrencyAndAmount();
+            total.setValue(controlSum);
+            total.setCcy(currency);
+            header.setTtlIntrBkSttlmAmt(total);
+        } else {
+            header.setTtlIntrBkSttlmAmt(null);
+        }
+    }
+}
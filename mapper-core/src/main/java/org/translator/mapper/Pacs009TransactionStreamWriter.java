@@ -0,0 +1,50 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import org.translator.xsd.generated.pacs_009.ActiveCurrencyAndAmount;
+import org.translator.xsd.generated.pacs_009.CreditTransferTransaction67;
+import org.translator.xsd.generated.pacs_009.GroupHeader131;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+/**
+ * Streaming writer for PACS.009 (Financial Institution Credit Transfer) messages.
+ */
+public class Pacs009TransactionStreamWriter extends TransactionStreamWriter<GroupHeader131, CreditTransferTransaction67> {
+
+    public Pacs009TransactionStreamWriter(OutputStream out) throws IOException, JAXBException {
+        this(out, null);
+    }
+
+    public Pacs009TransactionStreamWriter(OutputStream out, Path spillDirectory) throws IOException, JAXBException {
+        super(out, spillDirectory, JaxbContextRegistry.PACS009_V12, "FICdtTrf",
+              GroupHeader131.class, CreditTransferTransaction67.class);
+    }
+
+    @Override
+    protected BigDecimal getAmount(CreditTransferTransaction67 transaction) {
+        return transaction.getIntrBkSttlmAmt() != null ? transaction.getIntrBkSttlmAmt().getValue() : null;
+    }
+
+    @Override
+    protected String getCurrency(CreditTransferTransaction67 transaction) {
+        return transaction.getIntrBkSttlmAmt() != null ? transaction.getIntrBkSttlmAmt().getCcy() : null;
+    }
+
+    @Override
+    protected void applyTotals(GroupHeader131 header, long transactionCount, BigDecimal controlSum, String currency) {
+        header.setNbOfTxs(String.valueOf(transactionCount));
+        header.setCtrlSum(controlSum);
+        if (currency != null) {
+            ActiveCurrencyAndAmount total = new ActiveCurrencyAndAmount();
+            total.setValue(controlSum);
+            total.setCcy(currency);
+            header.setTtlIntrBkSttlmAmt(total);
+        } else {
+            header.setTtlIntrBkSttlmAmt(null);
+        }
+    }
+}
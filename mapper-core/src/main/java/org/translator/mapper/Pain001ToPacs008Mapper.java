@@ -203,7 +203,8 @@ public interface Pain001ToPacs008Mapper {
     }
 
     /**
-     * Map payment instructions to credit transfer transactions
+     * Map payment instructions to credit transfer transactions.
+     * Large messages are mapped in parallel, see {@link ParallelTransactionMapping}.
      */
     @Named("mapPaymentInstructionsToCreditTransfers")
     default List<CreditTransferTransaction70> mapPaymentInstructionsToCreditTransfers(List<PaymentInstruction44> pmtInf) {
@@ -211,10 +212,10 @@ public interface Pain001ToPacs008Mapper {
             return new ArrayList<>();
         }
 
-        return pmtInf.stream()
+        List<CreditTransferTransaction61> transactions = pmtInf.stream()
             .flatMap(instruction -> instruction.getCdtTrfTxInf().stream())
-            .map(this::mapCreditTransferTransaction)
             .collect(Collectors.toList());
+        return ParallelTransactionMapping.mapAll(transactions, this::mapCreditTransferTransaction);
     }
 
     // Test Helper Methods (these should return null in Phase 2 as per test expectations)
@@ -45,77 +45,63 @@ public class Pain001ToPacs008PaymentMapper extends AbstractPaymentMessageMapper<
     }
 
     @Override
-    protected void validateSource(org.translator.xsd.generated.pain_001.Document source) throws PaymentMappingException {
-        super.validateSource(source);
+    protected TransformResult.Failure<org.translator.xsd.generated.pacs_008.Document> checkSource(org.translator.xsd.generated.pain_001.Document source) {
+        TransformResult.Failure<org.translator.xsd.generated.pacs_008.Document> invalid = super.checkSource(source);
+        if (invalid != null) {
+            return invalid;
+        }
 
         if (source.getCstmrCdtTrfInitn() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "Pain.001 document must contain CustomerCreditTransferInitiation",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "INVALID_PAIN001_STRUCTURE",
-                null
+                "CstmrCdtTrfInitn"
             );
         }
 
         if (source.getCstmrCdtTrfInitn().getGrpHdr() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "Pain.001 CustomerCreditTransferInitiation must contain GroupHeader",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "MISSING_GROUP_HEADER",
-                null
+                "CstmrCdtTrfInitn.GrpHdr"
             );
         }
 
         if (source.getCstmrCdtTrfInitn().getPmtInf() == null ||
             source.getCstmrCdtTrfInitn().getPmtInf().isEmpty()) {
-            throw new PaymentMappingException(
+            return failure(
                 "Pain.001 CustomerCreditTransferInitiation must contain at least one PaymentInstruction",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "MISSING_PAYMENT_INSTRUCTIONS",
-                null
+                "CstmrCdtTrfInitn.PmtInf"
             );
         }
+
+        return null;
     }
 
     @Override
-    protected void validateTarget(org.translator.xsd.generated.pacs_008.Document target) throws PaymentMappingException {
-        super.validateTarget(target);
+    protected TransformResult.Failure<org.translator.xsd.generated.pacs_008.Document> checkTarget(org.translator.xsd.generated.pacs_008.Document target) {
+        TransformResult.Failure<org.translator.xsd.generated.pacs_008.Document> invalid = super.checkTarget(target);
+        if (invalid != null) {
+            return invalid;
+        }
 
         if (target.getFIToFICstmrCdtTrf() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.008 document must contain FIToFICustomerCreditTransfer",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "INVALID_PACS008_STRUCTURE",
-                null
+                "FIToFICstmrCdtTrf"
             );
         }
 
         if (target.getFIToFICstmrCdtTrf().getGrpHdr() == null) {
-            throw new PaymentMappingException(
+            return failure(
                 "PACS.008 FIToFICustomerCreditTransfer must contain GroupHeader",
-                SOURCE_MESSAGE_TYPE,
-                TARGET_MESSAGE_TYPE,
                 "MISSING_TARGET_GROUP_HEADER",
-                null
+                "FIToFICstmrCdtTrf.GrpHdr"
             );
         }
-    }
-
-    @Override
-    public boolean supports(org.translator.xsd.generated.pain_001.Document source) {
-        if (!super.supports(source)) {
-            return false;
-        }
 
-        try {
-            validateSource(source);
-            return true;
-        } catch (PaymentMappingException e) {
-            return false;
-        }
+        return null;
     }
 }
@@ -0,0 +1,88 @@
+package org.translator.mapper;
+
+import org.translator.xsd.generated.pain_001.CreditTransferTransaction61;
+import org.translator.xsd.generated.pain_001.CustomerCreditTransferInitiationV12;
+import org.translator.xsd.generated.pain_001.GroupHeader114;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+import org.translator.xsd.generated.pacs_009.CreditTransferTransaction67;
+import org.translator.xsd.generated.pacs_009.FinancialInstitutionCreditTransferV12;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fused transformation from Pain.001 straight to PACS.009, composed from
+ * {@link Pain001ToPacs008Mapper} and {@link Pacs008ToPacs009Mapper}.
+ *
+ * The chained path builds a complete PACS.008 document before mapping it again.
+ * Here each transaction is taken through both mappers on its own and added to the
+ * PACS.009 output, so the intermediate PACS.008 transaction is short-lived garbage
+ * and no intermediate document or transaction list is ever built. The document
+ * level (group header and supplementary data) goes through both mappers on a shell
+ * without payment instructions, so the output is the same as the chained path's.
+ * Large messages are mapped in parallel, see {@link ParallelTransactionMapping}.
+ */
+public final class Pain001ToPacs009Mapper {
+
+    public static final Pain001ToPacs009Mapper INSTANCE =
+        new Pain001ToPacs009Mapper(Pain001ToPacs008Mapper.INSTANCE, Pacs008ToPacs009Mapper.INSTANCE);
+
+    private final Pain001ToPacs008Mapper pain001Mapper;
+    private final Pacs008ToPacs009Mapper pacs008Mapper;
+
+    public Pain001ToPacs009Mapper(Pain001ToPacs008Mapper pain001Mapper, Pacs008ToPacs009Mapper pacs008Mapper) {
+        this.pain001Mapper = pain001Mapper;
+        this.pacs008Mapper = pacs008Mapper;
+    }
+
+    /**
+     * Transform Pain.001 Document to PACS.009 Document
+     */
+    public org.translator.xsd.generated.pacs_009.Document mapDocument(org.translator.xsd.generated.pain_001.Document source) {
+        if (source == null) {
+            return null;
+        }
+        org.translator.xsd.generated.pacs_009.Document target = new org.translator.xsd.generated.pacs_009.Document();
+        target.setFICdtTrf(mapCreditTransferInitiation(source.getCstmrCdtTrfInitn()));
+        return target;
+    }
+
+    /**
+     * Map Credit Transfer Initiation to Financial Institution Credit Transfer
+     */
+    public FinancialInstitutionCreditTransferV12 mapCreditTransferInitiation(CustomerCreditTransferInitiationV12 source) {
+        if (source == null) {
+            return null;
+        }
+        // Document-level fields only; the payment instructions are mapped one transaction at a time below
+        CustomerCreditTransferInitiationV12 shell = new CustomerCreditTransferInitiationV12();
+        shell.setGrpHdr(source.getGrpHdr());
+        shell.getSplmtryData().addAll(source.getSplmtryData());
+        FinancialInstitutionCreditTransferV12 target =
+            pacs008Mapper.mapCreditTransfer(pain001Mapper.mapCreditTransferInitiation(shell));
+        if (target == null) {
+            return null;
+        }
+
+        List<CreditTransferTransaction61> transactions = new ArrayList<>();
+        for (PaymentInstruction44 instruction : source.getPmtInf()) {
+            transactions.addAll(instruction.getCdtTrfTxInf());
+        }
+        target.getCdtTrfTxInf().addAll(ParallelTransactionMapping.mapAll(transactions, this::mapCreditTransferTransaction));
+        return target;
+    }
+
+    /**
+     * Map Group Header through both mappers
+     */
+    public org.translator.xsd.generated.pacs_009.GroupHeader131 mapGroupHeader(GroupHeader114 source) {
+        return pacs008Mapper.mapGroupHeader(pain001Mapper.mapGroupHeader(source));
+    }
+
+    /**
+     * Map individual credit transfer transaction through both mappers
+     */
+    public CreditTransferTransaction67 mapCreditTransferTransaction(CreditTransferTransaction61 source) {
+        return pacs008Mapper.mapCreditTransferTransaction(pain001Mapper.mapCreditTransferTransaction(source));
+    }
+}
@@ -0,0 +1,117 @@
+package org.translator.mapper;
+
+/**
+ * Payment message mapper implementation for the fused Pain.001 to PACS.009 transformation.
+ * Wraps {@link Pain001ToPacs009Mapper} to integrate with the orchestration framework; as a
+ * single hop it is cheaper than the chain through PACS.008, so the orchestrator prefers it.
+ */
+public class Pain001ToPacs009PaymentMapper extends AbstractPaymentMessageMapper<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_009.Document> {
+
+    private static final String SOURCE_MESSAGE_TYPE = "pain.001.001.12";
+    private static final String TARGET_MESSAGE_TYPE = "pacs.009.001.12";
+
+    private final Pain001ToPacs009Mapper fusedMapper;
+
+    public Pain001ToPacs009PaymentMapper() {
+        this.fusedMapper = Pain001ToPacs009Mapper.INSTANCE;
+    }
+
+    public Pain001ToPacs009PaymentMapper(Pain001ToPacs009Mapper fusedMapper) {
+        this.fusedMapper = fusedMapper;
+    }
+
+    @Override
+    protected org.translator.xsd.generated.pacs_009.Document doTransform(org.translator.xsd.generated.pain_001.Document source) throws PaymentMappingException {
+        try {
+            return fusedMapper.mapDocument(source);
+        } catch (Exception e) {
+            throw new PaymentMappingException(
+                "Failed to transform Pain.001 to PACS.009: " + e.getMessage(),
+                SOURCE_MESSAGE_TYPE,
+                TARGET_MESSAGE_TYPE,
+                "MAPSTRUCT_ERROR",
+                e
+            );
+        }
+    }
+
+    @Override
+    public String getSourceMessageType() {
+        return SOURCE_MESSAGE_TYPE;
+    }
+
+    @Override
+    public String getTargetMessageType() {
+        return TARGET_MESSAGE_TYPE;
+    }
+
+    @Override
+    protected TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> checkSource(org.translator.xsd.generated.pain_001.Document source) {
+        TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> invalid = super.checkSource(source);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        if (source.getCstmrCdtTrfInitn() == null) {
+            return failure(
+                "Pain.001 document must contain CustomerCreditTransferInitiation",
+                "INVALID_PAIN001_STRUCTURE",
+                "CstmrCdtTrfInitn"
+            );
+        }
+
+        if (source.getCstmrCdtTrfInitn().getGrpHdr() == null) {
+            return failure(
+                "Pain.001 CustomerCreditTransferInitiation must contain GroupHeader",
+                "MISSING_GROUP_HEADER",
+                "CstmrCdtTrfInitn.GrpHdr"
+            );
+        }
+
+        if (source.getCstmrCdtTrfInitn().getPmtInf() == null ||
+            source.getCstmrCdtTrfInitn().getPmtInf().isEmpty()) {
+            return failure(
+                "Pain.001 CustomerCreditTransferInitiation must contain at least one PaymentInstruction",
+                "MISSING_PAYMENT_INSTRUCTIONS",
+                "CstmrCdtTrfInitn.PmtInf"
+            );
+        }
+
+        return null;
+    }
+
+    @Override
+    protected TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> checkTarget(org.translator.xsd.generated.pacs_009.Document target) {
+        TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> invalid = super.checkTarget(target);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        if (target.getFICdtTrf() == null) {
+            return failure(
+                "PACS.009 document must contain FinancialInstitutionCreditTransfer",
+                "INVALID_PACS009_STRUCTURE",
+                "FICdtTrf"
+            );
+        }
+
+        if (target.getFICdtTrf().getGrpHdr() == null) {
+            return failure(
+                "PACS.009 FinancialInstitutionCreditTransfer must contain GroupHeader",
+                "MISSING_TARGET_GROUP_HEADER",
+                "FICdtTrf.GrpHdr"
+            );
+        }
+
+        // The chained path rejects an intermediate PACS.008 without transactions
+        if (target.getFICdtTrf().getCdtTrfTxInf().isEmpty()) {
+            return failure(
+                "Pain.001 payment instructions must contain at least one CreditTransferTransaction",
+                "MISSING_CREDIT_TRANSFER_TRANSACTIONS",
+                "FICdtTrf.CdtTrfTxInf"
+            );
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,168 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import org.translator.xsd.generated.pain_001.CreditTransferTransaction61;
+import org.translator.xsd.generated.pain_001.GroupHeader114;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+import org.translator.xsd.reader.Pain001StaxReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import java.io.InputStream;
+
+/**
+ * Streaming reader for Pain.001 (Customer Credit Transfer Initiation) messages.
+ * Binds the {@link GroupHeader114} once and yields each {@link CreditTransferTransaction61}
+ * in document order, with its enclosing {@link PaymentInstruction44} attached as context.
+ *
+ * The attached payment instruction carries every field except its transaction list,
+ * which is left empty so the full instruction never has to be held in memory.
+ */
+public class Pain001TransactionStreamReader
+        extends TransactionStreamReader<GroupHeader114, PaymentInstruction44, CreditTransferTransaction61> {
+
+    private static final String PAYMENT_INSTRUCTION_ELEMENT = "PmtInf";
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+
+    public Pain001TransactionStreamReader(InputStream in) {
+        this(createStreamReader(in));
+    }
+
+    public Pain001TransactionStreamReader(XMLStreamReader reader) {
+        super(reader, JaxbContextRegistry.PAIN001_V12, GroupHeader114.class, CreditTransferTransaction61.class);
+    }
+
+    @Override
+    protected GroupHeader114 readGroupHeader(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        if (getReaderMode() == XmlReaderMode.GENERATED) {
+            return Pain001StaxReader.readGroupHeader114(reader);
+        }
+        return super.readGroupHeader(reader, unmarshaller);
+    }
+
+    @Override
+    protected CreditTransferTransaction61 readTransaction(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        if (getReaderMode() == XmlReaderMode.GENERATED) {
+            return Pain001StaxReader.readCreditTransferTransaction61(reader);
+        }
+        return super.readTransaction(reader, unmarshaller);
+    }
+
+    @Override
+    protected String getContextElement() {
+        return PAYMENT_INSTRUCTION_ELEMENT;
+    }
+
+    /**
+     * Copy the payment instruction fields that precede its first transaction into a
+     * small DOM fragment and bind that fragment as a {@link PaymentInstruction44}.
+     */
+    @Override
+    protected PaymentInstruction44 readContext(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        org.w3c.dom.Document fragment;
+        try {
+            fragment = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new XMLStreamException("Failed to create payment instruction fragment", e);
+        }
+        XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(new DOMResult(fragment));
+
+        int depth = 0;
+        boolean open = true;
+        while (open) {
+            switch (reader.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (depth == 1 && TRANSACTION_ELEMENT.equals(reader.getLocalName())) {
+                        // Leave the reader on the first transaction for the caller
+                        writer.writeEndElement();
+                        open = false;
+                        continue;
+                    }
+                    copyStartElement(reader, writer, depth == 0);
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    writer.writeEndElement();
+                    depth--;
+                    if (depth == 0) {
+                        open = false;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                default:
+                    break;
+            }
+            if (reader.hasNext()) {
+                reader.next();
+            } else {
+                break;
+            }
+        }
+        writer.flush();
+        writer.close();
+
+        return unmarshaller.unmarshal(fragment.getDocumentElement(), PaymentInstruction44.class).getValue();
+    }
+
+    private static void copyStartElement(XMLStreamReader reader, XMLStreamWriter writer, boolean root)
+            throws XMLStreamException {
+        String namespace = reader.getNamespaceURI();
+        String prefix = reader.getPrefix() != null ? reader.getPrefix() : "";
+        if (namespace != null) {
+            writer.writeStartElement(prefix, reader.getLocalName(), namespace);
+        } else {
+            writer.writeStartElement(reader.getLocalName());
+        }
+
+        // The fragment root has no ancestors, so it must declare its own namespace
+        if (root && namespace != null) {
+            if (prefix.isEmpty()) {
+                writer.writeDefaultNamespace(namespace);
+            } else {
+                writer.writeNamespace(prefix, namespace);
+            }
+        }
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String declaredPrefix = reader.getNamespacePrefix(i);
+            if (root && (declaredPrefix == null ? "" : declaredPrefix).equals(prefix)) {
+                continue;
+            }
+            if (declaredPrefix == null || declaredPrefix.isEmpty()) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(declaredPrefix, reader.getNamespaceURI(i));
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attributeNamespace = reader.getAttributeNamespace(i);
+            if (attributeNamespace == null || attributeNamespace.isEmpty()) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(reader.getAttributePrefix(i), attributeNamespace,
+                    reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory;
+    }
+}
@@ -0,0 +1,144 @@
+package org.translator.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Maps the transaction list of a single message, in parallel once the message is
+ * large enough to pay for it.
+ *
+ * Lists shorter than the threshold are mapped sequentially on the calling thread.
+ * Longer lists are split into chunks that are mapped on the caller's fork/join pool
+ * (the common pool outside one), each chunk writing to its own slots of the output,
+ * so the result keeps the source order.
+ *
+ * The threshold is read from the {@value #SYSTEM_PROPERTY} system property and falls
+ * back to {@value #DEFAULT_THRESHOLD} transactions; 0 turns parallel mapping off.
+ */
+public final class ParallelTransactionMapping {
+
+    public static final String SYSTEM_PROPERTY = "translator.mapping.parallel-threshold";
+
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    /**
+     * Transactions mapped by one task; large enough that task overhead is noise.
+     */
+    static final int CHUNK_SIZE = 1024;
+
+    private ParallelTransactionMapping() {
+    }
+
+    /**
+     * Get the transaction count from which lists are mapped in parallel, or 0 if
+     * parallel mapping is off.
+     */
+    public static int getThreshold() {
+        String value = System.getProperty(SYSTEM_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return DEFAULT_THRESHOLD;
+        }
+        try {
+            int threshold = Integer.parseInt(value.trim());
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Negative parallel mapping threshold: " + value);
+            }
+            return threshold;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid parallel mapping threshold: " + value, e);
+        }
+    }
+
+    /**
+     * Map every element of a list, in parallel from the configured threshold.
+     *
+     * @param source The source transactions
+     * @param mapper The mapping of one transaction; must be safe to call concurrently
+     * @return The mapped transactions, in source order
+     */
+    public static <S, T> List<T> mapAll(List<S> source, Function<? super S, ? extends T> mapper) {
+        return mapAll(source, mapper, getThreshold());
+    }
+
+    /**
+     * Map every element of a list, in parallel from the given threshold.
+     *
+     * @param source The source transactions
+     * @param mapper The mapping of one transaction; must be safe to call concurrently
+     * @param threshold The size from which the list is mapped in parallel, or 0 for never
+     * @return The mapped transactions, in source order
+     */
+    public static <S, T> List<T> mapAll(List<S> source, Function<? super S, ? extends T> mapper, int threshold) {
+        return mapAll(source, mapper, threshold, null);
+    }
+
+    /**
+     * Map every element of a list, in parallel on the given pool from the given threshold.
+     *
+     * @param source The source transactions
+     * @param mapper The mapping of one transaction; must be safe to call concurrently
+     * @param threshold The size from which the list is mapped in parallel, or 0 for never
+     * @param pool The pool to map on, or null for the caller's own pool
+     * @return The mapped transactions, in source order
+     */
+    static <S, T> List<T> mapAll(List<S> source, Function<? super S, ? extends T> mapper, int threshold,
+                                 ForkJoinPool pool) {
+        int size = source.size();
+        if (threshold == 0 || size < threshold || size <= CHUNK_SIZE) {
+            List<T> target = new ArrayList<>(size);
+            for (S element : source) {
+                target.add(mapper.apply(element));
+            }
+            return target;
+        }
+
+        Object[] target = new Object[size];
+        Chunk<S, T> all = new Chunk<>(source, mapper, target, 0, size);
+        if (pool != null) {
+            pool.invoke(all);
+        } else {
+            // Forks go to the current fork/join pool, or to the common pool from any other thread
+            all.invoke();
+        }
+        @SuppressWarnings("unchecked")
+        List<T> mapped = (List<T>) Arrays.asList(target);
+        return new ArrayList<>(mapped);
+    }
+
+    /**
+     * A range of the list, halved until it is no larger than {@link #CHUNK_SIZE}.
+     */
+    private static final class Chunk<S, T> extends RecursiveAction {
+
+        private final List<S> source;
+        private final Function<? super S, ? extends T> mapper;
+        private final Object[] target;
+        private final int from;
+        private final int to;
+
+        Chunk(List<S> source, Function<? super S, ? extends T> mapper, Object[] target, int from, int to) {
+            this.source = source;
+            this.mapper = mapper;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    target[i] = mapper.apply(source.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk<>(source, mapper, target, from, mid),
+                      new Chunk<>(source, mapper, target, mid, to));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.translator.mapper;
+
+import java.io.OutputStream;
+
+/**
+ * Adapter that parses its source with a {@link JaxbContextRegistry} binding and can
+ * map a source document parsed by someone else. When several targets are requested
+ * for one message, adapters naming the same binding share a single parsed and
+ * validated source instead of each parsing it again.
+ */
+public interface ParsedSourceAdapter extends MapperAdapter {
+    /**
+     * Return the {@link JaxbContextRegistry} message type this adapter parses its
+     * source with.
+     */
+    String getSourceBinding();
+
+    /**
+     * Return the route the source is validated on before it is mapped.
+     */
+    RouteValidation getSourceValidation();
+
+    /**
+     * Map a source document already parsed with {@link #getSourceBinding()} and write
+     * the marshalled target XML. The document may be shared with other adapters
+     * running at the same time and must not be modified.
+     */
+    void mapParsed(Object source, OutputStream targetXml, XmlOutputMode outputMode) throws Exception;
+}
@@ -0,0 +1,85 @@
+package org.translator.mapper;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Key extractors for {@link KeyedTransformationExecutor}: the message elements that
+ * payments have to stay in order by.
+ *
+ * Each extractor returns null when the element is missing, which leaves the message
+ * unordered. Document-level keys of a message with several transactions are taken
+ * from its first payment instruction or transaction.
+ */
+public final class PaymentKeys {
+
+    private PaymentKeys() {
+    }
+
+    /**
+     * GrpHdr.MsgId of a Pain.001 message.
+     */
+    public static Function<org.translator.xsd.generated.pain_001.Document, Object> pain001MessageId() {
+        return document -> document.getCstmrCdtTrfInitn() == null || document.getCstmrCdtTrfInitn().getGrpHdr() == null
+            ? null
+            : document.getCstmrCdtTrfInitn().getGrpHdr().getMsgId();
+    }
+
+    /**
+     * PmtInf.DbtrAcct.Id.IBAN of the first payment instruction of a Pain.001 message.
+     */
+    public static Function<org.translator.xsd.generated.pain_001.Document, Object> pain001DebtorIban() {
+        return document -> {
+            if (document.getCstmrCdtTrfInitn() == null) {
+                return null;
+            }
+            org.translator.xsd.generated.pain_001.PaymentInstruction44 instruction =
+                first(document.getCstmrCdtTrfInitn().getPmtInf());
+            if (instruction == null || instruction.getDbtrAcct() == null || instruction.getDbtrAcct().getId() == null) {
+                return null;
+            }
+            return instruction.getDbtrAcct().getId().getIBAN();
+        };
+    }
+
+    /**
+     * GrpHdr.MsgId of a PACS.008 message.
+     */
+    public static Function<org.translator.xsd.generated.pacs_008.Document, Object> pacs008MessageId() {
+        return document -> document.getFIToFICstmrCdtTrf() == null || document.getFIToFICstmrCdtTrf().getGrpHdr() == null
+            ? null
+            : document.getFIToFICstmrCdtTrf().getGrpHdr().getMsgId();
+    }
+
+    /**
+     * CdtTrfTxInf.DbtrAcct.Id.IBAN of the first transaction of a PACS.008 message.
+     */
+    public static Function<org.translator.xsd.generated.pacs_008.Document, Object> pacs008DebtorIban() {
+        return document -> {
+            org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 transaction = firstTransaction(document);
+            if (transaction == null || transaction.getDbtrAcct() == null || transaction.getDbtrAcct().getId() == null) {
+                return null;
+            }
+            return transaction.getDbtrAcct().getId().getIBAN();
+        };
+    }
+
+    /**
+     * CdtTrfTxInf.PmtId.EndToEndId of the first transaction of a PACS.008 message.
+     */
+    public static Function<org.translator.xsd.generated.pacs_008.Document, Object> pacs008EndToEndId() {
+        return document -> {
+            org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 transaction = firstTransaction(document);
+            return transaction == null || transaction.getPmtId() == null ? null : transaction.getPmtId().getEndToEndId();
+        };
+    }
+
+    private static org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 firstTransaction(
+            org.translator.xsd.generated.pacs_008.Document document) {
+        return document.getFIToFICstmrCdtTrf() == null ? null : first(document.getFIToFICstmrCdtTrf().getCdtTrfTxInf());
+    }
+
+    private static <T> T first(List<T> elements) {
+        return elements == null || elements.isEmpty() ? null : elements.get(0);
+    }
+}
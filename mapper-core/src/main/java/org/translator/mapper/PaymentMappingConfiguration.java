@@ -20,6 +20,9 @@ public class PaymentMappingConfiguration {
         // Register PACS.008 to PACS.009 mapper
         orchestrator.registerMapper(new Pacs008ToPacs009PaymentMapper());
 
+        // Register fused Pain.001 to PACS.009 mapper, preferred over the chain through PACS.008
+        orchestrator.registerMapper(new Pain001ToPacs009PaymentMapper());
+
         return orchestrator;
     }
 
@@ -40,4 +43,13 @@ public class PaymentMappingConfiguration {
     public static Pacs008ToPacs009PaymentMapper createPacs008ToPacs009PaymentMapper() {
         return new Pacs008ToPacs009PaymentMapper();
     }
+
+    /**
+     * Create Pain001ToPacs009PaymentMapper instance.
+     *
+     * @return Pain001ToPacs009PaymentMapper instance
+     */
+    public static Pain001ToPacs009PaymentMapper createPain001ToPacs009PaymentMapper() {
+        return new Pain001ToPacs009PaymentMapper();
+    }
 }
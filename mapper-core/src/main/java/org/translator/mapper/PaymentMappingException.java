@@ -8,12 +8,14 @@ public class PaymentMappingException extends Exception {
     private final String sourceMessageType;
     private final String targetMessageType;
     private final String errorCode;
+    private final String fieldPath;
 
     public PaymentMappingException(String message, String sourceMessageType, String targetMessageType) {
         super(message);
         this.sourceMessageType = sourceMessageType;
         this.targetMessageType = targetMessageType;
         this.errorCode = "MAPPING_ERROR";
+        this.fieldPath = null;
     }
 
     public PaymentMappingException(String message, String sourceMessageType, String targetMessageType, Throwable cause) {
@@ -21,13 +23,19 @@ public class PaymentMappingException extends Exception {
         this.sourceMessageType = sourceMessageType;
         this.targetMessageType = targetMessageType;
         this.errorCode = "MAPPING_ERROR";
+        this.fieldPath = null;
     }
 
     public PaymentMappingException(String message, String sourceMessageType, String targetMessageType, String errorCode, Throwable cause) {
+        this(message, sourceMessageType, targetMessageType, errorCode, null, cause);
+    }
+
+    public PaymentMappingException(String message, String sourceMessageType, String targetMessageType, String errorCode, String fieldPath, Throwable cause) {
         super(message, cause);
         this.sourceMessageType = sourceMessageType;
         this.targetMessageType = targetMessageType;
         this.errorCode = errorCode;
+        this.fieldPath = fieldPath;
     }
 
     public String getSourceMessageType() {
@@ -41,4 +49,11 @@ public class PaymentMappingException extends Exception {
     public String getErrorCode() {
         return errorCode;
     }
+
+    /**
+     * Get the element of the message the failure concerns, e.g. "CstmrCdtTrfInitn.GrpHdr", or null.
+     */
+    public String getFieldPath() {
+        return fieldPath;
+    }
 }
@@ -33,13 +33,97 @@ public interface PaymentMessageMapper<SOURCE, TARGET> {
     String getTargetMessageType();
 
     /**
-     * Validate if the source message is supported by this mapper.
+     * Check cheaply whether this mapper accepts the source message, without
+     * validating its structure; see {@link #validate(Object)}.
      *
-     * @param source The source message to validate
+     * @param source The source message to check
      * @return true if the source message is supported, false otherwise
      */
     boolean supports(SOURCE source);
 
+    /**
+     * Validate the source message, failing with the first problem found.
+     * Used on its own to check a message without transforming it.
+     * The default rejects messages this mapper does not {@link #supports(Object) support}.
+     *
+     * @param source The source message to validate
+     * @throws PaymentMappingException if the source message is not valid for this mapper
+     */
+    default void validate(SOURCE source) throws PaymentMappingException {
+        if (!supports(source)) {
+            throw new PaymentMappingException(
+                "Mapper does not support the provided source message",
+                getSourceMessageType(),
+                getTargetMessageType(),
+                "UNSUPPORTED_SOURCE",
+                null
+            );
+        }
+    }
+
+    /**
+     * Transform a source message that has already passed {@link #validate(Object)},
+     * skipping the source checks that {@link #transform(Object)} would repeat.
+     *
+     * @param source The validated source payment message
+     * @return The transformed target payment message
+     * @throws PaymentMappingException if the transformation fails
+     */
+    default TARGET transformValidated(SOURCE source) throws PaymentMappingException {
+        return transform(source);
+    }
+
+    /**
+     * Transform a source payment message, reporting failure as a value instead of
+     * throwing. Implementations that detect invalid messages without exceptions
+     * should override this, so rejecting a message costs no stack trace.
+     *
+     * @param source The source payment message
+     * @return The transformed message, or the failure
+     */
+    default TransformResult<TARGET> tryTransform(SOURCE source) {
+        try {
+            validate(source);
+        } catch (PaymentMappingException e) {
+            return TransformResult.failure(e);
+        }
+        return tryTransformValidated(source);
+    }
+
+    /**
+     * Transform a source message that has already passed {@link #validate(Object)},
+     * reporting failure as a value instead of throwing.
+     *
+     * @param source The validated source payment message
+     * @return The transformed message, or the failure
+     */
+    default TransformResult<TARGET> tryTransformValidated(SOURCE source) {
+        try {
+            return TransformResult.success(transformValidated(source));
+        } catch (PaymentMappingException e) {
+            return TransformResult.failure(e);
+        } catch (RuntimeException e) {
+            return new TransformResult.Failure<>(
+                "Failed to transform " + getSourceMessageType() + " to " + getTargetMessageType() + ": " + e.getMessage(),
+                "MAPSTRUCT_ERROR",
+                null,
+                getSourceMessageType(),
+                getTargetMessageType(),
+                e
+            );
+        }
+    }
+
+    /**
+     * Get the relative cost of this transformation. When several chains of mappers
+     * connect two message types, the orchestrator picks the one with the lowest total cost.
+     *
+     * @return A non-negative cost; 1 by default
+     */
+    default int getRouteCost() {
+        return 1;
+    }
+
     /**
      * Get transformation metadata including mapping rules applied.
      *
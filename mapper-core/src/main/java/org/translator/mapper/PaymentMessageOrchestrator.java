@@ -3,40 +3,167 @@ package org.translator.mapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Orchestrator for payment message transformations.
  * Manages multiple payment message mappers and provides a unified interface for transformations.
+ *
+ * Registered mappers form a graph of message types. A transformation between any two
+ * connected types runs the cheapest chain of mappers, compiled once into a
+ * {@link TransformationPipeline} and cached in an immutable snapshot of the registry,
+ * so repeated routes involve no key building or planning.
+ *
+ * Batches of independent documents are transformed in parallel on a configurable
+ * {@link ForkJoinPool}; see {@link #transformAll(List, String, String)}. Single
+ * transformations can also run asynchronously, by default on a virtual thread each;
+ * see {@link #transformAsync(Object, String, String, Duration)}.
+ *
+ * A new version of a mapper can be rolled out at runtime, taking a share of the
+ * traffic or shadowing the current one; see {@link #registerCandidate}.
  */
 public class PaymentMessageOrchestrator {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentMessageOrchestrator.class);
 
-    private final Map<String, PaymentMessageMapper<?, ?>> mappers;
+    private final ForkJoinPool batchPool;
+    private final Executor asyncExecutor;
+
+    private volatile RouteTable routes = RouteTable.EMPTY;
 
     public PaymentMessageOrchestrator() {
-        this.mappers = new HashMap<>();
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param batchPool The pool that runs batch transformations
+     */
+    public PaymentMessageOrchestrator(ForkJoinPool batchPool) {
+        this(batchPool, AsyncTransformation.VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * @param batchPool The pool that runs batch transformations
+     * @param asyncExecutor The executor that runs asynchronous transformations
+     */
+    public PaymentMessageOrchestrator(ForkJoinPool batchPool, Executor asyncExecutor) {
+        this.batchPool = Objects.requireNonNull(batchPool, "batchPool");
+        this.asyncExecutor = Objects.requireNonNull(asyncExecutor, "asyncExecutor");
     }
 
     /**
-     * Register a payment message mapper.
+     * Register a payment message mapper, replacing any mapper registered for the same
+     * source and target types. Safe while transformations are running: they finish on
+     * the mappers they started with, and later ones use the new mapper.
      *
      * @param mapper The mapper to register
      * @param <SOURCE> Source message type
      * @param <TARGET> Target message type
      */
-    public <SOURCE, TARGET> void registerMapper(PaymentMessageMapper<SOURCE, TARGET> mapper) {
-        String key = createMapperKey(mapper.getSourceMessageType(), mapper.getTargetMessageType());
-        mappers.put(key, mapper);
+    public synchronized <SOURCE, TARGET> void registerMapper(PaymentMessageMapper<SOURCE, TARGET> mapper) {
+        // Publish a new snapshot; pipelines planned against the old one are dropped with it
+        routes = routes.withMapper(mapper);
         logger.info("Registered mapper for {} -> {}", mapper.getSourceMessageType(), mapper.getTargetMessageType());
     }
 
     /**
-     * Transform a message from source type to target type.
+     * Start rolling out a new version of a registered mapper: send a percentage of its
+     * messages to the candidate, and optionally run the candidate as a shadow on the rest.
+     * A rollout already in progress for the route is replaced, keeping its primary.
+     *
+     * @param candidate The new version of the mapper
+     * @param canaryPercent The percentage of messages, 0 to 100, transformed by the candidate
+     * @param shadow Whether to compare the candidate's output with the primary's, off the request path
+     * @param <SOURCE> Source message type
+     * @param <TARGET> Target message type
+     * @return The rollout, which reports the traffic split and shadow comparisons
+     * @throws PaymentMappingException if no mapper is registered for the candidate's types
+     */
+    public <SOURCE, TARGET> MapperRollout<SOURCE, TARGET> registerCandidate(
+            PaymentMessageMapper<SOURCE, TARGET> candidate, int canaryPercent, boolean shadow)
+            throws PaymentMappingException {
+        return registerCandidate(candidate, primary -> new MapperRollout<>(primary, candidate, canaryPercent, shadow));
+    }
+
+    /**
+     * Start rolling out a new version of a registered mapper, shadowing on the given
+     * executor and comparing outputs with the given predicate.
+     *
+     * @see MapperRollout#MapperRollout(PaymentMessageMapper, PaymentMessageMapper, int, boolean, Executor, BiPredicate)
+     */
+    public <SOURCE, TARGET> MapperRollout<SOURCE, TARGET> registerCandidate(
+            PaymentMessageMapper<SOURCE, TARGET> candidate, int canaryPercent, boolean shadow,
+            Executor shadowExecutor, BiPredicate<? super TARGET, ? super TARGET> sameOutput)
+            throws PaymentMappingException {
+        return registerCandidate(candidate, primary -> new MapperRollout<>(
+            primary, candidate, canaryPercent, shadow, shadowExecutor, sameOutput));
+    }
+
+    private synchronized <SOURCE, TARGET> MapperRollout<SOURCE, TARGET> registerCandidate(
+            PaymentMessageMapper<SOURCE, TARGET> candidate,
+            Function<PaymentMessageMapper<SOURCE, TARGET>, MapperRollout<SOURCE, TARGET>> rolloutFactory)
+            throws PaymentMappingException {
+        String sourceType = candidate.getSourceMessageType();
+        String targetType = candidate.getTargetMessageType();
+        PaymentMessageMapper<SOURCE, TARGET> current = this.<SOURCE, TARGET>getMapper(sourceType, targetType)
+            .orElseThrow(() -> mapperNotFound(sourceType, targetType).toException());
+        PaymentMessageMapper<SOURCE, TARGET> primary =
+            current instanceof MapperRollout<SOURCE, TARGET> inProgress ? inProgress.getPrimary() : current;
+
+        MapperRollout<SOURCE, TARGET> rollout = rolloutFactory.apply(primary);
+        routes = routes.withMapper(rollout);
+        logger.info("Rolling out candidate for {} -> {}: {}% canary, shadow {}",
+                    sourceType, targetType, rollout.getCanaryPercent(), rollout.isShadow() ? "on" : "off");
+        return rollout;
+    }
+
+    /**
+     * End the rollout of a route by making its candidate the registered mapper.
+     *
+     * @param sourceType The source message type
+     * @param targetType The target message type
+     * @return true if a rollout was in progress
+     */
+    public synchronized boolean promoteCandidate(String sourceType, String targetType) {
+        if (!(routes.getMapper(sourceType, targetType) instanceof MapperRollout<?, ?> rollout)) {
+            return false;
+        }
+        routes = routes.withMapper(rollout.getCandidate());
+        logger.info("Promoted candidate for {} -> {}", sourceType, targetType);
+        return true;
+    }
+
+    /**
+     * End the rollout of a route by restoring its primary as the registered mapper.
+     *
+     * @param sourceType The source message type
+     * @param targetType The target message type
+     * @return true if a rollout was in progress
+     */
+    public synchronized boolean rollbackCandidate(String sourceType, String targetType) {
+        if (!(routes.getMapper(sourceType, targetType) instanceof MapperRollout<?, ?> rollout)) {
+            return false;
+        }
+        routes = routes.withMapper(rollout.getPrimary());
+        logger.info("Rolled back candidate for {} -> {}", sourceType, targetType);
+        return true;
+    }
+
+    /**
+     * Transform a message from source type to target type, through intermediate
+     * message types when no single mapper connects them.
      *
      * @param source The source message
      * @param sourceType The source message type identifier
@@ -46,120 +173,192 @@ public class PaymentMessageOrchestrator {
      * @return The transformed message
      * @throws PaymentMappingException if transformation fails or no mapper is found
      */
-    @SuppressWarnings("unchecked")
     public <SOURCE, TARGET> TARGET transform(SOURCE source, String sourceType, String targetType)
             throws PaymentMappingException {
+        return this.<SOURCE, TARGET>tryTransform(source, sourceType, targetType, null).getOrThrow();
+    }
+
+    /**
+     * Transform a message from source type to target type, reporting failure as a
+     * value instead of throwing. Rejecting a malformed message this way captures no
+     * stack trace.
+     *
+     * @param source The source message
+     * @param sourceType The source message type identifier
+     * @param targetType The target message type identifier
+     * @param <SOURCE> Source message type
+     * @param <TARGET> Target message type
+     * @return The transformed message, or the failure, including a missing mapper
+     */
+    public <SOURCE, TARGET> TransformResult<TARGET> tryTransform(SOURCE source, String sourceType, String targetType) {
+        return tryTransform(source, sourceType, targetType, null);
+    }
 
+    private <SOURCE, TARGET> TransformResult<TARGET> tryTransform(SOURCE source, String sourceType, String targetType,
+                                                                  BooleanSupplier cancelled) {
         // Validate source message is not null
         if (source == null) {
-            throw new PaymentMappingException(
-                "Source message cannot be null",
-                sourceType,
-                targetType,
-                "NULL_SOURCE",
-                null
-            );
+            return TransformResult.failure("Source message cannot be null", "NULL_SOURCE", null, sourceType, targetType);
         }
 
-        // Validate source document structure for specific message types
-        validateSourceDocument(source, sourceType);
-
-        String mapperKey = createMapperKey(sourceType, targetType);
-        PaymentMessageMapper<SOURCE, TARGET> mapper =
-            (PaymentMessageMapper<SOURCE, TARGET>) mappers.get(mapperKey);
-
-        if (mapper == null) {
-            throw new PaymentMappingException(
-                "No mapper found for transformation from " + sourceType + " to " + targetType,
-                sourceType,
-                targetType,
-                "MAPPER_NOT_FOUND",
-                null
-            );
+        Optional<TransformationPipeline<SOURCE, TARGET>> pipeline = getPipeline(sourceType, targetType);
+        if (pipeline.isEmpty()) {
+            return mapperNotFound(sourceType, targetType);
         }
 
-        if (!mapper.supports(source)) {
-            throw new PaymentMappingException(
-                "Mapper does not support the provided source message",
-                sourceType,
-                targetType,
-                "UNSUPPORTED_SOURCE",
-                null
-            );
-        }
+        // Each hop validates its own input, starting with the source document structure
+        return pipeline.get().tryTransform(source, cancelled);
+    }
 
-        logger.debug("Performing transformation {} -> {} using {}",
-                    sourceType, targetType, mapper.getClass().getSimpleName());
-
-        try {
-            return mapper.transform(source);
-        } catch (Exception e) {
-            throw new PaymentMappingException(
-                "Failed to transform " + sourceType + " to " + targetType + ": " + e.getMessage(),
-                sourceType,
-                targetType,
-                "MAPSTRUCT_ERROR",
-                e
-            );
-        }
+    /**
+     * Transform a message asynchronously on the orchestrator's executor.
+     *
+     * @see #transformAsync(Object, String, String, Duration)
+     */
+    public <SOURCE, TARGET> CompletableFuture<TARGET> transformAsync(SOURCE source, String sourceType, String targetType) {
+        return transformAsync(source, sourceType, targetType, null);
     }
 
     /**
-     * Validate source document structure based on message type.
+     * Transform a message asynchronously on the orchestrator's executor.
      *
-     * @param source The source document to validate
-     * @param sourceType The source message type
-     * @throws PaymentMappingException if validation fails
+     * The future fails with the {@link PaymentMappingException} the transformation
+     * throws, or with error code TRANSFORMATION_TIMEOUT when the timeout expires first.
+     * Cancelling the future interrupts the transformation and stops it before its next hop.
+     *
+     * @param source The source message
+     * @param sourceType The source message type identifier
+     * @param targetType The target message type identifier
+     * @param timeout How long the transformation may take, or null for no limit
+     * @param <SOURCE> Source message type
+     * @param <TARGET> Target message type
+     * @return A future for the transformed message
      */
-    private <SOURCE> void validateSourceDocument(SOURCE source, String sourceType) throws PaymentMappingException {
-        if ("pain.001.001.12".equals(sourceType)) {
-            validatePain001Document(source);
-        }
-        // Add other message type validations as needed
+    public <SOURCE, TARGET> CompletableFuture<TARGET> transformAsync(
+            SOURCE source, String sourceType, String targetType, Duration timeout) {
+        return AsyncTransformation.submit(asyncExecutor, sourceType, targetType, timeout,
+            cancelled -> this.<SOURCE, TARGET>transform(source, sourceType, targetType, cancelled));
+    }
+
+    private <SOURCE, TARGET> TARGET transform(SOURCE source, String sourceType, String targetType,
+                                              BooleanSupplier cancelled) throws PaymentMappingException {
+        return this.<SOURCE, TARGET>tryTransform(source, sourceType, targetType, cancelled).getOrThrow();
+    }
+
+    /**
+     * Transform a batch of independent messages in parallel on the orchestrator's pool.
+     *
+     * @see #transformAll(List, String, String, ForkJoinPool)
+     */
+    public <SOURCE, TARGET> List<BatchResult<TARGET>> transformAll(
+            List<? extends SOURCE> sources, String sourceType, String targetType)
+            throws PaymentMappingException {
+        return transformAll(sources, sourceType, targetType, batchPool);
+    }
+
+    /**
+     * Transform a batch of independent messages in parallel. The batch is split by
+     * the number of transactions in each message, so a few large messages do not
+     * hold up the rest. A message that fails gets a failed result and the others
+     * are still transformed.
+     *
+     * @param sources The source messages
+     * @param sourceType The source message type identifier
+     * @param targetType The target message type identifier
+     * @param pool The pool to run the batch on
+     * @param <SOURCE> Source message type
+     * @param <TARGET> Target message type
+     * @return One result per source message, in the order of the sources
+     * @throws PaymentMappingException if no mapper is found for the transformation
+     */
+    public <SOURCE, TARGET> List<BatchResult<TARGET>> transformAll(
+            List<? extends SOURCE> sources, String sourceType, String targetType, ForkJoinPool pool)
+            throws PaymentMappingException {
+        Objects.requireNonNull(sources, "sources");
+        TransformationPipeline<SOURCE, TARGET> pipeline = requirePipeline(sourceType, targetType);
+        logger.debug("Transforming batch of {} {} -> {}", sources.size(), sourceType, targetType);
+        return new BatchTransformer<>(pipeline, pool).transformAll(sources);
+    }
+
+    /**
+     * Transform a stream of independent messages in parallel on the orchestrator's
+     * pool, passing each result to the sink in source order. Only a bounded number
+     * of messages is in flight, so sources can be read lazily from a large input.
+     * A message that fails gets a failed result and the others are still transformed.
+     *
+     * @param sources The source messages
+     * @param sourceType The source message type identifier
+     * @param targetType The target message type identifier
+     * @param sink Receives each result, in source order, on the calling thread
+     * @param <SOURCE> Source message type
+     * @param <TARGET> Target message type
+     * @return The number of messages transformed
+     * @throws PaymentMappingException if no mapper is found for the transformation
+     */
+    public <SOURCE, TARGET> long transformAll(
+            Iterator<? extends SOURCE> sources, String sourceType, String targetType,
+            Consumer<? super BatchResult<TARGET>> sink)
+            throws PaymentMappingException {
+        Objects.requireNonNull(sources, "sources");
+        Objects.requireNonNull(sink, "sink");
+        TransformationPipeline<SOURCE, TARGET> pipeline = requirePipeline(sourceType, targetType);
+        return new BatchTransformer<>(pipeline, batchPool).transformEach(sources, sink);
     }
 
     /**
-     * Validate Pain.001 document structure.
+     * Get the compiled pipeline for the cheapest route between two message types.
+     * Callers that repeat a route can keep the pipeline and run it directly.
      *
-     * @param source The source document
-     * @throws PaymentMappingException if validation fails
+     * @param sourceType The source message type
+     * @param targetType The target message type
+     * @param <SOURCE> Source message type
+     * @param <TARGET> Target message type
+     * @return Optional containing the pipeline if the types are connected
      */
-    private <SOURCE> void validatePain001Document(SOURCE source) throws PaymentMappingException {
-        if (source instanceof org.translator.xsd.generated.pain_001.Document) {
-            org.translator.xsd.generated.pain_001.Document pain001Doc =
-                (org.translator.xsd.generated.pain_001.Document) source;
+    @SuppressWarnings("unchecked")
+    public <SOURCE, TARGET> Optional<TransformationPipeline<SOURCE, TARGET>> getPipeline(
+            String sourceType, String targetType) {
+        return routes.getPipeline(sourceType, targetType)
+                     .map(pipeline -> (TransformationPipeline<SOURCE, TARGET>) pipeline);
+    }
 
-            if (pain001Doc.getCstmrCdtTrfInitn() == null) {
-                throw new PaymentMappingException(
-                    "Invalid Pain.001 structure: missing CustomerCreditTransferInitiation",
-                    "pain.001.001.12",
-                    "unknown",
-                    "INVALID_PAIN001_STRUCTURE",
-                    null
-                );
-            }
+    private <SOURCE, TARGET> TransformationPipeline<SOURCE, TARGET> requirePipeline(String sourceType, String targetType)
+            throws PaymentMappingException {
+        Optional<TransformationPipeline<SOURCE, TARGET>> pipeline = getPipeline(sourceType, targetType);
+        if (pipeline.isEmpty()) {
+            throw mapperNotFound(sourceType, targetType).toException();
         }
+        return pipeline.get();
+    }
+
+    private static <TARGET> TransformResult.Failure<TARGET> mapperNotFound(String sourceType, String targetType) {
+        return TransformResult.failure(
+            "No mapper found for transformation from " + sourceType + " to " + targetType,
+            "MAPPER_NOT_FOUND",
+            null,
+            sourceType,
+            targetType
+        );
     }
 
     /**
-     * Check if a transformation is supported.
+     * Check if a transformation is supported, directly or through intermediate types.
      *
      * @param sourceType The source message type
      * @param targetType The target message type
      * @return true if transformation is supported, false otherwise
      */
     public boolean isTransformationSupported(String sourceType, String targetType) {
-        String mapperKey = createMapperKey(sourceType, targetType);
-        return mappers.containsKey(mapperKey);
+        return routes.getPipeline(sourceType, targetType).isPresent();
     }
 
     /**
-     * Get all supported transformation pairs.
+     * Get all transformation pairs with a registered mapper.
      *
      * @return Set of transformation keys in format "sourceType->targetType"
      */
     public Set<String> getSupportedTransformations() {
-        return mappers.keySet();
+        return routes.getTransformationKeys();
     }
 
     /**
@@ -174,14 +373,14 @@ public class PaymentMessageOrchestrator {
     @SuppressWarnings("unchecked")
     public <SOURCE, TARGET> Optional<PaymentMessageMapper<SOURCE, TARGET>> getMapper(
             String sourceType, String targetType) {
-        String mapperKey = createMapperKey(sourceType, targetType);
         PaymentMessageMapper<SOURCE, TARGET> mapper =
-            (PaymentMessageMapper<SOURCE, TARGET>) mappers.get(mapperKey);
+            (PaymentMessageMapper<SOURCE, TARGET>) routes.getMapper(sourceType, targetType);
         return Optional.ofNullable(mapper);
     }
 
     /**
-     * Chain transformations from source through intermediate to target.
+     * Chain transformations from source through a chosen intermediate to target.
+     * {@link #transform} finds intermediate types itself; this variant pins the route.
      *
      * @param source The source message
      * @param sourceType The source message type
@@ -207,25 +406,48 @@ public class PaymentMessageOrchestrator {
     }
 
     /**
-     * Get transformation metadata for a specific mapper.
+     * Chain transformations asynchronously on the orchestrator's executor.
+     *
+     * @see #chainTransformAsync(Object, String, String, String, Duration)
+     */
+    public <SOURCE, INTERMEDIATE, TARGET> CompletableFuture<TARGET> chainTransformAsync(
+            SOURCE source, String sourceType, String intermediateType, String targetType) {
+        return chainTransformAsync(source, sourceType, intermediateType, targetType, null);
+    }
+
+    /**
+     * Chain transformations from source through a chosen intermediate to target,
+     * asynchronously on the orchestrator's executor. Failure, timeout and
+     * cancellation behave as for {@link #transformAsync(Object, String, String, Duration)};
+     * the timeout covers the whole chain.
      *
+     * @param source The source message
      * @param sourceType The source message type
+     * @param intermediateType The intermediate message type
      * @param targetType The target message type
-     * @return Optional containing transformation metadata if mapper exists
+     * @param timeout How long the chain may take, or null for no limit
+     * @param <SOURCE> Source message type
+     * @param <INTERMEDIATE> Intermediate message type
+     * @param <TARGET> Target message type
+     * @return A future for the final transformed message
      */
-    public Optional<TransformationMetadata> getTransformationMetadata(String sourceType, String targetType) {
-        return getMapper(sourceType, targetType)
-                .map(PaymentMessageMapper::getTransformationMetadata);
+    public <SOURCE, INTERMEDIATE, TARGET> CompletableFuture<TARGET> chainTransformAsync(
+            SOURCE source, String sourceType, String intermediateType, String targetType, Duration timeout) {
+        return AsyncTransformation.submit(asyncExecutor, sourceType, targetType, timeout, cancelled -> {
+            INTERMEDIATE intermediate = this.<SOURCE, INTERMEDIATE>transform(source, sourceType, intermediateType, cancelled);
+            return this.<INTERMEDIATE, TARGET>transform(intermediate, intermediateType, targetType, cancelled);
+        });
     }
 
     /**
-     * Create a unique key for mapper registration and lookup.
+     * Get transformation metadata for a specific mapper.
      *
      * @param sourceType The source message type
      * @param targetType The target message type
-     * @return The mapper key
+     * @return Optional containing transformation metadata if mapper exists
      */
-    private String createMapperKey(String sourceType, String targetType) {
-        return sourceType + "->" + targetType;
+    public Optional<TransformationMetadata> getTransformationMetadata(String sourceType, String targetType) {
+        return getMapper(sourceType, targetType)
+                .map(PaymentMessageMapper::getTransformationMetadata);
     }
 }
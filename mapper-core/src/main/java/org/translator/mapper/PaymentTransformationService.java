@@ -3,6 +3,8 @@ package org.translator.mapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service demonstrating the payment message orchestration framework.
  * Provides high-level methods for common transformation scenarios.
@@ -44,22 +46,65 @@ public class PaymentTransformationService {
     }
 
     /**
-     * Chain transformation from Pain.001 through PACS.008 to PACS.009.
-     * This demonstrates the orchestrator's ability to chain transformations.
+     * Transform Pain.001 to PACS.009.
+     * The orchestrator runs the fused Pain.001 to PACS.009 mapper when it is registered,
+     * and otherwise chains through PACS.008; both give the same document.
      *
      * @param pain001 The Pain.001 document
      * @return The final PACS.009 document
      * @throws PaymentMappingException if any transformation in the chain fails
      */
+    public org.translator.xsd.generated.pacs_009.Document transformPain001ToPacs009(
+            org.translator.xsd.generated.pain_001.Document pain001) throws PaymentMappingException {
+        logger.info("Transforming Pain.001 to PACS.009");
+        return orchestrator.transform(pain001, "pain.001.001.12", "pacs.009.001.12");
+    }
+
+    /**
+     * Transform Pain.001 to PACS.009.
+     *
+     * @param pain001 The Pain.001 document
+     * @return The final PACS.009 document
+     * @throws PaymentMappingException if any transformation in the chain fails
+     * @deprecated Does not necessarily pass through PACS.008; use {@link #transformPain001ToPacs009} instead.
+     */
+    @Deprecated
     public org.translator.xsd.generated.pacs_009.Document transformPain001ToPacs009ViaPacs008(
             org.translator.xsd.generated.pain_001.Document pain001) throws PaymentMappingException {
-        logger.info("Chaining transformation Pain.001 -> PACS.008 -> PACS.009");
-        return orchestrator.chainTransform(
-            pain001,
-            "pain.001.001.12",
-            "pacs.008.001.13",
-            "pacs.009.001.12"
-        );
+        return transformPain001ToPacs009(pain001);
+    }
+
+    /**
+     * Transform Pain.001 to PACS.008 asynchronously.
+     *
+     * @param pain001 The Pain.001 document
+     * @return A future for the PACS.008 document, failing with {@link PaymentMappingException}
+     */
+    public CompletableFuture<org.translator.xsd.generated.pacs_008.Document> transformPain001ToPacs008Async(
+            org.translator.xsd.generated.pain_001.Document pain001) {
+        return orchestrator.transformAsync(pain001, "pain.001.001.12", "pacs.008.001.13");
+    }
+
+    /**
+     * Transform PACS.008 to PACS.009 asynchronously.
+     *
+     * @param pacs008 The PACS.008 document
+     * @return A future for the PACS.009 document, failing with {@link PaymentMappingException}
+     */
+    public CompletableFuture<org.translator.xsd.generated.pacs_009.Document> transformPacs008ToPacs009Async(
+            org.translator.xsd.generated.pacs_008.Document pacs008) {
+        return orchestrator.transformAsync(pacs008, "pacs.008.001.13", "pacs.009.001.12");
+    }
+
+    /**
+     * Transform Pain.001 to PACS.009 asynchronously.
+     *
+     * @param pain001 The Pain.001 document
+     * @return A future for the PACS.009 document, failing with {@link PaymentMappingException}
+     */
+    public CompletableFuture<org.translator.xsd.generated.pacs_009.Document> transformPain001ToPacs009Async(
+            org.translator.xsd.generated.pain_001.Document pain001) {
+        return orchestrator.transformAsync(pain001, "pain.001.001.12", "pacs.009.001.12");
     }
 
     /**
@@ -104,14 +149,9 @@ public class PaymentTransformationService {
      * @return true if valid, false otherwise
      */
     public boolean validatePain001(org.translator.xsd.generated.pain_001.Document pain001) {
-        try {
-            return orchestrator.getMapper("pain.001.001.12", "pacs.008.001.13")
-                              .map(mapper -> mapper.supports(pain001))
-                              .orElse(false);
-        } catch (Exception e) {
-            logger.warn("Validation failed for Pain.001: {}", e.getMessage());
-            return false;
-        }
+        return orchestrator.getMapper("pain.001.001.12", "pacs.008.001.13")
+                          .map(mapper -> isValid(mapper, pain001, "Pain.001"))
+                          .orElse(false);
     }
 
     /**
@@ -121,12 +161,17 @@ public class PaymentTransformationService {
      * @return true if valid, false otherwise
      */
     public boolean validatePacs008(org.translator.xsd.generated.pacs_008.Document pacs008) {
+        return orchestrator.getMapper("pacs.008.001.13", "pacs.009.001.12")
+                          .map(mapper -> isValid(mapper, pacs008, "PACS.008"))
+                          .orElse(false);
+    }
+
+    private static <SOURCE> boolean isValid(PaymentMessageMapper<SOURCE, ?> mapper, SOURCE source, String messageName) {
         try {
-            return orchestrator.getMapper("pacs.008.001.13", "pacs.009.001.12")
-                              .map(mapper -> mapper.supports(pacs008))
-                              .orElse(false);
+            mapper.validate(source);
+            return true;
         } catch (Exception e) {
-            logger.warn("Validation failed for PACS.008: {}", e.getMessage());
+            logger.warn("Validation failed for {}: {}", messageName, e.getMessage());
             return false;
         }
     }
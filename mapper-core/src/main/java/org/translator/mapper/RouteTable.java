@@ -0,0 +1,154 @@
+package org.translator.mapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the registered mappers, viewed as a graph of message types,
+ * together with the pipelines compiled from it.
+ *
+ * Registering a mapper creates a new snapshot, so readers never lock and a pipeline
+ * is only ever planned against one consistent set of mappers. Pipelines are planned
+ * on first use and cached per snapshot, unreachable routes included.
+ */
+final class RouteTable {
+
+    static final RouteTable EMPTY = new RouteTable(Collections.emptyMap());
+
+    private final Map<String, Map<String, PaymentMessageMapper<?, ?>>> edges;
+    private final Set<String> transformationKeys;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Optional<TransformationPipeline<?, ?>>>> pipelines =
+        new ConcurrentHashMap<>();
+
+    private RouteTable(Map<String, Map<String, PaymentMessageMapper<?, ?>>> edges) {
+        this.edges = edges;
+        Set<String> keys = new LinkedHashSet<>();
+        edges.forEach((source, targets) -> targets.keySet().forEach(target -> keys.add(source + "->" + target)));
+        this.transformationKeys = Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Get a copy of this snapshot with the mapper added, replacing any mapper
+     * registered for the same source and target types.
+     */
+    RouteTable withMapper(PaymentMessageMapper<?, ?> mapper) {
+        if (mapper.getRouteCost() < 0) {
+            throw new IllegalArgumentException("Route cost must not be negative: " + mapper.getRouteCost());
+        }
+        Map<String, Map<String, PaymentMessageMapper<?, ?>>> copy = new LinkedHashMap<>();
+        edges.forEach((source, targets) -> copy.put(source, new LinkedHashMap<>(targets)));
+        copy.computeIfAbsent(mapper.getSourceMessageType(), source -> new LinkedHashMap<>())
+            .put(mapper.getTargetMessageType(), mapper);
+        copy.replaceAll((source, targets) -> Collections.unmodifiableMap(targets));
+        return new RouteTable(Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Get the mapper registered for exactly this pair of message types, or null.
+     */
+    PaymentMessageMapper<?, ?> getMapper(String sourceType, String targetType) {
+        Map<String, PaymentMessageMapper<?, ?>> targets = edges.get(sourceType);
+        return targets != null ? targets.get(targetType) : null;
+    }
+
+    /**
+     * Get the keys of the registered mappers, in the format "sourceType->targetType".
+     */
+    Set<String> getTransformationKeys() {
+        return transformationKeys;
+    }
+
+    /**
+     * Get the cheapest pipeline between two message types, planning it on first use.
+     */
+    Optional<TransformationPipeline<?, ?>> getPipeline(String sourceType, String targetType) {
+        if (sourceType == null || targetType == null) {
+            return Optional.empty();
+        }
+        ConcurrentHashMap<String, Optional<TransformationPipeline<?, ?>>> fromSource = pipelines.get(sourceType);
+        if (fromSource == null) {
+            fromSource = pipelines.computeIfAbsent(sourceType, source -> new ConcurrentHashMap<>());
+        }
+        Optional<TransformationPipeline<?, ?>> pipeline = fromSource.get(targetType);
+        if (pipeline == null) {
+            pipeline = fromSource.computeIfAbsent(targetType, target -> plan(sourceType, target));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Find the lowest-cost chain of mappers with Dijkstra's algorithm; ties go to the
+     * route with fewer hops. A type only maps to itself through a mapper registered
+     * for that pair.
+     */
+    private Optional<TransformationPipeline<?, ?>> plan(String sourceType, String targetType) {
+        if (sourceType.equals(targetType)) {
+            PaymentMessageMapper<?, ?> mapper = getMapper(sourceType, targetType);
+            if (mapper == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new TransformationPipeline<>(List.<PaymentMessageMapper<?, ?>>of(mapper)));
+        }
+
+        Map<String, Step> best = new HashMap<>();
+        PriorityQueue<Step> queue = new PriorityQueue<>();
+        Step start = new Step(sourceType, 0, 0, null, null);
+        best.put(sourceType, start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            Step step = queue.poll();
+            if (best.get(step.type) != step) {
+                continue;
+            }
+            if (step.type.equals(targetType)) {
+                List<PaymentMessageMapper<?, ?>> mappers = new ArrayList<>(step.hops);
+                for (Step s = step; s.mapper != null; s = s.previous) {
+                    mappers.add(s.mapper);
+                }
+                Collections.reverse(mappers);
+                return Optional.of(new TransformationPipeline<>(mappers));
+            }
+            for (PaymentMessageMapper<?, ?> mapper : edges.getOrDefault(step.type, Collections.emptyMap()).values()) {
+                Step next = new Step(mapper.getTargetMessageType(), step.cost + mapper.getRouteCost(),
+                                     step.hops + 1, mapper, step);
+                Step known = best.get(next.type);
+                if (known == null || next.compareTo(known) < 0) {
+                    best.put(next.type, next);
+                    queue.add(next);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class Step implements Comparable<Step> {
+        private final String type;
+        private final long cost;
+        private final int hops;
+        private final PaymentMessageMapper<?, ?> mapper;
+        private final Step previous;
+
+        private Step(String type, long cost, int hops, PaymentMessageMapper<?, ?> mapper, Step previous) {
+            this.type = type;
+            this.cost = cost;
+            this.hops = hops;
+            this.mapper = mapper;
+            this.previous = previous;
+        }
+
+        @Override
+        public int compareTo(Step other) {
+            int byCost = Long.compare(cost, other.cost);
+            return byCost != 0 ? byCost : Integer.compare(hops, other.hops);
+        }
+    }
+}
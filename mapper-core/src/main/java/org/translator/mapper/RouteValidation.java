@@ -0,0 +1,219 @@
+package org.translator.mapper;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Input schema validation settings and counters for one transformation route
+ * (source message type to target message type).
+ *
+ * Each route has its own {@link ValidationMode}. The process-wide default is read
+ * from the {@value #SYSTEM_PROPERTY} system property and can be overridden per route
+ * with {@code translator.validation.<source>:<target>} or {@link #setMode(ValidationMode)};
+ * validation is off unless configured. Validation runs as a filter on the parser's
+ * event stream using the schemas compiled once by {@link SchemaRegistry}, and the
+ * time spent validating is counted separately from parsing and mapping. A route
+ * that is configured to validate a message type with no schema fails its documents
+ * instead of letting them through unchecked.
+ */
+public final class RouteValidation {
+
+    public static final String SYSTEM_PROPERTY = "translator.validation";
+
+    private static final Map<String, RouteValidation> ROUTES = new ConcurrentHashMap<>();
+
+    private final String sourceType;
+    private final String targetType;
+    private volatile ValidationMode mode;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private final LongAdder validationNanos = new LongAdder();
+
+    private RouteValidation(String sourceType, String targetType, ValidationMode mode) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.mode = mode;
+    }
+
+    /**
+     * Get the shared validation state of a route, creating it with the configured
+     * mode on first use.
+     *
+     * @param sourceType The source message type (e.g. "pacs.008.001.13")
+     * @param targetType The target message type (e.g. "pacs.009.001.12")
+     * @return The route's validation state
+     */
+    public static RouteValidation forRoute(String sourceType, String targetType) {
+        return ROUTES.computeIfAbsent(routeKey(sourceType, targetType),
+            key -> new RouteValidation(sourceType, targetType, configuredMode(key)));
+    }
+
+    /**
+     * Get the validation state of every route used so far.
+     */
+    public static Map<String, RouteValidation> getRoutes() {
+        return ROUTES;
+    }
+
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public ValidationMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Change how this route validates; takes effect from the next document.
+     */
+    public void setMode(ValidationMode mode) {
+        this.mode = mode != null ? mode : ValidationMode.OFF;
+    }
+
+    /**
+     * Open a stream reader over a document of the given message type, validating it
+     * as it is read when this route's mode selects the document.
+     *
+     * @param in The XML input
+     * @param messageType The message type the input is validated against
+     * @return A stream reader, with DTDs and external entities disabled
+     * @throws XMLStreamException if the reader cannot be created
+     */
+    public XMLStreamReader open(InputStream in, String messageType) throws XMLStreamException {
+        return filter(StaxReaderSupport.createReader(in), messageType);
+    }
+
+    /**
+     * Wrap a stream reader so the document is validated as it is read, when this
+     * route's mode selects the document. Otherwise the reader is returned unchanged.
+     *
+     * @param reader A reader positioned at the start of the document
+     * @param messageType The message type the input is validated against
+     * @return The validating reader, or the given reader when this document is not validated
+     * @throws XMLStreamException if the reader is not in a state that can be validated
+     * @throws IllegalStateException if validation is on but no schema exists for the message type
+     */
+    public XMLStreamReader filter(XMLStreamReader reader, String messageType) throws XMLStreamException {
+        ValidationMode current = mode;
+        if (!current.isEnabled()) {
+            skipped.increment();
+            return reader;
+        }
+        // A route configured to validate must not silently pass everything through
+        if (!SchemaRegistry.hasSchema(messageType)) {
+            throw new IllegalStateException("Validation is " + current + " on route " + routeKey(sourceType, targetType)
+                + " but no XSD schema is available for " + messageType);
+        }
+        if (!current.selects(sequence.getAndIncrement())) {
+            skipped.increment();
+            return reader;
+        }
+        return new ValidatingStreamReader(reader, SchemaRegistry.getSchema(messageType), messageType, this);
+    }
+
+    /**
+     * Get a snapshot of this route's validation counters.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(validated.sum(), failed.sum(), skipped.sum(), aborted.sum(), validationNanos.sum());
+    }
+
+    void record(ValidatingStreamReader.Outcome outcome, long nanos) {
+        switch (outcome) {
+            case VALID -> validated.increment();
+            case INVALID -> failed.increment();
+            case ABORTED -> aborted.increment();
+        }
+        validationNanos.add(nanos);
+    }
+
+    private static ValidationMode configuredMode(String routeKey) {
+        ValidationMode defaultMode = ValidationMode.parse(System.getProperty(SYSTEM_PROPERTY), ValidationMode.OFF);
+        return ValidationMode.parse(System.getProperty(SYSTEM_PROPERTY + "." + routeKey), defaultMode);
+    }
+
+    private static String routeKey(String sourceType, String targetType) {
+        return sourceType + ":" + targetType;
+    }
+
+    @Override
+    public String toString() {
+        return routeKey(sourceType, targetType) + " [" + mode + "]";
+    }
+
+    /**
+     * Snapshot of how many documents a route validated, rejected, skipped and
+     * abandoned part way, and the time spent inside the validator.
+     */
+    public static final class Statistics {
+
+        private final long validated;
+        private final long failed;
+        private final long skipped;
+        private final long aborted;
+        private final long validationNanos;
+
+        private Statistics(long validated, long failed, long skipped, long aborted, long validationNanos) {
+            this.validated = validated;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.aborted = aborted;
+            this.validationNanos = validationNanos;
+        }
+
+        public long getValidated() {
+            return validated;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * Documents whose reader was closed before the end, so they were neither
+         * found valid nor rejected; for example when mapping failed mid-stream.
+         */
+        public long getAborted() {
+            return aborted;
+        }
+
+        /**
+         * Total time spent inside the validator, excluding parsing and binding.
+         */
+        public long getValidationNanos() {
+            return validationNanos;
+        }
+
+        /**
+         * Mean validation time per document the validator saw, in microseconds.
+         */
+        public double getMeanValidationMicros() {
+            long documents = validated + failed + aborted;
+            return documents == 0 ? 0.0 : validationNanos / 1000.0 / documents;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RouteValidation.Statistics{validated=%d, failed=%d, skipped=%d, aborted=%d, validationMs=%.3f}",
+                               validated, failed, skipped, aborted, validationNanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.translator.mapper;
+
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of compiled XSD schemas keyed by message type.
+ *
+ * A {@link Schema} is immutable and thread-safe once compiled, so each one is
+ * compiled once, either eagerly through {@link #compileAll()} at startup or on
+ * first use, and shared by every validator afterwards. Schemas are loaded from
+ * the {@code schema/} classpath directory.
+ */
+public final class SchemaRegistry {
+
+    private static final String SCHEMA_DIRECTORY = "schema/";
+
+    private static final Map<String, Entry> SCHEMAS = new ConcurrentHashMap<>();
+
+    static {
+        register(JaxbContextRegistry.PAIN001_V12, SCHEMA_DIRECTORY + "pain.001.001.12.xsd");
+        register(JaxbContextRegistry.PACS008_V13, SCHEMA_DIRECTORY + "pacs.008.001.13.xsd");
+        register(JaxbContextRegistry.PACS009_V12, SCHEMA_DIRECTORY + "pacs.009.001.12.xsd");
+        register(JaxbContextRegistry.PACS009_V01, SCHEMA_DIRECTORY + "pacs.009.001.01.xsd");
+        register("pacs.002.001.15", SCHEMA_DIRECTORY + "pacs.002.001.15.xsd");
+        register("pacs.002.001.10", SCHEMA_DIRECTORY + "pacs.002.001.10.xsd");
+        register("pacs.004.001.09", SCHEMA_DIRECTORY + "pacs.004.001.09.xsd");
+        register("pacs.008.001.08", SCHEMA_DIRECTORY + "pacs.008.001.08.xsd");
+        register("pacs.009.001.08", SCHEMA_DIRECTORY + "pacs.009.001.08.xsd");
+        register("pain.001.001.10", SCHEMA_DIRECTORY + "pain.001.001.10_1.xsd");
+        register("head.001.001.02", SCHEMA_DIRECTORY + "head.001.001.02.xsd");
+    }
+
+    private SchemaRegistry() {
+    }
+
+    /**
+     * Register the classpath resource holding the schema for a message type.
+     * Existing registrations are kept, so calling this twice for the same
+     * message type is harmless.
+     *
+     * @param messageType The message type identifier (e.g. "pacs.008.001.13")
+     * @param resource The classpath resource of the XSD
+     */
+    public static void register(String messageType, String resource) {
+        SCHEMAS.putIfAbsent(messageType, new Entry(messageType, resource));
+    }
+
+    /**
+     * Check whether a schema is registered and present on the classpath for a message type.
+     */
+    public static boolean hasSchema(String messageType) {
+        Entry entry = messageType != null ? SCHEMAS.get(messageType) : null;
+        return entry != null && entry.location() != null;
+    }
+
+    /**
+     * Get all message types with a registered schema.
+     */
+    public static Set<String> getRegisteredMessageTypes() {
+        return SCHEMAS.keySet();
+    }
+
+    /**
+     * Get the compiled schema for a message type, compiling it on first use.
+     *
+     * @param messageType The message type identifier
+     * @return The shared compiled schema
+     * @throws IllegalArgumentException if no schema is available for the message type
+     * @throws IllegalStateException if the schema does not compile
+     */
+    public static Schema getSchema(String messageType) {
+        Entry entry = messageType != null ? SCHEMAS.get(messageType) : null;
+        if (entry == null || entry.location() == null) {
+            throw new IllegalArgumentException("No XSD schema available for message type: " + messageType);
+        }
+        return entry.schema();
+    }
+
+    /**
+     * Compile every registered schema found on the classpath, so no request pays
+     * for compilation. Schemas that fail to compile are reported rather than thrown.
+     *
+     * @return The compilation time in milliseconds per message type, or -1 for failures
+     */
+    public static Map<String, Long> compileAll() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        for (Entry entry : SCHEMAS.values()) {
+            if (entry.location() == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                entry.schema();
+                timings.put(entry.messageType, (System.nanoTime() - start) / 1_000_000L);
+            } catch (IllegalStateException e) {
+                timings.put(entry.messageType, -1L);
+            }
+        }
+        return timings;
+    }
+
+    private static Schema compile(String messageType, URL location) {
+        // SchemaFactory is not thread-safe, so each compilation gets its own
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        } catch (SAXException e) {
+            // not supported by this implementation; the ISO schemas import nothing external
+        }
+        try (InputStream in = location.openStream()) {
+            return factory.newSchema(new StreamSource(in, location.toExternalForm()));
+        } catch (SAXException | IOException e) {
+            throw new IllegalStateException("Failed to compile XSD schema for " + messageType + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Entry {
+        private final String messageType;
+        private final String resource;
+        private volatile URL location;
+        private volatile boolean resolved;
+        private volatile Schema schema;
+
+        private Entry(String messageType, String resource) {
+            this.messageType = messageType;
+            this.resource = resource;
+        }
+
+        private URL location() {
+            if (!resolved) {
+                location = SchemaRegistry.class.getClassLoader().getResource(resource);
+                resolved = true;
+            }
+            return location;
+        }
+
+        private Schema schema() {
+            Schema compiled = schema;
+            if (compiled != null) {
+                return compiled;
+            }
+            synchronized (this) {
+                if (schema == null) {
+                    schema = compile(messageType, location());
+                }
+                return schema;
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.translator.mapper;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Base64;
+
+/**
+ * Runtime helpers called by the build-time generated StAX readers.
+ *
+ * Lexical conversions follow the JAXB reference implementation: numbers, booleans
+ * and dates are whitespace-trimmed, strings are taken verbatim, and values that do
+ * not parse are read as null rather than failing the whole document.
+ */
+public final class StaxReaderSupport {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final DatatypeFactory DATATYPE_FACTORY = createDatatypeFactory();
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+
+    private StaxReaderSupport() {
+    }
+
+    /**
+     * Create a stream reader over the given input with DTDs and external entities disabled.
+     */
+    public static XMLStreamReader createReader(InputStream in) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(in);
+    }
+
+    /**
+     * Advance to the root start element, if the reader is not already on it.
+     */
+    public static void moveToRootElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+            if (!reader.hasNext()) {
+                throw new XMLStreamException("Document has no root element");
+            }
+            reader.next();
+        }
+    }
+
+    /**
+     * Advance to the next child start element of the current element, skipping children
+     * outside the given namespace.
+     *
+     * @return true when positioned on a child start element, false on the parent end element
+     */
+    public static boolean nextChild(XMLStreamReader reader, String namespace) throws XMLStreamException {
+        while (nextChild(reader)) {
+            if (namespace.equals(reader.getNamespaceURI())) {
+                return true;
+            }
+            skipElement(reader);
+        }
+        return false;
+    }
+
+    /**
+     * Advance to the next child start element of the current element.
+     *
+     * @return true when positioned on a child start element, false on the parent end element
+     */
+    public static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT || event == XMLStreamConstants.END_DOCUMENT) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Skip the element the reader is positioned on, leaving it on the matching end element.
+     */
+    public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Unexpected end of document");
+            }
+        }
+    }
+
+    /**
+     * Copy the element the reader is positioned on into a standalone DOM element, as JAXB
+     * does for lax wildcard content it has no binding for. The reader is left on the
+     * matching end element.
+     */
+    public static Element readDomElement(XMLStreamReader reader) throws XMLStreamException {
+        Document document;
+        try {
+            document = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new XMLStreamException("Failed to create DOM document", e);
+        }
+        Element root = createDomElement(document, reader);
+        document.appendChild(root);
+        Node current = root;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = createDomElement(document, reader);
+                    current.appendChild(child);
+                    current = child;
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    current.appendChild(document.createTextNode(reader.getText()));
+                    break;
+                case XMLStreamConstants.CDATA:
+                    current.appendChild(document.createCDATASection(reader.getText()));
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("Unexpected end of document");
+                default:
+                    break;
+            }
+        }
+        return root;
+    }
+
+    public static BigDecimal parseDecimal(String text) {
+        String value = trimSign(text);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static BigInteger parseInteger(String text) {
+        String value = trimSign(text);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigInteger(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static Integer parseInt(String text) {
+        BigInteger value = parseInteger(text);
+        return value != null ? value.intValue() : null;
+    }
+
+    public static Long parseLong(String text) {
+        BigInteger value = parseInteger(text);
+        return value != null ? value.longValue() : null;
+    }
+
+    public static Boolean parseBoolean(String text) {
+        if (text == null) {
+            return null;
+        }
+        switch (text.trim()) {
+            case "true":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    public static XMLGregorianCalendar parseCalendar(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return DATATYPE_FACTORY.newXMLGregorianCalendar(text.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static byte[] parseBase64(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Base64.getMimeDecoder().decode(text.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String trimSign(String text) {
+        if (text == null) {
+            return null;
+        }
+        String value = text.trim();
+        if (value.startsWith("+")) {
+            value = value.substring(1);
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Element createDomElement(Document document, XMLStreamReader reader) {
+        String namespace = reader.getNamespaceURI();
+        String prefix = reader.getPrefix();
+        String qualifiedName = prefix == null || prefix.isEmpty()
+            ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+        Element element = document.createElementNS(namespace == null || namespace.isEmpty() ? null : namespace,
+            qualifiedName);
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String declaredPrefix = reader.getNamespacePrefix(i);
+            String attributeName = declaredPrefix == null || declaredPrefix.isEmpty()
+                ? "xmlns" : "xmlns:" + declaredPrefix;
+            element.setAttributeNS("http://www.w3.org/2000/xmlns/", attributeName, reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attributeNamespace = reader.getAttributeNamespace(i);
+            String attributePrefix = reader.getAttributePrefix(i);
+            String attributeName = attributePrefix == null || attributePrefix.isEmpty()
+                ? reader.getAttributeLocalName(i) : attributePrefix + ":" + reader.getAttributeLocalName(i);
+            element.setAttributeNS(attributeNamespace == null || attributeNamespace.isEmpty() ? null : attributeNamespace,
+                attributeName, reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    private static DatatypeFactory createDatatypeFactory() {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException("No DatatypeFactory available", e);
+        }
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory;
+    }
+}
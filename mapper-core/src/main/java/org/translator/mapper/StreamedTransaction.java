@@ -0,0 +1,40 @@
+package org.translator.mapper;
+
+/**
+ * A single credit transfer transaction read from a message stream, together
+ * with the enclosing context it was found in (for example the Pain.001
+ * payment instruction) and its zero-based position in the message.
+ *
+ * @param <CONTEXT> The enclosing context type, or {@link Void} when there is none
+ * @param <TX> The transaction type
+ */
+public final class StreamedTransaction<CONTEXT, TX> {
+
+    private final CONTEXT context;
+    private final TX transaction;
+    private final long index;
+
+    public StreamedTransaction(CONTEXT context, TX transaction, long index) {
+        this.context = context;
+        this.transaction = transaction;
+        this.index = index;
+    }
+
+    public CONTEXT getContext() {
+        return context;
+    }
+
+    public TX getTransaction() {
+        return transaction;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StreamedTransaction{index=%d, transaction=%s}",
+                           index, transaction != null ? transaction.getClass().getSimpleName() : "null");
+    }
+}
@@ -0,0 +1,136 @@
+package org.translator.mapper;
+
+import org.translator.xsd.generated.pain_001.CreditTransferTransaction61;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded-memory transformations that connect a {@link TransactionStreamReader} to a
+ * {@link TransactionStreamWriter}. Each transaction is read, mapped and written before
+ * the next one is read, so neither the source nor the target document is ever held
+ * in memory as a whole.
+ *
+ * Input is validated as it streams when the route's {@link RouteValidation} mode
+ * selects the document; a violation fails the transformation at the point it is read.
+ */
+public class StreamingPaymentTransformer {
+
+    private final Pain001ToPacs008Mapper pain001Mapper;
+    private final Pacs008ToPacs009Mapper pacs008Mapper;
+    private final Path spillDirectory;
+
+    public StreamingPaymentTransformer() {
+        this(Pain001ToPacs008Mapper.INSTANCE, Pacs008ToPacs009Mapper.INSTANCE, null);
+    }
+
+    public StreamingPaymentTransformer(Pain001ToPacs008Mapper pain001Mapper,
+                                       Pacs008ToPacs009Mapper pacs008Mapper,
+                                       Path spillDirectory) {
+        this.pain001Mapper = pain001Mapper;
+        this.pacs008Mapper = pacs008Mapper;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Stream a Pain.001 message into a PACS.008 message.
+     *
+     * @param in The Pain.001 XML input
+     * @param out The PACS.008 XML output
+     * @return The number of transactions transformed
+     * @throws PaymentMappingException if reading, mapping or writing fails
+     */
+    public long transformPain001ToPacs008(InputStream in, OutputStream out) throws PaymentMappingException {
+        return transformPain001ToPacs008(in, out, null);
+    }
+
+    /**
+     * Stream a Pain.001 message into a PACS.008 message, reporting progress.
+     *
+     * @param in The Pain.001 XML input
+     * @param out The PACS.008 XML output
+     * @param progress Receives the number of transactions written so far after each one, or null
+     * @return The number of transactions transformed
+     * @throws PaymentMappingException if reading, mapping or writing fails
+     */
+    public long transformPain001ToPacs008(InputStream in, OutputStream out, LongConsumer progress)
+            throws PaymentMappingException {
+        RouteValidation validation = RouteValidation.forRoute(JaxbContextRegistry.PAIN001_V12, JaxbContextRegistry.PACS008_V13);
+        try (Pain001TransactionStreamReader reader = new Pain001TransactionStreamReader(
+                 validation.open(in, JaxbContextRegistry.PAIN001_V12));
+             Pacs008TransactionStreamWriter writer = new Pacs008TransactionStreamWriter(out, spillDirectory)) {
+            while (reader.hasNext()) {
+                StreamedTransaction<PaymentInstruction44, CreditTransferTransaction61> entry = reader.next();
+                writer.writeTransaction(pain001Mapper.mapCreditTransferTransaction(entry.getTransaction()));
+                if (progress != null) {
+                    progress.accept(writer.getTransactionCount());
+                }
+            }
+            org.translator.xsd.generated.pacs_008.GroupHeader131 header = reader.getGroupHeader() != null
+                ? pain001Mapper.mapGroupHeader(reader.getGroupHeader())
+                : null;
+            writer.finish(header);
+            return writer.getTransactionCount();
+        } catch (Exception e) {
+            throw new PaymentMappingException(
+                "Failed to stream Pain.001 to PACS.008: " + e.getMessage(),
+                JaxbContextRegistry.PAIN001_V12,
+                JaxbContextRegistry.PACS008_V13,
+                "STREAMING_ERROR",
+                e
+            );
+        }
+    }
+
+    /**
+     * Stream a PACS.008 message into a PACS.009 message.
+     *
+     * @param in The PACS.008 XML input
+     * @param out The PACS.009 XML output
+     * @return The number of transactions transformed
+     * @throws PaymentMappingException if reading, mapping or writing fails
+     */
+    public long transformPacs008ToPacs009(InputStream in, OutputStream out) throws PaymentMappingException {
+        return transformPacs008ToPacs009(in, out, null);
+    }
+
+    /**
+     * Stream a PACS.008 message into a PACS.009 message, reporting progress.
+     *
+     * @param in The PACS.008 XML input
+     * @param out The PACS.009 XML output
+     * @param progress Receives the number of transactions written so far after each one, or null
+     * @return The number of transactions transformed
+     * @throws PaymentMappingException if reading, mapping or writing fails
+     */
+    public long transformPacs008ToPacs009(InputStream in, OutputStream out, LongConsumer progress)
+            throws PaymentMappingException {
+        RouteValidation validation = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V13, JaxbContextRegistry.PACS009_V12);
+        try (Pacs008TransactionStreamReader reader = new Pacs008TransactionStreamReader(
+                 validation.open(in, JaxbContextRegistry.PACS008_V13));
+             Pacs009TransactionStreamWriter writer = new Pacs009TransactionStreamWriter(out, spillDirectory)) {
+            while (reader.hasNext()) {
+                writer.writeTransaction(pacs008Mapper.mapCreditTransferTransaction(reader.next().getTransaction()));
+                if (progress != null) {
+                    progress.accept(writer.getTransactionCount());
+                }
+            }
+            org.translator.xsd.generated.pacs_009.GroupHeader131 header = reader.getGroupHeader() != null
+                ? pacs008Mapper.mapGroupHeader(reader.getGroupHeader())
+                : null;
+            writer.finish(header);
+            return writer.getTransactionCount();
+        } catch (Exception e) {
+            throw new PaymentMappingException(
+                "Failed to stream PACS.008 to PACS.009: " + e.getMessage(),
+                JaxbContextRegistry.PACS008_V13,
+                JaxbContextRegistry.PACS009_V12,
+                "STREAMING_ERROR",
+                e
+            );
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pull-based reader that walks a message with an {@link XMLStreamReader} and
+ * unmarshals one credit transfer transaction at a time.
+ *
+ * The group header is bound once when the reader is opened. Transactions are
+ * then bound lazily as the iterator advances, so heap use depends on the size
+ * of a single transaction rather than on the size of the file.
+ *
+ * @param <HEADER> The group header type
+ * @param <CONTEXT> The enclosing context type, or {@link Void} when there is none
+ * @param <TX> The transaction type
+ */
+public abstract class TransactionStreamReader<HEADER, CONTEXT, TX>
+        implements Iterator<StreamedTransaction<CONTEXT, TX>>, AutoCloseable {
+
+    protected static final String GROUP_HEADER_ELEMENT = "GrpHdr";
+    protected static final String TRANSACTION_ELEMENT = "CdtTrfTxInf";
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final XMLStreamReader reader;
+    private final String messageType;
+    private final Unmarshaller unmarshaller;
+    private final Class<HEADER> headerType;
+    private final Class<TX> transactionType;
+    private final XmlReaderMode readerMode;
+
+    private HEADER groupHeader;
+    private CONTEXT context;
+    private StreamedTransaction<CONTEXT, TX> pending;
+    private long index;
+    private boolean closed;
+
+    protected TransactionStreamReader(XMLStreamReader reader, String messageType,
+                                      Class<HEADER> headerType, Class<TX> transactionType) {
+        this.reader = reader;
+        this.messageType = messageType;
+        this.headerType = headerType;
+        this.transactionType = transactionType;
+        this.readerMode = XmlReaderMode.getDefault();
+        try {
+            this.unmarshaller = JaxbContextRegistry.acquireUnmarshaller(messageType);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Failed to create unmarshaller for " + messageType, e);
+        }
+        // Prime the reader so the group header is bound before the first transaction is requested
+        this.pending = advance();
+    }
+
+    /**
+     * Create a stream reader over the given input with DTDs and external entities disabled.
+     */
+    protected static XMLStreamReader createStreamReader(InputStream in) {
+        try {
+            return INPUT_FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to open XML stream: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bind the group header element the reader is positioned on. The default binds it
+     * through JAXB; subclasses may use a generated reader instead.
+     */
+    protected HEADER readGroupHeader(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        return unmarshaller.unmarshal(reader, headerType).getValue();
+    }
+
+    /**
+     * Bind the transaction element the reader is positioned on. The default binds it
+     * through JAXB; subclasses may use a generated reader instead.
+     */
+    protected TX readTransaction(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        return unmarshaller.unmarshal(reader, transactionType).getValue();
+    }
+
+    /**
+     * Bind the enclosing context element the reader is positioned on. Implementations
+     * must leave the reader on the first transaction start element, or just after the
+     * context end element when it holds no transactions.
+     *
+     * @param reader The stream reader positioned on the context start element
+     * @param unmarshaller The unmarshaller owned by this reader
+     * @return The bound context
+     */
+    protected CONTEXT readContext(XMLStreamReader reader, Unmarshaller unmarshaller)
+            throws XMLStreamException, JAXBException {
+        return null;
+    }
+
+    /**
+     * Local name of the element that carries the enclosing context, or null when
+     * transactions sit directly below the message root.
+     */
+    protected String getContextElement() {
+        return null;
+    }
+
+    /**
+     * Get the group header bound when the reader was opened.
+     *
+     * @return The group header, or null if the message has none
+     */
+    public HEADER getGroupHeader() {
+        return groupHeader;
+    }
+
+    /**
+     * Get the binding implementation this reader was opened with.
+     */
+    public XmlReaderMode getReaderMode() {
+        return readerMode;
+    }
+
+    /**
+     * Get the message type this reader binds against.
+     */
+    public String getMessageType() {
+        return messageType;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending != null;
+    }
+
+    @Override
+    public StreamedTransaction<CONTEXT, TX> next() {
+        if (pending == null) {
+            throw new NoSuchElementException();
+        }
+        StreamedTransaction<CONTEXT, TX> current = pending;
+        pending = advance();
+        return current;
+    }
+
+    /**
+     * Expose the remaining transactions as a sequential, ordered stream. Closing the
+     * stream closes this reader.
+     */
+    public Stream<StreamedTransaction<CONTEXT, TX>> stream() {
+        Spliterator<StreamedTransaction<CONTEXT, TX>> spliterator =
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = null;
+        JaxbContextRegistry.releaseUnmarshaller(messageType, unmarshaller);
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // best-effort close
+        }
+    }
+
+    private StreamedTransaction<CONTEXT, TX> advance() {
+        if (closed) {
+            return null;
+        }
+        try {
+            String contextElement = getContextElement();
+            while (true) {
+                // After a JAXB unmarshal call the reader already sits on the event following the
+                // bound element (a generated reader leaves it on the end element), so the current
+                // event is examined before moving on
+                if (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+                    String localName = reader.getLocalName();
+                    if (groupHeader == null && GROUP_HEADER_ELEMENT.equals(localName)) {
+                        groupHeader = readGroupHeader(reader, unmarshaller);
+                        continue;
+                    }
+                    if (TRANSACTION_ELEMENT.equals(localName)) {
+                        TX transaction = readTransaction(reader, unmarshaller);
+                        return new StreamedTransaction<>(context, transaction, index++);
+                    }
+                    if (contextElement != null && contextElement.equals(localName)) {
+                        context = readContext(reader, unmarshaller);
+                        continue;
+                    }
+                }
+                if (!reader.hasNext()) {
+                    return null;
+                }
+                reader.next();
+            }
+        } catch (XMLStreamException | JAXBException e) {
+            close();
+            throw new IllegalStateException("Failed to read " + messageType + " transaction "
+                + index + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        return factory;
+    }
+}
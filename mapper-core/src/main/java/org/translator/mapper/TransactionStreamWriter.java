@@ -0,0 +1,201 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming writer that serialises credit transfer transactions as they are mapped
+ * and writes the group header last.
+ *
+ * {@code NbOfTxs}, {@code CtrlSum} and {@code TtlIntrBkSttlmAmt} precede the
+ * transactions in the XML but can only be computed once all of them are known.
+ * Transactions are therefore spilled to a temporary file while running totals are
+ * kept; {@link #finish(Object)} applies the totals to the header, writes the header
+ * and then copies the spilled transactions to the output. Memory use is bounded by
+ * the size of a single transaction.
+ *
+ * @param <HEADER> The group header type
+ * @param <TX> The transaction type
+ */
+public abstract class TransactionStreamWriter<HEADER, TX> implements AutoCloseable {
+
+    protected static final String GROUP_HEADER_ELEMENT = "GrpHdr";
+    protected static final String TRANSACTION_ELEMENT = "CdtTrfTxInf";
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+    private final OutputStream out;
+    private final String messageType;
+    private final String containerElement;
+    private final QName rootName;
+    private final Class<HEADER> headerType;
+    private final Class<TX> transactionType;
+    private final Path spillFile;
+    private final OutputStream spill;
+    private final Marshaller marshaller;
+
+    private long transactionCount;
+    private BigDecimal controlSum = BigDecimal.ZERO;
+    private String currency;
+    private boolean mixedCurrencies;
+    private boolean finished;
+    private boolean closed;
+
+    protected TransactionStreamWriter(OutputStream out, Path spillDirectory, String messageType,
+                                      String containerElement, Class<HEADER> headerType,
+                                      Class<TX> transactionType) throws IOException, JAXBException {
+        this.out = out;
+        this.messageType = messageType;
+        this.containerElement = containerElement;
+        this.rootName = JaxbContextRegistry.getRootName(messageType);
+        this.headerType = headerType;
+        this.transactionType = transactionType;
+        this.spillFile = spillDirectory != null
+            ? Files.createTempFile(spillDirectory, "txspill-", ".xml")
+            : Files.createTempFile("txspill-", ".xml");
+        OutputStream spillStream = null;
+        try {
+            spillStream = new BufferedOutputStream(Files.newOutputStream(spillFile));
+            Marshaller fragmentMarshaller = JaxbContextRegistry.acquireMarshaller(messageType);
+            fragmentMarshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            fragmentMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+            this.spill = spillStream;
+            this.marshaller = fragmentMarshaller;
+        } catch (IOException | JAXBException | RuntimeException e) {
+            // A writer that fails to construct is never closed, so clean up here
+            if (spillStream != null) {
+                try {
+                    spillStream.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the settlement amount of a transaction, or null if it has none.
+     */
+    protected abstract BigDecimal getAmount(TX transaction);
+
+    /**
+     * Get the settlement currency of a transaction, or null if it has none.
+     */
+    protected abstract String getCurrency(TX transaction);
+
+    /**
+     * Apply the computed totals to the group header before it is written.
+     *
+     * @param header The group header to update
+     * @param transactionCount The number of transactions written
+     * @param controlSum The sum of all transaction amounts
+     * @param currency The common currency, or null when transactions use more than one
+     */
+    protected abstract void applyTotals(HEADER header, long transactionCount, BigDecimal controlSum, String currency);
+
+    /**
+     * Serialise a transaction to the spill file and update the running totals.
+     */
+    public void writeTransaction(TX transaction) throws JAXBException {
+        if (finished) {
+            throw new IllegalStateException("Writer has already been finished");
+        }
+        marshaller.marshal(new JAXBElement<>(qualify(TRANSACTION_ELEMENT), transactionType, transaction), spill);
+        transactionCount++;
+
+        BigDecimal amount = getAmount(transaction);
+        if (amount != null) {
+            controlSum = controlSum.add(amount);
+        }
+        String txCurrency = getCurrency(transaction);
+        if (txCurrency != null && !mixedCurrencies) {
+            if (currency == null) {
+                currency = txCurrency;
+            } else if (!currency.equals(txCurrency)) {
+                mixedCurrencies = true;
+            }
+        }
+    }
+
+    /**
+     * Apply the totals to the header and write the complete document to the output.
+     *
+     * @param header The group header; its totals are overwritten
+     */
+    public void finish(HEADER header) throws JAXBException, IOException {
+        if (finished) {
+            throw new IllegalStateException("Writer has already been finished");
+        }
+        finished = true;
+        spill.close();
+
+        if (header != null) {
+            applyTotals(header, transactionCount, controlSum, mixedCurrencies ? null : currency);
+        }
+
+        OutputStream target = new BufferedOutputStream(out);
+        target.write(XML_DECLARATION.getBytes(StandardCharsets.UTF_8));
+        target.write(("<Document xmlns=\"" + rootName.getNamespaceURI() + "\"><" + containerElement + ">")
+            .getBytes(StandardCharsets.UTF_8));
+        if (header != null) {
+            marshaller.marshal(new JAXBElement<>(qualify(GROUP_HEADER_ELEMENT), headerType, header), target);
+        }
+        Files.copy(spillFile, target);
+        target.write(("</" + containerElement + "></Document>").getBytes(StandardCharsets.UTF_8));
+        target.flush();
+    }
+
+    /**
+     * Get the number of transactions written so far.
+     */
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public String getMessageType() {
+        return messageType;
+    }
+
+    /**
+     * Release the marshaller and delete the spill file. The underlying output stream
+     * is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            spill.close();
+        } finally {
+            try {
+                marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+                JaxbContextRegistry.releaseMarshaller(messageType, marshaller);
+            } catch (JAXBException e) {
+                // drop the marshaller rather than return it to the pool in an unknown state
+            }
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    private QName qualify(String localName) {
+        return new QName(rootName.getNamespaceURI(), localName);
+    }
+}
@@ -0,0 +1,94 @@
+package org.translator.mapper;
+
+/**
+ * Outcome of a transformation: the transformed message, or why it could not be produced.
+ *
+ * A {@link Failure} is a plain value rather than an exception, so rejecting a malformed
+ * message costs about as much as transforming a good one; no stack trace is captured
+ * unless the caller asks for a {@link PaymentMappingException} through {@link #getOrThrow()}.
+ *
+ * @param <T> The target message type
+ */
+public sealed interface TransformResult<T> permits TransformResult.Success, TransformResult.Failure {
+
+    /**
+     * A transformed message.
+     *
+     * @param value The transformed message
+     */
+    record Success<T>(T value) implements TransformResult<T> {
+
+        @Override
+        public T getOrThrow() {
+            return value;
+        }
+    }
+
+    /**
+     * A message that could not be transformed.
+     *
+     * @param message What went wrong
+     * @param errorCode The error code, as reported by {@link PaymentMappingException#getErrorCode()}
+     * @param fieldPath The element of the message the failure concerns, e.g. "CstmrCdtTrfInitn.GrpHdr", or null
+     * @param sourceMessageType The source message type of the failing step
+     * @param targetMessageType The target message type of the failing step
+     * @param cause The exception that caused the failure, or null when it was detected without one
+     */
+    record Failure<T>(String message, String errorCode, String fieldPath,
+                      String sourceMessageType, String targetMessageType, Throwable cause)
+            implements TransformResult<T> {
+
+        @Override
+        public T getOrThrow() throws PaymentMappingException {
+            throw toException();
+        }
+
+        /**
+         * Get the exception the throwing API reports for this failure: the original
+         * exception if there was one, otherwise a new one.
+         */
+        public PaymentMappingException toException() {
+            if (cause instanceof PaymentMappingException original) {
+                return original;
+            }
+            return new PaymentMappingException(message, sourceMessageType, targetMessageType, errorCode, fieldPath, cause);
+        }
+
+        /**
+         * Reuse this failure as the failure of a transformation to another type.
+         */
+        @SuppressWarnings("unchecked")
+        public <U> Failure<U> cast() {
+            return (Failure<U>) this;
+        }
+    }
+
+    static <T> Success<T> success(T value) {
+        return new Success<>(value);
+    }
+
+    static <T> Failure<T> failure(String message, String errorCode, String fieldPath,
+                                  String sourceMessageType, String targetMessageType) {
+        return new Failure<>(message, errorCode, fieldPath, sourceMessageType, targetMessageType, null);
+    }
+
+    /**
+     * Describe a thrown exception as a failure.
+     */
+    static <T> Failure<T> failure(PaymentMappingException exception) {
+        return new Failure<>(exception.getMessage(), exception.getErrorCode(), exception.getFieldPath(),
+                             exception.getSourceMessageType(), exception.getTargetMessageType(), exception);
+    }
+
+    default boolean isSuccess() {
+        return this instanceof Success;
+    }
+
+    /**
+     * Get the transformed message, or throw the failure as a {@link PaymentMappingException}.
+     *
+     * @return The transformed message
+     * @throws PaymentMappingException if the transformation failed
+     */
+    T getOrThrow() throws PaymentMappingException;
+}
@@ -0,0 +1,150 @@
+package org.translator.mapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A compiled route from one message type to another through one or more registered
+ * {@link PaymentMessageMapper}s.
+ *
+ * Pipelines are planned and cached by {@link PaymentMessageOrchestrator}. The mappers
+ * of every hop are resolved when the pipeline is compiled, so running it involves no
+ * lookups; callers that repeat the same route can hold on to the pipeline and call
+ * {@link #transform(Object)} directly. Each hop validates and maps its input in one
+ * {@link PaymentMessageMapper#tryTransform(Object)} call; {@link #tryTransform(Object)}
+ * reports the first failure as a {@link TransformResult} instead of throwing.
+ *
+ * @param <SOURCE> The source message type
+ * @param <TARGET> The target message type
+ */
+public final class TransformationPipeline<SOURCE, TARGET> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformationPipeline.class);
+
+    private final String sourceType;
+    private final String targetType;
+    private final PaymentMessageMapper<Object, Object>[] stages;
+    private final List<String> path;
+    private final long cost;
+
+    @SuppressWarnings("unchecked")
+    TransformationPipeline(List<PaymentMessageMapper<?, ?>> mappers) {
+        if (mappers.isEmpty()) {
+            throw new IllegalArgumentException("A pipeline needs at least one mapper");
+        }
+        this.stages = mappers.toArray(new PaymentMessageMapper[0]);
+        this.sourceType = stages[0].getSourceMessageType();
+        this.targetType = stages[stages.length - 1].getTargetMessageType();
+        List<String> types = new ArrayList<>(stages.length + 1);
+        types.add(sourceType);
+        long total = 0;
+        for (PaymentMessageMapper<Object, Object> stage : stages) {
+            types.add(stage.getTargetMessageType());
+            total += stage.getRouteCost();
+        }
+        this.path = Collections.unmodifiableList(types);
+        this.cost = total;
+    }
+
+    /**
+     * Run the source message through every hop of the route.
+     *
+     * @param source The source message
+     * @return The transformed message
+     * @throws PaymentMappingException if a hop rejects its input or fails
+     */
+    public TARGET transform(SOURCE source) throws PaymentMappingException {
+        return tryTransform(source, null).getOrThrow();
+    }
+
+    /**
+     * Run the source message through every hop of the route, reporting the first
+     * failing hop's failure as a value.
+     *
+     * @param source The source message
+     * @return The transformed message, or the failure
+     */
+    public TransformResult<TARGET> tryTransform(SOURCE source) {
+        return tryTransform(source, null);
+    }
+
+    /**
+     * Run the source message through the route, stopping before the next hop once
+     * the result is no longer wanted.
+     *
+     * @param source The source message
+     * @param cancelled Whether the transformation has been cancelled, or null if it cannot be
+     * @return The transformed message, or the failure
+     */
+    @SuppressWarnings("unchecked")
+    TransformResult<TARGET> tryTransform(SOURCE source, BooleanSupplier cancelled) {
+        Object message = source;
+        for (PaymentMessageMapper<Object, Object> stage : stages) {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                return TransformResult.failure(
+                    "Transformation from " + sourceType + " to " + targetType + " was cancelled",
+                    "TRANSFORMATION_CANCELLED",
+                    null,
+                    sourceType,
+                    targetType
+                );
+            }
+            if (message == null) {
+                return TransformResult.failure(
+                    "Source message cannot be null",
+                    "NULL_SOURCE",
+                    null,
+                    stage.getSourceMessageType(),
+                    stage.getTargetMessageType()
+                );
+            }
+
+            logger.debug("Performing transformation {} -> {} using {}",
+                        stage.getSourceMessageType(), stage.getTargetMessageType(), stage.getClass().getSimpleName());
+
+            // Each hop validates its input once and reports failure without throwing
+            TransformResult<Object> result = stage.tryTransform(message);
+            if (result instanceof TransformResult.Failure<Object> failure) {
+                return failure.cast();
+            }
+            message = ((TransformResult.Success<Object>) result).value();
+        }
+        return TransformResult.success((TARGET) message);
+    }
+
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    /**
+     * Get the message types the route passes through, from source to target.
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    public int getHopCount() {
+        return stages.length;
+    }
+
+    /**
+     * Get the summed {@link PaymentMessageMapper#getRouteCost() cost} of the route's mappers.
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" -> ", path) + " [cost=" + cost + "]";
+    }
+}
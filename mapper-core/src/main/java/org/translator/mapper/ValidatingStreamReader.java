@@ -0,0 +1,265 @@
+package org.translator.mapper;
+
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+
+/**
+ * Stream reader filter that validates events against a schema as the consumer
+ * pulls them, so a document is validated and bound in the same pass.
+ *
+ * Every event returned by {@link #next()} is forwarded to a {@link ValidatorHandler}
+ * first; a schema violation surfaces as an {@link XMLStreamException} from the
+ * call that reached it. Content is only validated as far as it is read, and a
+ * streaming consumer sees the transactions before a later violation.
+ *
+ * Time spent inside the validator is measured apart from parsing and binding and
+ * reported to the owning {@link RouteValidation} when the document ends or fails.
+ * A reader closed before the end of the document, because its consumer gave up,
+ * reports the document as aborted: it was neither found valid nor invalid.
+ */
+final class ValidatingStreamReader extends StreamReaderDelegate {
+
+    private final ValidatorHandler validator;
+    private final String messageType;
+    private final RouteValidation route;
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    private long validationNanos;
+    private int depth;
+    private boolean finished;
+
+    ValidatingStreamReader(XMLStreamReader reader, Schema schema, String messageType, RouteValidation route)
+            throws XMLStreamException {
+        super(reader);
+        this.validator = schema.newValidatorHandler();
+        this.messageType = messageType;
+        this.route = route;
+        long start = System.nanoTime();
+        try {
+            validator.setDocumentLocator(new StreamLocator(reader));
+            validator.startDocument();
+            if (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+                startElement();
+            }
+        } catch (SAXException e) {
+            validationNanos += System.nanoTime() - start;
+            throw fail(e);
+        }
+        validationNanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        if (finished) {
+            return event;
+        }
+        long start = System.nanoTime();
+        try {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    // Whitespace around the root element is not content
+                    if (depth > 0) {
+                        validator.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    validator.endDocument();
+                    validationNanos += System.nanoTime() - start;
+                    finish(Outcome.VALID);
+                    return event;
+                default:
+                    break;
+            }
+        } catch (SAXException e) {
+            validationNanos += System.nanoTime() - start;
+            throw fail(e);
+        }
+        validationNanos += System.nanoTime() - start;
+        return event;
+    }
+
+    /**
+     * Read element text through {@link #next()} so the text and end element are validated;
+     * the delegate's own implementation would advance past them unseen.
+     */
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("Parser must be on START_ELEMENT to read next text", getLocation());
+        }
+        StringBuilder text = null;
+        String single = null;
+        while (true) {
+            int event = next();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    if (single == null) {
+                        single = getText();
+                    } else {
+                        if (text == null) {
+                            text = new StringBuilder(single);
+                        }
+                        text.append(getText());
+                    }
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                case XMLStreamConstants.COMMENT:
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return text != null ? text.toString() : single != null ? single : "";
+                case XMLStreamConstants.START_ELEMENT:
+                    throw new XMLStreamException("Element text content may not contain START_ELEMENT", getLocation());
+                default:
+                    throw new XMLStreamException("Unexpected event type " + event, getLocation());
+            }
+        }
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while ((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                || (event == XMLStreamConstants.CDATA && isWhiteSpace())
+                || event == XMLStreamConstants.SPACE
+                || event == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || event == XMLStreamConstants.COMMENT) {
+            event = next();
+        }
+        if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        // The end of the document was never reached, so its validity is unknown
+        finish(Outcome.ABORTED);
+        super.close();
+    }
+
+    /**
+     * Get the time spent inside the validator so far, in nanoseconds.
+     */
+    long getValidationNanos() {
+        return validationNanos;
+    }
+
+    private void startElement() throws SAXException {
+        for (int i = 0; i < getNamespaceCount(); i++) {
+            validator.startPrefixMapping(nullToEmpty(getNamespacePrefix(i)), nullToEmpty(getNamespaceURI(i)));
+        }
+        attributes.clear();
+        for (int i = 0; i < getAttributeCount(); i++) {
+            String prefix = getAttributePrefix(i);
+            String localName = getAttributeLocalName(i);
+            attributes.addAttribute(nullToEmpty(getAttributeNamespace(i)), localName,
+                prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName,
+                "CDATA", getAttributeValue(i));
+        }
+        validator.startElement(nullToEmpty(getNamespaceURI()), getLocalName(), qualifiedName(), attributes);
+        depth++;
+    }
+
+    private void endElement() throws SAXException {
+        depth--;
+        validator.endElement(nullToEmpty(getNamespaceURI()), getLocalName(), qualifiedName());
+        for (int i = 0; i < getNamespaceCount(); i++) {
+            validator.endPrefixMapping(nullToEmpty(getNamespacePrefix(i)));
+        }
+    }
+
+    private String qualifiedName() {
+        String prefix = getPrefix();
+        return prefix == null || prefix.isEmpty() ? getLocalName() : prefix + ":" + getLocalName();
+    }
+
+    private XMLStreamException fail(SAXException e) {
+        finish(Outcome.INVALID);
+        String message = "Schema validation failed for " + messageType + ": " + e.getMessage();
+        if (e instanceof SAXParseException) {
+            SAXParseException parseException = (SAXParseException) e;
+            message = "Schema validation failed for " + messageType + " at line " + parseException.getLineNumber()
+                + ", column " + parseException.getColumnNumber() + ": " + e.getMessage();
+        }
+        return new XMLStreamException(message, getLocation(), e);
+    }
+
+    private void finish(Outcome outcome) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (route != null) {
+            route.record(outcome, validationNanos);
+        }
+    }
+
+    /**
+     * How validation of a document ended.
+     */
+    enum Outcome {
+        VALID, INVALID, ABORTED
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Reports the position of the underlying reader, so violations carry line numbers.
+     */
+    private static final class StreamLocator implements Locator {
+        private final XMLStreamReader reader;
+
+        private StreamLocator(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String getPublicId() {
+            Location location = reader.getLocation();
+            return location != null ? location.getPublicId() : null;
+        }
+
+        @Override
+        public String getSystemId() {
+            Location location = reader.getLocation();
+            return location != null ? location.getSystemId() : null;
+        }
+
+        @Override
+        public int getLineNumber() {
+            Location location = reader.getLocation();
+            return location != null ? location.getLineNumber() : -1;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            Location location = reader.getLocation();
+            return location != null ? location.getColumnNumber() : -1;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.translator.mapper;
+
+import java.util.Locale;
+
+/**
+ * How often a route validates its input against the XSD schema: every document,
+ * one document in N, or never.
+ */
+public final class ValidationMode {
+
+    public static final ValidationMode FULL = new ValidationMode(1);
+    public static final ValidationMode OFF = new ValidationMode(0);
+
+    private final int sampleRate;
+
+    private ValidationMode(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Get a sampled mode validating one document in every {@code rate}.
+     *
+     * @param rate The sampling interval; 1 is the same as {@link #FULL}
+     * @return The validation mode
+     */
+    public static ValidationMode sampled(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be at least 1: " + rate);
+        }
+        return rate == 1 ? FULL : new ValidationMode(rate);
+    }
+
+    /**
+     * Parse a validation mode from configuration.
+     * Accepted values are "full", "off" and "sample:N".
+     *
+     * @param value The value to parse
+     * @param defaultMode The mode returned when the value is null or blank
+     * @return The parsed validation mode
+     */
+    public static ValidationMode parse(String value, ValidationMode defaultMode) {
+        if (value == null || value.isBlank()) {
+            return defaultMode;
+        }
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.equals("full") || v.equals("on")) {
+            return FULL;
+        }
+        if (v.equals("off") || v.equals("none")) {
+            return OFF;
+        }
+        if (v.startsWith("sample:")) {
+            try {
+                return sampled(Integer.parseInt(v.substring("sample:".length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sample rate in validation mode: " + value);
+            }
+        }
+        throw new IllegalArgumentException("Unknown validation mode: " + value);
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    /**
+     * Get the sampling interval: 1 for full validation, 0 when validation is off.
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Decide whether the document with the given sequence number is validated.
+     *
+     * @param sequence The zero-based sequence number of the document on its route
+     * @return true if the document should be validated
+     */
+    public boolean selects(long sequence) {
+        return sampleRate == 1 || (sampleRate > 1 && sequence % sampleRate == 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ValidationMode && ((ValidationMode) o).sampleRate == sampleRate;
+    }
+
+    @Override
+    public int hashCode() {
+        return sampleRate;
+    }
+
+    @Override
+    public String toString() {
+        if (sampleRate == 0) {
+            return "off";
+        }
+        return sampleRate == 1 ? "full" : "sample:" + sampleRate;
+    }
+}
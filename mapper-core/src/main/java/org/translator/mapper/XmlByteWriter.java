@@ -0,0 +1,549 @@
+package org.translator.mapper;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Buffered UTF-8 XML writer used by the build-time generated serialisers.
+ *
+ * Tags, attribute prefixes and enumeration values arrive as pre-encoded byte arrays,
+ * so the only per-value work is escaping strings and formatting numbers and dates,
+ * which is done straight into the byte buffer. Escaping and layout follow the JAXB
+ * reference implementation's UTF-8 output, including its indented mode.
+ */
+public final class XmlByteWriter {
+
+    private static final byte[] XML_DECLARATION =
+        bytes("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+    private static final byte[] EMPTY_ELEMENT_END = bytes("/>");
+
+    private static final byte[][] TEXT_ENTITIES = new byte[128][];
+    private static final byte[][] ATTRIBUTE_ENTITIES = new byte[128][];
+
+    static {
+        TEXT_ENTITIES['&'] = bytes("&amp;");
+        TEXT_ENTITIES['<'] = bytes("&lt;");
+        TEXT_ENTITIES['>'] = bytes("&gt;");
+        TEXT_ENTITIES['\r'] = bytes("&#xD;");
+        System.arraycopy(TEXT_ENTITIES, 0, ATTRIBUTE_ENTITIES, 0, TEXT_ENTITIES.length);
+        ATTRIBUTE_ENTITIES['"'] = bytes("&quot;");
+        ATTRIBUTE_ENTITIES['\t'] = bytes("&#x9;");
+        ATTRIBUTE_ENTITIES['\n'] = bytes("&#xA;");
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final ByteBuffer target;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] indent;
+    private int position;
+
+    private int depth;
+    private boolean startTagOpen;
+    private boolean[] hasChildElements = new boolean[32];
+
+    /**
+     * Create a writer that flushes to a stream.
+     */
+    public XmlByteWriter(OutputStream out, XmlOutputMode mode) {
+        this(out, null, mode);
+    }
+
+    /**
+     * Create a writer that flushes into a buffer. A buffer that is too small
+     * fails with {@link java.nio.BufferOverflowException}.
+     */
+    public XmlByteWriter(ByteBuffer target, XmlOutputMode mode) {
+        this(null, target, mode);
+    }
+
+    private XmlByteWriter(OutputStream out, ByteBuffer target, XmlOutputMode mode) {
+        this.out = out;
+        this.target = target;
+        XmlOutputMode effective = mode != null ? mode : XmlOutputMode.INDENTED;
+        this.indent = effective.isIndented() ? bytes(effective.getIndentString()) : null;
+    }
+
+    /**
+     * Encode a constant as UTF-8, for the generated tag tables.
+     */
+    public static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void startDocument() throws IOException {
+        write(XML_DECLARATION);
+    }
+
+    public void endDocument() throws IOException {
+        if (indent != null) {
+            put('\n');
+        }
+        flush();
+    }
+
+    /**
+     * Open an element. The start tag stays open until content or the end tag is written.
+     *
+     * @param openTag The pre-encoded tag opening, e.g. {@code <MsgId}
+     */
+    public void startElement(byte[] openTag) throws IOException {
+        closeStartTag();
+        if (indent != null) {
+            newLine(depth);
+        }
+        hasChildElements[depth] = true;
+        depth++;
+        if (depth == hasChildElements.length) {
+            hasChildElements = Arrays.copyOf(hasChildElements, depth * 2);
+        }
+        hasChildElements[depth] = false;
+        write(openTag);
+        startTagOpen = true;
+    }
+
+    /**
+     * Close the current element, as {@code />} when nothing was written inside it.
+     *
+     * @param closeTag The pre-encoded end tag, e.g. {@code </MsgId>}
+     */
+    public void endElement(byte[] closeTag) throws IOException {
+        boolean children = hasChildElements[depth];
+        depth--;
+        if (startTagOpen) {
+            startTagOpen = false;
+            write(EMPTY_ELEMENT_END);
+            return;
+        }
+        if (indent != null && children) {
+            newLine(depth);
+        }
+        write(closeTag);
+    }
+
+    /**
+     * Write an attribute on the open start tag.
+     *
+     * @param prefix The pre-encoded attribute prefix, e.g. {@code  Ccy="}
+     * @param value The unescaped attribute value
+     */
+    public void attribute(byte[] prefix, String value) throws IOException {
+        write(prefix);
+        escape(value, ATTRIBUTE_ENTITIES);
+        put('"');
+    }
+
+    /**
+     * Write an attribute whose value is already encoded and escaped.
+     */
+    public void attribute(byte[] prefix, byte[] encodedValue) throws IOException {
+        write(prefix);
+        write(encodedValue);
+        put('"');
+    }
+
+    public void text(String value) throws IOException {
+        closeStartTag();
+        escape(value, TEXT_ENTITIES);
+    }
+
+    /**
+     * Write content that is already encoded and escaped, such as an enumeration value.
+     */
+    public void encoded(byte[] value) throws IOException {
+        closeStartTag();
+        write(value);
+    }
+
+    public void bool(Boolean value) throws IOException {
+        closeStartTag();
+        write(value ? TRUE : FALSE);
+    }
+
+    public void integer(long value) throws IOException {
+        closeStartTag();
+        writeLong(value);
+    }
+
+    public void integer(BigInteger value) throws IOException {
+        closeStartTag();
+        if (value.bitLength() < 64) {
+            writeLong(value.longValue());
+        } else {
+            ascii(value.toString());
+        }
+    }
+
+    /**
+     * Write a decimal in plain notation, as {@link BigDecimal#toPlainString()} would.
+     */
+    public void decimal(BigDecimal value) throws IOException {
+        closeStartTag();
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() >= 63) {
+            ascii(value.toPlainString());
+            return;
+        }
+        long digits = unscaled.longValue();
+        int scale = value.scale();
+        if (digits == 0 && scale <= 0) {
+            put('0');
+            return;
+        }
+        if (digits < 0) {
+            put('-');
+            digits = -digits;
+        }
+        if (scale <= 0) {
+            writeLong(digits);
+            for (int i = 0; i < -scale; i++) {
+                put('0');
+            }
+            return;
+        }
+        int length = digitCount(digits);
+        if (length <= scale) {
+            put('0');
+            put('.');
+            for (int i = length; i < scale; i++) {
+                put('0');
+            }
+            writeDigits(digits, length);
+        } else {
+            long divisor = pow10(scale);
+            writeLong(digits / divisor);
+            put('.');
+            writeDigits(digits % divisor, scale);
+        }
+    }
+
+    public void base64(byte[] value) throws IOException {
+        closeStartTag();
+        write(Base64.getEncoder().encode(value));
+    }
+
+    /**
+     * Write an xs:dateTime value: {@code YYYY-MM-DDThh:mm:ss[.fff][zone]}.
+     */
+    public void dateTime(XMLGregorianCalendar value) throws IOException {
+        closeStartTag();
+        year(value);
+        put('-');
+        twoDigits(value.getMonth());
+        put('-');
+        twoDigits(value.getDay());
+        put('T');
+        time0(value);
+        timezone(value);
+    }
+
+    /**
+     * Write an xs:date value: {@code YYYY-MM-DD[zone]}.
+     */
+    public void date(XMLGregorianCalendar value) throws IOException {
+        closeStartTag();
+        year(value);
+        put('-');
+        twoDigits(value.getMonth());
+        put('-');
+        twoDigits(value.getDay());
+        timezone(value);
+    }
+
+    /**
+     * Write an xs:time value: {@code hh:mm:ss[.fff][zone]}.
+     */
+    public void time(XMLGregorianCalendar value) throws IOException {
+        closeStartTag();
+        time0(value);
+        timezone(value);
+    }
+
+    /**
+     * Write an xs:gYear value: {@code YYYY[zone]}.
+     */
+    public void gYear(XMLGregorianCalendar value) throws IOException {
+        closeStartTag();
+        year(value);
+        timezone(value);
+    }
+
+    /**
+     * Write a calendar whose schema type is not known in advance.
+     */
+    public void calendar(XMLGregorianCalendar value) throws IOException {
+        closeStartTag();
+        ascii(value.toXMLFormat());
+    }
+
+    /**
+     * Serialise wildcard DOM content, declaring namespaces the element does not declare itself.
+     */
+    public void domElement(Element element) throws IOException {
+        closeStartTag();
+        if (indent != null) {
+            newLine(depth);
+        }
+        hasChildElements[depth] = true;
+        writeDom(element);
+    }
+
+    public void flush() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buffer, 0, position);
+        } else {
+            target.put(buffer, 0, position);
+        }
+        position = 0;
+    }
+
+    private void writeDom(Element element) throws IOException {
+        String name = element.getTagName();
+        put('<');
+        escape(name, TEXT_ENTITIES);
+        NamedNodeMap attributes = element.getAttributes();
+        String namespace = element.getNamespaceURI();
+        if (namespace != null) {
+            String prefix = element.getPrefix();
+            String declaration = prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix;
+            if (!element.hasAttribute(declaration)) {
+                put(' ');
+                escape(declaration, TEXT_ENTITIES);
+                put('=');
+                put('"');
+                escape(namespace, ATTRIBUTE_ENTITIES);
+                put('"');
+            }
+        }
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            put(' ');
+            escape(attribute.getName(), TEXT_ENTITIES);
+            put('=');
+            put('"');
+            escape(attribute.getValue(), ATTRIBUTE_ENTITIES);
+            put('"');
+        }
+        if (!element.hasChildNodes()) {
+            write(EMPTY_ELEMENT_END);
+            return;
+        }
+        put('>');
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                writeDom((Element) child);
+            } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                escape(child.getNodeValue(), TEXT_ENTITIES);
+            }
+        }
+        put('<');
+        put('/');
+        escape(name, TEXT_ENTITIES);
+        put('>');
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            startTagOpen = false;
+            put('>');
+        }
+    }
+
+    private void newLine(int level) throws IOException {
+        put('\n');
+        for (int i = 0; i < level; i++) {
+            write(indent);
+        }
+    }
+
+    private void year(XMLGregorianCalendar value) throws IOException {
+        if (value.getEon() != null) {
+            ascii(value.getEonAndYear().toString());
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0) {
+            put('-');
+            year = -year;
+        }
+        int length = digitCount(year);
+        for (int i = length; i < 4; i++) {
+            put('0');
+        }
+        writeDigits(year, length);
+    }
+
+    private void time0(XMLGregorianCalendar value) throws IOException {
+        twoDigits(value.getHour());
+        put(':');
+        twoDigits(value.getMinute());
+        put(':');
+        twoDigits(value.getSecond());
+        BigDecimal fraction = value.getFractionalSecond();
+        if (fraction != null && fraction.scale() > 0) {
+            // Same as toPlainString() without its leading "0"
+            BigInteger unscaled = fraction.unscaledValue();
+            if (unscaled.bitLength() >= 63 || fraction.scale() > 18) {
+                ascii(fraction.toPlainString().substring(1));
+            } else {
+                put('.');
+                writeDigits(unscaled.longValue(), fraction.scale());
+            }
+        }
+    }
+
+    private void timezone(XMLGregorianCalendar value) throws IOException {
+        int offset = value.getTimezone();
+        if (offset == DatatypeConstants.FIELD_UNDEFINED) {
+            return;
+        }
+        if (offset == 0) {
+            put('Z');
+            return;
+        }
+        if (offset < 0) {
+            put('-');
+            offset = -offset;
+        } else {
+            put('+');
+        }
+        twoDigits(offset / 60);
+        put(':');
+        twoDigits(offset % 60);
+    }
+
+    private void twoDigits(int value) throws IOException {
+        put('0' + value / 10 % 10);
+        put('0' + value % 10);
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            ascii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        writeDigits(value, digitCount(value));
+    }
+
+    /**
+     * Write a non-negative value as exactly {@code length} digits, zero padded on the left.
+     */
+    private void writeDigits(long value, int length) throws IOException {
+        ensure(length);
+        int end = position + length;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    private void escape(String value, byte[][] entities) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte[] entity = entities[c];
+                if (entity != null) {
+                    write(entity);
+                } else {
+                    put(c);
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // An unpaired surrogate has no UTF-8 encoding; substitute it as the UTF-8 encoder does
+                put('?');
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void ascii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            put(value.charAt(i));
+        }
+    }
+
+    private void put(int b) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length) {
+            flush();
+            if (out != null) {
+                out.write(bytes);
+            } else {
+                target.put(bytes);
+            }
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (position + length > buffer.length) {
+            flush();
+        }
+    }
+}
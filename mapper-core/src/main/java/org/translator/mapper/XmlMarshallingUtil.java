@@ -1,10 +1,6 @@
 package org.translator.mapper;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
-import javax.xml.namespace.QName;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
@@ -14,6 +10,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -25,46 +22,46 @@ import java.nio.file.Paths;
  */
 public class XmlMarshallingUtil {
 
-    private static final String PACS008_NAMESPACE = "urn:iso:std:iso:20022:tech:xsd:pacs.008.001.13";
-    private static final String PACS009_NAMESPACE = "urn:iso:std:iso:20022:tech:xsd:pacs.009.001.12";
-
     /**
      * Marshal PACS.008 document to XML string.
      */
     public static String marshalPacs008ToXml(org.translator.xsd.generated.pacs_008.Document document) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(org.translator.xsd.generated.pacs_008.Document.class);
-        Marshaller marshaller = jaxbContext.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-
-        StringWriter writer = new StringWriter();
-        QName rootName = new QName(PACS008_NAMESPACE, "Document");
-        JAXBElement<org.translator.xsd.generated.pacs_008.Document> root = new JAXBElement<>(rootName, org.translator.xsd.generated.pacs_008.Document.class, document);
+        return marshalPacs008ToXml(document, XmlOutputMode.INDENTED);
+    }
 
-        marshaller.marshal(root, writer);
-        return writer.toString();
+    /**
+     * Marshal PACS.008 document to XML string using the given output layout, through the
+     * back end selected by {@link XmlWriterMode}.
+     */
+    public static String marshalPacs008ToXml(org.translator.xsd.generated.pacs_008.Document document, XmlOutputMode mode) throws JAXBException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageDocumentWriter.write(JaxbContextRegistry.PACS008_V13, document, out, mode);
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     /**
      * Marshal PACS.009 document to XML string.
      */
     public static String marshalPacs009ToXml(org.translator.xsd.generated.pacs_009.Document document) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(org.translator.xsd.generated.pacs_009.Document.class);
-        Marshaller marshaller = jaxbContext.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-
-        StringWriter writer = new StringWriter();
-        QName rootName = new QName(PACS009_NAMESPACE, "Document");
-        JAXBElement<org.translator.xsd.generated.pacs_009.Document> root = new JAXBElement<>(rootName, org.translator.xsd.generated.pacs_009.Document.class, document);
+        return marshalPacs009ToXml(document, XmlOutputMode.INDENTED);
+    }
 
-        marshaller.marshal(root, writer);
-        return writer.toString();
+    /**
+     * Marshal PACS.009 document to XML string using the given output layout, through the
+     * back end selected by {@link XmlWriterMode}.
+     */
+    public static String marshalPacs009ToXml(org.translator.xsd.generated.pacs_009.Document document, XmlOutputMode mode) throws JAXBException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageDocumentWriter.write(JaxbContextRegistry.PACS009_V12, document, out, mode);
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     /**
      * Pretty print XML string.
+     *
+     * @deprecated Re-parses the whole document; marshal with {@link XmlOutputMode#INDENTED} instead.
      */
+    @Deprecated
     public static String prettyPrintXml(String xml) {
         try {
             DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
@@ -111,15 +108,21 @@ public class XmlMarshallingUtil {
      * Marshal PACS.008 document to pretty-printed XML and optionally save to file.
      */
     public static String marshalAndPrettyPrintPacs008(org.translator.xsd.generated.pacs_008.Document document, String fileName) {
+        return marshalAndWritePacs008(document, XmlOutputMode.INDENTED, fileName);
+    }
+
+    /**
+     * Marshal PACS.008 document in a single pass using the given output layout and optionally save to file.
+     */
+    public static String marshalAndWritePacs008(org.translator.xsd.generated.pacs_008.Document document, XmlOutputMode mode, String fileName) {
         try {
-            String xml = marshalPacs008ToXml(document);
-            String prettyXml = prettyPrintXml(xml);
+            String xml = marshalPacs008ToXml(document, mode);
 
             if (fileName != null && !fileName.trim().isEmpty()) {
-                writeXmlToFile(prettyXml, fileName);
+                writeXmlToFile(xml, fileName);
             }
 
-            return prettyXml;
+            return xml;
         } catch (Exception e) {
             throw new RuntimeException("Failed to marshal PACS.008 document: " + e.getMessage(), e);
         }
@@ -129,15 +132,21 @@ public class XmlMarshallingUtil {
      * Marshal PACS.009 document to pretty-printed XML and optionally save to file.
      */
     public static String marshalAndPrettyPrintPacs009(org.translator.xsd.generated.pacs_009.Document document, String fileName) {
+        return marshalAndWritePacs009(document, XmlOutputMode.INDENTED, fileName);
+    }
+
+    /**
+     * Marshal PACS.009 document in a single pass using the given output layout and optionally save to file.
+     */
+    public static String marshalAndWritePacs009(org.translator.xsd.generated.pacs_009.Document document, XmlOutputMode mode, String fileName) {
         try {
-            String xml = marshalPacs009ToXml(document);
-            String prettyXml = prettyPrintXml(xml);
+            String xml = marshalPacs009ToXml(document, mode);
 
             if (fileName != null && !fileName.trim().isEmpty()) {
-                writeXmlToFile(prettyXml, fileName);
+                writeXmlToFile(xml, fileName);
             }
 
-            return prettyXml;
+            return xml;
         } catch (Exception e) {
             throw new RuntimeException("Failed to marshal PACS.009 document: " + e.getMessage(), e);
         }
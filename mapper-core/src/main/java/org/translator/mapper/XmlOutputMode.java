@@ -0,0 +1,101 @@
+package org.translator.mapper;
+
+import java.util.Locale;
+
+/**
+ * Output layout used when marshalling a message: compact, or indented with a
+ * given number of spaces per level. The layout is applied by the marshaller
+ * itself in a single pass, so no re-parse is needed to pretty print.
+ */
+public final class XmlOutputMode {
+
+    public static final int DEFAULT_INDENT_WIDTH = 2;
+
+    public static final XmlOutputMode COMPACT = new XmlOutputMode(false, 0);
+    public static final XmlOutputMode INDENTED = new XmlOutputMode(true, DEFAULT_INDENT_WIDTH);
+
+    private static final int MAX_INDENT_WIDTH = 8;
+
+    private final boolean indented;
+    private final int indentWidth;
+
+    private XmlOutputMode(boolean indented, int indentWidth) {
+        this.indented = indented;
+        this.indentWidth = indentWidth;
+    }
+
+    /**
+     * Get an indented mode with the given number of spaces per level.
+     *
+     * @param width Spaces per nesting level (0 to 8)
+     * @return The output mode
+     */
+    public static XmlOutputMode indented(int width) {
+        if (width < 0 || width > MAX_INDENT_WIDTH) {
+            throw new IllegalArgumentException("Indent width must be between 0 and " + MAX_INDENT_WIDTH + ": " + width);
+        }
+        return width == DEFAULT_INDENT_WIDTH ? INDENTED : new XmlOutputMode(true, width);
+    }
+
+    /**
+     * Parse an output mode from a request parameter or header value.
+     * Accepted values are "compact", "indent", "pretty" and "indent:N".
+     *
+     * @param value The value to parse
+     * @param defaultMode The mode returned when the value is null or blank
+     * @return The parsed output mode
+     */
+    public static XmlOutputMode parse(String value, XmlOutputMode defaultMode) {
+        if (value == null || value.isBlank()) {
+            return defaultMode;
+        }
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.equals("compact")) {
+            return COMPACT;
+        }
+        if (v.equals("indent") || v.equals("indented") || v.equals("pretty")) {
+            return INDENTED;
+        }
+        if (v.startsWith("indent:")) {
+            try {
+                return indented(Integer.parseInt(v.substring("indent:".length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid indent width in output mode: " + value);
+            }
+        }
+        throw new IllegalArgumentException("Unknown output mode: " + value);
+    }
+
+    public boolean isIndented() {
+        return indented;
+    }
+
+    public int getIndentWidth() {
+        return indentWidth;
+    }
+
+    /**
+     * Get the string written once per nesting level.
+     */
+    public String getIndentString() {
+        return " ".repeat(indentWidth);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof XmlOutputMode)) return false;
+        XmlOutputMode other = (XmlOutputMode) o;
+        return indented == other.indented && indentWidth == other.indentWidth;
+    }
+
+    @Override
+    public int hashCode() {
+        return indented ? indentWidth + 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return indented ? "indent:" + indentWidth : "compact";
+    }
+}
@@ -0,0 +1,49 @@
+package org.translator.mapper;
+
+import java.util.Locale;
+
+/**
+ * Selects how inbound messages are bound to the generated model: through the
+ * build-time generated StAX readers, or through the reflective JAXB runtime,
+ * which is kept as the reference implementation.
+ *
+ * The process-wide default is read from the {@value #SYSTEM_PROPERTY} system
+ * property ("generated" or "jaxb") and falls back to {@link #GENERATED}.
+ */
+public enum XmlReaderMode {
+
+    GENERATED,
+    JAXB;
+
+    public static final String SYSTEM_PROPERTY = "translator.xml.reader";
+
+    /**
+     * Get the mode configured for this process.
+     */
+    public static XmlReaderMode getDefault() {
+        return parse(System.getProperty(SYSTEM_PROPERTY), GENERATED);
+    }
+
+    /**
+     * Parse a mode name, ignoring case.
+     *
+     * @param value The value to parse
+     * @param defaultMode The mode returned when the value is null or blank
+     * @return The parsed mode
+     */
+    public static XmlReaderMode parse(String value, XmlReaderMode defaultMode) {
+        if (value == null || value.isBlank()) {
+            return defaultMode;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "generated":
+            case "stax":
+                return GENERATED;
+            case "jaxb":
+            case "reference":
+                return JAXB;
+            default:
+                throw new IllegalArgumentException("Unknown XML reader mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.translator.mapper;
+
+import java.util.Locale;
+
+/**
+ * Selects how outbound documents are serialised: through the build-time generated
+ * UTF-8 writers, or through the JAXB marshaller, which is kept as the reference
+ * implementation.
+ *
+ * The process-wide default is read from the {@value #SYSTEM_PROPERTY} system
+ * property ("generated" or "jaxb") and falls back to {@link #JAXB}; the generated
+ * writers are opt-in until they are shown to match the marshaller and outperform it.
+ */
+public enum XmlWriterMode {
+
+    GENERATED,
+    JAXB;
+
+    public static final String SYSTEM_PROPERTY = "translator.xml.writer";
+
+    /**
+     * Get the mode configured for this process.
+     */
+    public static XmlWriterMode getDefault() {
+        return parse(System.getProperty(SYSTEM_PROPERTY), JAXB);
+    }
+
+    /**
+     * Parse a mode name, ignoring case.
+     *
+     * @param value The value to parse
+     * @param defaultMode The mode returned when the value is null or blank
+     * @return The parsed mode
+     */
+    public static XmlWriterMode parse(String value, XmlWriterMode defaultMode) {
+        if (value == null || value.isBlank()) {
+            return defaultMode;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "generated":
+            case "bytes":
+                return GENERATED;
+            case "jaxb":
+            case "reference":
+                return JAXB;
+            default:
+                throw new IllegalArgumentException("Unknown XML writer mode: " + value);
+        }
+    }
+}
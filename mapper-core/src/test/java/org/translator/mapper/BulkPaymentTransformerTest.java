@@ -0,0 +1,179 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.translator.xsd.generated.pain_001.CreditTransferTransaction61;
+import org.translator.xsd.generated.pain_001.CustomerCreditTransferInitiationV12;
+import org.translator.xsd.generated.pain_001.GroupHeader114;
+import org.translator.xsd.generated.pain_001.PaymentIdentification6;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped transaction index and the parallel bulk transformations,
+ * checked against the sequential streaming transformer.
+ */
+class BulkPaymentTransformerTest {
+
+    private static final int TRANSACTIONS = 250;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should index every transaction range across mapping segments")
+    void testTransactionIndex() throws Exception {
+        Path file = writePacs008(TRANSACTIONS);
+        byte[] bytes = Files.readAllBytes(file);
+
+        try (MappedTransactionFile mapped = MappedTransactionFile.open(file, 256)) {
+            assertEquals(TRANSACTIONS, mapped.getTransactionCount());
+            assertTrue(mapped.isSplittable());
+            for (int i = 0; i < mapped.getTransactionCount(); i++) {
+                String range = new String(bytes, (int) mapped.getTransactionStart(i),
+                    (int) (mapped.getTransactionEnd(i) - mapped.getTransactionStart(i)), "UTF-8");
+                assertTrue(range.matches("(?s)<(\\w+:)?CdtTrfTxInf>.*</(\\w+:)?CdtTrfTxInf>"), range);
+                assertTrue(range.contains("EndToEndId>E2E-" + i + "</"), range);
+            }
+
+            List<MappedTransactionFile.Chunk> chunks = mapped.split(1024);
+            assertTrue(chunks.size() > 1);
+            assertEquals(0, chunks.get(0).getFirstTransaction());
+            assertEquals(TRANSACTIONS, chunks.get(chunks.size() - 1).getEndTransaction());
+        }
+    }
+
+    @Test
+    @DisplayName("Should bulk transform PACS.008 to PACS.009 like the streaming transformer")
+    void testPacs008ToPacs009() throws Exception {
+        Path file = writePacs008(TRANSACTIONS);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new StreamingPaymentTransformer().transformPacs008ToPacs009(Files.newInputStream(file), expected);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            long count = transformer(pool).transformPacs008ToPacs009(file, actual);
+            assertEquals(TRANSACTIONS, count);
+
+            org.translator.xsd.generated.pacs_009.Document streamed = readPacs009(expected);
+            org.translator.xsd.generated.pacs_009.Document bulk = readPacs009(actual);
+            assertEquals(endToEndIds(streamed), endToEndIds(bulk));
+            assertEquals(streamed.getFICdtTrf().getGrpHdr().getMsgId(), bulk.getFICdtTrf().getGrpHdr().getMsgId());
+            assertEquals(String.valueOf(TRANSACTIONS), bulk.getFICdtTrf().getGrpHdr().getNbOfTxs());
+            assertEquals(0, streamed.getFICdtTrf().getGrpHdr().getCtrlSum()
+                .compareTo(bulk.getFICdtTrf().getGrpHdr().getCtrlSum()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should bulk transform Pain.001 across payment instructions in document order")
+    void testPain001ToPacs008() throws Exception {
+        org.translator.xsd.generated.pain_001.Document document = new org.translator.xsd.generated.pain_001.Document();
+        CustomerCreditTransferInitiationV12 initiation = new CustomerCreditTransferInitiationV12();
+        GroupHeader114 groupHeader = new GroupHeader114();
+        groupHeader.setMsgId("BULK-PAIN-001");
+        groupHeader.setNbOfTxs(String.valueOf(TRANSACTIONS));
+        initiation.setGrpHdr(groupHeader);
+        List<String> expected = new ArrayList<>();
+        for (int p = 0; p < 5; p++) {
+            PaymentInstruction44 instruction = new PaymentInstruction44();
+            instruction.setPmtInfId("PMT-" + p);
+            for (int t = 0; t < TRANSACTIONS / 5; t++) {
+                CreditTransferTransaction61 transaction = new CreditTransferTransaction61();
+                PaymentIdentification6 pmtId = new PaymentIdentification6();
+                pmtId.setEndToEndId("E2E-" + p + "-" + t);
+                transaction.setPmtId(pmtId);
+                instruction.getCdtTrfTxInf().add(transaction);
+                expected.add(pmtId.getEndToEndId());
+            }
+            initiation.getPmtInf().add(instruction);
+        }
+        document.setCstmrCdtTrfInitn(initiation);
+        Path file = tempDir.resolve("pain001.xml");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            JaxbContextRegistry.marshal(JaxbContextRegistry.PAIN001_V12, document, out, true);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(TRANSACTIONS, transformer(pool).transformPain001ToPacs008(file, out));
+
+            org.translator.xsd.generated.pacs_008.Document result = JaxbContextRegistry.unmarshal(
+                JaxbContextRegistry.PACS008_V13, new StreamSource(new ByteArrayInputStream(out.toByteArray())));
+            assertEquals("BULK-PAIN-001", result.getFIToFICstmrCdtTrf().getGrpHdr().getMsgId());
+            List<String> actual = new ArrayList<>();
+            result.getFIToFICstmrCdtTrf().getCdtTrfTxInf().forEach(tx -> actual.add(tx.getPmtId().getEndToEndId()));
+            assertEquals(expected, actual);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private BulkPaymentTransformer transformer(ForkJoinPool pool) {
+        // Small chunks so the file is split into many concurrently parsed pieces
+        return new BulkPaymentTransformer(Pain001ToPacs008Mapper.INSTANCE, Pacs008ToPacs009Mapper.INSTANCE,
+            tempDir, pool, 2048);
+    }
+
+    private Path writePacs008(int transactions) throws Exception {
+        org.translator.xsd.generated.pacs_008.Document document = new org.translator.xsd.generated.pacs_008.Document();
+        org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13 transfer =
+            new org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13();
+        org.translator.xsd.generated.pacs_008.GroupHeader131 groupHeader = new org.translator.xsd.generated.pacs_008.GroupHeader131();
+        groupHeader.setMsgId("BULK-PACS-008");
+        groupHeader.setNbOfTxs(String.valueOf(transactions));
+        groupHeader.setSttlmInf(new org.translator.xsd.generated.pacs_008.SettlementInstruction15());
+        transfer.setGrpHdr(groupHeader);
+        for (int i = 0; i < transactions; i++) {
+            org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 transaction =
+                new org.translator.xsd.generated.pacs_008.CreditTransferTransaction70();
+            org.translator.xsd.generated.pacs_008.PaymentIdentification13 pmtId =
+                new org.translator.xsd.generated.pacs_008.PaymentIdentification13();
+            pmtId.setEndToEndId("E2E-" + i);
+            transaction.setPmtId(pmtId);
+            org.translator.xsd.generated.pacs_008.ActiveCurrencyAndAmount amount =
+                new org.translator.xsd.generated.pacs_008.ActiveCurrencyAndAmount();
+            amount.setValue(new BigDecimal(i + ".25"));
+            amount.setCcy("EUR");
+            transaction.setIntrBkSttlmAmt(amount);
+            transfer.getCdtTrfTxInf().add(transaction);
+        }
+        document.setFIToFICstmrCdtTrf(transfer);
+
+        Path file = tempDir.resolve("pacs008.xml");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            JaxbContextRegistry.marshal(JaxbContextRegistry.PACS008_V13, document, out, true);
+        }
+        return file;
+    }
+
+    private static org.translator.xsd.generated.pacs_009.Document readPacs009(ByteArrayOutputStream out) throws Exception {
+        return JaxbContextRegistry.unmarshal(
+            JaxbContextRegistry.PACS009_V12, new StreamSource(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    private static List<String> endToEndIds(org.translator.xsd.generated.pacs_009.Document document) {
+        List<String> ids = new ArrayList<>();
+        document.getFICdtTrf().getCdtTrfTxInf().forEach(tx -> ids.add(tx.getPmtId().getEndToEndId()));
+        return ids;
+    }
+}
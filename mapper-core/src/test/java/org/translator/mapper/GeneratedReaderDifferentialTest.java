@@ -0,0 +1,55 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.translator.mapper.RandomModelCorpus.assertGraphEquals;
+import static org.translator.mapper.RandomModelCorpus.readSample;
+
+/**
+ * Differential tests proving the build-time generated StAX readers bind the same
+ * object graphs as the JAXB reference path.
+ */
+class GeneratedReaderDifferentialTest {
+
+    @Test
+    @DisplayName("Should read sample_pacs008.xml identically with generated and JAXB readers")
+    void testPacs008Sample() throws Exception {
+        byte[] xml = readSample("../sample_pacs008.xml", "pacs.008.001.08", "pacs.008.001.13");
+        assertSameGraph(JaxbContextRegistry.PACS008_V13, xml);
+    }
+
+    @Test
+    @DisplayName("Should read sample_pain001.xml identically with generated and JAXB readers")
+    void testPain001Sample() throws Exception {
+        byte[] xml = readSample("../sample_pain001.xml", "pain.001.001.03", "pain.001.001.12");
+        assertSameGraph(JaxbContextRegistry.PAIN001_V12, xml);
+    }
+
+    @Test
+    @DisplayName("Should read generated PACS.008, PACS.009 and Pain.001 corpora identically")
+    void testGeneratedCorpora() throws Exception {
+        assertCorpus(JaxbContextRegistry.PACS008_V13, 8L);
+        assertCorpus(JaxbContextRegistry.PACS009_V12, 9L);
+        assertCorpus(JaxbContextRegistry.PAIN001_V12, 1L);
+    }
+
+    private void assertCorpus(String messageType, long seed) throws Exception {
+        RandomModelCorpus.assertCorpus(messageType, seed, false, (document, i) -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JaxbContextRegistry.marshal(messageType, document, out, i % 2 == 0);
+            assertSameGraph(messageType, out.toByteArray());
+        });
+    }
+
+    private void assertSameGraph(String messageType, byte[] xml) throws Exception {
+        Object reference = MessageDocumentReader.read(messageType, new ByteArrayInputStream(xml), XmlReaderMode.JAXB);
+        Object generated = MessageDocumentReader.read(messageType, new ByteArrayInputStream(xml), XmlReaderMode.GENERATED);
+        assertGraphEquals(reference, generated, "Document",
+            () -> new String(xml, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.translator.mapper.RandomModelCorpus.assertGraphEquals;
+import static org.translator.mapper.RandomModelCorpus.readSample;
+
+/**
+ * Differential tests proving the build-time generated UTF-8 writers serialise the
+ * same content as the JAXB marshaller: both outputs are read back through JAXB and
+ * must bind to identical object graphs.
+ */
+class GeneratedWriterDifferentialTest {
+
+    @Test
+    @DisplayName("Should write sample_pacs008.xml content identically with generated and JAXB writers")
+    void testPacs008Sample() throws Exception {
+        byte[] xml = readSample("../sample_pacs008.xml", "pacs.008.001.08", "pacs.008.001.13");
+        assertSameOutput(JaxbContextRegistry.PACS008_V13, read(JaxbContextRegistry.PACS008_V13, xml), XmlOutputMode.INDENTED);
+    }
+
+    @Test
+    @DisplayName("Should write sample_pain001.xml content identically with generated and JAXB writers")
+    void testPain001Sample() throws Exception {
+        byte[] xml = readSample("../sample_pain001.xml", "pain.001.001.03", "pain.001.001.12");
+        assertSameOutput(JaxbContextRegistry.PAIN001_V12, read(JaxbContextRegistry.PAIN001_V12, xml), XmlOutputMode.COMPACT);
+    }
+
+    @Test
+    @DisplayName("Should write generated PACS.008, PACS.009 and Pain.001 corpora identically")
+    void testGeneratedCorpora() throws Exception {
+        assertCorpus(JaxbContextRegistry.PACS008_V13, 8L);
+        assertCorpus(JaxbContextRegistry.PACS009_V12, 9L);
+        assertCorpus(JaxbContextRegistry.PAIN001_V12, 1L);
+    }
+
+    @Test
+    @DisplayName("Should write the same bytes to a stream and to a buffer")
+    void testByteBufferOutput() throws Exception {
+        Random random = new Random(42L);
+        Object document = RandomModelCorpus.populate(JaxbContextRegistry.getDocumentType(JaxbContextRegistry.PACS008_V13),
+            random, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageDocumentWriter.write(JaxbContextRegistry.PACS008_V13, document, out, XmlOutputMode.INDENTED,
+            XmlWriterMode.GENERATED);
+
+        ByteBuffer buffer = ByteBuffer.allocate(out.size());
+        MessageDocumentWriter.write(JaxbContextRegistry.PACS008_V13, document, buffer, XmlOutputMode.INDENTED);
+        assertFalse(buffer.hasRemaining());
+        assertArrayEquals(out.toByteArray(), buffer.array());
+        assertThrows(BufferOverflowException.class, () -> MessageDocumentWriter.write(JaxbContextRegistry.PACS008_V13,
+            document, ByteBuffer.allocate(out.size() / 2), XmlOutputMode.INDENTED));
+    }
+
+    private void assertCorpus(String messageType, long seed) throws Exception {
+        RandomModelCorpus.assertCorpus(messageType, seed, true, (document, i) ->
+            assertSameOutput(messageType, document, i % 2 == 0 ? XmlOutputMode.INDENTED : XmlOutputMode.COMPACT));
+    }
+
+    private void assertSameOutput(String messageType, Object document, XmlOutputMode outputMode) throws Exception {
+        ByteArrayOutputStream reference = new ByteArrayOutputStream();
+        MessageDocumentWriter.write(messageType, document, reference, outputMode, XmlWriterMode.JAXB);
+        ByteArrayOutputStream generated = new ByteArrayOutputStream();
+        MessageDocumentWriter.write(messageType, document, generated, outputMode, XmlWriterMode.GENERATED);
+
+        Supplier<String> xml = () -> generated.toString(StandardCharsets.UTF_8);
+        assertEquals(outputMode.isIndented(), xml.get().contains("\n"), "Output layout not applied");
+        assertGraphEquals(read(messageType, reference.toByteArray()), read(messageType, generated.toByteArray()),
+            "Document", xml);
+    }
+
+    private Object read(String messageType, byte[] xml) throws Exception {
+        return MessageDocumentReader.read(messageType, new ByteArrayInputStream(xml), XmlReaderMode.JAXB);
+    }
+}
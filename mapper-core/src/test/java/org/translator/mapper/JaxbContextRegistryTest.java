@@ -0,0 +1,59 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the shared JAXB context registry.
+ */
+class JaxbContextRegistryTest {
+
+    @Test
+    @DisplayName("Should build each context once and reuse it")
+    void testContextIsCreatedOnce() throws Exception {
+        jakarta.xml.bind.JAXBContext first = JaxbContextRegistry.getContext(JaxbContextRegistry.PACS008_V13);
+        jakarta.xml.bind.JAXBContext second = JaxbContextRegistry.getContext(JaxbContextRegistry.PACS008_V13);
+
+        assertSame(first, second);
+        assertTrue(JaxbContextRegistry.getStatistics().getContextHits() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should round-trip a PACS.008 document and reuse pooled marshallers")
+    void testRoundTripReusesPooledInstances() throws Exception {
+        org.translator.xsd.generated.pacs_008.Document document = new org.translator.xsd.generated.pacs_008.Document();
+        org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13 transfer =
+            new org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13();
+        org.translator.xsd.generated.pacs_008.GroupHeader131 groupHeader = new org.translator.xsd.generated.pacs_008.GroupHeader131();
+        groupHeader.setMsgId("REGISTRY-001");
+        groupHeader.setNbOfTxs("0");
+        transfer.setGrpHdr(groupHeader);
+        document.setFIToFICstmrCdtTrf(transfer);
+
+        String xml = null;
+        for (int i = 0; i < 3; i++) {
+            StringWriter writer = new StringWriter();
+            JaxbContextRegistry.marshal(JaxbContextRegistry.PACS008_V13, document, writer, false);
+            xml = writer.toString();
+        }
+
+        org.translator.xsd.generated.pacs_008.Document parsed =
+            JaxbContextRegistry.unmarshal(JaxbContextRegistry.PACS008_V13, new StreamSource(new StringReader(xml)));
+
+        assertEquals("REGISTRY-001", parsed.getFIToFICstmrCdtTrf().getGrpHdr().getMsgId());
+        assertTrue(JaxbContextRegistry.getStatistics().getMarshallerHits() >= 2);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown message types")
+    void testUnknownMessageType() {
+        assertFalse(JaxbContextRegistry.isRegistered("unknown.001"));
+        assertThrows(IllegalArgumentException.class, () -> JaxbContextRegistry.getContext("unknown.001"));
+    }
+}
@@ -0,0 +1,168 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.translator.xsd.generated.pain_001.AccountIdentification4Choice;
+import org.translator.xsd.generated.pain_001.CashAccount40;
+import org.translator.xsd.generated.pain_001.CustomerCreditTransferInitiationV12;
+import org.translator.xsd.generated.pain_001.GroupHeader114;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-key ordering of transformations.
+ */
+class KeyedTransformationExecutorTest {
+
+    @Test
+    @DisplayName("Should keep submission order within a key and run keys in parallel")
+    void testFifoPerKey() throws Exception {
+        Map<String, List<Integer>> completed = new ConcurrentHashMap<>();
+        PaymentMessageOrchestrator orchestrator = new PaymentMessageOrchestrator();
+        orchestrator.registerMapper(new RecordingMapper(completed, null));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            KeyedTransformationExecutor<String, String> executor = new KeyedTransformationExecutor<>(
+                orchestrator, "test.source", "test.target", (String message) -> message.split(":")[0], pool);
+
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                for (int key = 0; key < 10; key++) {
+                    futures.add(executor.submit("KEY" + key + ":" + i));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+            assertEquals(10, completed.size());
+            for (List<Integer> order : completed.values()) {
+                assertEquals(100, order.size());
+                for (int i = 0; i < order.size(); i++) {
+                    assertEquals(i, order.get(i));
+                }
+            }
+            // A key's queue is released just after its last future completes
+            awaitDrained(executor);
+            assertEquals(0, executor.getQueueDepth("KEY0"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the queue depth of a blocked key")
+    void testQueueDepth() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentMessageOrchestrator orchestrator = new PaymentMessageOrchestrator();
+        orchestrator.registerMapper(new RecordingMapper(new ConcurrentHashMap<>(), release));
+
+        KeyedTransformationExecutor<String, String> executor = new KeyedTransformationExecutor<>(
+            orchestrator, "test.source", "test.target", (String message) -> message.split(":")[0]);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executor.submit("BLOCKED:" + i));
+        }
+        futures.add(executor.submit("OTHER:0"));
+
+        assertEquals(5, executor.getQueueDepth("BLOCKED"));
+        assertEquals(2, executor.getActiveKeyCount());
+
+        release.countDown();
+        for (int i = 0; i < futures.size(); i++) {
+            assertNotNull(futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+        awaitDrained(executor);
+        assertEquals(0, executor.getQueueDepth("BLOCKED"));
+    }
+
+    @Test
+    @DisplayName("Should extract ordering keys from Pain.001 messages")
+    void testPaymentKeys() {
+        org.translator.xsd.generated.pain_001.Document document = new org.translator.xsd.generated.pain_001.Document();
+        assertNull(PaymentKeys.pain001MessageId().apply(document));
+
+        CustomerCreditTransferInitiationV12 initiation = new CustomerCreditTransferInitiationV12();
+        GroupHeader114 groupHeader = new GroupHeader114();
+        groupHeader.setMsgId("MSG-KEY");
+        initiation.setGrpHdr(groupHeader);
+        PaymentInstruction44 instruction = new PaymentInstruction44();
+        CashAccount40 debtorAccount = new CashAccount40();
+        AccountIdentification4Choice accountId = new AccountIdentification4Choice();
+        accountId.setIBAN("DE89370400440532013000");
+        debtorAccount.setId(accountId);
+        instruction.setDbtrAcct(debtorAccount);
+        initiation.getPmtInf().add(instruction);
+        document.setCstmrCdtTrfInitn(initiation);
+
+        assertEquals("MSG-KEY", PaymentKeys.pain001MessageId().apply(document));
+        assertEquals("DE89370400440532013000", PaymentKeys.pain001DebtorIban().apply(document));
+    }
+
+    private static void awaitDrained(KeyedTransformationExecutor<?, ?> executor) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (executor.getActiveKeyCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, executor.getActiveKeyCount());
+    }
+
+    /**
+     * Records the sequence numbers of "key:sequence" messages in completion order.
+     */
+    private static final class RecordingMapper implements PaymentMessageMapper<String, String> {
+
+        private final Map<String, List<Integer>> completed;
+        private final CountDownLatch release;
+
+        RecordingMapper(Map<String, List<Integer>> completed, CountDownLatch release) {
+            this.completed = completed;
+            this.release = release;
+        }
+
+        @Override
+        public String transform(String source) throws PaymentMappingException {
+            try {
+                if (release != null) {
+                    release.await();
+                } else {
+                    Thread.sleep(source.hashCode() & 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String[] parts = source.split(":");
+            completed.computeIfAbsent(parts[0], key -> Collections.synchronizedList(new ArrayList<>()))
+                     .add(Integer.parseInt(parts[1]));
+            return source.toLowerCase();
+        }
+
+        @Override
+        public String getSourceMessageType() {
+            return "test.source";
+        }
+
+        @Override
+        public String getTargetMessageType() {
+            return "test.target";
+        }
+
+        @Override
+        public boolean supports(String source) {
+            return source != null;
+        }
+    }
+}
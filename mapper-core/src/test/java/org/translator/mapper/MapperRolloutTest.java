@@ -0,0 +1,172 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for rolling out new mapper versions at runtime.
+ */
+class MapperRolloutTest {
+
+    @Test
+    @DisplayName("Should split traffic between primary and candidate by percentage")
+    void testCanaryRouting() throws Exception {
+        PaymentMessageOrchestrator orchestrator = new PaymentMessageOrchestrator();
+        orchestrator.registerMapper(new PrefixMapper("v1:", null));
+
+        MapperRollout<String, String> rollout = orchestrator.registerCandidate(new PrefixMapper("v2:", null), 30, false);
+        int candidate = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String result = orchestrator.transform("m" + i, "test.source", "test.target");
+            if (result.startsWith("v2:")) {
+                candidate++;
+            }
+        }
+
+        assertEquals(candidate, rollout.getCandidateCount());
+        assertEquals(10_000 - candidate, rollout.getPrimaryCount());
+        assertTrue(candidate > 2_500 && candidate < 3_500, "Canary share out of range: " + candidate);
+
+        orchestrator.registerCandidate(new PrefixMapper("v3:", null), 100, false);
+        assertEquals("v3:m", orchestrator.transform("m", "test.source", "test.target"));
+    }
+
+    @Test
+    @DisplayName("Should compare shadow outputs without delaying the primary result")
+    void testShadowComparison() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentMessageOrchestrator orchestrator = new PaymentMessageOrchestrator();
+        orchestrator.registerMapper(new PrefixMapper("v1:", null));
+
+        ExecutorService shadowExecutor = Executors.newSingleThreadExecutor();
+        try {
+            // The candidate agrees with the primary except on messages containing "x"
+            PaymentMessageMapper<String, String> candidate = new PrefixMapper("v1:", release) {
+                @Override
+                public String transform(String source) throws PaymentMappingException {
+                    String result = super.transform(source);
+                    return source.contains("x") ? result.toUpperCase() : result;
+                }
+            };
+            MapperRollout<String, String> rollout =
+                orchestrator.registerCandidate(candidate, 0, true, shadowExecutor, null);
+
+            // The candidate is blocked, yet every request completes on the primary
+            for (int i = 0; i < 10; i++) {
+                assertEquals("v1:m" + i, orchestrator.transform("m" + i, "test.source", "test.target"));
+            }
+            assertEquals("v1:x", orchestrator.transform("x", "test.source", "test.target"));
+            assertEquals(0, rollout.getShadowMatches() + rollout.getShadowMismatches());
+
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (rollout.getShadowMatches() + rollout.getShadowMismatches() < 11 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(10, rollout.getShadowMatches());
+            assertEquals(1, rollout.getShadowMismatches());
+            assertEquals(0, rollout.getCandidateCount());
+        } finally {
+            shadowExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop shadow runs when the shadow executor is full")
+    void testShadowDropped() throws Exception {
+        PaymentMessageOrchestrator orchestrator = new PaymentMessageOrchestrator();
+        orchestrator.registerMapper(new PrefixMapper("v1:", null));
+
+        MapperRollout<String, String> rollout = orchestrator.registerCandidate(
+            new PrefixMapper("v2:", null), 0, true,
+            task -> {
+                throw new RejectedExecutionException("full");
+            },
+            null);
+
+        assertEquals("v1:m", orchestrator.transform("m", "test.source", "test.target"));
+        assertEquals(1, rollout.getShadowDropped());
+    }
+
+    @Test
+    @DisplayName("Should promote or roll back a candidate by swapping the registered mapper")
+    void testPromoteAndRollback() throws Exception {
+        PaymentMessageOrchestrator orchestrator = new PaymentMessageOrchestrator();
+        PrefixMapper primary = new PrefixMapper("v1:", null);
+        PrefixMapper candidate = new PrefixMapper("v2:", null);
+        orchestrator.registerMapper(primary);
+
+        assertFalse(orchestrator.promoteCandidate("test.source", "test.target"));
+
+        orchestrator.registerCandidate(candidate, 50, false);
+        assertTrue(orchestrator.rollbackCandidate("test.source", "test.target"));
+        assertSame(primary, orchestrator.getMapper("test.source", "test.target").orElseThrow());
+
+        // Replacing a rollout keeps the original primary
+        orchestrator.registerCandidate(new PrefixMapper("v3:", null), 10, false);
+        MapperRollout<String, String> rollout = orchestrator.registerCandidate(candidate, 50, false);
+        assertSame(primary, rollout.getPrimary());
+
+        assertTrue(orchestrator.promoteCandidate("test.source", "test.target"));
+        assertSame(candidate, orchestrator.getMapper("test.source", "test.target").orElseThrow());
+        assertEquals("v2:m", orchestrator.transform("m", "test.source", "test.target"));
+
+        PaymentMappingException exception = assertThrows(PaymentMappingException.class,
+            () -> orchestrator.registerCandidate(new PrefixMapper("v2:", null) {
+                @Override
+                public String getTargetMessageType() {
+                    return "test.other";
+                }
+            }, 50, false));
+        assertEquals("MAPPER_NOT_FOUND", exception.getErrorCode());
+    }
+
+    /**
+     * Prefixes the message, optionally waiting for a latch first.
+     */
+    private static class PrefixMapper implements PaymentMessageMapper<String, String> {
+
+        private final String prefix;
+        private final CountDownLatch release;
+
+        PrefixMapper(String prefix, CountDownLatch release) {
+            this.prefix = prefix;
+            this.release = release;
+        }
+
+        @Override
+        public String transform(String source) throws PaymentMappingException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return prefix + source;
+        }
+
+        @Override
+        public String getSourceMessageType() {
+            return "test.source";
+        }
+
+        @Override
+        public String getTargetMessageType() {
+            return "test.target";
+        }
+
+        @Override
+        public boolean supports(String source) {
+            return source != null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the prolog-only message type sniffer.
+ */
+class MessageTypeSnifferTest {
+
+    @Test
+    @DisplayName("Should read business area, message, variant and version from the root namespace")
+    void testDefaultNamespace() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- sample -->\n"
+            + "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.008.001.13\"><FIToFICstmrCdtTrf/></Document>";
+
+        MessageTypeInfo info = MessageTypeSniffer.sniff(xml.getBytes(StandardCharsets.UTF_8));
+
+        assertNotNull(info);
+        assertEquals("pacs", info.getBusinessArea());
+        assertEquals("008", info.getMessageNumber());
+        assertEquals("001", info.getVariant());
+        assertEquals("13", info.getVersion());
+        assertEquals("pacs.008.001.13", info.getFullIdentifier());
+        assertFalse(info.isWrappedInAppHdr());
+    }
+
+    @Test
+    @DisplayName("Should distinguish message versions and resolve prefixed namespaces")
+    void testPrefixedNamespace() {
+        String xml = "<ns2:Document xmlns:ns2='urn:iso:std:iso:20022:tech:xsd:pacs.008.001.08'>"
+            + "<ns2:FIToFICstmrCdtTrf/></ns2:Document>";
+
+        MessageTypeInfo info = MessageTypeSniffer.sniff(xml);
+
+        assertEquals("pacs.008", info.getMessageId());
+        assertEquals("08", info.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should look through a head.001 AppHdr wrapper to the business document")
+    void testAppHdrWrapper() {
+        String xml = "<BizMsg xmlns=\"urn:swift:xsd:envelope\">"
+            + "<AppHdr xmlns=\"urn:iso:std:iso:20022:tech:xsd:head.001.001.02\">"
+            + "<Fr/><MsgDefIdr>pacs.009.001.12</MsgDefIdr><CreDt>2024-01-01T00:00:00Z</CreDt></AppHdr>"
+            + "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.009.001.12\"><FICdtTrf/></Document>"
+            + "</BizMsg>";
+
+        MessageTypeInfo info = MessageTypeSniffer.sniff(xml);
+
+        assertEquals("pacs.009.001.12", info.getFullIdentifier());
+        assertTrue(info.isWrappedInAppHdr());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the AppHdr MsgDefIdr when the document is beyond the scan window")
+    void testAppHdrMsgDefIdrFallback() {
+        String xml = "<AppHdr xmlns=\"urn:iso:std:iso:20022:tech:xsd:head.001.001.02\">"
+            + "<MsgDefIdr>pain.001.001.12</MsgDefIdr></AppHdr>";
+
+        MessageTypeInfo info = MessageTypeSniffer.sniff(xml);
+
+        assertEquals("pain.001.001.12", info.getFullIdentifier());
+        assertTrue(info.isWrappedInAppHdr());
+    }
+
+    @Test
+    @DisplayName("Should use the root child element when no ISO namespace is declared")
+    void testChildElementHint() {
+        MessageTypeInfo info = MessageTypeSniffer.sniff("<Document><CstmrCdtTrfInitn><GrpHdr/></CstmrCdtTrfInitn></Document>");
+
+        assertEquals("pain.001", info.getMessageId());
+        assertNull(info.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should leave streams at their start and report unrecognised payloads as null")
+    void testStreamAndUnknown() throws Exception {
+        byte[] xml = "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.009.001.12\"/>".getBytes(StandardCharsets.UTF_8);
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(xml));
+
+        assertTrue(MessageTypeSniffer.hasContent(in));
+        assertEquals("pacs.009", MessageTypeSniffer.sniff(in).getMessageId());
+        assertArrayEquals(xml, in.readAllBytes());
+
+        assertNull(MessageTypeSniffer.sniff("<Order><Item/></Order>"));
+        assertFalse(MessageTypeSniffer.hasContent(new BufferedInputStream(new ByteArrayInputStream("  \n".getBytes()))));
+    }
+}
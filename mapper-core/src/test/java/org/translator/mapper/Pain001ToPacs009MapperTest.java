@@ -0,0 +1,160 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.translator.xsd.generated.pain_001.AccountIdentification4Choice;
+import org.translator.xsd.generated.pain_001.ActiveOrHistoricCurrencyAndAmount;
+import org.translator.xsd.generated.pain_001.AmountType4Choice;
+import org.translator.xsd.generated.pain_001.BranchAndFinancialInstitutionIdentification8;
+import org.translator.xsd.generated.pain_001.CashAccount40;
+import org.translator.xsd.generated.pain_001.ChargeBearerType1Code;
+import org.translator.xsd.generated.pain_001.CreditTransferTransaction61;
+import org.translator.xsd.generated.pain_001.CustomerCreditTransferInitiationV12;
+import org.translator.xsd.generated.pain_001.FinancialInstitutionIdentification23;
+import org.translator.xsd.generated.pain_001.GroupHeader114;
+import org.translator.xsd.generated.pain_001.PartyIdentification272;
+import org.translator.xsd.generated.pain_001.PaymentIdentification6;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+import org.translator.xsd.generated.pain_001.PaymentTypeInformation26;
+import org.translator.xsd.generated.pain_001.Priority2Code;
+import org.translator.xsd.generated.pain_001.ServiceLevel8Choice;
+
+import javax.xml.datatype.DatatypeFactory;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests for the fused Pain.001 to PACS.009 mapper against the chain
+ * through PACS.008.
+ */
+class Pain001ToPacs009MapperTest {
+
+    @Test
+    @DisplayName("Should produce the same PACS.009 document as the chain through PACS.008")
+    void testFusedMatchesChained() throws Exception {
+        org.translator.xsd.generated.pain_001.Document source = createPain001Document();
+
+        org.translator.xsd.generated.pacs_009.Document chained = Pacs008ToPacs009Mapper.INSTANCE.mapDocument(
+            Pain001ToPacs008Mapper.INSTANCE.mapDocument(source));
+        org.translator.xsd.generated.pacs_009.Document fused = Pain001ToPacs009Mapper.INSTANCE.mapDocument(source);
+
+        assertEquals(4, fused.getFICdtTrf().getCdtTrfTxInf().size());
+        assertEquals(normalize(marshal(chained)), normalize(marshal(fused)));
+    }
+
+    @Test
+    @DisplayName("Should map single transactions and group headers like the chain")
+    void testFusedTransactionAndGroupHeader() throws Exception {
+        org.translator.xsd.generated.pain_001.Document source = createPain001Document();
+        CreditTransferTransaction61 transaction = source.getCstmrCdtTrfInitn().getPmtInf().get(0).getCdtTrfTxInf().get(0);
+
+        org.translator.xsd.generated.pacs_009.CreditTransferTransaction67 fused =
+            Pain001ToPacs009Mapper.INSTANCE.mapCreditTransferTransaction(transaction);
+        assertEquals("E2E-1-1", fused.getPmtId().getEndToEndId());
+        assertEquals(0, new BigDecimal("101.50").compareTo(fused.getIntrBkSttlmAmt().getValue()));
+
+        org.translator.xsd.generated.pacs_009.GroupHeader131 header =
+            Pain001ToPacs009Mapper.INSTANCE.mapGroupHeader(source.getCstmrCdtTrfInitn().getGrpHdr());
+        assertEquals("FUSED-001", header.getMsgId());
+        assertEquals("EUR", header.getTtlIntrBkSttlmAmt().getCcy());
+    }
+
+    @Test
+    @DisplayName("Should route Pain.001 to PACS.009 through the fused mapper in one hop")
+    void testOrchestratorPrefersFusedMapper() throws Exception {
+        PaymentMessageOrchestrator orchestrator = PaymentMappingConfiguration.createPaymentMessageOrchestrator();
+
+        TransformationPipeline<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_009.Document> pipeline =
+            orchestrator.<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_009.Document>getPipeline(
+                "pain.001.001.12", "pacs.009.001.12").orElseThrow();
+        assertEquals(1, pipeline.getHopCount());
+
+        org.translator.xsd.generated.pacs_009.Document result = pipeline.transform(createPain001Document());
+        org.translator.xsd.generated.pacs_009.Document chained = orchestrator.chainTransform(
+            createPain001Document(), "pain.001.001.12", "pacs.008.001.13", "pacs.009.001.12");
+        assertEquals(normalize(marshal(chained)), normalize(marshal(result)));
+    }
+
+    private static String marshal(org.translator.xsd.generated.pacs_009.Document document) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V12, document, out, true);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Drop the settlement dates the Pain.001 mapper derives from the clock.
+     */
+    private static String normalize(String xml) {
+        return xml.replaceAll("<(\\w+:)?IntrBkSttlmDt>[^<]*</(\\w+:)?IntrBkSttlmDt>", "");
+    }
+
+    private static org.translator.xsd.generated.pain_001.Document createPain001Document() throws Exception {
+        CustomerCreditTransferInitiationV12 initiation = new CustomerCreditTransferInitiationV12();
+        GroupHeader114 groupHeader = new GroupHeader114();
+        groupHeader.setMsgId("FUSED-001");
+        groupHeader.setCreDtTm(DatatypeFactory.newInstance().newXMLGregorianCalendar("2025-08-16T10:30:00Z"));
+        groupHeader.setNbOfTxs("4");
+        groupHeader.setCtrlSum(new BigDecimal("1006.00"));
+        PartyIdentification272 initiatingParty = new PartyIdentification272();
+        initiatingParty.setNm("Fused Initiating Party");
+        groupHeader.setInitgPty(initiatingParty);
+        initiation.setGrpHdr(groupHeader);
+
+        for (int p = 1; p <= 2; p++) {
+            PaymentInstruction44 instruction = new PaymentInstruction44();
+            instruction.setPmtInfId("PMT-" + p);
+            for (int t = 1; t <= 2; t++) {
+                instruction.getCdtTrfTxInf().add(createTransaction("E2E-" + p + "-" + t, new BigDecimal(100 * p + t + ".50")));
+            }
+            initiation.getPmtInf().add(instruction);
+        }
+
+        org.translator.xsd.generated.pain_001.Document document = new org.translator.xsd.generated.pain_001.Document();
+        document.setCstmrCdtTrfInitn(initiation);
+        return document;
+    }
+
+    private static CreditTransferTransaction61 createTransaction(String endToEndId, BigDecimal amount) {
+        CreditTransferTransaction61 transaction = new CreditTransferTransaction61();
+        PaymentIdentification6 pmtId = new PaymentIdentification6();
+        pmtId.setInstrId("INSTR-" + endToEndId);
+        pmtId.setEndToEndId(endToEndId);
+        transaction.setPmtId(pmtId);
+
+        PaymentTypeInformation26 paymentType = new PaymentTypeInformation26();
+        paymentType.setInstrPrty(Priority2Code.HIGH);
+        ServiceLevel8Choice serviceLevel = new ServiceLevel8Choice();
+        serviceLevel.setCd("SEPA");
+        paymentType.getSvcLvl().add(serviceLevel);
+        transaction.setPmtTpInf(paymentType);
+
+        AmountType4Choice amt = new AmountType4Choice();
+        ActiveOrHistoricCurrencyAndAmount instructedAmount = new ActiveOrHistoricCurrencyAndAmount();
+        instructedAmount.setValue(amount);
+        instructedAmount.setCcy("EUR");
+        amt.setInstdAmt(instructedAmount);
+        transaction.setAmt(amt);
+        transaction.setChrgBr(ChargeBearerType1Code.SLEV);
+
+        BranchAndFinancialInstitutionIdentification8 creditorAgent = new BranchAndFinancialInstitutionIdentification8();
+        FinancialInstitutionIdentification23 institution = new FinancialInstitutionIdentification23();
+        institution.setBICFI("BNPAFRPPXXX");
+        creditorAgent.setFinInstnId(institution);
+        transaction.setCdtrAgt(creditorAgent);
+
+        PartyIdentification272 creditor = new PartyIdentification272();
+        creditor.setNm("Creditor " + endToEndId);
+        transaction.setCdtr(creditor);
+
+        CashAccount40 creditorAccount = new CashAccount40();
+        AccountIdentification4Choice accountId = new AccountIdentification4Choice();
+        accountId.setIBAN("FR7630006000011234567890189");
+        creditorAccount.setId(accountId);
+        transaction.setCdtrAcct(creditorAccount);
+        return transaction;
+    }
+}
@@ -0,0 +1,106 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for chunked parallel mapping of transaction lists.
+ */
+class ParallelTransactionMappingTest {
+
+    @Test
+    @DisplayName("Should keep source order when mapping in parallel")
+    void testParallelMappingKeepsOrder() throws Exception {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            source.add(i);
+        }
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        // Each worker waits for a second one, so the list must have been split to finish
+        CountDownLatch twoWorkers = new CountDownLatch(2);
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        List<String> mapped;
+        try {
+            mapped = ParallelTransactionMapping.mapAll(source, i -> {
+                if (threads.add(Thread.currentThread())) {
+                    twoWorkers.countDown();
+                    try {
+                        twoWorkers.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return "TX-" + i;
+            }, 10_000, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(0, twoWorkers.getCount(), "Chunks should run on two workers at once");
+        for (Thread thread : threads) {
+            assertSame(pool, ((ForkJoinWorkerThread) thread).getPool());
+        }
+        assertEquals(source.size(), mapped.size());
+        for (int i = 0; i < mapped.size(); i++) {
+            assertEquals("TX-" + i, mapped.get(i));
+        }
+        // The result stays mutable, like the sequential path's
+        mapped.add("extra");
+    }
+
+    @Test
+    @DisplayName("Should map on the calling thread below the threshold or when disabled")
+    void testSequentialBelowThreshold() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            source.add(i);
+        }
+        Thread caller = Thread.currentThread();
+
+        List<Integer> belowThreshold = ParallelTransactionMapping.mapAll(source, i -> {
+            assertSame(caller, Thread.currentThread());
+            return i * 2;
+        }, 50_000);
+        List<Integer> disabled = ParallelTransactionMapping.mapAll(source, i -> {
+            assertSame(caller, Thread.currentThread());
+            return i * 2;
+        }, 0);
+
+        assertEquals(belowThreshold, disabled);
+        assertEquals(39_998, belowThreshold.get(19_999));
+    }
+
+    @Test
+    @DisplayName("Should read the threshold from the system property")
+    void testThresholdProperty() {
+        String previous = System.getProperty(ParallelTransactionMapping.SYSTEM_PROPERTY);
+        try {
+            System.clearProperty(ParallelTransactionMapping.SYSTEM_PROPERTY);
+            assertEquals(ParallelTransactionMapping.DEFAULT_THRESHOLD, ParallelTransactionMapping.getThreshold());
+
+            System.setProperty(ParallelTransactionMapping.SYSTEM_PROPERTY, " 50000 ");
+            assertEquals(50_000, ParallelTransactionMapping.getThreshold());
+
+            System.setProperty(ParallelTransactionMapping.SYSTEM_PROPERTY, "many");
+            assertThrows(IllegalArgumentException.class, ParallelTransactionMapping::getThreshold);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ParallelTransactionMapping.SYSTEM_PROPERTY);
+            } else {
+                System.setProperty(ParallelTransactionMapping.SYSTEM_PROPERTY, previous);
+            }
+        }
+    }
+}
@@ -12,9 +12,19 @@ import org.translator.xsd.generated.pain_001.PaymentInstruction44;
 import org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13;
 import org.translator.xsd.generated.pacs_008.GroupHeader131;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -140,6 +150,75 @@ class PaymentMessageOrchestrationTest {
         verify(mockMapStructPacs008Mapper).mapDocument(intermediateDocument);
     }
 
+    @Test
+    @DisplayName("Should plan Pain.001 -> PACS.009 through PACS.008 without naming the intermediate")
+    void testPlannedMultiHopTransformation() throws PaymentMappingException {
+        org.translator.xsd.generated.pain_001.Document sourceDocument = createValidPain001Document();
+        org.translator.xsd.generated.pacs_008.Document intermediateDocument = createValidPacs008Document();
+        org.translator.xsd.generated.pacs_009.Document expectedTarget = createValidPacs009Document();
+
+        when(mockMapStructPain001Mapper.mapDocument(any(org.translator.xsd.generated.pain_001.Document.class)))
+            .thenReturn(intermediateDocument);
+        when(mockMapStructPacs008Mapper.mapDocument(any(org.translator.xsd.generated.pacs_008.Document.class)))
+            .thenReturn(expectedTarget);
+
+        org.translator.xsd.generated.pacs_009.Document result = orchestrator.transform(
+            sourceDocument,
+            "pain.001.001.12",
+            "pacs.009.001.12"
+        );
+
+        assertEquals(expectedTarget, result);
+        verify(mockMapStructPacs008Mapper).mapDocument(intermediateDocument);
+
+        var pipeline = orchestrator.getPipeline("pain.001.001.12", "pacs.009.001.12");
+        assertTrue(pipeline.isPresent());
+        assertEquals(List.of("pain.001.001.12", "pacs.008.001.13", "pacs.009.001.12"), pipeline.get().getPath());
+        assertSame(pipeline.get(), orchestrator.getPipeline("pain.001.001.12", "pacs.009.001.12").get());
+        assertTrue(orchestrator.isTransformationSupported("pain.001.001.12", "pacs.009.001.12"));
+        assertFalse(orchestrator.isTransformationSupported("pacs.009.001.12", "pain.001.001.12"));
+    }
+
+    @Test
+    @DisplayName("Should prefer the cheapest route and replan when mappers change")
+    void testCheapestRoute() throws PaymentMappingException {
+        PaymentMessageMapper<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_009.Document> direct =
+            new PaymentMessageMapper<>() {
+                @Override
+                public org.translator.xsd.generated.pacs_009.Document transform(org.translator.xsd.generated.pain_001.Document source) {
+                    return createValidPacs009Document();
+                }
+
+                @Override
+                public String getSourceMessageType() {
+                    return "pain.001.001.12";
+                }
+
+                @Override
+                public String getTargetMessageType() {
+                    return "pacs.009.001.12";
+                }
+
+                @Override
+                public boolean supports(org.translator.xsd.generated.pain_001.Document source) {
+                    return true;
+                }
+
+                @Override
+                public int getRouteCost() {
+                    return 1;
+                }
+            };
+
+        assertEquals(2, orchestrator.getPipeline("pain.001.001.12", "pacs.009.001.12").get().getHopCount());
+        orchestrator.registerMapper(direct);
+
+        var pipeline = orchestrator.getPipeline("pain.001.001.12", "pacs.009.001.12");
+        assertEquals(1, pipeline.get().getHopCount());
+        assertEquals(1, pipeline.get().getCost());
+        assertNotNull(orchestrator.transform(createValidPain001Document(), "pain.001.001.12", "pacs.009.001.12"));
+    }
+
     @Test
     @DisplayName("Should throw exception for unsupported transformation")
     void testUnsupportedTransformation() {
@@ -215,6 +294,228 @@ class PaymentMessageOrchestrationTest {
         assertTrue(exception.getMessage().contains("Failed to transform Pain.001 to PACS.008"));
     }
 
+    @Test
+    @DisplayName("Should transform a batch in order and isolate failing documents")
+    void testTransformAll() throws PaymentMappingException {
+        when(mockMapStructPain001Mapper.mapDocument(any(org.translator.xsd.generated.pain_001.Document.class)))
+            .thenAnswer(invocation -> {
+                org.translator.xsd.generated.pain_001.Document source = invocation.getArgument(0);
+                org.translator.xsd.generated.pacs_008.Document target = createValidPacs008Document();
+                target.getFIToFICstmrCdtTrf().getGrpHdr().setMsgId(source.getCstmrCdtTrfInitn().getGrpHdr().getMsgId());
+                return target;
+            });
+
+        List<org.translator.xsd.generated.pain_001.Document> sources = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sources.add(createValidPain001Document());
+            sources.get(i).getCstmrCdtTrfInitn().getGrpHdr().setMsgId("BATCH-" + i);
+        }
+        // A heavy document and an invalid one in the middle of the batch
+        for (int t = 0; t < 500; t++) {
+            sources.get(3).getCstmrCdtTrfInitn().getPmtInf().get(0).getCdtTrfTxInf()
+                .add(new org.translator.xsd.generated.pain_001.CreditTransferTransaction61());
+        }
+        sources.set(42, new org.translator.xsd.generated.pain_001.Document());
+
+        List<BatchResult<org.translator.xsd.generated.pacs_008.Document>> results =
+            orchestrator.transformAll(sources, "pain.001.001.12", "pacs.008.001.13");
+
+        assertEquals(100, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult<org.translator.xsd.generated.pacs_008.Document> result = results.get(i);
+            assertEquals(i, result.getIndex());
+            if (i == 42) {
+                assertFalse(result.isSuccess());
+                assertEquals("INVALID_PAIN001_STRUCTURE", result.getFailure().getErrorCode());
+                assertSame(result.getFailure(), result.getFailure());
+            } else {
+                assertTrue(result.isSuccess());
+                assertEquals("BATCH-" + i, result.getTarget().getFIToFICstmrCdtTrf().getGrpHdr().getMsgId());
+            }
+        }
+
+        List<BatchResult<org.translator.xsd.generated.pacs_008.Document>> streamed = new ArrayList<>();
+        long count = orchestrator.<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_008.Document>transformAll(
+            sources.iterator(), "pain.001.001.12", "pacs.008.001.13", streamed::add);
+
+        assertEquals(100, count);
+        for (int i = 0; i < streamed.size(); i++) {
+            assertEquals(i, streamed.get(i).getIndex());
+            assertEquals(i != 42, streamed.get(i).isSuccess());
+        }
+
+        assertThrows(PaymentMappingException.class,
+            () -> orchestrator.transformAll(sources, "unknown.001", "unknown.002"));
+    }
+
+    @Test
+    @DisplayName("Should transform asynchronously and fail the future with the mapping error")
+    void testTransformAsync() throws Exception {
+        org.translator.xsd.generated.pacs_008.Document intermediate = createValidPacs008Document();
+        org.translator.xsd.generated.pacs_009.Document expectedTarget = createValidPacs009Document();
+        when(mockMapStructPain001Mapper.mapDocument(any(org.translator.xsd.generated.pain_001.Document.class)))
+            .thenReturn(intermediate);
+        when(mockMapStructPacs008Mapper.mapDocument(any(org.translator.xsd.generated.pacs_008.Document.class)))
+            .thenReturn(expectedTarget);
+
+        CompletableFuture<org.translator.xsd.generated.pacs_008.Document> single =
+            orchestrator.transformAsync(createValidPain001Document(), "pain.001.001.12", "pacs.008.001.13");
+        assertEquals(intermediate, single.get());
+
+        CompletableFuture<org.translator.xsd.generated.pacs_009.Document> chained = orchestrator.chainTransformAsync(
+            createValidPain001Document(), "pain.001.001.12", "pacs.008.001.13", "pacs.009.001.12");
+        assertEquals(expectedTarget, chained.get());
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+            () -> orchestrator.transformAsync(createValidPain001Document(), "unknown.001", "unknown.002").get());
+        assertEquals("MAPPER_NOT_FOUND", ((PaymentMappingException) failure.getCause()).getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Should time out and cancel asynchronous transformations")
+    void testTransformAsyncTimeoutAndCancellation() throws Exception {
+        Semaphore hopStarted = new Semaphore(0);
+        Semaphore releaseHop = new Semaphore(0);
+        when(mockMapStructPain001Mapper.mapDocument(any(org.translator.xsd.generated.pain_001.Document.class)))
+            .thenAnswer(invocation -> {
+                hopStarted.release();
+                // A mapping that ignores interrupts runs to the end of its hop
+                releaseHop.acquireUninterruptibly();
+                return createValidPacs008Document();
+            });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        PaymentMessageOrchestrator async = new PaymentMessageOrchestrator(ForkJoinPool.commonPool(), executor);
+        async.registerMapper(pain001ToPacs008Mapper);
+        async.registerMapper(pacs008ToPacs009Mapper);
+
+        CompletableFuture<org.translator.xsd.generated.pacs_009.Document> timed = async.transformAsync(
+            createValidPain001Document(), "pain.001.001.12", "pacs.009.001.12", Duration.ofMillis(50));
+        ExecutionException failure = assertThrows(ExecutionException.class, timed::get);
+        assertEquals("TRANSFORMATION_TIMEOUT", ((PaymentMappingException) failure.getCause()).getErrorCode());
+        releaseHop.release();
+
+        // Cancel while the first hop is running, then let it finish
+        TransformationPipeline<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_009.Document> pipeline =
+            async.<org.translator.xsd.generated.pain_001.Document, org.translator.xsd.generated.pacs_009.Document>getPipeline(
+                "pain.001.001.12", "pacs.009.001.12").orElseThrow();
+        AtomicReference<TransformResult<org.translator.xsd.generated.pacs_009.Document>> outcome = new AtomicReference<>();
+        CompletableFuture<org.translator.xsd.generated.pacs_009.Document> cancelled = AsyncTransformation.submit(
+            executor, "pain.001.001.12", "pacs.009.001.12", null, isCancelled -> {
+                TransformResult<org.translator.xsd.generated.pacs_009.Document> result =
+                    pipeline.tryTransform(createValidPain001Document(), isCancelled);
+                outcome.set(result);
+                return result.getOrThrow();
+            });
+        assertTrue(hopStarted.tryAcquire(2, 10, TimeUnit.SECONDS));
+        assertTrue(cancelled.cancel(true));
+        assertTrue(cancelled.isCancelled());
+        releaseHop.release();
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Neither interrupted first hop went on to the second
+        verify(mockMapStructPain001Mapper, times(2)).mapDocument(any(org.translator.xsd.generated.pain_001.Document.class));
+        verify(mockMapStructPacs008Mapper, never()).mapDocument(any(org.translator.xsd.generated.pacs_008.Document.class));
+        TransformResult.Failure<org.translator.xsd.generated.pacs_009.Document> stopped =
+            assertInstanceOf(TransformResult.Failure.class, outcome.get());
+        assertEquals("TRANSFORMATION_CANCELLED", stopped.errorCode());
+    }
+
+    @Test
+    @DisplayName("Should validate the source once per hop")
+    void testValidateOncePerHop() throws PaymentMappingException {
+        AtomicInteger validations = new AtomicInteger();
+        PaymentMessageOrchestrator countingOrchestrator = new PaymentMessageOrchestrator();
+        countingOrchestrator.registerMapper(new Pain001ToPacs008PaymentMapper(mockMapStructPain001Mapper) {
+            @Override
+            protected TransformResult.Failure<org.translator.xsd.generated.pacs_008.Document> checkSource(
+                    org.translator.xsd.generated.pain_001.Document source) {
+                validations.incrementAndGet();
+                return super.checkSource(source);
+            }
+        });
+        when(mockMapStructPain001Mapper.mapDocument(any(org.translator.xsd.generated.pain_001.Document.class)))
+            .thenReturn(createValidPacs008Document());
+
+        countingOrchestrator.transform(createValidPain001Document(), "pain.001.001.12", "pacs.008.001.13");
+        assertEquals(1, validations.get());
+
+        // supports is a cheap check; structural problems surface from validation with their own code
+        org.translator.xsd.generated.pain_001.Document withoutInstructions = createValidPain001Document();
+        withoutInstructions.getCstmrCdtTrfInitn().getPmtInf().clear();
+        assertTrue(pain001ToPacs008Mapper.supports(withoutInstructions));
+        PaymentMappingException exception = assertThrows(PaymentMappingException.class,
+            () -> orchestrator.transform(withoutInstructions, "pain.001.001.12", "pacs.008.001.13"));
+        assertEquals("MISSING_PAYMENT_INSTRUCTIONS", exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Should report failures as values from tryTransform")
+    void testTryTransform() {
+        org.translator.xsd.generated.pacs_008.Document expectedTarget = createValidPacs008Document();
+        when(mockMapStructPain001Mapper.mapDocument(any(org.translator.xsd.generated.pain_001.Document.class)))
+            .thenReturn(expectedTarget);
+
+        TransformResult<org.translator.xsd.generated.pacs_008.Document> success =
+            orchestrator.tryTransform(createValidPain001Document(), "pain.001.001.12", "pacs.008.001.13");
+        assertTrue(success.isSuccess());
+        assertEquals(expectedTarget, ((TransformResult.Success<org.translator.xsd.generated.pacs_008.Document>) success).value());
+
+        org.translator.xsd.generated.pain_001.Document withoutHeader = createValidPain001Document();
+        withoutHeader.getCstmrCdtTrfInitn().setGrpHdr(null);
+        TransformResult<org.translator.xsd.generated.pacs_008.Document> invalid =
+            orchestrator.tryTransform(withoutHeader, "pain.001.001.12", "pacs.008.001.13");
+        TransformResult.Failure<org.translator.xsd.generated.pacs_008.Document> failure =
+            assertInstanceOf(TransformResult.Failure.class, invalid);
+        assertEquals("MISSING_GROUP_HEADER", failure.errorCode());
+        assertEquals("CstmrCdtTrfInitn.GrpHdr", failure.fieldPath());
+        assertNull(failure.cause());
+
+        // The throwing API reports the same failure
+        PaymentMappingException exception = assertThrows(PaymentMappingException.class,
+            () -> orchestrator.transform(withoutHeader, "pain.001.001.12", "pacs.008.001.13"));
+        assertEquals("MISSING_GROUP_HEADER", exception.getErrorCode());
+        assertEquals("CstmrCdtTrfInitn.GrpHdr", exception.getFieldPath());
+
+        TransformResult<Object> noRoute = orchestrator.tryTransform(createValidPain001Document(), "unknown.001", "unknown.002");
+        assertEquals("MAPPER_NOT_FOUND", ((TransformResult.Failure<Object>) noRoute).errorCode());
+    }
+
+    @Test
+    @DisplayName("Should still run mappers that validate through the deprecated hooks")
+    @SuppressWarnings("deprecation")
+    void testDeprecatedValidationHooks() {
+        AbstractPaymentMessageMapper<String, String> legacy = new AbstractPaymentMessageMapper<>() {
+            @Override
+            protected String doTransform(String source) {
+                return source.isEmpty() ? "" : source.toUpperCase();
+            }
+
+            @Override
+            protected void validateTarget(String target) throws PaymentMappingException {
+                if (target.isEmpty()) {
+                    throw new PaymentMappingException("Empty target", getSourceMessageType(), getTargetMessageType(),
+                        "EMPTY_TARGET", null, null);
+                }
+            }
+
+            @Override
+            public String getSourceMessageType() {
+                return "legacy.001";
+            }
+
+            @Override
+            public String getTargetMessageType() {
+                return "legacy.002";
+            }
+        };
+
+        assertEquals("ABC", assertInstanceOf(TransformResult.Success.class, legacy.tryTransform("abc")).value());
+        TransformResult.Failure<String> failure = assertInstanceOf(TransformResult.Failure.class, legacy.tryTransform(""));
+        assertEquals("EMPTY_TARGET", failure.errorCode());
+        assertEquals("MAPPING_ERROR", assertInstanceOf(TransformResult.Failure.class, legacy.tryTransform(null)).errorCode());
+    }
+
     // Helper methods to create valid test documents
     private org.translator.xsd.generated.pain_001.Document createValidPain001Document() {
         org.translator.xsd.generated.pain_001.Document document = new org.translator.xsd.generated.pain_001.Document();
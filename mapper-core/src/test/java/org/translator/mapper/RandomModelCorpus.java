@@ -0,0 +1,203 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.annotation.XmlAnyElement;
+import jakarta.xml.bind.annotation.XmlSchemaType;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Random documents of the generated model, and the graph comparison used by the
+ * differential tests of the generated readers and writers.
+ */
+final class RandomModelCorpus {
+
+    private static final int CORPUS_SIZE = 25;
+
+    private static final int MAX_DEPTH = 7;
+
+    private RandomModelCorpus() {
+    }
+
+    /**
+     * A check run against each document of a corpus.
+     */
+    @FunctionalInterface
+    interface DocumentCheck {
+        void check(Object document, int index) throws Exception;
+    }
+
+    /**
+     * Run a check against {@value #CORPUS_SIZE} random documents of a message type.
+     *
+     * @param messageType The message type whose model is filled
+     * @param seed The seed, so a failing document can be reproduced
+     * @param edgeCases Whether values include escaped and multi-byte text, negative decimals and zoned times
+     * @param check The check to run
+     */
+    static void assertCorpus(String messageType, long seed, boolean edgeCases, DocumentCheck check) throws Exception {
+        Random random = new Random(seed);
+        Class<?> documentType = JaxbContextRegistry.getDocumentType(messageType);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            check.check(populate(documentType, random, edgeCases), i);
+        }
+    }
+
+    /**
+     * Fill a model object with random content, following the same bound fields JAXB uses.
+     *
+     * @param type The model type
+     * @param random The source of values
+     * @param edgeCases Whether values include escaped and multi-byte text, negative decimals and zoned times
+     * @return The populated object
+     */
+    static Object populate(Class<?> type, Random random, boolean edgeCases) throws Exception {
+        return populate(type, random, edgeCases, 0);
+    }
+
+    /**
+     * Read a sample message, rebinding its namespace to the model version so every
+     * back end sees populated content.
+     */
+    static byte[] readSample(String path, String namespaceVersion, String boundVersion) throws Exception {
+        Path sample = Paths.get(path);
+        assertTrue(Files.exists(sample), "Sample not found: " + sample.toAbsolutePath());
+        return Files.readString(sample).replace(namespaceVersion, boundVersion).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Assert that two object graphs hold the same content, field by field.
+     *
+     * @param xml The document the graphs came from, for failure messages
+     */
+    static void assertGraphEquals(Object expected, Object actual, String path,
+                                  Supplier<String> xml) throws IllegalAccessException {
+        if (expected == null || actual == null) {
+            assertEquals(expected, actual, () -> "Mismatch at " + path + " in\n" + xml.get());
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass(), () -> "Type mismatch at " + path);
+        if (expected instanceof List) {
+            List<?> expectedList = (List<?>) expected;
+            List<?> actualList = (List<?>) actual;
+            assertEquals(expectedList.size(), actualList.size(), () -> "Size mismatch at " + path);
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertGraphEquals(expectedList.get(i), actualList.get(i), path + "[" + i + "]", xml);
+            }
+            return;
+        }
+        if (expected instanceof org.w3c.dom.Node) {
+            assertTrue(((org.w3c.dom.Node) expected).isEqualNode((org.w3c.dom.Node) actual), () -> "DOM mismatch at " + path);
+            return;
+        }
+        if (!isModelType(expected.getClass())) {
+            assertEquals(expected, actual, () -> "Mismatch at " + path + " in\n" + xml.get());
+            return;
+        }
+        for (Field field : expected.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            assertGraphEquals(field.get(expected), field.get(actual), path + "." + field.getName(), xml);
+        }
+    }
+
+    private static Object populate(Class<?> type, Random random, boolean edgeCases, int depth) throws Exception {
+        Object target = type.getDeclaredConstructor().newInstance();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(XmlAnyElement.class)) {
+                continue;
+            }
+            // Always fill the first levels so every corpus document has a header and transactions
+            if (depth > 2 && random.nextInt(10) < 4) {
+                continue;
+            }
+            field.setAccessible(true);
+            if (List.class.isAssignableFrom(field.getType())) {
+                Class<?> element = (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+                @SuppressWarnings("unchecked")
+                List<Object> list = (List<Object>) field.get(target);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    field.set(target, list);
+                }
+                int count = depth < MAX_DEPTH ? 1 + random.nextInt(2) : 0;
+                for (int i = 0; i < count; i++) {
+                    Object value = value(field, element, random, edgeCases, depth);
+                    if (value != null) {
+                        list.add(value);
+                    }
+                }
+            } else {
+                field.set(target, value(field, field.getType(), random, edgeCases, depth));
+            }
+        }
+        return target;
+    }
+
+    private static Object value(Field field, Class<?> type, Random random, boolean edgeCases,
+                                int depth) throws Exception {
+        if (type == String.class) {
+            String value = "V" + Integer.toString(random.nextInt(1 << 20), 36);
+            // Exercise escaping and multi-byte encoding on a share of the values
+            return edgeCases && random.nextInt(4) == 0 ? value + " <&>\"\u00e9\u20ac\ud83d\ude00" : value;
+        }
+        if (type == BigDecimal.class) {
+            return edgeCases
+                ? BigDecimal.valueOf(random.nextInt(10_000_000) - 5_000_000, random.nextInt(6))
+                : BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return random.nextBoolean();
+        }
+        if (type == XMLGregorianCalendar.class) {
+            XmlSchemaType schemaType = field.getAnnotation(XmlSchemaType.class);
+            String lexical;
+            switch (schemaType != null ? schemaType.name() : "dateTime") {
+                case "date":
+                    lexical = "2024-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10);
+                    break;
+                case "time":
+                    lexical = "1" + random.nextInt(10) + ":30:00";
+                    break;
+                case "gYear":
+                    lexical = "20" + (10 + random.nextInt(90));
+                    break;
+                default:
+                    lexical = "2024-05-1" + random.nextInt(10) + "T08:1" + random.nextInt(10) + ":00";
+                    if (edgeCases) {
+                        lexical += random.nextBoolean() ? ".25+02:00" : "Z";
+                    }
+                    break;
+            }
+            return DatatypeFactory.newInstance().newXMLGregorianCalendar(lexical);
+        }
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return constants[random.nextInt(constants.length)];
+        }
+        if (isModelType(type) && depth < MAX_DEPTH) {
+            return populate(type, random, edgeCases, depth + 1);
+        }
+        return null;
+    }
+
+    private static boolean isModelType(Class<?> type) {
+        return type.getPackage() != null && type.getPackage().getName().startsWith("org.translator.xsd.generated");
+    }
+}
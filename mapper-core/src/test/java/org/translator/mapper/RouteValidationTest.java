@@ -0,0 +1,207 @@
+package org.translator.mapper;
+
+import jakarta.xml.bind.JAXBException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteValidationTest {
+
+    private static final String VALID_PACS008 = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <Document xmlns="urn:iso:std:iso:20022:tech:xsd:pacs.008.001.13">
+          <FIToFICstmrCdtTrf>
+            <GrpHdr>
+              <MsgId>MSG-0001</MsgId>
+              <CreDtTm>2024-05-10T08:11:00Z</CreDtTm>
+              <NbOfTxs>1</NbOfTxs>
+              <SttlmInf>
+                <SttlmMtd>CLRG</SttlmMtd>
+              </SttlmInf>
+            </GrpHdr>
+            <CdtTrfTxInf>
+              <PmtId>
+                <EndToEndId>E2E-0001</EndToEndId>
+              </PmtId>
+              <IntrBkSttlmAmt Ccy="EUR">125.50</IntrBkSttlmAmt>
+              <ChrgBr>SLEV</ChrgBr>
+              <Dbtr>
+                <Nm>Debtor Name</Nm>
+              </Dbtr>
+              <DbtrAgt>
+                <FinInstnId>
+                  <BICFI>DEUTDEFFXXX</BICFI>
+                </FinInstnId>
+              </DbtrAgt>
+              <CdtrAgt>
+                <FinInstnId>
+                  <BICFI>BNPAFRPPXXX</BICFI>
+                </FinInstnId>
+              </CdtrAgt>
+              <Cdtr>
+                <Nm>Creditor Name</Nm>
+              </Cdtr>
+            </CdtTrfTxInf>
+          </FIToFICstmrCdtTrf>
+        </Document>
+        """;
+
+    private static final String VALID_PACS008_V01 = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <ns2:Document xmlns:ns2="urn:iso:std:iso:20022:tech:xsd:pacs.008.001.01">
+          <GrpHdr>
+            <MsgId>MSG-V01</MsgId>
+            <CreDtTm>2024-05-10T08:11:00Z</CreDtTm>
+            <NbOfTxs>1</NbOfTxs>
+          </GrpHdr>
+          <CdtTrfTxInf>
+            <PmtId>
+              <EndToEndId>E2E-V01</EndToEndId>
+            </PmtId>
+            <DbtrAcct>
+              <Id>
+                <IBAN>NL91ABNA0417164300</IBAN>
+              </Id>
+            </DbtrAcct>
+          </CdtTrfTxInf>
+        </ns2:Document>
+        """;
+
+    private static final String INVALID_PACS008 = VALID_PACS008.replace("<NbOfTxs>1</NbOfTxs>", "<NbOfTxs>one</NbOfTxs>");
+
+    @Test
+    @DisplayName("Should parse validation modes")
+    void testParseModes() {
+        assertSame(ValidationMode.OFF, ValidationMode.parse(null, ValidationMode.OFF));
+        assertSame(ValidationMode.FULL, ValidationMode.parse("FULL", ValidationMode.OFF));
+        assertSame(ValidationMode.OFF, ValidationMode.parse("off", ValidationMode.FULL));
+        assertEquals(10, ValidationMode.parse("sample:10", ValidationMode.OFF).getSampleRate());
+        assertSame(ValidationMode.FULL, ValidationMode.sampled(1));
+        assertThrows(IllegalArgumentException.class, () -> ValidationMode.parse("sample:0", ValidationMode.OFF));
+        assertThrows(IllegalArgumentException.class, () -> ValidationMode.parse("sometimes", ValidationMode.OFF));
+    }
+
+    @Test
+    @DisplayName("Should compile each schema once and share it")
+    void testSchemaCache() {
+        Map<String, Long> timings = SchemaRegistry.compileAll();
+        assertTrue(timings.get(JaxbContextRegistry.PACS008_V13) >= 0);
+        assertTrue(timings.get(JaxbContextRegistry.PACS009_V12) >= 0);
+        assertTrue(timings.get(JaxbContextRegistry.PAIN001_V12) >= 0);
+        assertSame(SchemaRegistry.getSchema(JaxbContextRegistry.PACS008_V13),
+            SchemaRegistry.getSchema(JaxbContextRegistry.PACS008_V13));
+        assertFalse(SchemaRegistry.hasSchema(JaxbContextRegistry.PACS008_V01));
+        assertFalse(SchemaRegistry.hasSchema("camt.053.001.08"));
+    }
+
+    @Test
+    @DisplayName("Should refuse to validate the Prowide pacs.008.001.01 binding, which has no schema")
+    void testProwideBindingValidation() throws Exception {
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01, "test.v01");
+
+        com.prowidesoftware.swift.model.mx.dic.Pacs00800101 document = MessageDocumentReader.read(
+            JaxbContextRegistry.PACS008_V01, input(VALID_PACS008_V01), route);
+        assertEquals("MSG-V01", document.getGrpHdr().getMsgId());
+        assertEquals(1, route.getStatistics().getSkipped());
+
+        route.setMode(ValidationMode.FULL);
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> MessageDocumentReader.read(
+            JaxbContextRegistry.PACS008_V01, input(VALID_PACS008_V01), route));
+        assertTrue(error.getMessage().contains(JaxbContextRegistry.PACS008_V01), error.getMessage());
+        assertEquals(0, route.getStatistics().getValidated());
+    }
+
+    @Test
+    @DisplayName("Should fail rather than skip when a validating route has no schema")
+    void testValidationWithoutSchema() {
+        RouteValidation route = RouteValidation.forRoute("camt.053.001.08", "test.noschema");
+        route.setMode(ValidationMode.sampled(10));
+
+        assertThrows(IllegalStateException.class, () -> route.open(input(VALID_PACS008), "camt.053.001.08"));
+        assertEquals(0, route.getStatistics().getSkipped());
+
+        route.setMode(ValidationMode.OFF);
+        assertDoesNotThrow(() -> route.open(input(VALID_PACS008), "camt.053.001.08"));
+    }
+
+    @Test
+    @DisplayName("Should validate while binding with both reader implementations")
+    void testFullValidation() throws Exception {
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V13, "test.full");
+        route.setMode(ValidationMode.FULL);
+
+        for (XmlReaderMode mode : XmlReaderMode.values()) {
+            org.translator.xsd.generated.pacs_008.Document document =
+                MessageDocumentReader.read(JaxbContextRegistry.PACS008_V13, input(VALID_PACS008), mode, route);
+            assertEquals("MSG-0001", document.getFIToFICstmrCdtTrf().getGrpHdr().getMsgId());
+
+            JAXBException error = assertThrows(JAXBException.class, () ->
+                MessageDocumentReader.read(JaxbContextRegistry.PACS008_V13, input(INVALID_PACS008), mode, route));
+            assertNotNull(error.getCause(), "Validation failure should carry its cause");
+        }
+
+        RouteValidation.Statistics statistics = route.getStatistics();
+        assertEquals(2, statistics.getValidated());
+        assertEquals(2, statistics.getFailed());
+        assertEquals(0, statistics.getSkipped());
+        assertTrue(statistics.getValidationNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Should validate one document in N when sampling")
+    void testSampledValidation() throws Exception {
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V13, "test.sampled");
+        route.setMode(ValidationMode.sampled(4));
+
+        for (int i = 0; i < 8; i++) {
+            MessageDocumentReader.read(JaxbContextRegistry.PACS008_V13, input(VALID_PACS008),
+                XmlReaderMode.GENERATED, route);
+        }
+
+        RouteValidation.Statistics statistics = route.getStatistics();
+        assertEquals(2, statistics.getValidated());
+        assertEquals(6, statistics.getSkipped());
+    }
+
+    @Test
+    @DisplayName("Should count a document closed before its end as aborted")
+    void testAbortedValidation() throws Exception {
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V13, "test.aborted");
+        route.setMode(ValidationMode.FULL);
+
+        javax.xml.stream.XMLStreamReader reader = route.open(input(VALID_PACS008), JaxbContextRegistry.PACS008_V13);
+        while (!reader.isStartElement() || !"GrpHdr".equals(reader.getLocalName())) {
+            reader.next();
+        }
+        reader.close();
+
+        RouteValidation.Statistics statistics = route.getStatistics();
+        assertEquals(0, statistics.getValidated());
+        assertEquals(0, statistics.getFailed());
+        assertEquals(1, statistics.getAborted());
+    }
+
+    @Test
+    @DisplayName("Should not validate when the route is off")
+    void testValidationOff() throws Exception {
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V13, "test.off");
+        assertEquals(ValidationMode.OFF, route.getMode());
+
+        org.translator.xsd.generated.pacs_008.Document document = MessageDocumentReader.read(
+            JaxbContextRegistry.PACS008_V13, input(INVALID_PACS008), XmlReaderMode.GENERATED, route);
+
+        assertNotNull(document.getFIToFICstmrCdtTrf());
+        assertEquals(1, route.getStatistics().getSkipped());
+        assertEquals(0, route.getStatistics().getValidationNanos());
+    }
+
+    private static InputStream input(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
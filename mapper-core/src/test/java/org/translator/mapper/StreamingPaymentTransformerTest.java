@@ -0,0 +1,72 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded-memory streaming transformations and the header back-patching writer.
+ */
+class StreamingPaymentTransformerTest {
+
+    @Test
+    @DisplayName("Should stream PACS.008 to PACS.009 and compute group header totals")
+    void testPacs008ToPacs009Streaming() throws Exception {
+        org.translator.xsd.generated.pacs_008.Document source = new org.translator.xsd.generated.pacs_008.Document();
+        org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13 transfer =
+            new org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13();
+        org.translator.xsd.generated.pacs_008.GroupHeader131 groupHeader = new org.translator.xsd.generated.pacs_008.GroupHeader131();
+        groupHeader.setMsgId("STREAM-OUT-001");
+        groupHeader.setNbOfTxs("99");
+        groupHeader.setSttlmInf(new org.translator.xsd.generated.pacs_008.SettlementInstruction15());
+        transfer.setGrpHdr(groupHeader);
+        transfer.getCdtTrfTxInf().add(createTransaction("E2E-1", "10.00"));
+        transfer.getCdtTrfTxInf().add(createTransaction("E2E-2", "5.50"));
+        source.setFIToFICstmrCdtTrf(transfer);
+
+        ByteArrayOutputStream in = new ByteArrayOutputStream();
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS008_V13, source, in, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Long> progress = new ArrayList<>();
+        long count = new StreamingPaymentTransformer()
+            .transformPacs008ToPacs009(new ByteArrayInputStream(in.toByteArray()), out, progress::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(1L, 2L), progress);
+
+        org.translator.xsd.generated.pacs_009.Document result = JaxbContextRegistry.unmarshal(
+            JaxbContextRegistry.PACS009_V12, new StreamSource(new ByteArrayInputStream(out.toByteArray())));
+        org.translator.xsd.generated.pacs_009.GroupHeader131 header = result.getFICdtTrf().getGrpHdr();
+
+        assertEquals("STREAM-OUT-001", header.getMsgId());
+        assertEquals("2", header.getNbOfTxs());
+        assertEquals(0, new BigDecimal("15.50").compareTo(header.getCtrlSum()));
+        assertEquals("EUR", header.getTtlIntrBkSttlmAmt().getCcy());
+        assertEquals(2, result.getFICdtTrf().getCdtTrfTxInf().size());
+        assertEquals("E2E-2", result.getFICdtTrf().getCdtTrfTxInf().get(1).getPmtId().getEndToEndId());
+    }
+
+    private org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 createTransaction(String endToEndId, String amount) {
+        org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 transaction =
+            new org.translator.xsd.generated.pacs_008.CreditTransferTransaction70();
+        org.translator.xsd.generated.pacs_008.PaymentIdentification13 pmtId =
+            new org.translator.xsd.generated.pacs_008.PaymentIdentification13();
+        pmtId.setEndToEndId(endToEndId);
+        transaction.setPmtId(pmtId);
+        org.translator.xsd.generated.pacs_008.ActiveCurrencyAndAmount settlementAmount =
+            new org.translator.xsd.generated.pacs_008.ActiveCurrencyAndAmount();
+        settlementAmount.setValue(new BigDecimal(amount));
+        settlementAmount.setCcy("EUR");
+        transaction.setIntrBkSttlmAmt(settlementAmount);
+        return transaction;
+    }
+}
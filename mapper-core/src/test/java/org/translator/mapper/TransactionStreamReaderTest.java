@@ -0,0 +1,100 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.translator.xsd.generated.pain_001.CreditTransferTransaction61;
+import org.translator.xsd.generated.pain_001.CustomerCreditTransferInitiationV12;
+import org.translator.xsd.generated.pain_001.GroupHeader114;
+import org.translator.xsd.generated.pain_001.PaymentIdentification6;
+import org.translator.xsd.generated.pain_001.PaymentInstruction44;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming Pain.001 and PACS.008 transaction readers.
+ */
+class TransactionStreamReaderTest {
+
+    @Test
+    @DisplayName("Should stream Pain.001 transactions with their payment instruction")
+    void testPain001Streaming() throws Exception {
+        org.translator.xsd.generated.pain_001.Document document = new org.translator.xsd.generated.pain_001.Document();
+        CustomerCreditTransferInitiationV12 initiation = new CustomerCreditTransferInitiationV12();
+        GroupHeader114 groupHeader = new GroupHeader114();
+        groupHeader.setMsgId("STREAM-MSG-001");
+        groupHeader.setNbOfTxs("3");
+        initiation.setGrpHdr(groupHeader);
+        initiation.getPmtInf().add(createPaymentInstruction("PMT-1", "E2E-1", "E2E-2"));
+        initiation.getPmtInf().add(createPaymentInstruction("PMT-2", "E2E-3"));
+        document.setCstmrCdtTrfInitn(initiation);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PAIN001_V12, document, out, true);
+
+        List<String> seen = new ArrayList<>();
+        try (Pain001TransactionStreamReader reader =
+                 new Pain001TransactionStreamReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("STREAM-MSG-001", reader.getGroupHeader().getMsgId());
+            while (reader.hasNext()) {
+                StreamedTransaction<PaymentInstruction44, CreditTransferTransaction61> entry = reader.next();
+                assertTrue(entry.getContext().getCdtTrfTxInf().isEmpty());
+                seen.add(entry.getIndex() + ":" + entry.getContext().getPmtInfId()
+                    + ":" + entry.getTransaction().getPmtId().getEndToEndId());
+            }
+        }
+
+        assertEquals(List.of("0:PMT-1:E2E-1", "1:PMT-1:E2E-2", "2:PMT-2:E2E-3"), seen);
+    }
+
+    @Test
+    @DisplayName("Should stream PACS.008 transactions in document order")
+    void testPacs008Streaming() throws Exception {
+        org.translator.xsd.generated.pacs_008.Document document = new org.translator.xsd.generated.pacs_008.Document();
+        org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13 transfer =
+            new org.translator.xsd.generated.pacs_008.FIToFICustomerCreditTransferV13();
+        org.translator.xsd.generated.pacs_008.GroupHeader131 groupHeader = new org.translator.xsd.generated.pacs_008.GroupHeader131();
+        groupHeader.setMsgId("STREAM-MSG-002");
+        groupHeader.setNbOfTxs("2");
+        transfer.setGrpHdr(groupHeader);
+        for (String endToEndId : new String[] {"E2E-A", "E2E-B"}) {
+            org.translator.xsd.generated.pacs_008.CreditTransferTransaction70 transaction =
+                new org.translator.xsd.generated.pacs_008.CreditTransferTransaction70();
+            org.translator.xsd.generated.pacs_008.PaymentIdentification13 pmtId =
+                new org.translator.xsd.generated.pacs_008.PaymentIdentification13();
+            pmtId.setEndToEndId(endToEndId);
+            transaction.setPmtId(pmtId);
+            transfer.getCdtTrfTxInf().add(transaction);
+        }
+        document.setFIToFICstmrCdtTrf(transfer);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS008_V13, document, out, false);
+
+        try (Pacs008TransactionStreamReader reader =
+                 new Pacs008TransactionStreamReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("STREAM-MSG-002", reader.getGroupHeader().getMsgId());
+            List<String> endToEndIds = new ArrayList<>();
+            reader.stream().forEach(entry -> endToEndIds.add(entry.getTransaction().getPmtId().getEndToEndId()));
+            assertEquals(List.of("E2E-A", "E2E-B"), endToEndIds);
+        }
+    }
+
+    private PaymentInstruction44 createPaymentInstruction(String pmtInfId, String... endToEndIds) {
+        PaymentInstruction44 instruction = new PaymentInstruction44();
+        instruction.setPmtInfId(pmtInfId);
+        for (String endToEndId : endToEndIds) {
+            CreditTransferTransaction61 transaction = new CreditTransferTransaction61();
+            PaymentIdentification6 pmtId = new PaymentIdentification6();
+            pmtId.setEndToEndId(endToEndId);
+            transaction.setPmtId(pmtId);
+            instruction.getCdtTrfTxInf().add(transaction);
+        }
+        return instruction;
+    }
+}
@@ -0,0 +1,127 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlByteWriterTest {
+
+    private static final byte[] S_A = XmlByteWriter.bytes("<A");
+    private static final byte[] E_A = XmlByteWriter.bytes("</A>");
+    private static final byte[] S_B = XmlByteWriter.bytes("<B");
+    private static final byte[] E_B = XmlByteWriter.bytes("</B>");
+    private static final byte[] A_CCY = XmlByteWriter.bytes(" Ccy=\"");
+
+    @Test
+    @DisplayName("Should format decimals exactly like BigDecimal.toPlainString")
+    void testDecimalFormatting() throws Exception {
+        Random random = new Random(20022L);
+        assertDecimal(new BigDecimal("0"));
+        assertDecimal(new BigDecimal("-0.00"));
+        assertDecimal(new BigDecimal("1E+3"));
+        assertDecimal(new BigDecimal("-1E-30"));
+        assertDecimal(new BigDecimal("9223372036854775807.5"));
+        assertDecimal(new BigDecimal("-9223372036854775808"));
+        for (int i = 0; i < 10_000; i++) {
+            BigInteger unscaled = new BigInteger(1 + random.nextInt(90), random);
+            assertDecimal(new BigDecimal(random.nextBoolean() ? unscaled : unscaled.negate(), random.nextInt(50) - 15));
+        }
+    }
+
+    @Test
+    @DisplayName("Should format calendars like XMLGregorianCalendar.toXMLFormat")
+    void testCalendarFormatting() throws Exception {
+        DatatypeFactory factory = DatatypeFactory.newInstance();
+        String[] dateTimes = {
+            "2024-05-10T08:11:00", "2024-05-10T08:11:00.123Z", "-0044-03-15T12:00:00+05:30",
+            "12345-01-01T00:00:00.000000000001-14:00"
+        };
+        for (String lexical : dateTimes) {
+            XMLGregorianCalendar value = factory.newXMLGregorianCalendar(lexical);
+            assertEquals(value.toXMLFormat(), write(out -> out.dateTime(value)));
+        }
+        for (String lexical : new String[]{"2024-05-10", "2024-05-10+01:00", "0001-01-01Z"}) {
+            XMLGregorianCalendar value = factory.newXMLGregorianCalendar(lexical);
+            assertEquals(value.toXMLFormat(), write(out -> out.date(value)));
+        }
+        XMLGregorianCalendar time = factory.newXMLGregorianCalendar("23:59:59.5Z");
+        assertEquals(time.toXMLFormat(), write(out -> out.time(time)));
+        XMLGregorianCalendar year = factory.newXMLGregorianCalendar("-0500Z");
+        assertEquals(year.toXMLFormat(), write(out -> out.gYear(year)));
+    }
+
+    @Test
+    @DisplayName("Should escape text and attribute values and encode UTF-8")
+    void testEscaping() throws Exception {
+        String xml = write(out -> {
+            out.startElement(S_A);
+            out.attribute(A_CCY, "a\"b<c>&\t\n");
+            out.text("x<y & z>\r\"é€😀");
+            out.endElement(E_A);
+        });
+        assertEquals("<A Ccy=\"a&quot;b&lt;c&gt;&amp;&#x9;&#xA;\">x&lt;y &amp; z&gt;&#xD;\"é€😀</A>", xml);
+    }
+
+    @Test
+    @DisplayName("Should substitute unpaired surrogates rather than write invalid UTF-8")
+    void testUnpairedSurrogates() throws Exception {
+        String text = "a\uD800b\uDC00c\uD83D";
+        byte[] written = bytes(out -> {
+            out.startElement(S_A);
+            out.text(text);
+            out.endElement(E_A);
+        });
+        assertArrayEquals(("<A>" + text + "</A>").getBytes(StandardCharsets.UTF_8), written);
+        assertEquals("<A>a?b?c?</A>", new String(written, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should self-close empty elements and indent nested elements")
+    void testLayout() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlByteWriter writer = new XmlByteWriter(out, XmlOutputMode.INDENTED);
+        writer.startDocument();
+        writer.startElement(S_A);
+        writer.startElement(S_B);
+        writer.endElement(E_B);
+        writer.startElement(S_B);
+        writer.bool(Boolean.TRUE);
+        writer.endElement(E_B);
+        writer.endElement(E_A);
+        writer.endDocument();
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<A>\n  <B/>\n  <B>true</B>\n</A>\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private void assertDecimal(BigDecimal value) throws Exception {
+        assertEquals(value.toPlainString(), write(out -> out.decimal(value)), () -> "Unscaled " + value.unscaledValue()
+            + " scale " + value.scale());
+    }
+
+    private String write(WriterAction action) throws Exception {
+        return new String(bytes(action), StandardCharsets.UTF_8);
+    }
+
+    private byte[] bytes(WriterAction action) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlByteWriter writer = new XmlByteWriter(out, XmlOutputMode.COMPACT);
+        action.accept(writer);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface WriterAction {
+        void accept(XmlByteWriter out) throws Exception;
+    }
+}
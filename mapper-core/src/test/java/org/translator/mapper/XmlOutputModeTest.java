@@ -0,0 +1,45 @@
+package org.translator.mapper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XmlOutputModeTest {
+
+    @Test
+    public void parseVariants() {
+        assertSame(XmlOutputMode.INDENTED, XmlOutputMode.parse(null, XmlOutputMode.INDENTED));
+        assertSame(XmlOutputMode.COMPACT, XmlOutputMode.parse("COMPACT", XmlOutputMode.INDENTED));
+        assertSame(XmlOutputMode.INDENTED, XmlOutputMode.parse("pretty", XmlOutputMode.COMPACT));
+        assertEquals(4, XmlOutputMode.parse("indent:4", XmlOutputMode.COMPACT).getIndentWidth());
+        assertThrows(IllegalArgumentException.class, () -> XmlOutputMode.parse("indent:x", XmlOutputMode.COMPACT));
+    }
+
+    @Test
+    public void parseIgnoresDefaultLocale() {
+        java.util.Locale previous = java.util.Locale.getDefault();
+        java.util.Locale.setDefault(java.util.Locale.forLanguageTag("tr-TR"));
+        try {
+            assertSame(XmlOutputMode.INDENTED, XmlOutputMode.parse("INDENTED", XmlOutputMode.COMPACT));
+            assertEquals(4, XmlOutputMode.parse("INDENT:4", XmlOutputMode.COMPACT).getIndentWidth());
+        } finally {
+            java.util.Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void compactOutputHasNoLineBreaks() throws Exception {
+        org.translator.xsd.generated.pacs_009.Document document = new org.translator.xsd.generated.pacs_009.Document();
+        org.translator.xsd.generated.pacs_009.FinancialInstitutionCreditTransferV12 transfer =
+            new org.translator.xsd.generated.pacs_009.FinancialInstitutionCreditTransferV12();
+        org.translator.xsd.generated.pacs_009.GroupHeader131 groupHeader = new org.translator.xsd.generated.pacs_009.GroupHeader131();
+        groupHeader.setMsgId("MODE-001");
+        transfer.setGrpHdr(groupHeader);
+        document.setFICdtTrf(transfer);
+
+        String compact = XmlMarshallingUtil.marshalPacs009ToXml(document, XmlOutputMode.COMPACT);
+        String indented = XmlMarshallingUtil.marshalPacs009ToXml(document, XmlOutputMode.indented(4));
+
+        assertFalse(compact.trim().contains("\n"));
+        assertTrue(indented.contains("\n        <"));
+    }
+}
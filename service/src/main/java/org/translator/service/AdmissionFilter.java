@@ -0,0 +1,189 @@
+package org.translator.service;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of requests a context handles at once.
+ *
+ * Up to {@code maxConcurrency} requests run; up to {@code maxQueued} more wait for a
+ * slot, in arrival order. Anything beyond that is answered at once with 503 and a
+ * {@code Retry-After} header, so a burst is shed instead of piling up. Waiting
+ * requests each hold a virtual thread, which is cheap, so the queue bound is what
+ * caps memory.
+ *
+ * The limits are read from the {@value #MAX_CONCURRENCY_PROPERTY},
+ * {@value #MAX_QUEUED_PROPERTY} and {@value #RETRY_AFTER_PROPERTY} system properties;
+ * see {@link #fromSystemProperties()}.
+ */
+public final class AdmissionFilter extends Filter {
+
+    public static final String MAX_CONCURRENCY_PROPERTY = "translator.http.max-concurrency";
+    public static final String MAX_QUEUED_PROPERTY = "translator.http.max-queued";
+    public static final String RETRY_AFTER_PROPERTY = "translator.http.retry-after-seconds";
+
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final int retryAfterSeconds;
+    private final Semaphore permits;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param maxConcurrency The number of requests handled at once
+     * @param maxQueued The number of requests that may wait for a slot; 0 rejects as soon as all slots are busy
+     * @param retryAfterSeconds The delay suggested to rejected clients
+     */
+    public AdmissionFilter(int maxConcurrency, int maxQueued, int retryAfterSeconds) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1: " + maxConcurrency);
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Queue bound must not be negative: " + maxQueued);
+        }
+        if (retryAfterSeconds < 0) {
+            throw new IllegalArgumentException("Retry-After must not be negative: " + retryAfterSeconds);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // Fair, so waiting requests are admitted in arrival order
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Create a filter from the system properties. The concurrency limit defaults to
+     * the number of processors, since transformations are CPU-bound; the queue bound
+     * to four times the limit; Retry-After to 1 second.
+     */
+    public static AdmissionFilter fromSystemProperties() {
+        int maxConcurrency = intProperty(MAX_CONCURRENCY_PROPERTY, Runtime.getRuntime().availableProcessors());
+        int maxQueued = intProperty(MAX_QUEUED_PROPERTY, 4 * maxConcurrency);
+        int retryAfterSeconds = intProperty(RETRY_AFTER_PROPERTY, 1);
+        return new AdmissionFilter(maxConcurrency, maxQueued, retryAfterSeconds);
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        try {
+            if (!admit()) {
+                reject(exchange);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(exchange);
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Admits at most " + maxConcurrency + " concurrent requests with " + maxQueued + " waiting";
+    }
+
+    /**
+     * Take a slot, waiting for one if the queue has room.
+     *
+     * @return false if the request has to be shed
+     */
+    private boolean admit() throws InterruptedException {
+        // A timed tryAcquire honours fairness, so new arrivals do not overtake waiting ones
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        int waiting;
+        do {
+            waiting = queued.get();
+            if (waiting >= maxQueued) {
+                return false;
+            }
+        } while (!queued.compareAndSet(waiting, waiting + 1));
+        try {
+            permits.acquire();
+            return true;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void reject(HttpExchange exchange) throws IOException {
+        rejected.increment();
+        byte[] body = "Server busy, retry later".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.getResponseHeaders().set("Retry-After", Integer.toString(retryAfterSeconds));
+        exchange.sendResponseHeaders(503, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    /**
+     * Get the number of requests being handled.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of requests waiting for a slot.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Get the number of requests rejected with 503 since the filter was created.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Describe the counters as a JSON object.
+     */
+    public String toJson() {
+        return "{\"inFlight\":" + getInFlight()
+            + ",\"queued\":" + getQueued()
+            + ",\"rejected\":" + getRejected()
+            + ",\"maxConcurrency\":" + maxConcurrency
+            + ",\"maxQueued\":" + maxQueued + "}";
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value, e);
+        }
+    }
+}
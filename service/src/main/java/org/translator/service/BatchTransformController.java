@@ -0,0 +1,317 @@
+package org.translator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.translator.mapper.MessageMappingDispatcher;
+import org.translator.mapper.MessageTypeUtils;
+import org.translator.mapper.XmlOutputMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Transforms a stream of messages in one request.
+ *
+ * Messages arrive as NDJSON (one JSON string, or object with "xml" and an optional
+ * "id", per line), as length-prefixed frames (a 4-byte big-endian length before each
+ * message), or as the parts of a multipart request. Each message goes through the
+ * dispatcher on its own virtual thread, with a bounded number in flight, and the
+ * results stream back as NDJSON in input order, each with its own status. Input is
+ * read only as fast as results are written, so neither side of a large batch is
+ * held in memory.
+ */
+@RestController
+@RequestMapping("/transform-payment")
+public class BatchTransformController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTransformController.class);
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * Messages in flight per batch; enough to keep every processor busy while the
+     * result at the head of the batch is written.
+     */
+    static final int WINDOW = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Largest length-prefixed message accepted, to refuse a corrupt length before allocating for it.
+     */
+    static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+    private final MessageMappingDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    public BatchTransformController(MessageMappingDispatcher dispatcher, ObjectMapper objectMapper) {
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(path = "/batch", consumes = NDJSON_VALUE, produces = NDJSON_VALUE)
+    public ResponseEntity<?> transformNdjson(InputStream requestBody,
+            @RequestHeader(value = "X-Target-Message-Type", required = false) String targetMessageType,
+            @RequestHeader(value = "X-Output-Format", required = false) String outputFormat) {
+        return stream(targetMessageType, outputFormat, () -> new NdjsonItems(requestBody));
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = NDJSON_VALUE)
+    public ResponseEntity<?> transformLengthPrefixed(InputStream requestBody,
+            @RequestHeader(value = "X-Target-Message-Type", required = false) String targetMessageType,
+            @RequestHeader(value = "X-Output-Format", required = false) String outputFormat) {
+        return stream(targetMessageType, outputFormat, () -> new LengthPrefixedItems(requestBody));
+    }
+
+    /**
+     * Multipart batches are parsed by the servlet container, which spools large
+     * parts to disk; the parts are then transformed like the other formats. Part
+     * and request sizes are bounded by {@code spring.servlet.multipart.*}.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = NDJSON_VALUE)
+    public ResponseEntity<?> transformMultipart(HttpServletRequest request,
+            @RequestHeader(value = "X-Target-Message-Type", required = false) String targetMessageType,
+            @RequestHeader(value = "X-Output-Format", required = false) String outputFormat) {
+        Iterator<Part> parts;
+        try {
+            parts = request.getParts().iterator();
+        } catch (IOException | ServletException e) {
+            logger.error("Failed to read multipart batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Unreadable multipart request: " + e.getMessage());
+        }
+        return stream(targetMessageType, outputFormat, () -> () -> {
+            if (!parts.hasNext()) {
+                return null;
+            }
+            Part part = parts.next();
+            try (InputStream in = part.getInputStream()) {
+                String id = part.getSubmittedFileName() != null ? part.getSubmittedFileName() : part.getName();
+                return new Item(id, in.readAllBytes());
+            }
+        });
+    }
+
+    private ResponseEntity<?> stream(String targetMessageType, String outputFormat, ItemSourceFactory items) {
+        XmlOutputMode outputMode;
+        try {
+            outputMode = XmlOutputMode.parse(outputFormat, XmlOutputMode.COMPACT);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body("Invalid X-Output-Format: " + iae.getMessage());
+        }
+        // The dispatcher's own default route: pacs.008 to pacs.009
+        String target = targetMessageType != null && !targetMessageType.isBlank()
+            ? MessageTypeUtils.normalize(targetMessageType)
+            : "pacs.009";
+
+        StreamingResponseBody body = out -> transformAll(items.open(), out, target, outputMode);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * Run the batch with at most {@link #WINDOW} messages in flight, writing each
+     * result once those before it are written.
+     */
+    private void transformAll(ItemSource items, OutputStream out, String target, XmlOutputMode outputMode)
+            throws IOException {
+        long count = 0;
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            ArrayDeque<Future<ObjectNode>> window = new ArrayDeque<>(WINDOW);
+            try {
+                while (true) {
+                    Item item;
+                    try {
+                        item = items.next();
+                    } catch (IOException | RuntimeException e) {
+                        // A framing error ends the batch; the results so far are still sent
+                        drain(window, out, 0);
+                        writeLine(out, error(count, null, 400, "Malformed batch input: " + e.getMessage()));
+                        logger.warn("Batch input ended by malformed item {}: {}", count, e.getMessage());
+                        return;
+                    }
+                    if (item == null) {
+                        break;
+                    }
+                    long index = count++;
+                    window.addLast(scope.submit(() -> transformOne(index, item, target, outputMode)));
+                    drain(window, out, WINDOW - 1);
+                }
+                drain(window, out, 0);
+            } catch (IOException e) {
+                // The client went away; stop the messages still running
+                scope.shutdownNow();
+                throw e;
+            }
+        }
+        logger.info("Transformed batch of {} messages to {}", count, target);
+    }
+
+    /**
+     * Write completed results from the head of the window until at most {@code keep} remain.
+     */
+    private void drain(ArrayDeque<Future<ObjectNode>> window, OutputStream out, int keep) throws IOException {
+        if (window.size() <= keep) {
+            return;
+        }
+        while (window.size() > keep) {
+            ObjectNode result;
+            try {
+                result = window.pollFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while transforming batch", e);
+            } catch (ExecutionException e) {
+                // transformOne reports its own failures, so this is unexpected
+                throw new IOException("Batch transformation failed", e.getCause());
+            }
+            writeLine(out, result);
+        }
+        out.flush();
+    }
+
+    private ObjectNode transformOne(long index, Item item, String target, XmlOutputMode outputMode) {
+        try {
+            ByteArrayOutputStream xml = new ByteArrayOutputStream();
+            dispatcher.mapXml(new ByteArrayInputStream(item.xml()), xml, target, outputMode);
+            ObjectNode result = result(index, item.id(), 200);
+            result.put("xml", xml.toString(StandardCharsets.UTF_8));
+            return result;
+        } catch (jakarta.xml.bind.JAXBException jb) {
+            return error(index, item.id(), 400, "Invalid XML: " + jb.getMessage());
+        } catch (UnsupportedOperationException uo) {
+            return error(index, item.id(), 400, "Unsupported transformation: " + uo.getMessage());
+        } catch (IllegalArgumentException iae) {
+            return error(index, item.id(), 400, "Invalid request: " + iae.getMessage());
+        } catch (Exception e) {
+            logger.error("Internal error transforming batch message {}", index, e);
+            return error(index, item.id(), 500, "Internal error: " + e.getMessage());
+        }
+    }
+
+    private ObjectNode result(long index, String id, int status) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("index", index);
+        if (id != null) {
+            result.put("id", id);
+        }
+        result.put("status", status);
+        return result;
+    }
+
+    private ObjectNode error(long index, String id, int status, String message) {
+        ObjectNode result = result(index, id, status);
+        result.put("error", message);
+        return result;
+    }
+
+    private void writeLine(OutputStream out, ObjectNode result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    /**
+     * One message of a batch.
+     *
+     * @param id The caller's identifier of the message, echoed in its result, or null
+     * @param xml The message
+     */
+    record Item(String id, byte[] xml) {
+    }
+
+    /**
+     * Reads the messages of a batch one at a time.
+     */
+    @FunctionalInterface
+    interface ItemSource {
+        /**
+         * @return The next message, or null at the end of the batch
+         */
+        Item next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ItemSourceFactory {
+        ItemSource open() throws IOException;
+    }
+
+    /**
+     * One JSON value per line: the XML as a string, or an object with "xml" and "id".
+     */
+    private final class NdjsonItems implements ItemSource {
+        private final MappingIterator<JsonNode> lines;
+
+        NdjsonItems(InputStream in) throws IOException {
+            this.lines = objectMapper.readerFor(JsonNode.class).readValues(in);
+        }
+
+        @Override
+        public Item next() throws IOException {
+            if (!lines.hasNextValue()) {
+                return null;
+            }
+            JsonNode line = lines.nextValue();
+            if (line.isTextual()) {
+                return new Item(null, line.asText().getBytes(StandardCharsets.UTF_8));
+            }
+            JsonNode xml = line.get("xml");
+            if (xml == null || !xml.isTextual()) {
+                throw new IllegalArgumentException("Batch line has no \"xml\" string");
+            }
+            JsonNode id = line.get("id");
+            return new Item(id != null ? id.asText() : null, xml.asText().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A 4-byte big-endian length before each message.
+     */
+    private static final class LengthPrefixedItems implements ItemSource {
+        private final DataInputStream in;
+
+        LengthPrefixedItems(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        @Override
+        public Item next() throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            int length = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+            if (length < 0 || length > MAX_FRAME_BYTES) {
+                throw new IOException("Invalid frame length: " + (length & 0xFFFFFFFFL));
+            }
+            byte[] xml = new byte[length];
+            try {
+                in.readFully(xml);
+            } catch (EOFException e) {
+                throw new IOException("Batch ended inside a message of " + length + " bytes", e);
+            }
+            return new Item(null, xml);
+        }
+    }
+}
@@ -5,13 +5,29 @@ import org.translator.mapper.MessageMappingDispatcher;
 import org.translator.mapper.MapperAdapter;
 import com.prowidesoftware.swift.model.mx.dic.Pacs00800101;
 import com.prowidesoftware.swift.model.mx.dic.Pacs00900101;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.MessageDocumentReader;
 import org.translator.mapper.Pacs008ToPacs009Mapper;
+import org.translator.mapper.ParsedSourceAdapter;
+import org.translator.mapper.RouteValidation;
+import org.translator.mapper.XmlOutputMode;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.Unmarshaller;
-import javax.xml.namespace.QName;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Default dispatcher implementation supporting a small set of mappings.
@@ -26,12 +42,17 @@ public class DefaultMessageMappingDispatcher implements MessageMappingDispatcher
 
     @Override
     public String mapXml(String sourceXml, String targetMessageType) throws Exception {
+        return mapXml(sourceXml, targetMessageType, XmlOutputMode.INDENTED);
+    }
+
+    @Override
+    public String mapXml(String sourceXml, String targetMessageType, XmlOutputMode outputMode) throws Exception {
         // Normalize and detect types
         String normalizedTarget = org.translator.mapper.MessageTypeUtils.normalize(targetMessageType);
         String sourceType = org.translator.mapper.MessageTypeUtils.detectSourceTypeFromXml(sourceXml);
         MapperAdapter adapter = registry.findAdapter(sourceType, normalizedTarget);
         if (adapter != null) {
-            return adapter.map(sourceXml);
+            return adapter.map(sourceXml, outputMode);
         }
 
         // Fallback: legacy behavior only supporting pacs.009 when no adapter registered
@@ -39,26 +60,128 @@ public class DefaultMessageMappingDispatcher implements MessageMappingDispatcher
             throw new UnsupportedOperationException("Only pacs.009 target is supported by this dispatcher");
         }
 
-        JAXBContext jaxbCtx = JAXBContext.newInstance(Pacs00800101.class);
-        Unmarshaller unmarshaller = jaxbCtx.createUnmarshaller();
-        javax.xml.transform.stream.StreamSource ss = new javax.xml.transform.stream.StreamSource(
-                new java.io.StringReader(sourceXml));
-        JAXBElement<Pacs00800101> jel = unmarshaller.unmarshal(ss, Pacs00800101.class);
-        Pacs00800101 src = jel.getValue();
+        Pacs00800101 src = MessageDocumentReader.read(JaxbContextRegistry.PACS008_V01,
+                new java.io.ByteArrayInputStream(sourceXml.getBytes(StandardCharsets.UTF_8)), legacyValidation());
 
         // Fix: Use mapProwide method instead of the non-existent map() method
         Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide(src);
 
-        JAXBContext outCtx = JAXBContext.newInstance(Pacs00900101.class);
-        Marshaller marshaller = outCtx.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        QName rootName = new QName("urn:iso:std:iso:20022:tech:xsd:pacs.009.001.01", "Document");
-        JAXBElement<Pacs00900101> root = new JAXBElement<>(rootName, Pacs00900101.class, mapped);
-
         java.io.StringWriter sw = new java.io.StringWriter();
-        marshaller.marshal(root, sw);
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V01, mapped, sw, outputMode);
         return sw.toString();
     }
 
+    @Override
+    public void mapXml(InputStream sourceXml, OutputStream targetXml, String targetMessageType,
+                       XmlOutputMode outputMode) throws Exception {
+        // Detection only peeks at the leading bytes; the parser then reads the same stream
+        InputStream in = sourceXml.markSupported() ? sourceXml : new BufferedInputStream(sourceXml);
+        String normalizedTarget = org.translator.mapper.MessageTypeUtils.normalize(targetMessageType);
+        String sourceType = org.translator.mapper.MessageTypeUtils.detectSourceTypeFromStream(in);
+        MapperAdapter adapter = registry.findAdapter(sourceType, normalizedTarget);
+        if (adapter != null) {
+            adapter.map(in, targetXml, outputMode);
+            return;
+        }
+
+        if (normalizedTarget == null || !normalizedTarget.equals("pacs.009")) {
+            throw new UnsupportedOperationException("Only pacs.009 target is supported by this dispatcher");
+        }
+
+        Pacs00800101 src = MessageDocumentReader.read(JaxbContextRegistry.PACS008_V01, in, legacyValidation());
+        Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide(src);
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V01, mapped, targetXml, outputMode);
+    }
+
+    /**
+     * Parse and validate the source once per JAXB binding the adapters share, then
+     * run the target mappings concurrently on virtual threads over the shared
+     * read-only document. The fan-out is scoped to the call: as soon as one target
+     * fails, the others are cancelled and the call returns only when all have
+     * stopped.
+     */
+    @Override
+    public Map<String, String> mapXml(String sourceXml, List<String> targetMessageTypes,
+                                      XmlOutputMode outputMode) throws Exception {
+        String sourceType = org.translator.mapper.MessageTypeUtils.detectSourceTypeFromXml(sourceXml);
+        List<MapperAdapter> adapters = new ArrayList<>(targetMessageTypes.size());
+        Map<String, RouteValidation> validations = new HashMap<>();
+        for (String targetMessageType : targetMessageTypes) {
+            String normalizedTarget = org.translator.mapper.MessageTypeUtils.normalize(targetMessageType);
+            MapperAdapter adapter = registry.findAdapter(sourceType, normalizedTarget);
+            adapters.add(adapter);
+            if (adapter instanceof ParsedSourceAdapter parsedAdapter) {
+                // One parse serves every route sharing the binding; it validates if any of them does
+                RouteValidation validation = parsedAdapter.getSourceValidation();
+                validations.merge(parsedAdapter.getSourceBinding(), validation,
+                        (current, candidate) -> current.getMode().isEnabled() ? current : candidate);
+            }
+        }
+
+        byte[] sourceBytes = sourceXml.getBytes(StandardCharsets.UTF_8);
+        Map<String, Object> parsed = new HashMap<>();
+        for (Map.Entry<String, RouteValidation> entry : validations.entrySet()) {
+            parsed.put(entry.getKey(), MessageDocumentReader.read(entry.getKey(),
+                    new java.io.ByteArrayInputStream(sourceBytes), entry.getValue()));
+        }
+
+        List<Callable<String>> tasks = new ArrayList<>(targetMessageTypes.size());
+        for (int i = 0; i < targetMessageTypes.size(); i++) {
+            String targetMessageType = targetMessageTypes.get(i);
+            if (!(adapters.get(i) instanceof ParsedSourceAdapter adapter)) {
+                // Adapters that parse for themselves, and the legacy fallback
+                tasks.add(() -> mapXml(sourceXml, targetMessageType, outputMode));
+                continue;
+            }
+            Object document = parsed.get(adapter.getSourceBinding());
+            tasks.add(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                adapter.mapParsed(document, out, outputMode);
+                return out.toString(StandardCharsets.UTF_8);
+            });
+        }
+
+        Map<String, String> results = new LinkedHashMap<>();
+        if (tasks.size() == 1) {
+            results.put(targetMessageTypes.get(0), tasks.get(0).call());
+            return results;
+        }
+        String[] mapped = new String[tasks.size()];
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Collect in completion order so the first failure cancels the rest
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(scope);
+            for (int i = 0; i < tasks.size(); i++) {
+                int index = i;
+                Callable<String> task = tasks.get(i);
+                completion.submit(() -> {
+                    mapped[index] = task.call();
+                    return index;
+                });
+            }
+            try {
+                for (int i = 0; i < tasks.size(); i++) {
+                    completion.take().get();
+                }
+            } catch (ExecutionException e) {
+                scope.shutdownNow();
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            } catch (InterruptedException e) {
+                scope.shutdownNow();
+                throw e;
+            }
+        }
+        for (int i = 0; i < mapped.length; i++) {
+            results.put(targetMessageTypes.get(i), mapped[i]);
+        }
+        return results;
+    }
+
+    /**
+     * The legacy pacs.008 to pacs.009 fallback validates as the route it serves.
+     */
+    private static RouteValidation legacyValidation() {
+        return RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01, JaxbContextRegistry.PACS009_V01);
+    }
+
     // source detection is handled by MessageTypeUtils
 }
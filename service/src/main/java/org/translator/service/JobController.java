@@ -0,0 +1,129 @@
+package org.translator.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous bulk transformations: upload a document, poll its progress, then
+ * download the result. See {@link TransformJobService}.
+ */
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final TransformJobService jobs;
+
+    public JobController(TransformJobService jobs) {
+        this.jobs = jobs;
+    }
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submit(InputStream requestBody,
+            @RequestHeader(value = "X-Source-Message-Type", required = false) String sourceMessageType,
+            @RequestHeader(value = "X-Target-Message-Type", required = false) String targetMessageType) {
+        try {
+            TransformJob job = jobs.submit(requestBody, sourceMessageType, targetMessageType);
+            return ResponseEntity.accepted()
+                .location(URI.create("/jobs/" + job.getId()))
+                .body(job.toStatus());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "60")
+                .body(Map.of("error", "Job queue is full, retry later"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            logger.error("Failed to stage job upload: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to stage upload: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> status(@PathVariable("id") String id) {
+        return jobs.getJob(id)
+            .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.toStatus()))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Send the result file without copying it through the heap: through the
+     * container's sendfile support where Tomcat offers it, otherwise with
+     * {@link FileChannel#transferTo}.
+     */
+    @GetMapping(path = "/{id}/result")
+    public void result(@PathVariable("id") String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<TransformJob> found = jobs.getJob(id);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        TransformJob job = found.get();
+        if (job.getState() != TransformJob.State.COMPLETED) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Job is " + job.getState());
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(job.getResult(), StandardOpenOption.READ)) {
+            long size = file.size();
+            response.setContentType(MediaType.APPLICATION_XML_VALUE);
+            response.setContentLengthLong(size);
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + id + ".xml\"");
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // Tomcat writes the file with sendfile once the handler returns
+                request.setAttribute(SENDFILE_FILENAME, job.getResult().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += file.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    @DeleteMapping(path = "/{id}")
+    public ResponseEntity<?> delete(@PathVariable("id") String id) throws IOException {
+        if (jobs.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!jobs.deleteJob(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Job has not finished"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,217 @@
+package org.translator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent requests into batches that a worker processes in one loop,
+ * so per-request setup (borrowing an unmarshaller and marshaller, warming the
+ * worker's caches) is paid once per batch.
+ *
+ * A worker takes every request already waiting, up to {@code maxBatch}. It then
+ * waits for more only as long as the adaptive window allows: the window closes when
+ * a wait gathered nothing, so a lone request at low traffic is processed at once,
+ * and it doubles, up to {@code maxWaitNanos}, while requests keep arriving together.
+ * Under sustained load requests queue during each batch anyway, and batches fill
+ * without waiting.
+ *
+ * When the queue is full, or the batcher is closed, the request is processed on the
+ * caller's thread rather than blocking.
+ *
+ * @param <R> The request type
+ * @param <T> The response type
+ */
+public final class MicroBatcher<R, T> implements AutoCloseable {
+
+    /**
+     * Processes a batch, completing the future of every request in it.
+     */
+    @FunctionalInterface
+    public interface BatchProcessor<R, T> {
+        void process(List<Request<R, T>> batch);
+    }
+
+    /**
+     * A request waiting in a batch.
+     *
+     * @param input The request
+     * @param result The caller's future, to be completed by the processor
+     */
+    public record Request<R, T>(R input, CompletableFuture<T> result) {
+    }
+
+    private static final long MIN_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private final BatchProcessor<R, T> processor;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request<R, T>> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private volatile long waitNanos;
+    private volatile boolean closed;
+
+    /**
+     * @param name The name prefix of the worker threads
+     * @param workers The number of workers; each processes one batch at a time
+     * @param maxBatch The most requests in one batch
+     * @param maxWaitNanos The longest a worker waits to fill a batch
+     * @param queueCapacity The most requests waiting for a worker
+     * @param processor Processes each batch
+     */
+    public MicroBatcher(String name, int workers, int maxBatch, long maxWaitNanos, int queueCapacity,
+                        BatchProcessor<R, T> processor) {
+        if (workers < 1 || maxBatch < 1 || maxWaitNanos < 0 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid micro-batching limits: workers=" + workers
+                + ", maxBatch=" + maxBatch + ", maxWaitNanos=" + maxWaitNanos + ", queueCapacity=" + queueCapacity);
+        }
+        this.processor = Objects.requireNonNull(processor, "processor");
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWaitNanos;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < workers; i++) {
+            Thread worker = new Thread(this::work, name + "-" + i);
+            worker.setDaemon(true);
+            this.workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Submit a request and wait for its response.
+     *
+     * @param input The request
+     * @return The response
+     * @throws Exception the failure the processor reported for this request
+     */
+    public T submit(R input) throws Exception {
+        Request<R, T> request = new Request<>(input, new CompletableFuture<>());
+        if (closed || !queue.offer(request)) {
+            process(List.of(request));
+        } else if (closed) {
+            // close() may have drained the queue and stopped the workers before the offer
+            drain();
+        }
+        try {
+            return request.result().get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Get the number of batches processed.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Get the number of requests processed.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Get how long a worker currently waits to fill a batch.
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        workers.forEach(Thread::interrupt);
+        // Requests queued before close are answered here; submit drains any queued after
+        drain();
+    }
+
+    private void drain() {
+        List<Request<R, T>> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            process(rest);
+        }
+    }
+
+    private void work() {
+        List<Request<R, T>> batch = new ArrayList<>(maxBatch);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - 1);
+                long wait = waitNanos;
+                int before = batch.size();
+                if (wait > 0 && batch.size() < maxBatch) {
+                    fill(batch, wait);
+                }
+                adapt(before, batch.size());
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) {
+                    break;
+                }
+            }
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Wait up to {@code wait} nanoseconds for more requests, until the batch is full.
+     */
+    private void fill(List<Request<R, T>> batch, long wait) throws InterruptedException {
+        long deadline = System.nanoTime() + wait;
+        while (batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Request<R, T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatch - batch.size());
+        }
+    }
+
+    /**
+     * Widen the window while requests arrive together; close it when waiting gathers nothing.
+     */
+    private void adapt(int ready, int gathered) {
+        long wait = waitNanos;
+        if (ready > 1 || gathered > ready) {
+            wait = Math.min(maxWaitNanos, Math.max(MIN_WAIT_NANOS, wait * 2));
+        } else {
+            wait = wait / 2 < MIN_WAIT_NANOS ? 0 : wait / 2;
+        }
+        waitNanos = wait;
+    }
+
+    private void process(List<Request<R, T>> batch) {
+        batches.increment();
+        requests.add(batch.size());
+        try {
+            processor.process(batch);
+        } catch (RuntimeException | Error e) {
+            for (Request<R, T> request : batch) {
+                request.result().completeExceptionally(e);
+            }
+        }
+        // A processor that skipped a request must not leave its caller waiting forever
+        for (Request<R, T> request : batch) {
+            request.result().completeExceptionally(new IllegalStateException("Request was not processed"));
+        }
+    }
+}
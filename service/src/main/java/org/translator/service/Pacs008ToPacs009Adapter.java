@@ -1,19 +1,27 @@
 package org.translator.service;
 
 import org.springframework.stereotype.Component;
-import org.translator.mapper.MapperAdapter;
 import com.prowidesoftware.swift.model.mx.dic.Pacs00800101;
 import com.prowidesoftware.swift.model.mx.dic.Pacs00900101;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.MessageDocumentReader;
 import org.translator.mapper.Pacs008ToPacs009Mapper;
+import org.translator.mapper.ParsedSourceAdapter;
+import org.translator.mapper.RouteValidation;
+import org.translator.mapper.XmlOutputMode;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.Unmarshaller;
-import javax.xml.namespace.QName;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 @Component
-public class Pacs008ToPacs009Adapter implements MapperAdapter {
+public class Pacs008ToPacs009Adapter implements ParsedSourceAdapter {
+
+    private final Pacs008ToPacs009Batching batching;
+
+    public Pacs008ToPacs009Adapter(Pacs008ToPacs009Batching batching) {
+        this.batching = batching;
+    }
 
     @Override
     public boolean supports(String sourceType, String targetType) {
@@ -23,25 +31,58 @@ public class Pacs008ToPacs009Adapter implements MapperAdapter {
 
     @Override
     public String map(String sourceXml) throws Exception {
-        JAXBContext jaxbCtx = JAXBContext.newInstance(Pacs00800101.class);
-        Unmarshaller unmarshaller = jaxbCtx.createUnmarshaller();
-        javax.xml.transform.stream.StreamSource ss = new javax.xml.transform.stream.StreamSource(
-                new java.io.StringReader(sourceXml));
-        JAXBElement<Pacs00800101> jel = unmarshaller.unmarshal(ss, Pacs00800101.class);
-        Pacs00800101 src = jel.getValue();
+        return map(sourceXml, XmlOutputMode.INDENTED);
+    }
+
+    @Override
+    public String map(String sourceXml, XmlOutputMode outputMode) throws Exception {
+        if (batching.isEnabled()) {
+            return new String(batching.transform(sourceXml.getBytes(StandardCharsets.UTF_8), outputMode),
+                StandardCharsets.UTF_8);
+        }
+
+        Pacs00800101 src = parse(new java.io.ByteArrayInputStream(sourceXml.getBytes(StandardCharsets.UTF_8)));
 
         // Use the mapProwide method to get a Prowide PACS.009 object
         Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide(src);
 
         // Marshal the Prowide object to XML in Prowide format (compatible with test expectations)
-        JAXBContext outCtx = JAXBContext.newInstance(Pacs00900101.class);
-        Marshaller marshaller = outCtx.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-        QName rootName = new QName("urn:iso:std:iso:20022:tech:xsd:pacs.009.001.01", "Document");
-        JAXBElement<Pacs00900101> root = new JAXBElement<>(rootName, Pacs00900101.class, mapped);
-
         java.io.StringWriter sw = new java.io.StringWriter();
-        marshaller.marshal(root, sw);
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V01, mapped, sw, outputMode);
         return sw.toString();
     }
+
+    @Override
+    public void map(InputStream sourceXml, OutputStream targetXml, XmlOutputMode outputMode) throws Exception {
+        if (batching.isEnabled()) {
+            // Requests are small; the whole message joins a batch
+            targetXml.write(batching.transform(sourceXml.readAllBytes(), outputMode));
+            return;
+        }
+
+        Pacs00800101 src = parse(sourceXml);
+
+        mapParsed(src, targetXml, outputMode);
+    }
+
+    private Pacs00800101 parse(InputStream sourceXml) throws Exception {
+        return MessageDocumentReader.read(JaxbContextRegistry.PACS008_V01, sourceXml, getSourceValidation());
+    }
+
+    @Override
+    public String getSourceBinding() {
+        return JaxbContextRegistry.PACS008_V01;
+    }
+
+    @Override
+    public RouteValidation getSourceValidation() {
+        return RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01, JaxbContextRegistry.PACS009_V01);
+    }
+
+    @Override
+    public void mapParsed(Object source, OutputStream targetXml, XmlOutputMode outputMode) throws Exception {
+        Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide((Pacs00800101) source);
+
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V01, mapped, targetXml, outputMode);
+    }
 }
@@ -0,0 +1,130 @@
+package org.translator.service;
+
+import com.prowidesoftware.swift.model.mx.dic.Pacs00800101;
+import com.prowidesoftware.swift.model.mx.dic.Pacs00900101;
+import jakarta.annotation.PreDestroy;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.MessageDocumentReader;
+import org.translator.mapper.Pacs008ToPacs009Mapper;
+import org.translator.mapper.RouteValidation;
+import org.translator.mapper.XmlOutputMode;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional micro-batching of the pacs.008 to pacs.009 route: concurrent requests are
+ * coalesced by a {@link MicroBatcher} and run through one parse/map/marshal loop
+ * that borrows a single unmarshaller and marshaller per batch.
+ *
+ * Off by default. Enabled with {@code translator.batching.enabled=true} and tuned
+ * with {@code translator.batching.max-batch} (64), {@code translator.batching.max-wait-micros}
+ * (1000) and {@code translator.batching.workers} (0, meaning one per processor).
+ */
+@Component
+public class Pacs008ToPacs009Batching {
+
+    private static final Logger logger = LoggerFactory.getLogger(Pacs008ToPacs009Batching.class);
+
+    /**
+     * A request of a batch: the source XML and the layout its caller asked for.
+     */
+    record Input(byte[] xml, XmlOutputMode outputMode) {
+    }
+
+    private final MicroBatcher<Input, byte[]> batcher;
+
+    public Pacs008ToPacs009Batching(
+            @Value("${translator.batching.enabled:false}") boolean enabled,
+            @Value("${translator.batching.max-batch:64}") int maxBatch,
+            @Value("${translator.batching.max-wait-micros:1000}") long maxWaitMicros,
+            @Value("${translator.batching.workers:0}") int workers) {
+        if (!enabled) {
+            this.batcher = null;
+            return;
+        }
+        int workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.batcher = new MicroBatcher<>("pacs008-pacs009-batch", workerCount, maxBatch,
+            TimeUnit.MICROSECONDS.toNanos(maxWaitMicros), 64 * maxBatch * workerCount,
+            Pacs008ToPacs009Batching::processBatch);
+        logger.info("Micro-batching pacs.008 -> pacs.009 with {} workers, up to {} messages or {} us per batch",
+            workerCount, maxBatch, maxWaitMicros);
+    }
+
+    public boolean isEnabled() {
+        return batcher != null;
+    }
+
+    /**
+     * Transform one message as part of a batch.
+     *
+     * @param sourceXml The pacs.008 XML
+     * @param outputMode The layout of the pacs.009 XML
+     * @return The pacs.009 XML
+     * @throws Exception if the message cannot be parsed, mapped or marshalled
+     */
+    public byte[] transform(byte[] sourceXml, XmlOutputMode outputMode) throws Exception {
+        if (batcher == null) {
+            throw new IllegalStateException("Micro-batching is not enabled");
+        }
+        return batcher.submit(new Input(sourceXml, outputMode));
+    }
+
+    @PreDestroy
+    void close() {
+        if (batcher != null) {
+            batcher.close();
+            logger.info("Micro-batched {} messages in {} batches", batcher.getRequestCount(), batcher.getBatchCount());
+        }
+    }
+
+    /**
+     * One parse/map/marshal loop over a batch. Each message is validated on the
+     * route as the unbatched adapter would. A message that fails completes its own
+     * future exceptionally and the loop carries on with the next one.
+     */
+    static void processBatch(List<MicroBatcher.Request<Input, byte[]>> batch) {
+        RouteValidation validation = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01, JaxbContextRegistry.PACS009_V01);
+        Unmarshaller unmarshaller = null;
+        Marshaller marshaller = null;
+        try {
+            unmarshaller = JaxbContextRegistry.acquireUnmarshaller(JaxbContextRegistry.PACS008_V01);
+            marshaller = JaxbContextRegistry.acquireMarshaller(JaxbContextRegistry.PACS009_V01);
+            QName root = JaxbContextRegistry.getRootName(JaxbContextRegistry.PACS009_V01);
+            XmlOutputMode applied = null;
+            for (MicroBatcher.Request<Input, byte[]> request : batch) {
+                try {
+                    Pacs00800101 src = MessageDocumentReader.read(JaxbContextRegistry.PACS008_V01, Pacs00800101.class,
+                        unmarshaller, new ByteArrayInputStream(request.input().xml()), validation);
+                    Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide(src);
+
+                    if (request.input().outputMode() != applied) {
+                        applied = request.input().outputMode();
+                        JaxbContextRegistry.applyOutputMode(marshaller, applied);
+                    }
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    marshaller.marshal(new JAXBElement<>(root, Pacs00900101.class, mapped), out);
+                    request.result().complete(out.toByteArray());
+                } catch (Exception e) {
+                    request.result().completeExceptionally(e);
+                }
+            }
+        } catch (JAXBException e) {
+            batch.forEach(request -> request.result().completeExceptionally(e));
+        } finally {
+            JaxbContextRegistry.releaseUnmarshaller(JaxbContextRegistry.PACS008_V01, unmarshaller);
+            JaxbContextRegistry.releaseMarshaller(JaxbContextRegistry.PACS009_V01, marshaller);
+        }
+    }
+}
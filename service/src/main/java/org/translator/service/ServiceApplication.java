@@ -1,11 +1,28 @@
 package org.translator.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.translator.mapper.SchemaRegistry;
 
 @SpringBootApplication
 public class ServiceApplication {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(ServiceApplication.class, args);
     }
+
+    /**
+     * Compile the XSD schemas once at startup so validating routes never pay for it per request.
+     */
+    @Bean
+    public ApplicationRunner schemaPreloader() {
+        return args -> logger.info("Compiled XSD schemas (ms per message type, -1 = failed): {}",
+            SchemaRegistry.compileAll());
+    }
 }
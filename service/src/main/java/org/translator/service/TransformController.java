@@ -2,26 +2,31 @@ package org.translator.service;
 
 import com.prowidesoftware.swift.model.mx.dic.Pacs00800101;
 import com.prowidesoftware.swift.model.mx.dic.Pacs00900101;
+import org.translator.mapper.JaxbContextRegistry;
 import org.translator.mapper.Pacs008ToPacs009Mapper;
 import org.translator.mapper.MessageMappingDispatcher;
+import org.translator.mapper.MessageTypeInfo;
+import org.translator.mapper.MessageTypeSniffer;
 import org.translator.mapper.MessageTypeUtils;
+import org.translator.mapper.XmlOutputMode;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.Unmarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.xml.namespace.QName;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 @RestController
 @RequestMapping("/transform-payment")
@@ -36,70 +41,114 @@ public class TransformController {
     }
 
     @PostMapping(produces = MediaType.APPLICATION_XML_VALUE)
-    public ResponseEntity<String> transform(HttpEntity<String> requestEntity,
+    public ResponseEntity<?> transform(InputStream requestBody,
             @RequestHeader(value = "X-Source-Message-Type", required = false) String sourceMessageType,
-            @RequestHeader(value = "X-Target-Message-Type", required = false) String targetMessageType) {
+            @RequestHeader(value = "X-Target-Message-Type", required = false) String targetMessageType,
+            @RequestHeader(value = "X-Output-Format", required = false) String outputFormat) {
 
-        String xml = null;
-        if (requestEntity != null) {
-            xml = requestEntity.getBody();
+        if (requestBody == null) {
+            return ResponseEntity.badRequest().body("Missing request body");
         }
 
-        if (xml == null || xml.isBlank()) {
-            return ResponseEntity.badRequest().body("Missing request body");
+        // The body is never decoded into a String; only its leading start tags are sniffed for detection
+        BufferedInputStream body = new BufferedInputStream(requestBody, MessageTypeSniffer.DEFAULT_SCAN_LIMIT);
+        MessageTypeInfo sniffed;
+        try {
+            if (!MessageTypeSniffer.hasContent(body)) {
+                return ResponseEntity.badRequest().body("Missing request body");
+            }
+            sniffed = MessageTypeSniffer.sniff(body);
+        } catch (IOException e) {
+            logger.error("Failed to read request body: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Unreadable request body: " + e.getMessage());
+        }
+
+        XmlOutputMode outputMode;
+        try {
+            outputMode = XmlOutputMode.parse(outputFormat, XmlOutputMode.INDENTED);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body("Invalid X-Output-Format: " + iae.getMessage());
         }
 
         try {
             // Step 1: Determine source message type
-            String detectedSourceType = determineSourceMessageType(xml, sourceMessageType);
+            String detectedSourceType = determineSourceMessageType(sniffed, sourceMessageType);
 
             // Step 2: Determine target message type (default based on source)
             String resolvedTargetType = determineTargetMessageType(detectedSourceType, targetMessageType);
 
             logger.info("Processing transformation: {} -> {}", detectedSourceType, resolvedTargetType);
 
-            // Step 3: Delegate to dispatcher for transformation
-            String outXml = dispatcher.mapXml(xml, resolvedTargetType);
+            // Step 3: Delegate to dispatcher for transformation, parsing from the request stream
+            // and marshalling straight into the response once the handler has returned
+            StreamingResponseBody responseBody =
+                out -> transformTo(body, out, detectedSourceType, resolvedTargetType, outputMode);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_XML).body(responseBody);
 
-            logger.info("Successfully transformed {} to {}", detectedSourceType, resolvedTargetType);
-            return ResponseEntity.ok().contentType(MediaType.APPLICATION_XML).body(outXml);
+        } catch (Exception e) {
+            logger.error("Internal error during transformation", e);
+            return ResponseEntity.status(500).body("Internal error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Report a transformation that failed before its response was committed.
+     * Parsing and mapping finish before the marshaller writes anything, so the
+     * status can still be changed.
+     */
+    @ExceptionHandler(TransformFailure.class)
+    public ResponseEntity<String> handleTransformFailure(TransformFailure failure) {
+        return ResponseEntity.status(failure.status).body(failure.getMessage());
+    }
 
+    private void transformTo(InputStream source, OutputStream out, String sourceType, String targetType,
+                             XmlOutputMode outputMode) throws IOException {
+        try {
+            dispatcher.mapXml(source, out, targetType, outputMode);
+            logger.info("Successfully transformed {} to {}", sourceType, targetType);
         } catch (jakarta.xml.bind.JAXBException jb) {
             logger.error("Invalid XML input: {}", jb.getMessage());
-            return ResponseEntity.badRequest().body("Invalid XML: " + jb.getMessage());
+            throw new TransformFailure(HttpStatus.BAD_REQUEST, "Invalid XML: " + jb.getMessage());
         } catch (UnsupportedOperationException uo) {
             logger.error("Unsupported transformation requested: {}", uo.getMessage());
-            return ResponseEntity.badRequest().body("Unsupported transformation: " + uo.getMessage());
+            throw new TransformFailure(HttpStatus.BAD_REQUEST, "Unsupported transformation: " + uo.getMessage());
+        } catch (IOException e) {
+            // The client went away or the body could not be read; nothing useful can be sent
+            throw e;
         } catch (Exception e) {
             logger.error("Internal error during transformation", e);
-            return ResponseEntity.status(500).body("Internal error: " + e.getMessage());
+            throw new TransformFailure(HttpStatus.INTERNAL_SERVER_ERROR, "Internal error: " + e.getMessage());
         }
     }
 
     /**
-     * Determine the source message type from header or auto-detection
+     * A transformation failure raised from the streaming response body, carrying
+     * the status to answer with.
      */
-    private String determineSourceMessageType(String xml, String headerSourceType) {
+    static final class TransformFailure extends RuntimeException {
+        private final HttpStatus status;
+
+        TransformFailure(HttpStatus status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Determine the source message type from header or auto-detection on the
+     * leading bytes of the payload
+     */
+    private String determineSourceMessageType(MessageTypeInfo sniffed, String headerSourceType) {
         if (headerSourceType != null && !headerSourceType.isBlank()) {
             String normalized = MessageTypeUtils.normalize(headerSourceType);
             logger.info("Using source message type from header: {} (normalized: {})", headerSourceType, normalized);
             return normalized;
         }
 
-        // Auto-detect from XML content
-        String detectedType = MessageTypeUtils.detectSourceTypeFromXml(xml);
-        if (detectedType != null) {
-            logger.info("Auto-detected source message type: {}", detectedType);
-            return detectedType;
-        }
-
-        // Fallback: try to detect based on root element
-        if (xml.contains("pain.001")) {
-            logger.info("Detected Pain.001 message from XML content");
-            return "pain.001.001.12";
-        } else if (xml.contains("pacs.008")) {
-            logger.info("Detected PACS.008 message from XML content");
-            return "pacs.008.001.13";
+        // Auto-detect from the root namespace, AppHdr or root child element
+        if (sniffed != null) {
+            logger.info("Auto-detected source message type: {}", sniffed);
+            return sniffed.getMessageId();
         }
 
         throw new IllegalArgumentException("Unable to determine source message type. Please specify X-Source-Message-Type header or ensure XML contains recognizable message type indicators");
@@ -117,6 +166,7 @@ public class TransformController {
 
         // Default transformation paths based on source type
         switch (sourceType) {
+            case "pain.001":
             case "pain.001.001.12":
                 logger.info("Default transformation path: Pain.001 -> PACS.008");
                 return "pacs.008.001.13";
@@ -138,23 +188,13 @@ public class TransformController {
      */
     private ResponseEntity<String> handleLegacyPacs008Request(String xml) {
         try {
-            JAXBContext jaxbCtx = JAXBContext.newInstance(Pacs00800101.class);
-            Unmarshaller unmarshaller = jaxbCtx.createUnmarshaller();
-            javax.xml.transform.stream.StreamSource ss = new javax.xml.transform.stream.StreamSource(
-                    new java.io.StringReader(xml));
-            JAXBElement<Pacs00800101> jel = unmarshaller.unmarshal(ss, Pacs00800101.class);
-            Pacs00800101 src = jel.getValue();
+            Pacs00800101 src = JaxbContextRegistry.unmarshal(JaxbContextRegistry.PACS008_V01,
+                    new javax.xml.transform.stream.StreamSource(new java.io.StringReader(xml)));
 
             Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide(src);
 
-            JAXBContext outCtx = JAXBContext.newInstance(Pacs00900101.class);
-            Marshaller marshaller = outCtx.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            QName rootName = new QName("urn:iso:std:iso:20022:tech:xsd:pacs.009.001.01", "Document");
-            JAXBElement<Pacs00900101> root = new JAXBElement<>(rootName, Pacs00900101.class, mapped);
-
             java.io.StringWriter sw = new java.io.StringWriter();
-            marshaller.marshal(root, sw);
+            JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V01, mapped, sw, true);
             return ResponseEntity.ok().contentType(MediaType.APPLICATION_XML).body(sw.toString());
 
         } catch (Exception e) {
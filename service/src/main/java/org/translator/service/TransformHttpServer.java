@@ -2,22 +2,23 @@ package org.translator.service;
 
 import com.prowidesoftware.swift.model.mx.dic.Pacs00800101;
 import com.prowidesoftware.swift.model.mx.dic.Pacs00900101;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.MessageDocumentReader;
 import org.translator.mapper.Pacs008ToPacs009Mapper;
-
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.Unmarshaller;
+import org.translator.mapper.RouteValidation;
+import org.translator.mapper.SchemaRegistry;
+import org.translator.mapper.XmlOutputMode;
 
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
-import javax.xml.namespace.QName;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
 
 public class TransformHttpServer {
 
@@ -27,10 +28,16 @@ public class TransformHttpServer {
             try { port = Integer.parseInt(args[0]); } catch (Exception ignore) {}
         }
 
+        // Compile the XSD schemas before accepting requests
+        System.out.println("Compiled XSD schemas: " + SchemaRegistry.compileAll());
+
+        // One virtual thread per exchange; the admission filter bounds how many transform at once
+        AdmissionFilter admission = AdmissionFilter.fromSystemProperties();
         HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
-        server.createContext("/transform-payment", new TransformHandler());
-        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
-        System.out.println("Starting TransformHttpServer on port " + port);
+        server.createContext("/transform-payment", new TransformHandler()).getFilters().add(admission);
+        server.createContext("/admission", new AdmissionStatsHandler(admission));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        System.out.println("Starting TransformHttpServer on port " + port + ": " + admission.description());
         server.start();
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -39,6 +46,31 @@ public class TransformHttpServer {
         }));
     }
 
+    /**
+     * Reports the admission counters of the transform endpoint.
+     */
+    static class AdmissionStatsHandler implements HttpHandler {
+        private final AdmissionFilter admission;
+
+        AdmissionStatsHandler(AdmissionFilter admission) {
+            this.admission = admission;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = admission.toJson().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
     static class TransformHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) {
@@ -48,35 +80,32 @@ public class TransformHttpServer {
                     return;
                 }
 
+                // Output layout is chosen per request; indented stays the default. Only a bad
+                // header is the caller's fault; other IllegalArgumentExceptions are server errors
+                XmlOutputMode outputMode;
+                try {
+                    outputMode = XmlOutputMode.parse(
+                            exchange.getRequestHeaders().getFirst("X-Output-Format"), XmlOutputMode.INDENTED);
+                } catch (IllegalArgumentException iae) {
+                    sendText(exchange, 400, "Invalid request: " + iae.getMessage());
+                    return;
+                }
+
                 // Read request body
                 InputStream is = exchange.getRequestBody();
 
-                // Unmarshal incoming pacs.008
-                JAXBContext jaxbCtx = JAXBContext.newInstance(Pacs00800101.class);
-                Unmarshaller unmarshaller = jaxbCtx.createUnmarshaller();
-                Object unmarshalled = unmarshaller.unmarshal(is);
-
-                Pacs00800101 src;
-                if (unmarshalled instanceof JAXBElement) {
-                    JAXBElement<?> el = (JAXBElement<?>) unmarshalled;
-                    src = (Pacs00800101) el.getValue();
-                } else {
-                    src = (Pacs00800101) unmarshalled;
-                }
+                // Unmarshal incoming pacs.008, validating in the same pass when the route asks for it
+                RouteValidation validation = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01,
+                        JaxbContextRegistry.PACS009_V01);
+                Pacs00800101 src = MessageDocumentReader.read(JaxbContextRegistry.PACS008_V01, is, validation);
 
                 // Map to pacs.009 using existing mapper
                 Pacs00900101 mapped = Pacs008ToPacs009Mapper.INSTANCE.mapProwide(src);
 
                 // Marshal response
-                JAXBContext outCtx = JAXBContext.newInstance(Pacs00900101.class);
-                Marshaller marshaller = outCtx.createMarshaller();
-                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-                QName rootName = new QName("urn:iso:std:iso:20022:tech:xsd:pacs.009.001.01", "Document");
-                JAXBElement<Pacs00900101> root = new JAXBElement<>(rootName, Pacs00900101.class, mapped);
-
                 byte[] responseBytes;
                 try (java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream()) {
-                    marshaller.marshal(root, baos);
+                    JaxbContextRegistry.marshal(JaxbContextRegistry.PACS009_V01, mapped, baos, outputMode);
                     responseBytes = baos.toByteArray();
                 }
 
@@ -87,22 +116,19 @@ public class TransformHttpServer {
                 }
 
             } catch (jakarta.xml.bind.JAXBException jb) {
-                try {
-                    String msg = "Invalid XML: " + jb.getMessage();
-                    byte[] mb = msg.getBytes(StandardCharsets.UTF_8);
-                    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
-                    exchange.sendResponseHeaders(400, mb.length);
-                    try (OutputStream os = exchange.getResponseBody()) { os.write(mb); }
-                } catch (Exception ignore) {}
+                sendText(exchange, 400, "Invalid XML: " + jb.getMessage());
             } catch (Exception e) {
-                try {
-                    String msg = "Internal server error: " + e.getMessage();
-                    byte[] mb = msg.getBytes(StandardCharsets.UTF_8);
-                    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
-                    exchange.sendResponseHeaders(500, mb.length);
-                    try (OutputStream os = exchange.getResponseBody()) { os.write(mb); }
-                } catch (Exception ignore) {}
+                sendText(exchange, 500, "Internal server error: " + e.getMessage());
             }
         }
+
+        private static void sendText(HttpExchange exchange, int status, String message) {
+            try {
+                byte[] mb = message.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(status, mb.length);
+                try (OutputStream os = exchange.getResponseBody()) { os.write(mb); }
+            } catch (Exception ignore) {}
+        }
     }
 }
@@ -0,0 +1,148 @@
+package org.translator.service;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bulk transformation of one staged file, and its progress.
+ *
+ * Progress is tracked by the transactions written and the bytes of the staged input
+ * consumed. The input size is known up front while the transaction count is not, so
+ * the ETA is extrapolated from the share of input read so far.
+ */
+final class TransformJob {
+
+    enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String sourceType;
+    private final String targetType;
+    private final Path input;
+    private final Path result;
+    private final long inputBytes;
+    private final Clock clock;
+    private final Instant createdAt;
+
+    // Written only by the worker running the job
+    private volatile State state = State.QUEUED;
+    private volatile long transactions;
+    private volatile long bytesRead;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    TransformJob(String id, String sourceType, String targetType, Path input, Path result, long inputBytes,
+                 Clock clock) {
+        this.id = id;
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.input = input;
+        this.result = result;
+        this.inputBytes = inputBytes;
+        this.clock = clock;
+        this.createdAt = clock.instant();
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getSourceType() {
+        return sourceType;
+    }
+
+    String getTargetType() {
+        return targetType;
+    }
+
+    Path getInput() {
+        return input;
+    }
+
+    Path getResult() {
+        return result;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    /**
+     * Get when the job completed or failed, or null while it is queued or running.
+     */
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void started() {
+        startNanos = System.nanoTime();
+        state = State.RUNNING;
+    }
+
+    void progress(long transactions) {
+        this.transactions = transactions;
+    }
+
+    void read(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    void completed(long transactions) {
+        this.transactions = transactions;
+        this.bytesRead = inputBytes;
+        endNanos = System.nanoTime();
+        finishedAt = clock.instant();
+        state = State.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        endNanos = System.nanoTime();
+        finishedAt = clock.instant();
+        state = State.FAILED;
+    }
+
+    /**
+     * Describe the job for the status endpoint.
+     */
+    Map<String, Object> toStatus() {
+        State current = state;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("state", current.name());
+        status.put("sourceType", sourceType);
+        status.put("targetType", targetType);
+        status.put("createdAt", createdAt.toString());
+        status.put("inputBytes", inputBytes);
+        status.put("bytesRead", bytesRead);
+        status.put("transactions", transactions);
+        if (current != State.QUEUED) {
+            long end = current == State.RUNNING ? System.nanoTime() : endNanos;
+            double elapsedSeconds = Math.max(1e-9, (end - startNanos) / 1e9);
+            status.put("elapsedSeconds", round(elapsedSeconds));
+            status.put("transactionsPerSecond", round(transactions / elapsedSeconds));
+            double fraction = inputBytes > 0 ? Math.min(1.0, (double) bytesRead / inputBytes) : 1.0;
+            status.put("percentComplete", round(100 * fraction));
+            if (current == State.RUNNING && fraction > 0) {
+                status.put("etaSeconds", round(elapsedSeconds * (1 - fraction) / fraction));
+            }
+        }
+        if (current == State.COMPLETED) {
+            status.put("result", "/jobs/" + id + "/result");
+        }
+        if (error != null) {
+            status.put("error", error);
+        }
+        return status;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,335 @@
+package org.translator.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.MessageTypeInfo;
+import org.translator.mapper.MessageTypeUtils;
+import org.translator.mapper.StreamingPaymentTransformer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk transformations of files too large for a synchronous request.
+ *
+ * An upload is streamed to a file in the staging directory, then transformed by a
+ * bounded pool of workers through {@link StreamingPaymentTransformer}, so memory use
+ * does not grow with the file. The result is written next to the input, which is
+ * deleted once the job ends. Everything stays on local disk.
+ *
+ * A finished job, and its result file, is kept until the client deletes it or its
+ * retention runs out. Expired jobs are swept when a job is submitted, and a lookup
+ * never returns one, so abandoned results cannot fill the staging directory.
+ *
+ * Only the versions the streaming transformer binds are accepted: pain.001.001.12
+ * to pacs.008.001.13 and pacs.008.001.13 to pacs.009.001.12. The source version is
+ * read from the document's namespace before the upload is staged.
+ *
+ * Configured with {@code translator.jobs.directory}, {@code translator.jobs.workers},
+ * {@code translator.jobs.max-queued} and {@code translator.jobs.retention}; uploads
+ * beyond the queue bound are refused before they are staged.
+ */
+@Component
+public class TransformJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformJobService.class);
+
+    /**
+     * The target produced for each source type a job can read.
+     */
+    private static final Map<String, String> ROUTES = Map.of(
+        JaxbContextRegistry.PAIN001_V12, JaxbContextRegistry.PACS008_V13,
+        JaxbContextRegistry.PACS008_V13, JaxbContextRegistry.PACS009_V12);
+
+    private final Path directory;
+    private final int workers;
+    private final ThreadPoolExecutor executor;
+    private final StreamingPaymentTransformer transformer;
+    private final Duration retention;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, TransformJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TransformJobService(
+            @Value("${translator.jobs.directory:${java.io.tmpdir}/translator-jobs}") String directory,
+            @Value("${translator.jobs.workers:2}") int workers,
+            @Value("${translator.jobs.max-queued:16}") int maxQueued,
+            @Value("${translator.jobs.retention:24h}") Duration retention) throws IOException {
+        this(Files.createDirectories(Paths.get(directory)), workers, maxQueued, retention, Clock.systemUTC(), null);
+    }
+
+    /**
+     * Create a service staging jobs in an existing directory.
+     *
+     * @param retention How long a finished job is kept after it ends
+     * @param clock The clock job retention is measured with
+     * @param transformer The transformer jobs run through, or null for one spilling into the directory
+     */
+    TransformJobService(Path directory, int workers, int maxQueued, Duration retention, Clock clock,
+                        StreamingPaymentTransformer transformer) {
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Job retention must be positive: " + retention);
+        }
+        this.directory = directory;
+        this.retention = retention;
+        this.clock = clock;
+        this.workers = workers;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueued),
+            task -> new Thread(task, "transform-job-" + counter.incrementAndGet()));
+        // Large documents spill their transactions next to the staged files, not to /tmp
+        this.transformer = transformer != null ? transformer : new StreamingPaymentTransformer(
+            org.translator.mapper.Pain001ToPacs008Mapper.INSTANCE,
+            org.translator.mapper.Pacs008ToPacs009Mapper.INSTANCE,
+            directory);
+        logger.info("Staging bulk transformation jobs in {} with {} workers, keeping results for {}",
+            this.directory, workers, retention);
+    }
+
+    /**
+     * Stage an upload and queue its transformation.
+     *
+     * @param upload The source document
+     * @param sourceMessageType The declared source type, or null; it must agree with the document
+     * @param targetMessageType The target type, or null for the default target of the source
+     * @return The queued job
+     * @throws RejectedExecutionException if the job queue is full
+     * @throws IllegalArgumentException if the route is not supported
+     * @throws IOException if the upload cannot be staged
+     */
+    TransformJob submit(InputStream upload, String sourceMessageType, String targetMessageType) throws IOException {
+        evictExpired();
+        if (isFull()) {
+            throw new RejectedExecutionException("Job queue is full");
+        }
+        // Detection only peeks at the leading bytes; the same stream is then staged
+        InputStream in = upload.markSupported() ? upload : new BufferedInputStream(upload);
+        String sourceType = sourceType(in, sourceMessageType);
+        String targetType = targetType(sourceType, targetMessageType);
+
+        String id = UUID.randomUUID().toString();
+        Path input = directory.resolve(id + ".in.xml");
+        Path result = directory.resolve(id + ".out.xml");
+        try {
+            long size = Files.copy(in, input);
+
+            TransformJob job = new TransformJob(id, sourceType, targetType, input, result, size, clock);
+            jobs.put(id, job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(id);
+                throw e;
+            }
+            logger.info("Queued job {}: {} -> {}, {} bytes", id, sourceType, targetType, size);
+            return job;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(input);
+            throw e;
+        }
+    }
+
+    /**
+     * Look up a job; a job whose retention has run out is evicted instead.
+     */
+    Optional<TransformJob> getJob(String id) {
+        TransformJob job = jobs.get(id);
+        if (job != null && isExpired(job, clock.instant())) {
+            evict(job);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Forget a finished job and delete its files.
+     *
+     * @return false if the job is unknown or still queued or running
+     */
+    boolean deleteJob(String id) throws IOException {
+        TransformJob job = jobs.get(id);
+        if (job == null || job.getState() == TransformJob.State.QUEUED || job.getState() == TransformJob.State.RUNNING) {
+            return false;
+        }
+        jobs.remove(id, job);
+        Files.deleteIfExists(job.getInput());
+        Files.deleteIfExists(job.getResult());
+        return true;
+    }
+
+    /**
+     * Forget every finished job whose retention has run out and delete its files.
+     */
+    void evictExpired() {
+        Instant now = clock.instant();
+        for (TransformJob job : jobs.values()) {
+            if (isExpired(job, now)) {
+                evict(job);
+            }
+        }
+    }
+
+    private boolean isExpired(TransformJob job, Instant now) {
+        Instant finishedAt = job.getFinishedAt();
+        return finishedAt != null && !now.isBefore(finishedAt.plus(retention));
+    }
+
+    private void evict(TransformJob job) {
+        if (!jobs.remove(job.getId(), job)) {
+            return;
+        }
+        logger.info("Job {} expired {} after it finished", job.getId(), retention);
+        try {
+            Files.deleteIfExists(job.getResult());
+        } catch (IOException e) {
+            logger.warn("Failed to delete result of expired job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private boolean isFull() {
+        return executor.getActiveCount() >= workers && executor.getQueue().remainingCapacity() == 0;
+    }
+
+    private void run(TransformJob job) {
+        job.started();
+        try (InputStream in = new CountingInputStream(
+                 new BufferedInputStream(Files.newInputStream(job.getInput()), 64 * 1024), job);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(job.getResult()), 64 * 1024)) {
+            long transactions = job.getSourceType().equals(JaxbContextRegistry.PAIN001_V12)
+                ? transformer.transformPain001ToPacs008(in, out, job::progress)
+                : transformer.transformPacs008ToPacs009(in, out, job::progress);
+            out.flush();
+            job.completed(transactions);
+            logger.info("Job {} completed: {} transactions", job.getId(), transactions);
+        } catch (Exception e) {
+            job.failed(e.getMessage());
+            logger.error("Job {} failed: {}", job.getId(), e.getMessage());
+            try {
+                Files.deleteIfExists(job.getResult());
+            } catch (IOException deleteFailure) {
+                logger.warn("Failed to delete partial result of job {}: {}", job.getId(), deleteFailure.getMessage());
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(job.getInput());
+            } catch (IOException e) {
+                logger.warn("Failed to delete staged input of job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read the versioned source type from the document's namespace. A declared type
+     * may narrow the check but cannot override the document.
+     */
+    private static String sourceType(InputStream in, String declaredType) throws IOException {
+        MessageTypeInfo detected = MessageTypeUtils.detectMessageType(in);
+        if (detected == null) {
+            throw new IllegalArgumentException("Unable to determine source message type from the document");
+        }
+        String sourceType = detected.getFullIdentifier();
+        if (declaredType != null && !declaredType.isBlank() && !matches(declaredType, sourceType)) {
+            throw new IllegalArgumentException("Declared source type " + declaredType.trim()
+                + " does not match the document: " + sourceType);
+        }
+        if (!ROUTES.containsKey(sourceType)) {
+            throw new IllegalArgumentException("Unsupported job source type: " + sourceType
+                + "; jobs accept " + JaxbContextRegistry.PAIN001_V12 + " and " + JaxbContextRegistry.PACS008_V13);
+        }
+        return sourceType;
+    }
+
+    /**
+     * Only routes with a streaming transformation can run as jobs.
+     */
+    private static String targetType(String sourceType, String requestedType) {
+        String targetType = ROUTES.get(sourceType);
+        if (requestedType != null && !requestedType.isBlank() && !matches(requestedType, targetType)) {
+            throw new IllegalArgumentException("Unsupported job route: " + sourceType + " -> " + requestedType.trim());
+        }
+        return targetType;
+    }
+
+    /**
+     * True if a message type given in a header names the versioned type, either in
+     * full or by its short identifier.
+     */
+    private static boolean matches(String messageType, String versionedType) {
+        MessageTypeInfo given = MessageTypeInfo.parse(messageType);
+        if (given != null) {
+            return given.getFullIdentifier().equals(versionedType);
+        }
+        MessageTypeInfo expected = MessageTypeInfo.parse(versionedType);
+        return expected.getMessageId().equals(MessageTypeUtils.normalize(messageType));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reports the bytes of staged input consumed, for the job's progress.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final TransformJob job;
+        private long count;
+
+        CountingInputStream(InputStream in, TransformJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.read(++count);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+                job.read(count);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            job.read(count);
+            return skipped;
+        }
+    }
+}
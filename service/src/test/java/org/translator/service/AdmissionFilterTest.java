@@ -0,0 +1,79 @@
+package org.translator.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionFilterTest {
+
+    @Test
+    public void shedsRequestsBeyondConcurrencyAndQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AdmissionFilter admission = new AdmissionFilter(1, 1, 7);
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", exchange -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, 2);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("ok".getBytes());
+            }
+        }).getFilters().add(admission);
+        server.setExecutor(executor);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getAddress().getPort() + "/slow")).build();
+
+            CompletableFuture<HttpResponse<String>> running = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            CompletableFuture<HttpResponse<String>> waiting = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (admission.getQueued() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, admission.getInFlight());
+            assertEquals(1, admission.getQueued());
+
+            HttpResponse<String> shed = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(503, shed.statusCode());
+            assertEquals("7", shed.headers().firstValue("Retry-After").orElse(null));
+            assertEquals(1, admission.getRejected());
+
+            release.countDown();
+            assertEquals(200, running.get(10, TimeUnit.SECONDS).statusCode());
+            assertEquals(200, waiting.get(10, TimeUnit.SECONDS).statusCode());
+            assertEquals(0, admission.getQueued());
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionFilter(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionFilter(1, -1, 1));
+    }
+}
@@ -0,0 +1,132 @@
+package org.translator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BatchTransformControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void ndjsonBatch_returnsOrderedResultsWithStatus() throws Exception {
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            String xml = i == 17 ? "<Document>not a payment" : SampleMessages.pacs008("BATCH-" + i);
+            batch.append(objectMapper.writeValueAsString(java.util.Map.of("id", "m" + i, "xml", xml))).append('\n');
+        }
+
+        List<JsonNode> results = post(batch.toString().getBytes(StandardCharsets.UTF_8), BatchTransformController.NDJSON_VALUE);
+
+        assertEquals(50, results.size());
+        for (int i = 0; i < 50; i++) {
+            JsonNode result = results.get(i);
+            assertEquals(i, result.get("index").asInt());
+            assertEquals("m" + i, result.get("id").asText());
+            if (i == 17) {
+                assertNotEquals(200, result.get("status").asInt());
+                assertTrue(result.has("error"));
+            } else {
+                assertEquals(200, result.get("status").asInt());
+                assertTrue(result.get("xml").asText().contains("BATCH-" + i));
+            }
+        }
+    }
+
+    @Test
+    public void lengthPrefixedBatch_reportsTruncatedInput() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(bytes);
+        for (int i = 0; i < 3; i++) {
+            byte[] xml = SampleMessages.pacs008("FRAME-" + i).getBytes(StandardCharsets.UTF_8);
+            frames.writeInt(xml.length);
+            frames.write(xml);
+        }
+        // A frame announcing more bytes than follow
+        frames.writeInt(1000);
+        frames.write(new byte[10]);
+
+        List<JsonNode> results = post(bytes.toByteArray(), MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        assertEquals(4, results.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, results.get(i).get("status").asInt());
+        }
+        assertEquals(400, results.get(3).get("status").asInt());
+        assertTrue(results.get(3).get("error").asText().startsWith("Malformed batch input"));
+    }
+
+    @Test
+    public void multipartBatch_acceptsPartsAboveServletDefaults() throws Exception {
+        // Larger than the 1MB per part Spring allows unless configured otherwise
+        String large = SampleMessages.pacs008("PART-LARGE", 20000);
+        assertTrue(large.length() > 1024 * 1024);
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("message", part("first.xml", SampleMessages.pacs008("PART-0")));
+        parts.add("message", part("broken.xml", "<Document>not a payment"));
+        parts.add("message", part("large.xml", large));
+
+        List<JsonNode> results = post(parts, MediaType.MULTIPART_FORM_DATA_VALUE);
+
+        assertEquals(3, results.size());
+        assertEquals("first.xml", results.get(0).get("id").asText());
+        assertEquals(200, results.get(0).get("status").asInt());
+        assertTrue(results.get(0).get("xml").asText().contains("PART-0"));
+        assertEquals("broken.xml", results.get(1).get("id").asText());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals("large.xml", results.get(2).get("id").asText());
+        assertEquals(200, results.get(2).get("status").asInt(), results.get(2).path("error").asText());
+        assertTrue(results.get(2).get("xml").asText().contains("PART-LARGE"));
+    }
+
+    private static HttpEntity<ByteArrayResource> part(String filename, String xml) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_XML);
+        headers.setContentDispositionFormData("message", filename);
+        return new HttpEntity<>(new ByteArrayResource(xml.getBytes(StandardCharsets.UTF_8)), headers);
+    }
+
+    private List<JsonNode> post(Object body, String contentType) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.set("X-Target-Message-Type", "pacs.009");
+        ResponseEntity<String> resp = restTemplate.postForEntity(
+            "http://localhost:" + port + "/transform-payment/batch", new HttpEntity<>(body, headers), String.class);
+        assertEquals(200, resp.getStatusCodeValue());
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : resp.getBody().split("\n")) {
+            if (!line.isBlank()) {
+                results.add(objectMapper.readTree(line));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,60 @@
+package org.translator.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.RouteValidation;
+import org.translator.mapper.ValidationMode;
+import org.translator.mapper.XmlOutputMode;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class DefaultMessageMappingDispatcherTest {
+
+    @Autowired
+    private DefaultMessageMappingDispatcher dispatcher;
+
+    @Test
+    public void fanOutMapsOneSourceToEveryTarget() throws Exception {
+        String sample = SampleMessages.pacs008("FANOUT-1");
+
+        Map<String, String> results = dispatcher.mapXml(sample, List.of("pacs.009", "pacs.002"), XmlOutputMode.COMPACT);
+
+        assertEquals(List.of("pacs.009", "pacs.002"), List.copyOf(results.keySet()));
+        // The shared parse produces the same output as a single-target mapping
+        assertEquals(dispatcher.mapXml(sample, "pacs.009", XmlOutputMode.COMPACT), results.get("pacs.009"));
+        assertTrue(results.get("pacs.002").contains("pacs.002.001.01"));
+    }
+
+    @Test
+    public void fanOutFailsWhenAnyTargetIsUnsupported() throws Exception {
+        assertThrows(UnsupportedOperationException.class,
+                () -> dispatcher.mapXml(SampleMessages.pacs008("FANOUT-1"), List.of("pacs.009", "camt.053"), XmlOutputMode.COMPACT));
+    }
+
+    @Test
+    public void fanOutReadsTheSharedSourceOnce() throws Exception {
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01, JaxbContextRegistry.PACS009_V01);
+        ValidationMode previous = route.getMode();
+        String sample = SampleMessages.pacs008("FANOUT-1");
+        try {
+            route.setMode(ValidationMode.OFF);
+            RouteValidation.Statistics before = route.getStatistics();
+            dispatcher.mapXml(sample, List.of("pacs.009", "pacs.009"), XmlOutputMode.COMPACT);
+            assertEquals(1, route.getStatistics().getSkipped() - before.getSkipped());
+
+            // The binding has no schema, so asking to validate it fails before any target is mapped
+            route.setMode(ValidationMode.FULL);
+            assertThrows(IllegalStateException.class,
+                    () -> dispatcher.mapXml(sample, List.of("pacs.009", "pacs.002"), XmlOutputMode.COMPACT));
+            assertEquals(0, route.getStatistics().getValidated() - before.getValidated());
+        } finally {
+            route.setMode(previous);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.translator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.PaymentMappingException;
+import org.translator.mapper.StreamingPaymentTransformer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobControllerIntegrationTest {
+
+    /**
+     * Held closed to keep jobs running after their first transaction.
+     */
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    /**
+     * Moved forward by the tests to expire finished jobs.
+     */
+    private static final TestClock clock = new TestClock();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransformJobService jobService;
+
+    /**
+     * One worker and one queued job, running through a transformer the tests can hold,
+     * with retention measured on the tests' clock.
+     */
+    @TestConfiguration
+    static class GatedJobs {
+        @Bean
+        @Primary
+        TransformJobService gatedTransformJobService() throws IOException {
+            return new TransformJobService(Files.createTempDirectory("translator-jobs-test"), 1, 1, RETENTION, clock,
+                new GatedTransformer());
+        }
+    }
+
+    static class GatedTransformer extends StreamingPaymentTransformer {
+        @Override
+        public long transformPacs008ToPacs009(InputStream in, OutputStream out, LongConsumer progress)
+                throws PaymentMappingException {
+            return super.transformPacs008ToPacs009(in, out, transactions -> {
+                progress.accept(transactions);
+                try {
+                    gate.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    static final class TestClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-05-10T08:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    public void submittedJobCompletesAndServesResult() throws Exception {
+        ResponseEntity<String> submitted = submit(SampleMessages.pacs008V13("JOB-1", 3), null);
+
+        assertEquals(202, submitted.getStatusCodeValue(), submitted.getBody());
+        String id = objectMapper.readTree(submitted.getBody()).get("id").asText();
+        assertEquals("/jobs/" + id, submitted.getHeaders().getLocation().toString());
+        assertEquals(JaxbContextRegistry.PACS008_V13, objectMapper.readTree(submitted.getBody()).get("sourceType").asText());
+
+        JsonNode status = awaitState(id, "COMPLETED");
+        assertEquals(3, status.get("transactions").asLong());
+        assertEquals(100.0, status.get("percentComplete").asDouble());
+        assertEquals("/jobs/" + id + "/result", status.get("result").asText());
+
+        ResponseEntity<String> result = restTemplate.getForEntity(url("/jobs/" + id + "/result"), String.class);
+        assertEquals(200, result.getStatusCodeValue());
+        org.translator.xsd.generated.pacs_009.Document document = JaxbContextRegistry.unmarshal(
+            JaxbContextRegistry.PACS009_V12, new javax.xml.transform.stream.StreamSource(new StringReader(result.getBody())));
+        assertEquals(3, document.getFICdtTrf().getCdtTrfTxInf().size());
+
+        assertEquals(204, delete(id).getStatusCodeValue());
+        assertEquals(404, restTemplate.getForEntity(url("/jobs/" + id), String.class).getStatusCodeValue());
+    }
+
+    @Test
+    public void unfinishedJobCannotBeDownloadedOrDeleted() throws Exception {
+        gate = new CountDownLatch(1);
+        String id;
+        try {
+            ResponseEntity<String> submitted = submit(SampleMessages.pacs008V13("JOB-2", 2), null);
+            assertEquals(202, submitted.getStatusCodeValue(), submitted.getBody());
+            id = objectMapper.readTree(submitted.getBody()).get("id").asText();
+
+            // Held after its first transaction, so progress and an estimate are known
+            JsonNode status = awaitStatus(id, running -> running.get("transactions").asLong() == 1);
+            assertEquals("RUNNING", status.get("state").asText());
+            assertTrue(status.get("percentComplete").asDouble() > 0);
+            assertTrue(status.has("etaSeconds"), status.toString());
+
+            assertEquals(409, restTemplate.getForEntity(url("/jobs/" + id + "/result"), String.class).getStatusCodeValue());
+            assertEquals(409, delete(id).getStatusCodeValue());
+        } finally {
+            gate.countDown();
+        }
+
+        awaitState(id, "COMPLETED");
+        assertEquals(204, delete(id).getStatusCodeValue());
+    }
+
+    @Test
+    public void fullQueueRefusesUploads() throws Exception {
+        gate = new CountDownLatch(1);
+        String running;
+        String queued;
+        try {
+            running = objectMapper.readTree(submit(SampleMessages.pacs008V13("JOB-3", 1), null).getBody()).get("id").asText();
+            awaitState(running, "RUNNING");
+            ResponseEntity<String> second = submit(SampleMessages.pacs008V13("JOB-4", 1), null);
+            assertEquals(202, second.getStatusCodeValue(), second.getBody());
+            queued = objectMapper.readTree(second.getBody()).get("id").asText();
+
+            ResponseEntity<String> refused = submit(SampleMessages.pacs008V13("JOB-5", 1), null);
+            assertEquals(503, refused.getStatusCodeValue());
+            assertEquals("60", refused.getHeaders().getFirst("Retry-After"));
+        } finally {
+            gate.countDown();
+        }
+
+        awaitState(running, "COMPLETED");
+        awaitState(queued, "COMPLETED");
+        assertEquals(204, delete(running).getStatusCodeValue());
+        assertEquals(204, delete(queued).getStatusCodeValue());
+    }
+
+    @Test
+    public void expiredJobsAreForgotten() throws Exception {
+        String id = objectMapper.readTree(submit(SampleMessages.pacs008V13("JOB-7", 1), null).getBody()).get("id").asText();
+        awaitState(id, "COMPLETED");
+        Path result = jobService.getJob(id).orElseThrow().getResult();
+        assertTrue(Files.exists(result));
+
+        clock.advance(RETENTION.minusSeconds(1));
+        assertEquals(200, restTemplate.getForEntity(url("/jobs/" + id), String.class).getStatusCodeValue());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(404, restTemplate.getForEntity(url("/jobs/" + id), String.class).getStatusCodeValue());
+        assertEquals(404, restTemplate.getForEntity(url("/jobs/" + id + "/result"), String.class).getStatusCodeValue());
+        assertFalse(Files.exists(result));
+    }
+
+    @Test
+    public void unsupportedVersionsAndRoutesAreRejected() throws Exception {
+        // The streaming route binds pacs.008.001.13; older versions must not reach it
+        ResponseEntity<String> oldVersion = submit(SampleMessages.pacs008("JOB-V01"), null);
+        assertEquals(400, oldVersion.getStatusCodeValue());
+        assertTrue(oldVersion.getBody().contains("pacs.008.001.01"), oldVersion.getBody());
+
+        ResponseEntity<String> wrongTarget = submit(SampleMessages.pacs008V13("JOB-6", 1), "pacs.002");
+        assertEquals(400, wrongTarget.getStatusCodeValue());
+    }
+
+    private ResponseEntity<String> submit(String xml, String targetMessageType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_XML);
+        if (targetMessageType != null) {
+            headers.set("X-Target-Message-Type", targetMessageType);
+        }
+        return restTemplate.postForEntity(url("/jobs"),
+            new HttpEntity<>(xml.getBytes(StandardCharsets.UTF_8), headers), String.class);
+    }
+
+    private ResponseEntity<String> delete(String id) {
+        return restTemplate.exchange(url("/jobs/" + id), HttpMethod.DELETE, null, String.class);
+    }
+
+    private JsonNode awaitState(String id, String state) throws Exception {
+        return awaitStatus(id, status -> state.equals(status.get("state").asText()));
+    }
+
+    private JsonNode awaitStatus(String id, Predicate<JsonNode> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            JsonNode status = objectMapper.readTree(restTemplate.getForEntity(url("/jobs/" + id), String.class).getBody());
+            if (condition.test(status)) {
+                return status;
+            }
+            assertNotEquals("FAILED", status.get("state").asText(), status.toString());
+            assertTrue(System.nanoTime() < deadline, "Job status not reached: " + status);
+            Thread.sleep(20);
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
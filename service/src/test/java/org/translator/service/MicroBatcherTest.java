@@ -0,0 +1,125 @@
+package org.translator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MicroBatcherTest {
+
+    @Test
+    public void coalescesConcurrentRequestsAndAnswersEachCaller() throws Exception {
+        CountDownLatch firstBatch = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new ArrayList<>();
+        MicroBatcher.BatchProcessor<Integer, String> processor = batch -> {
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            firstBatch.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batch.forEach(request -> request.result().complete("out-" + request.input()));
+        };
+
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try (MicroBatcher<Integer, String> batcher = new MicroBatcher<>("test-batch", 1, 64,
+                TimeUnit.MILLISECONDS.toNanos(1), 1024, processor)) {
+            // The first request holds the only worker while the rest queue behind it
+            Future<String> first = callers.submit(() -> batcher.submit(0));
+            assertTrue(firstBatch.await(10, TimeUnit.SECONDS));
+            List<Future<String>> rest = new ArrayList<>();
+            for (int i = 1; i <= 15; i++) {
+                int input = i;
+                rest.add(callers.submit(() -> batcher.submit(input)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals("out-0", first.get(10, TimeUnit.SECONDS));
+            for (int i = 0; i < rest.size(); i++) {
+                assertEquals("out-" + (i + 1), rest.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(16, batcher.getRequestCount());
+            assertEquals(2, batcher.getBatchCount());
+            assertEquals(List.of(1, 15), batchSizes);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failsOnlyTheRequestThatFailed() throws Exception {
+        MicroBatcher.BatchProcessor<Integer, Integer> processor = batch -> batch.forEach(request -> {
+            if (request.input() < 0) {
+                request.result().completeExceptionally(new IllegalArgumentException("negative: " + request.input()));
+            } else {
+                request.result().complete(request.input() * 2);
+            }
+        });
+
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batch", 2, 8,
+                TimeUnit.MILLISECONDS.toNanos(1), 64, processor)) {
+            assertEquals(4, batcher.submit(2));
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> batcher.submit(-1));
+            assertEquals("negative: -1", e.getMessage());
+            assertEquals(6, batcher.submit(3));
+        }
+    }
+
+    @Test
+    public void closesTheWindowWhenRequestsArriveAlone() throws Exception {
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batch", 1, 64,
+                TimeUnit.MILLISECONDS.toNanos(1), 64,
+                batch -> batch.forEach(request -> request.result().complete(request.input())))) {
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, batcher.submit(i));
+            }
+            assertEquals(0, batcher.getWaitNanos());
+            assertEquals(20, batcher.getBatchCount());
+        }
+    }
+
+    @Test
+    public void answersRequestsSubmittedWhileClosing() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batch", 2, 8, 0, 64,
+                    batch -> batch.forEach(request -> request.result().complete(request.input())));
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    int input = i;
+                    results.add(callers.submit(() -> batcher.submit(input)));
+                    if (i == 100) {
+                        callers.submit(batcher::close);
+                    }
+                }
+                // Whether queued before or after close drained the queue, every caller is answered
+                for (int i = 0; i < results.size(); i++) {
+                    assertEquals(i, results.get(i).get(10, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void answersRequestsTheProcessorSkipped() throws Exception {
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test-batch", 1, 8, 0, 8, batch -> {
+        })) {
+            assertThrows(IllegalStateException.class, () -> batcher.submit(1));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.translator.service;
+
+import org.junit.jupiter.api.Test;
+import org.translator.mapper.XmlOutputMode;
+
+import jakarta.xml.bind.JAXBException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Pacs008ToPacs009BatchingTest {
+
+    private static final String INVALID = "<Document>not a payment";
+
+    private final Pacs008ToPacs009Adapter unbatched =
+        new Pacs008ToPacs009Adapter(new Pacs008ToPacs009Batching(false, 64, 1000, 0));
+
+    @Test
+    public void batchMatchesUnbatchedOutputForEveryLayout() throws Exception {
+        List<MicroBatcher.Request<Pacs008ToPacs009Batching.Input, byte[]>> batch = new ArrayList<>();
+        batch.add(request(SampleMessages.pacs008("BATCH-1"), XmlOutputMode.COMPACT));
+        batch.add(request(SampleMessages.pacs008("BATCH-2"), XmlOutputMode.INDENTED));
+        batch.add(request(INVALID, XmlOutputMode.INDENTED));
+        batch.add(request(SampleMessages.pacs008("BATCH-3"), XmlOutputMode.COMPACT));
+        batch.add(request(SampleMessages.pacs008("BATCH-4"), XmlOutputMode.indented(4)));
+
+        Pacs008ToPacs009Batching.processBatch(batch);
+
+        for (MicroBatcher.Request<Pacs008ToPacs009Batching.Input, byte[]> request : batch) {
+            if (new String(request.input().xml(), StandardCharsets.UTF_8).equals(INVALID)) {
+                // The bad message fails on its own; the messages after it are unaffected
+                ExecutionException e = assertThrows(ExecutionException.class, () -> request.result().get());
+                assertInstanceOf(JAXBException.class, e.getCause());
+                continue;
+            }
+            assertArrayEquals(unbatched(request.input().xml(), request.input().outputMode()), request.result().get());
+        }
+    }
+
+    @Test
+    public void adapterRoutesThroughTheBatcherWhenEnabled() throws Exception {
+        Pacs008ToPacs009Batching batching = new Pacs008ToPacs009Batching(true, 8, 1000, 2);
+        Pacs008ToPacs009Adapter adapter = new Pacs008ToPacs009Adapter(batching);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<String> sources = new ArrayList<>();
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String source = i % 8 == 5 ? INVALID : SampleMessages.pacs008("ADAPTER-" + i);
+                XmlOutputMode mode = i % 2 == 0 ? XmlOutputMode.COMPACT : XmlOutputMode.INDENTED;
+                sources.add(source);
+                results.add(callers.submit(() -> adapter.map(source, mode)));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                XmlOutputMode mode = i % 2 == 0 ? XmlOutputMode.COMPACT : XmlOutputMode.INDENTED;
+                Future<String> result = results.get(i);
+                if (sources.get(i).equals(INVALID)) {
+                    ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                    assertInstanceOf(JAXBException.class, e.getCause());
+                } else {
+                    byte[] expected = unbatched(sources.get(i).getBytes(StandardCharsets.UTF_8), mode);
+                    assertEquals(new String(expected, StandardCharsets.UTF_8), result.get(10, TimeUnit.SECONDS));
+                }
+            }
+
+            // The streaming entry point takes the same path
+            byte[] source = SampleMessages.pacs008("ADAPTER-STREAM").getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            adapter.map(new ByteArrayInputStream(source), out, XmlOutputMode.INDENTED);
+            assertArrayEquals(unbatched(source, XmlOutputMode.INDENTED), out.toByteArray());
+        } finally {
+            callers.shutdownNow();
+            batching.close();
+        }
+    }
+
+    private byte[] unbatched(byte[] source, XmlOutputMode mode) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        unbatched.map(new ByteArrayInputStream(source), out, mode);
+        return out.toByteArray();
+    }
+
+    private static MicroBatcher.Request<Pacs008ToPacs009Batching.Input, byte[]> request(String xml, XmlOutputMode mode) {
+        return new MicroBatcher.Request<>(new Pacs008ToPacs009Batching.Input(xml.getBytes(StandardCharsets.UTF_8), mode),
+            new CompletableFuture<>());
+    }
+}
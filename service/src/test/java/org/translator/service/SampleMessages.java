@@ -0,0 +1,76 @@
+package org.translator.service;
+
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.XmlOutputMode;
+
+import java.io.StringWriter;
+
+/**
+ * Sample messages shared by the service tests.
+ */
+final class SampleMessages {
+
+    private SampleMessages() {
+    }
+
+    /**
+     * A minimal pacs.008.001.01 document with one transaction, marshalled compactly
+     * through the Prowide binding the service reads it with.
+     *
+     * @param msgId The group header message id; the transaction's end-to-end id is derived from it
+     */
+    static String pacs008(String msgId) throws Exception {
+        return pacs008(msgId, 1);
+    }
+
+    /**
+     * A pacs.008.001.01 document with the given number of transactions; the first
+     * transaction's end-to-end id is the same as in {@link #pacs008(String)}.
+     */
+    static String pacs008(String msgId, int transactions) throws Exception {
+        com.prowidesoftware.swift.model.mx.dic.Pacs00800101 src = new com.prowidesoftware.swift.model.mx.dic.Pacs00800101();
+        com.prowidesoftware.swift.model.mx.dic.GroupHeader2 gh = new com.prowidesoftware.swift.model.mx.dic.GroupHeader2();
+        gh.setMsgId(msgId);
+        gh.setCreDtTm(java.time.OffsetDateTime.now());
+        gh.setNbOfTxs(String.valueOf(transactions));
+        src.setGrpHdr(gh);
+
+        for (int i = 0; i < transactions; i++) {
+            com.prowidesoftware.swift.model.mx.dic.CreditTransferTransactionInformation2 tx = new com.prowidesoftware.swift.model.mx.dic.CreditTransferTransactionInformation2();
+            com.prowidesoftware.swift.model.mx.dic.PaymentIdentification2 pid = new com.prowidesoftware.swift.model.mx.dic.PaymentIdentification2();
+            pid.setEndToEndId(i == 0 ? msgId + "-E2E" : msgId + "-E2E-" + i);
+            tx.setPmtId(pid);
+            src.getCdtTrfTxInf().add(tx);
+        }
+
+        StringWriter sw = new StringWriter();
+        JaxbContextRegistry.marshal(JaxbContextRegistry.PACS008_V01, src, sw, XmlOutputMode.COMPACT);
+        return sw.toString();
+    }
+
+    /**
+     * A pacs.008.001.13 document, the version the streaming job route reads.
+     *
+     * @param msgId The group header message id; transaction end-to-end ids are derived from it
+     * @param transactions The number of credit transfer transactions
+     */
+    static String pacs008V13(String msgId, int transactions) {
+        StringBuilder xml = new StringBuilder()
+            .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+            .append("<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.008.001.13\"><FIToFICstmrCdtTrf>")
+            .append("<GrpHdr><MsgId>").append(msgId).append("</MsgId>")
+            .append("<CreDtTm>2024-05-10T08:11:00Z</CreDtTm>")
+            .append("<NbOfTxs>").append(transactions).append("</NbOfTxs>")
+            .append("<SttlmInf><SttlmMtd>CLRG</SttlmMtd></SttlmInf></GrpHdr>");
+        for (int i = 0; i < transactions; i++) {
+            xml.append("<CdtTrfTxInf><PmtId><EndToEndId>").append(msgId).append("-E2E-").append(i)
+                .append("</EndToEndId></PmtId>")
+                .append("<IntrBkSttlmAmt Ccy=\"EUR\">125.50</IntrBkSttlmAmt><ChrgBr>SLEV</ChrgBr>")
+                .append("<Dbtr><Nm>Debtor Name</Nm></Dbtr>")
+                .append("<DbtrAgt><FinInstnId><BICFI>DEUTDEFFXXX</BICFI></FinInstnId></DbtrAgt>")
+                .append("<CdtrAgt><FinInstnId><BICFI>BNPAFRPPXXX</BICFI></FinInstnId></CdtrAgt>")
+                .append("<Cdtr><Nm>Creditor Name</Nm></Cdtr></CdtTrfTxInf>");
+        }
+        return xml.append("</FIToFICstmrCdtTrf></Document>").toString();
+    }
+}
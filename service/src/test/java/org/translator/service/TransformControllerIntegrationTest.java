@@ -9,6 +9,9 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.translator.mapper.JaxbContextRegistry;
+import org.translator.mapper.RouteValidation;
+import org.translator.mapper.ValidationMode;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
@@ -84,4 +87,74 @@ public class TransformControllerIntegrationTest {
         // basic sanity: mapped document should have group header or transactions (at least one should exist)
         assertTrue(out.getGrpHdr() != null || (out.getCdtTrfTxInf() != null && !out.getCdtTrfTxInf().isEmpty()), "Expected grpHdr or transactions in mapped Pacs009");
     }
+
+    @Test
+    public void fullValidationWithoutSchemaFailsLoudly() throws Exception {
+        // No ISO schema ships for the Prowide pacs.008.001.01 binding, so a validating route must not pass documents
+        RouteValidation route = RouteValidation.forRoute(JaxbContextRegistry.PACS008_V01, JaxbContextRegistry.PACS009_V01);
+        ValidationMode previous = route.getMode();
+        route.setMode(ValidationMode.FULL);
+        try {
+            RouteValidation.Statistics before = route.getStatistics();
+
+            ResponseEntity<String> refused = post(SampleMessages.pacs008("VALIDATE-1"));
+            assertEquals(500, refused.getStatusCodeValue());
+            assertTrue(refused.getBody().contains("no XSD schema"), refused.getBody());
+
+            RouteValidation.Statistics after = route.getStatistics();
+            assertEquals(0, after.getValidated() - before.getValidated());
+            assertEquals(0, after.getFailed() - before.getFailed());
+        } finally {
+            route.setMode(previous);
+        }
+    }
+
+    @Test
+    public void malformedXml_returnsBadRequest() {
+        String truncated = "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.008.001.01\"><GrpHdr><MsgId>BROKEN";
+
+        ResponseEntity<String> resp = post(truncated);
+
+        assertEquals(400, resp.getStatusCodeValue());
+        assertTrue(resp.getBody().startsWith("Invalid XML"), resp.getBody());
+    }
+
+    @Test
+    public void unsupportedTarget_returnsBadRequest() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_XML);
+        headers.set("X-Target-Message-Type", "camt.053");
+
+        ResponseEntity<String> resp = restTemplate.postForEntity("http://localhost:" + port + "/transform-payment",
+            new HttpEntity<>(SampleMessages.pacs008("UNSUPPORTED-1"), headers), String.class);
+
+        assertEquals(400, resp.getStatusCodeValue());
+        assertTrue(resp.getBody().startsWith("Unsupported transformation"), resp.getBody());
+    }
+
+    @Test
+    public void largePacs008_streamsBackPacs009() throws Exception {
+        int transactions = 5000;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_XML);
+        headers.set("X-Output-Format", "COMPACT");
+        byte[] body = SampleMessages.pacs008("LARGE-1", transactions).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        ResponseEntity<byte[]> resp = restTemplate.postForEntity("http://localhost:" + port + "/transform-payment",
+            new HttpEntity<>(body, headers), byte[].class);
+
+        assertEquals(200, resp.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_XML, resp.getHeaders().getContentType());
+        Unmarshaller u = JAXBContext.newInstance(Pacs00900101.class).createUnmarshaller();
+        Pacs00900101 out = u.unmarshal(new javax.xml.transform.stream.StreamSource(
+            new java.io.ByteArrayInputStream(resp.getBody())), Pacs00900101.class).getValue();
+        assertEquals(transactions, out.getCdtTrfTxInf().size());
+    }
+
+    private ResponseEntity<String> post(String xml) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_XML);
+        return restTemplate.postForEntity("http://localhost:" + port + "/transform-payment",
+            new HttpEntity<>(xml, headers), String.class);
+    }
 }